@@ -0,0 +1,439 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.builder;
+
+import org.agrona.DirectBuffer;
+import org.agrona.collections.IntArrayList;
+import uk.co.real_logic.artio.fields.DecimalFloat;
+import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static uk.co.real_logic.artio.fields.UtcTimestampEncoder.LENGTH_WITHOUT_MILLISECONDS;
+import static uk.co.real_logic.artio.util.MutableAsciiBuffer.SEPARATOR;
+
+/**
+ * A FIX message that is encoded once and then re-sent with only a few of its field values changed.
+ * <p>
+ * Slots are declared for the tags whose values vary from message to message, eg: price, quantity, ClOrdID,
+ * MsgSeqNum and SendingTime. {@link #encode(Encoder)} then encodes the message from a normal generated encoder,
+ * widening or narrowing each slotted value to its declared width. Since slots never change width, sending a
+ * message only requires writing the slot values in place and recomputing the checksum in {@link #finish()}: the
+ * BodyLength and the rest of the message are untouched.
+ * <p>
+ * Numeric values are right aligned and padded with leading zeros to fill their slot, which the FIX int and float
+ * types permit. String and byte values must exactly fill their slot. Only the first occurrence of a tag within the
+ * message can be slotted, and messages that contain data fields holding the SOH separator aren't supported.
+ * <p>
+ * Templates are not thread safe.
+ */
+public final class MessageTemplate
+{
+    public static final int NO_SLOT = -1;
+
+    private static final int CHECKSUM_FIELD_LENGTH = "10=000\001".length();
+    private static final int CHECKSUM_VALUE_LENGTH = 3;
+    private static final int BODY_LENGTH_FIELD_MAX_LENGTH = "9=".length() + 10 + 1;
+    private static final int SCRATCH_NUMBER_LENGTH = 64;
+
+    private static final byte[] CHECKSUM_FIELD_PREFIX = { '1', '0', '=' };
+    private static final byte[] BODY_LENGTH_FIELD_PREFIX = { '9', '=' };
+
+    private final IntArrayList slotTags = new IntArrayList();
+    private final IntArrayList slotWidths = new IntArrayList();
+    private final IntArrayList slotOffsets = new IntArrayList();
+
+    private final MutableAsciiBuffer buffer;
+    private final MutableAsciiBuffer encodeBuffer;
+    private final MutableAsciiBuffer numberBuffer = new MutableAsciiBuffer(new byte[SCRATCH_NUMBER_LENGTH]);
+
+    private boolean encoded;
+    private int messageType;
+    private int messageOffset;
+    private int messageLength;
+    private int checksumOffset;
+    private int baseChecksum;
+
+    /**
+     * Create a template.
+     *
+     * @param capacity the maximum length of the encoded message.
+     */
+    public MessageTemplate(final int capacity)
+    {
+        buffer = new MutableAsciiBuffer(new byte[capacity]);
+        encodeBuffer = new MutableAsciiBuffer(new byte[capacity]);
+    }
+
+    /**
+     * Declare a slot for a tag whose value varies between messages. The template must be (re-)encoded after
+     * a slot is added.
+     *
+     * @param tag the tag number of the field.
+     * @param width the number of characters to reserve for the value of the field.
+     * @return the slot number, used when writing values into the slot.
+     * @throws IllegalArgumentException if the width isn't positive or the tag already has a slot.
+     */
+    public int addSlot(final int tag, final int width)
+    {
+        if (width <= 0)
+        {
+            throw new IllegalArgumentException("Invalid width " + width + " for tag " + tag);
+        }
+
+        if (slot(tag) != NO_SLOT)
+        {
+            throw new IllegalArgumentException("Tag " + tag + " already has a slot");
+        }
+
+        slotTags.addInt(tag);
+        slotWidths.addInt(width);
+        slotOffsets.addInt(NO_SLOT);
+        encoded = false;
+
+        return slotTags.size() - 1;
+    }
+
+    /**
+     * Find the slot of a tag.
+     *
+     * @param tag the tag number of the field.
+     * @return the slot number or {@link #NO_SLOT} if the tag hasn't been given a slot.
+     */
+    public int slot(final int tag)
+    {
+        final IntArrayList slotTags = this.slotTags;
+        final int size = slotTags.size();
+        for (int i = 0; i < size; i++)
+        {
+            if (slotTags.getInt(i) == tag)
+            {
+                return i;
+            }
+        }
+
+        return NO_SLOT;
+    }
+
+    public int width(final int slot)
+    {
+        return slotWidths.getInt(slot);
+    }
+
+    /**
+     * Encode the constant parts of the message. Every slotted tag must have a value set on the encoder so that
+     * its position in the message is known, this value is left in the slot until it is overwritten.
+     *
+     * @param encoder the encoder for the message, with all the fields of the message set.
+     * @throws IllegalArgumentException if a slotted tag isn't present in the encoded message or its value is wider
+     *                                  than its slot.
+     */
+    public void encode(final Encoder encoder)
+    {
+        encoded = false;
+
+        final MutableAsciiBuffer encodeBuffer = this.encodeBuffer;
+        final MutableAsciiBuffer buffer = this.buffer;
+        final IntArrayList slotOffsets = this.slotOffsets;
+
+        final int slotCount = slotOffsets.size();
+        for (int i = 0; i < slotCount; i++)
+        {
+            slotOffsets.setInt(i, NO_SLOT);
+        }
+
+        final long result = encoder.encode(encodeBuffer, 0);
+        final int encodedOffset = Encoder.offset(result);
+        final int encodedEnd = encodedOffset + Encoder.length(result);
+        final int encodedBodyEnd = encodedEnd - CHECKSUM_FIELD_LENGTH;
+
+        final int beginStringEnd = encodeBuffer.scan(encodedOffset, encodedBodyEnd, SEPARATOR) + 1;
+        final int beginStringLength = beginStringEnd - encodedOffset;
+        final int encodedBodyStart = encodeBuffer.scan(beginStringEnd, encodedBodyEnd, SEPARATOR) + 1;
+
+        // Copy the body across field by field, so that slotted values can be resized.
+        final int bodyStart = beginStringLength + BODY_LENGTH_FIELD_MAX_LENGTH;
+        int position = bodyStart;
+        int fieldStart = encodedBodyStart;
+        while (fieldStart < encodedBodyEnd)
+        {
+            final int equalsIndex = encodeBuffer.scan(fieldStart, encodedBodyEnd, '=');
+            final int valueStart = equalsIndex + 1;
+            final int separatorIndex = encodeBuffer.scan(valueStart, encodedBodyEnd, SEPARATOR);
+            final int tag = encodeBuffer.getNatural(fieldStart, equalsIndex);
+
+            final int slot = slot(tag);
+            if (slot != NO_SLOT && slotOffsets.getInt(slot) == NO_SLOT)
+            {
+                final int width = slotWidths.getInt(slot);
+                final int valueLength = separatorIndex - valueStart;
+                if (valueLength > width)
+                {
+                    throw new IllegalArgumentException(
+                        "Value of tag " + tag + " is " + valueLength + " long, wider than its slot of " + width);
+                }
+
+                final int prefixLength = valueStart - fieldStart;
+                buffer.putBytes(position, encodeBuffer, fieldStart, prefixLength);
+                position += prefixLength;
+
+                final int padding = width - valueLength;
+                buffer.setMemory(position, padding, (byte)'0');
+                buffer.putBytes(position + padding, encodeBuffer, valueStart, valueLength);
+                slotOffsets.setInt(slot, position);
+                position += width;
+
+                buffer.putSeparator(position);
+                position++;
+            }
+            else
+            {
+                final int fieldLength = separatorIndex + 1 - fieldStart;
+                buffer.putBytes(position, encodeBuffer, fieldStart, fieldLength);
+                position += fieldLength;
+            }
+
+            fieldStart = separatorIndex + 1;
+        }
+
+        for (int i = 0; i < slotCount; i++)
+        {
+            if (slotOffsets.getInt(i) == NO_SLOT)
+            {
+                throw new IllegalArgumentException("Tag " + slotTags.getInt(i) + " isn't present in the message");
+            }
+        }
+
+        // Write the BodyLength backwards from the start of the body, then the BeginString in front of it.
+        final int bodyLength = position - bodyStart;
+        buffer.putSeparator(bodyStart - 1);
+        int start = buffer.putNaturalIntAsciiFromEnd(bodyLength, bodyStart - 1);
+        start -= BODY_LENGTH_FIELD_PREFIX.length;
+        buffer.putBytes(start, BODY_LENGTH_FIELD_PREFIX);
+        start -= beginStringLength;
+        buffer.putBytes(start, encodeBuffer, encodedOffset, beginStringLength);
+
+        buffer.putBytes(position, CHECKSUM_FIELD_PREFIX);
+        checksumOffset = position + CHECKSUM_FIELD_PREFIX.length;
+        buffer.putNaturalPaddedIntAscii(checksumOffset, CHECKSUM_VALUE_LENGTH, 0);
+        buffer.putSeparator(checksumOffset + CHECKSUM_VALUE_LENGTH);
+
+        int checksum = buffer.computeChecksum(start, position);
+        for (int i = 0; i < slotCount; i++)
+        {
+            final int slotOffset = slotOffsets.getInt(i);
+            checksum -= buffer.computeChecksum(slotOffset, slotOffset + slotWidths.getInt(i));
+        }
+
+        baseChecksum = checksum;
+        messageOffset = start;
+        messageLength = position + CHECKSUM_FIELD_LENGTH - start;
+        messageType = encoder.messageType();
+        encoded = true;
+    }
+
+    /**
+     * Write an integer into a slot, padded with leading zeros.
+     *
+     * @param slot the slot to write the value into.
+     * @param value the value to write.
+     * @throws IllegalArgumentException if the value is too wide for the slot.
+     */
+    public void putInt(final int slot, final int value)
+    {
+        final int offset = slotOffset(slot);
+        final int width = slotWidths.getInt(slot);
+        if (value >= 0)
+        {
+            buffer.putNaturalPaddedIntAscii(offset, width, value);
+        }
+        else
+        {
+            if (value == Integer.MIN_VALUE || width < 2)
+            {
+                throw new IllegalArgumentException(value + " is too wide for a slot of " + width);
+            }
+
+            buffer.putByte(offset, (byte)'-');
+            buffer.putNaturalPaddedIntAscii(offset + 1, width - 1, -value);
+        }
+    }
+
+    /**
+     * Write a float into a slot, padded with leading zeros.
+     *
+     * @param slot the slot to write the value into.
+     * @param value the value of the float to write - see {@link DecimalFloat} for details.
+     * @param scale the scale of the float to write - see {@link DecimalFloat} for details.
+     * @throws IllegalArgumentException if the value is too wide for the slot.
+     */
+    public void putFloat(final int slot, final long value, final int scale)
+    {
+        final int offset = slotOffset(slot);
+        final int width = slotWidths.getInt(slot);
+        final MutableAsciiBuffer numberBuffer = this.numberBuffer;
+        final int length = numberBuffer.putFloatAscii(0, value, scale);
+        if (length > width)
+        {
+            throw new IllegalArgumentException(
+                numberBuffer.getAscii(0, length) + " is too wide for a slot of " + width);
+        }
+
+        final int sign = value < 0 ? 1 : 0;
+        final int padding = width - length;
+        buffer.putBytes(offset + padding + sign, numberBuffer, sign, length - sign);
+        buffer.setMemory(offset + sign, padding, (byte)'0');
+        if (sign == 1)
+        {
+            buffer.putByte(offset, (byte)'-');
+        }
+    }
+
+    public void putFloat(final int slot, final DecimalFloat value)
+    {
+        putFloat(slot, value.value(), value.scale());
+    }
+
+    /**
+     * Write a string into a slot.
+     *
+     * @param slot the slot to write the value into.
+     * @param value the value to write, which must have exactly the width of the slot.
+     * @throws IllegalArgumentException if the value doesn't have the width of the slot.
+     */
+    public void putAscii(final int slot, final CharSequence value)
+    {
+        final int offset = slotOffset(slot);
+        final int width = checkWidth(slot, value.length());
+        final MutableAsciiBuffer buffer = this.buffer;
+        for (int i = 0; i < width; i++)
+        {
+            buffer.putByte(offset + i, (byte)value.charAt(i));
+        }
+    }
+
+    /**
+     * Write bytes into a slot.
+     *
+     * @param slot the slot to write the value into.
+     * @param value the buffer holding the value.
+     * @param offset the offset within value that the value starts at.
+     * @param length the length of the value, which must be exactly the width of the slot.
+     * @throws IllegalArgumentException if the value doesn't have the width of the slot.
+     */
+    public void putBytes(final int slot, final DirectBuffer value, final int offset, final int length)
+    {
+        buffer.putBytes(slotOffset(slot), value, offset, checkWidth(slot, length));
+    }
+
+    public void putBytes(final int slot, final byte[] value, final int offset, final int length)
+    {
+        buffer.putBytes(slotOffset(slot), value, offset, checkWidth(slot, length));
+    }
+
+    /**
+     * Write a UTCTimestamp into a slot, as encoded by a {@link UtcTimestampEncoder}. A timestamp that was encoded
+     * without a fraction of a second is given a zero fraction that fills the slot.
+     *
+     * @param slot the slot to write the value into.
+     * @param timestamp the bytes of the encoded timestamp, eg: {@link UtcTimestampEncoder#buffer()}.
+     * @param length the length of the encoded timestamp.
+     * @throws IllegalArgumentException if the timestamp doesn't fit the width of the slot.
+     */
+    public void putTimestamp(final int slot, final byte[] timestamp, final int length)
+    {
+        final int offset = slotOffset(slot);
+        final int width = slotWidths.getInt(slot);
+        if (length == LENGTH_WITHOUT_MILLISECONDS && width > length + 1)
+        {
+            buffer.putBytes(offset, timestamp, 0, length);
+            buffer.putByte(offset + length, (byte)'.');
+            buffer.setMemory(offset + length + 1, width - length - 1, (byte)'0');
+        }
+        else
+        {
+            buffer.putBytes(offset, timestamp, 0, checkWidth(slot, length));
+        }
+    }
+
+    /**
+     * Complete the message once all its slots have been written by computing its checksum.
+     *
+     * @return the offset and length of the message within {@link #buffer()} packed into a long, in the same way as
+     * {@link Encoder#encode(MutableAsciiBuffer, int)}.
+     * @throws IllegalStateException if the template hasn't been encoded since its last slot was added.
+     */
+    public long finish()
+    {
+        checkEncoded();
+
+        final MutableAsciiBuffer buffer = this.buffer;
+        final IntArrayList slotOffsets = this.slotOffsets;
+        final IntArrayList slotWidths = this.slotWidths;
+
+        int checksum = baseChecksum;
+        final int slotCount = slotOffsets.size();
+        for (int i = 0; i < slotCount; i++)
+        {
+            final int slotOffset = slotOffsets.getInt(i);
+            checksum += buffer.computeChecksum(slotOffset, slotOffset + slotWidths.getInt(i));
+        }
+
+        buffer.putNaturalPaddedIntAscii(checksumOffset, CHECKSUM_VALUE_LENGTH, checksum & 0xFF);
+
+        return Encoder.result(messageLength, messageOffset);
+    }
+
+    public MutableAsciiBuffer buffer()
+    {
+        return buffer;
+    }
+
+    public int messageType()
+    {
+        return messageType;
+    }
+
+    public boolean isEncoded()
+    {
+        return encoded;
+    }
+
+    private int slotOffset(final int slot)
+    {
+        checkEncoded();
+
+        return slotOffsets.getInt(slot);
+    }
+
+    private int checkWidth(final int slot, final int length)
+    {
+        final int width = slotWidths.getInt(slot);
+        if (length != width)
+        {
+            throw new IllegalArgumentException("Value of length " + length + " doesn't fill a slot of " + width);
+        }
+
+        return width;
+    }
+
+    private void checkEncoded()
+    {
+        if (!encoded)
+        {
+            throw new IllegalStateException("Template must be encoded after its slots are added");
+        }
+    }
+}
@@ -68,7 +68,8 @@ public final class CodecGenerationTool
             encoderOutput,
             Validation.class,
             RejectUnknownField.class,
-            RejectUnknownEnumValue.class);
+            RejectUnknownEnumValue.class,
+            INCREMENTAL_CHECKSUM_ENABLED);
 
         final DecoderGenerator decoderGenerator = new DecoderGenerator(
             dictionary,
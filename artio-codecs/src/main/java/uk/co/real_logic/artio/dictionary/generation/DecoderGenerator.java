@@ -175,7 +175,7 @@ public class DecoderGenerator extends Generator
             final List<Field> fields = compileAllFieldsFor(message);
             final String messageFieldsSet = generateFieldDictionary(fields, MESSAGE_FIELDS, false);
             out.append(commonCompoundImports("Decoder", true, messageFieldsSet));
-
+            out.append(projectionConstructors(className, message));
         }
         groupMethods(out, aggregate);
         headerMethods(out, aggregate, type);
@@ -187,6 +187,71 @@ public class DecoderGenerator extends Generator
         currentAggregate = parentAggregate;
     }
 
+    // Projection decoders only decode the body fields that the caller asks for and stop once they've been seen,
+    // skipping over everything else. Unprojected repeating groups are skipped field by field without being decoded.
+    // Validation needs every field, so projection is turned off when it's enabled. Only top level fields of the
+    // body, including group number fields and the fields of components, can be projected since the fields within
+    // a group are decoded by the group's decoder.
+    private String projectionConstructors(final String className, final Message message)
+    {
+        final String projectableFieldCases = message
+            .entries()
+            .stream()
+            .flatMap(this::extractTopLevelFields)
+            .map(Field::number)
+            .distinct()
+            .sorted()
+            .map((number) -> "            case " + number + ":\n")
+            .collect(joining());
+
+        return String.format(
+            "    private final IntHashSet projectedFields;\n" +
+            "    private final IntHashSet seenProjectedFields;\n\n" +
+            "    public %1$s()\n" +
+            "    {\n" +
+            "        this(null);\n" +
+            "    }\n\n" +
+            "    public %1$s(final IntHashSet projectedFields)\n" +
+            "    {\n" +
+            "        if (projectedFields != null)\n" +
+            "        {\n" +
+            "            final IntIterator projectedFieldsIterator = projectedFields.iterator();\n" +
+            "            while (projectedFieldsIterator.hasNext())\n" +
+            "            {\n" +
+            "                final int tag = projectedFieldsIterator.nextValue();\n" +
+            "                if (!isProjectableField(tag))\n" +
+            "                {\n" +
+            "                    throw new IllegalArgumentException(\n" +
+            "                        \"Tag \" + tag + \" isn't a top level field of %2$s so can't be projected\");\n" +
+            "                }\n" +
+            "            }\n" +
+            "        }\n\n" +
+            "        this.projectedFields = projectedFields;\n" +
+            "        this.seenProjectedFields = projectedFields == null ? null : new IntHashSet();\n" +
+            "    }\n\n" +
+            "    private static boolean isProjectableField(final int tag)\n" +
+            "    {\n" +
+            "        switch (tag)\n" +
+            "        {\n" +
+            "%3$s" +
+            "                return true;\n\n" +
+            "            default:\n" +
+            "                return false;\n" +
+            "        }\n" +
+            "    }\n\n",
+            className,
+            message.name(),
+            projectableFieldCases);
+    }
+
+    private Stream<Field> extractTopLevelFields(final Entry entry)
+    {
+        return entry.match(
+            (e, field) -> Stream.of(field),
+            (e, group) -> Stream.of((Field)group.numberField().element()),
+            (e, component) -> component.entries().stream().flatMap(this::extractTopLevelFields));
+    }
+
     private List<Field> compileAllFieldsFor(final Message message)
     {
         final Stream<Field> messageBodyFields = extractFields(message.entries());
@@ -1191,6 +1256,13 @@ public class DecoderGenerator extends Generator
             "        int position = offset;\n" +
             (hasCommonCompounds ? "        position += header.decode(buffer, position, length);\n" : "") +
             (isGroup ? "        seenFields.clear();\n" : "") +
+            (hasCommonCompounds ?
+            "        final boolean projecting = projectedFields != null && !" + CODEC_VALIDATION_ENABLED + ";\n" +
+            "        int remainingProjectedFields = projecting ? projectedFields.size() : 0;\n" +
+            "        if (projecting)\n" +
+            "        {\n" +
+            "            seenProjectedFields.clear();\n" +
+            "        }\n" : "") +
             "        int tag;\n\n" +
             "        while (position < end)\n" +
             "        {\n" +
@@ -1228,6 +1300,7 @@ public class DecoderGenerator extends Generator
             "                missingRequiredFields.remove(tag);\n" +
             "                seenFieldCount++;\n" +
             "            }\n" +
+            (hasCommonCompounds ? skipUnprojectedField(aggregate) : "") +
             "            switch (tag)\n" +
             "            {\n\n";
         final String body = entries.stream()
@@ -1262,12 +1335,49 @@ public class DecoderGenerator extends Generator
             "            {\n" +
             "                position = endOfField + 1;\n" +
             "            }\n" +
+            (hasCommonCompounds ?
+            "            if (projecting && remainingProjectedFields == 0)\n" +
+            "            {\n" +
+            "                return position - offset;\n" +
+            "            }\n" : "") +
             "        }\n" +
             decodeTrailerOrReturn(hasCommonCompounds, 2) +
             "    }\n\n";
         return prefix + body + suffix;
     }
 
+    private String skipUnprojectedField(final Aggregate aggregate)
+    {
+        // The trailer starts at the checksum, and data fields can contain the separator so they, and their lengths,
+        // are always decoded in order to be skipped over correctly.
+        final String dataFieldChecks = aggregate
+            .allFieldsIncludingComponents()
+            .map((entry) -> (Field)entry.element())
+            .filter((field) -> field.type().isDataBased())
+            .flatMap((field) -> Stream.of(field, field.associatedLengthField()))
+            .distinct()
+            .map((field) -> " && tag != Constants." + constantName(field.name()))
+            .collect(joining());
+
+        return
+            "            if (projecting)\n" +
+            "            {\n" +
+            "                if (projectedFields.contains(tag))\n" +
+            "                {\n" +
+            "                    // Count each projected field once, even if it's repeated.\n" +
+            "                    if (seenProjectedFields.add(tag))\n" +
+            "                    {\n" +
+            "                        remainingProjectedFields--;\n" +
+            "                    }\n" +
+            "                }\n" +
+            "                else if (tag != 10" + dataFieldChecks + ")\n" +
+            "                {\n" +
+            "                    position = endOfField + 1;\n" +
+            "                    continue;\n" +
+            "                }\n" +
+            "            }\n";
+    }
+
     private String malformedMessageCheck()
     {
         return "            if (endOfField == AsciiBuffer.UNKNOWN_INDEX || " +
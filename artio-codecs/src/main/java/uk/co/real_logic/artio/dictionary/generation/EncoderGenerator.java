@@ -51,13 +51,24 @@ public class EncoderGenerator extends Generator
         "        position++;\n" +
         "%s";
 
+    // Declares the running checksum of the bytes written by an encode method in incremental checksum mode.
+    private static final String CHECKSUM_DECLARATION =
+        "        int checksum = 0;\n" +
+        "        int valueStart;\n\n";
+
+    private static final String CHECKSUM_VALUE =
+        "        checksum += buffer.computeChecksum(valueStart, position);\n";
+
+    private static final String SAVE_CHECKSUM =
+        "        encodedChecksum = checksum;\n";
+
     private static final String TRAILER_ENCODE_PREFIX =
         "    // |10=...|\n" +
-        "    long finishMessage(final MutableAsciiBuffer buffer, final int messageStart, final int offset)\n" +
+        "%1$s" +
         "    {\n" +
         "        int position = offset;\n" +
         "\n" +
-        "        final int checkSum = buffer.computeChecksum(messageStart, position);\n" +
+        "%2$s" +
         "        buffer.putBytes(position, checkSumHeader, 0, checkSumHeaderLength);\n" +
         "        position += checkSumHeaderLength;\n" +
         "        buffer.putNaturalPaddedIntAscii(position, 3, checkSum);\n" +
@@ -73,7 +84,23 @@ public class EncoderGenerator extends Generator
         "    {\n" +
         "        final int start = offset;\n" +
         "        int position = start;\n" +
-        "\n";
+        "\n" +
+        "%3$s";
+
+    private static final String FINISH_MESSAGE_SIGNATURE =
+        "    long finishMessage(final MutableAsciiBuffer buffer, final int messageStart, final int offset)\n";
+
+    private static final String COMPUTE_CHECKSUM =
+        "        final int checkSum = buffer.computeChecksum(messageStart, position);\n";
+
+    // The checksum has been accumulated whilst the rest of the message was encoded, so it's just normalised to
+    // the unsigned sum of the bytes rather than re-reading the message.
+    private static final String INCREMENTAL_FINISH_MESSAGE_SIGNATURE =
+        "    long finishMessage(\n" +
+        "        final MutableAsciiBuffer buffer, final int messageStart, final int offset, final int checksum)\n";
+
+    private static final String INCREMENTAL_CHECKSUM =
+        "        final int checkSum = checksum & 0xFF;\n";
 
     // returns offset where message starts
     private static final String HEADER_ENCODE_PREFIX =
@@ -99,6 +126,7 @@ public class EncoderGenerator extends Generator
         "            throw new EncodingException(\"Missing Field: BeginString\");\n" +
         "        }\n" +
         "\n" +
+        "%1$s" +
         "        return position;\n" +
         "    }\n" +
         "\n" +
@@ -106,16 +134,23 @@ public class EncoderGenerator extends Generator
         "    public long startMessage(final MutableAsciiBuffer buffer, final int offset)\n" +
         "    {\n" +
         "        final int start = offset + beginStringLength + 16;\n" +
-        "        int position = start;";
+        "        int position = start;\n" +
+        "%2$s";
+
+    // Only the back-patched BeginString and BodyLength fields are summed once the body has been encoded.
+    private static final String CHECKSUM_BACK_PATCHED_HEADER =
+        "        encodedChecksum = buffer.computeChecksum(position, bodyStart);\n\n";
 
     private static final String GROUP_ENCODE_PREFIX =
         "    public int encode(final MutableAsciiBuffer buffer, final int offset, final int remainingElements)\n" +
         "    {\n" +
         "        if (remainingElements == 0)\n" +
         "        {\n" +
+        "%1$s" +
         "            return 0;\n" +
         "        }\n\n" +
-        "        int position = offset;\n\n";
+        "        int position = offset;\n\n" +
+        "%2$s";
 
     // returns (offset, length) as long
     private static final String MESSAGE_ENCODE_PREFIX =
@@ -124,13 +159,15 @@ public class EncoderGenerator extends Generator
         "        final long startMessageResult = header.startMessage(buffer, offset);\n" +
         "        final int bodyStart = Encoder.offset(startMessageResult);\n" +
         "        int position = bodyStart + Encoder.length(startMessageResult);\n" +
-        "\n";
+        "\n" +
+        "%s";
 
     // returns length as int
     private static final String OTHER_ENCODE_PREFIX =
         "    public int encode(final MutableAsciiBuffer buffer, final int offset)\n" +
         "    {\n" +
-        "        int position = offset;\n\n";
+        "        int position = offset;\n\n" +
+        "%s";
 
     private static final String RESET_NEXT_GROUP =
         "        if (next != null)" +
@@ -149,6 +186,10 @@ public class EncoderGenerator extends Generator
 
     private final String beginString;  // e.g. "FIX.4.4"
 
+    // When enabled, encoders sum the bytes of each field as it is written instead of computing the checksum with
+    // a second pass over the whole message in finishMessage.
+    private final boolean incrementalChecksum;
+
     public EncoderGenerator(
         final Dictionary dictionary,
         final String builderPackage,
@@ -156,11 +197,14 @@ public class EncoderGenerator extends Generator
         final OutputManager outputManager,
         final Class<?> validationClass,
         final Class<?> rejectUnknownFieldClass,
-        final Class<?> rejectUnknownEnumValueClass)
+        final Class<?> rejectUnknownEnumValueClass,
+        final boolean incrementalChecksum)
     {
         super(dictionary, builderPackage, builderCommonPackage, outputManager, validationClass, rejectUnknownFieldClass,
             rejectUnknownEnumValueClass, false);
 
+        this.incrementalChecksum = incrementalChecksum;
+
         final Component header = dictionary.header();
         validateHasField(header, BEGIN_STRING);
         validateHasField(header, BODY_LENGTH);
@@ -269,6 +313,12 @@ public class EncoderGenerator extends Generator
 
         }
 
+        if (incrementalChecksum && !isMessage)
+        {
+            // Read by the enclosing encoder after this one has encoded its fields.
+            out.append("    int encodedChecksum;\n\n");
+        }
+
         precomputedHeaders(out, aggregate.entries());
         generateSetters(out, className, aggregate.entries());
         out.append(encodeMethod(aggregate.entries(), type));
@@ -650,30 +700,47 @@ public class EncoderGenerator extends Generator
 
     private String encodeMethod(final List<Entry> entries, final AggregateType aggregateType)
     {
+        final String checksumDeclaration = incrementalChecksum ? CHECKSUM_DECLARATION : "";
         final String prefix;
         switch (aggregateType)
         {
             case TRAILER:
-                prefix = TRAILER_ENCODE_PREFIX;
+                prefix = String.format(
+                    TRAILER_ENCODE_PREFIX,
+                    incrementalChecksum ? INCREMENTAL_FINISH_MESSAGE_SIGNATURE : FINISH_MESSAGE_SIGNATURE,
+                    incrementalChecksum ? INCREMENTAL_CHECKSUM : COMPUTE_CHECKSUM,
+                    checksumDeclaration);
                 break;
 
             case GROUP:
-                prefix = GROUP_ENCODE_PREFIX;
+                prefix = String.format(
+                    GROUP_ENCODE_PREFIX,
+                    incrementalChecksum ? "            encodedChecksum = 0;\n" : "",
+                    checksumDeclaration);
                 break;
 
             case MESSAGE:
-                prefix = MESSAGE_ENCODE_PREFIX;
+                prefix = String.format(
+                    MESSAGE_ENCODE_PREFIX,
+                    incrementalChecksum ?
+                    "        int checksum = header.encodedChecksum;\n" +
+                    "        int valueStart;\n\n" : "");
                 break;
 
             case HEADER:
-                prefix = HEADER_ENCODE_PREFIX;
+                prefix = String.format(
+                    HEADER_ENCODE_PREFIX,
+                    incrementalChecksum ? CHECKSUM_BACK_PATCHED_HEADER : "",
+                    checksumDeclaration);
                 break;
 
             default:
-                prefix = OTHER_ENCODE_PREFIX;
+                prefix = String.format(OTHER_ENCODE_PREFIX, checksumDeclaration);
                 break;
         }
 
+        final String saveChecksum = incrementalChecksum ? SAVE_CHECKSUM : "";
+
         final String body = entries.stream()
             .map(this::encodeEntry)
             .collect(joining("\n"));
@@ -681,29 +748,46 @@ public class EncoderGenerator extends Generator
         String suffix;
         if (aggregateType == AggregateType.MESSAGE)
         {
-            suffix =
-                "        position += trailer.startTrailer(buffer, position);\n" +
-                "\n" +
-                "        final int messageStart = header.finishHeader(buffer, bodyStart, position - bodyStart);\n" +
-                "        return trailer.finishMessage(buffer, messageStart, position);\n" +
-                "    }\n\n";
+            if (incrementalChecksum)
+            {
+                suffix =
+                    "        position += trailer.startTrailer(buffer, position);\n" +
+                    "        checksum += trailer.encodedChecksum;\n" +
+                    "\n" +
+                    "        final int messageStart = header.finishHeader(buffer, bodyStart, position - bodyStart);\n" +
+                    "        checksum += header.encodedChecksum;\n" +
+                    "        return trailer.finishMessage(buffer, messageStart, position, checksum);\n" +
+                    "    }\n\n";
+            }
+            else
+            {
+                suffix =
+                    "        position += trailer.startTrailer(buffer, position);\n" +
+                    "\n" +
+                    "        final int messageStart = header.finishHeader(buffer, bodyStart, position - bodyStart);\n" +
+                    "        return trailer.finishMessage(buffer, messageStart, position);\n" +
+                    "    }\n\n";
+            }
         }
         else if (aggregateType == AggregateType.HEADER)
         {
             suffix =
                 "\n" +
+                saveChecksum +
                 "        return Encoder.result(position - start, start);\n" +
                 "    }\n\n";
         }
         else if (aggregateType == AggregateType.TRAILER)
         {
             suffix =
+                saveChecksum +
                 "        return position - start;\n" +
                 "    }\n\n";
         }
         else
         {
             suffix =
+                saveChecksum +
                 "        return position - offset;\n" +
                 "    }\n\n";
 
@@ -713,6 +797,7 @@ public class EncoderGenerator extends Generator
                     "        if (next != null)\n" +
                     "        {\n" +
                     "            position += next.encode(buffer, position, remainingElements - 1);\n" +
+                    (incrementalChecksum ? "            checksum += next.encodedChecksum;\n" : "") +
                     "        }\n" + suffix;
             }
         }
@@ -816,7 +901,7 @@ public class EncoderGenerator extends Generator
                     "%s" +
                     "        buffer.putBytes(position, %s);\n" +
                     "        position += %2$s.length;\n" +
-                    SUFFIX,
+                    suffix(),
                     tag,
                     fieldName,
                     enablingSuffix);
@@ -837,7 +922,7 @@ public class EncoderGenerator extends Generator
         final String fieldName, final String optionalSuffix, final String tag, final String format)
     {
         return String.format(
-            "%s" + format + SUFFIX,
+            "%s" + format + suffix(),
             tag,
             fieldName,
             optionalSuffix);
@@ -851,18 +936,22 @@ public class EncoderGenerator extends Generator
             "        if (%2$s != null)\n" +
             "        {\n" +
             "            position += %2$s.encode(buffer, position, %3$s);\n" +
+            "%4$s" +
             "        }\n",
             encodeField(group.numberField()),
             formatPropertyName(group.name()),
-            formatPropertyName(group.numberField().name()));
+            formatPropertyName(group.numberField().name()),
+            addEncodedChecksum(group.name()));
     }
 
     private String encodeComponent(final Entry entry)
     {
         // TODO: make component return int, split encode prefix
         return String.format(
-            "            position += %1$s.encode(buffer, position);\n",
-            formatPropertyName(entry.name()));
+            "            position += %1$s.encode(buffer, position);\n" +
+            "%2$s",
+            formatPropertyName(entry.name()),
+            addEncodedChecksum(entry.name()));
     }
 
     private String formatTag(final String fieldName, final String optionalPrefix)
@@ -870,9 +959,24 @@ public class EncoderGenerator extends Generator
         return String.format(
             "%s" +
             "        buffer.putBytes(position, %sHeader, 0, %2$sHeaderLength);\n" +
-            "        position += %2$sHeaderLength;\n",
+            "        position += %2$sHeaderLength;\n" +
+            "%3$s",
             optionalPrefix,
-            fieldName);
+            fieldName,
+            incrementalChecksum ?
+            "        checksum += " + fieldName + "TagChecksum;\n" +
+            "        valueStart = position;\n" : "");
+    }
+
+    private String addEncodedChecksum(final String name)
+    {
+        return incrementalChecksum ?
+            String.format("            checksum += %s.encodedChecksum;\n", formatPropertyName(name)) : "";
+    }
+
+    private String suffix()
+    {
+        return incrementalChecksum ? CHECKSUM_VALUE + SUFFIX : SUFFIX;
     }
 
     private String putValue(final String fieldName, final String tag, final String type, final String optionalSuffix)
@@ -880,7 +984,7 @@ public class EncoderGenerator extends Generator
         return String.format(
             "%s" +
             "        position += buffer.put%sAscii(position, %s);\n" +
-            SUFFIX,
+            suffix(),
             tag,
             type,
             fieldName,
@@ -920,6 +1024,21 @@ public class EncoderGenerator extends Generator
             fieldName,
             length + 1,
             bytes));
+
+        if (incrementalChecksum)
+        {
+            // The tag, '=' and the separator that follows the value are known when generating the encoder.
+            int tagChecksum = '=' + MutableAsciiBuffer.SEPARATOR;
+            for (int i = 0; i < length; i++)
+            {
+                tagChecksum += buffer[i];
+            }
+
+            out.append(String.format(
+                "    private static final int %sTagChecksum = %d;\n\n",
+                fieldName,
+                tagChecksum));
+        }
     }
 
     protected String stringToString(final String fieldName)
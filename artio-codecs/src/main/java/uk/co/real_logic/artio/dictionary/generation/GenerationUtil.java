@@ -29,6 +29,7 @@ public final class GenerationUtil
 
     public static final String PARENT_PACKAGE = System.getProperty("PARENT_PACKAGE", "uk.co.real_logic.artio");
     public static final boolean FLYWEIGHTS_ENABLED = Boolean.getBoolean("fix.codecs.flyweight");
+    public static final boolean INCREMENTAL_CHECKSUM_ENABLED = Boolean.getBoolean("fix.codecs.incremental_checksum");
 
     public static final String ENCODER_PACKAGE = PARENT_PACKAGE + ".builder";
     public static final String DECODER_PACKAGE = PARENT_PACKAGE + ".decoder";
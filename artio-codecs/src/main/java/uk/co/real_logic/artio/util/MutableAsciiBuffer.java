@@ -20,6 +20,7 @@ import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.fields.*;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
 
@@ -32,6 +33,12 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
     private static final byte Y = (byte)'Y';
     private static final byte N = (byte)'N';
 
+    // Constants for the word at a time (SWAR) scanning and checksumming
+    private static final int WORD_SIZE = Long.BYTES;
+    private static final long LOW_BITS = 0x0101_0101_0101_0101L;
+    private static final long HIGH_BITS = 0x8080_8080_8080_8080L;
+    private static final long EVEN_BYTES = 0x00FF_00FF_00FF_00FFL;
+
     private static final byte[] MIN_INTEGER_VALUE = String.valueOf(Integer.MIN_VALUE).getBytes(US_ASCII);
     private static final byte[] MIN_LONG_VALUE = String.valueOf(Long.MIN_VALUE).getBytes(US_ASCII);
 
@@ -294,24 +301,52 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public int scan(final int startInclusive, final int endInclusive, final byte terminator)
     {
-        int indexValue = UNKNOWN_INDEX;
-        for (int i = startInclusive; i <= endInclusive; i++)
+        int i = startInclusive;
+
+        // Check 8 bytes at a time: xor-ing with the broadcast terminator leaves a zero byte for each match and
+        // the lowest flagged byte of the has-zero-byte test is always a genuine match.
+        final long pattern = LOW_BITS * (terminator & 0xFF);
+        final int lastWordStart = endInclusive - WORD_SIZE + 1;
+        for (; i <= lastWordStart; i += WORD_SIZE)
         {
-            final byte value = getByte(i);
-            if (value == terminator)
+            final long word = getLong(i, ByteOrder.LITTLE_ENDIAN) ^ pattern;
+            final long matches = (word - LOW_BITS) & ~word & HIGH_BITS;
+            if (matches != 0)
             {
-                indexValue = i;
-                break;
+                return i + (Long.numberOfTrailingZeros(matches) >>> 3);
             }
         }
 
-        return indexValue;
+        for (; i <= endInclusive; i++)
+        {
+            if (getByte(i) == terminator)
+            {
+                return i;
+            }
+        }
+
+        return UNKNOWN_INDEX;
     }
 
     public int computeChecksum(final int offset, final int end)
     {
         int total = 0;
-        for (int index = offset; index < end; index++)
+        int index = offset;
+
+        // Sum 8 bytes at a time, adding adjacent bytes into 16 bit lanes and then folding the lanes together.
+        // Bytes are summed as signed values, so each byte with its top bit set contributes 256 less than its
+        // unsigned value.
+        final int lastWordStart = end - WORD_SIZE;
+        for (; index <= lastWordStart; index += WORD_SIZE)
+        {
+            final long word = getLong(index);
+            long lanes = (word & EVEN_BYTES) + ((word >>> 8) & EVEN_BYTES);
+            lanes += lanes >>> 16;
+            lanes += lanes >>> 32;
+            total += (int)(lanes & 0xFFFF) - (Long.bitCount(word & HIGH_BITS) << 8);
+        }
+
+        for (; index < end; index++)
         {
             total += (int)getByte(index);
         }
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.builder;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.fields.DecimalFloat;
+import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MessageTemplateTest
+{
+    private static final int CL_ORD_ID = 11;
+    private static final int ORDER_QTY = 38;
+    private static final int PRICE = 44;
+    private static final int SENDING_TIME = 52;
+
+    private static final String BODY =
+        "35=D\00111=ORDER1\00138=100\00144=1.5\00152=20190101-00:00:00.000\00155=CVS\001";
+
+    private final MessageTemplate template = new MessageTemplate(1024);
+    private final StubEncoder encoder = new StubEncoder(BODY);
+
+    private int clOrdIdSlot;
+    private int orderQtySlot;
+    private int priceSlot;
+    private int sendingTimeSlot;
+
+    @Before
+    public void setUp()
+    {
+        clOrdIdSlot = template.addSlot(CL_ORD_ID, 6);
+        orderQtySlot = template.addSlot(ORDER_QTY, 6);
+        priceSlot = template.addSlot(PRICE, 8);
+        sendingTimeSlot = template.addSlot(SENDING_TIME, 21);
+
+        template.encode(encoder);
+    }
+
+    @Test
+    public void shouldEncodeSlotsPaddedToTheirWidths()
+    {
+        final String message = finish();
+
+        assertThat(message, containsString("\00111=ORDER1\00138=000100\00144=000001.5\001"));
+        assertThat(message, containsString("\00152=20190101-00:00:00.000\00155=CVS\001"));
+        assertEquals('D', template.messageType());
+        assertValidFraming(message);
+    }
+
+    @Test
+    public void shouldWriteZeroInt()
+    {
+        template.putInt(orderQtySlot, 0);
+
+        final String message = finish();
+
+        assertThat(message, containsString("\00138=000000\001"));
+        assertValidFraming(message);
+    }
+
+    @Test
+    public void shouldWriteNegativeInts()
+    {
+        template.putInt(orderQtySlot, -42);
+        String message = finish();
+        assertThat(message, containsString("\00138=-00042\001"));
+        assertValidFraming(message);
+
+        template.putInt(orderQtySlot, -99999);
+        message = finish();
+        assertThat(message, containsString("\00138=-99999\001"));
+        assertValidFraming(message);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeIntTooWideForSlot()
+    {
+        template.putInt(orderQtySlot, -100000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectIntTooWideForSlot()
+    {
+        template.putInt(orderQtySlot, 1000000);
+    }
+
+    @Test
+    public void shouldWriteFloats()
+    {
+        template.putFloat(priceSlot, 12345, 2);
+        String message = finish();
+        assertThat(message, containsString("\00144=00123.45\001"));
+        assertValidFraming(message);
+
+        template.putFloat(priceSlot, new DecimalFloat(-15, 1));
+        message = finish();
+        assertThat(message, containsString("\00144=-00001.5\001"));
+        assertValidFraming(message);
+
+        template.putFloat(priceSlot, 0, 0);
+        message = finish();
+        assertThat(message, containsString("\00144=00000000\001"));
+        assertValidFraming(message);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectFloatTooWideForSlot()
+    {
+        template.putFloat(priceSlot, 123456789, 1);
+    }
+
+    @Test
+    public void shouldWriteTimestampsWithMilliseconds()
+    {
+        final UtcTimestampEncoder timestampEncoder = new UtcTimestampEncoder();
+        final int length = timestampEncoder.encode(1_000_000_000_123L);
+
+        template.putTimestamp(sendingTimeSlot, timestampEncoder.buffer(), length);
+
+        final String message = finish();
+        assertThat(message, containsString("\00152=20010909-01:46:40.123\001"));
+        assertValidFraming(message);
+    }
+
+    @Test
+    public void shouldPadTimestampsWithoutMilliseconds()
+    {
+        final byte[] timestamp = "20190102-03:04:05".getBytes(US_ASCII);
+
+        template.putTimestamp(sendingTimeSlot, timestamp, timestamp.length);
+
+        final String message = finish();
+        assertThat(message, containsString("\00152=20190102-03:04:05.000\001"));
+        assertValidFraming(message);
+    }
+
+    @Test
+    public void shouldRecalculateChecksumAfterEachSlotUpdate()
+    {
+        final String original = finish();
+
+        template.putAscii(clOrdIdSlot, "ORDER2");
+        final String clOrdIdUpdated = finish();
+        assertValidFraming(clOrdIdUpdated);
+
+        template.putInt(orderQtySlot, 250);
+        final String orderQtyUpdated = finish();
+        assertValidFraming(orderQtyUpdated);
+
+        template.putFloat(priceSlot, 25, 1);
+        final String priceUpdated = finish();
+        assertValidFraming(priceUpdated);
+
+        assertThat(priceUpdated, containsString("\00111=ORDER2\00138=000250\00144=000002.5\001"));
+        assertFalse(original.equals(clOrdIdUpdated));
+        assertEquals("Slots never change the length of the message", original.length(), priceUpdated.length());
+
+        // Writing the original values back restores the original message.
+        template.putAscii(clOrdIdSlot, "ORDER1");
+        template.putInt(orderQtySlot, 100);
+        template.putFloat(priceSlot, 15, 1);
+        assertEquals(original, finish());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectAsciiThatDoesNotFillSlot()
+    {
+        template.putAscii(clOrdIdSlot, "ORD");
+    }
+
+    @Test
+    public void shouldRequireReencodingAfterAddingASlot()
+    {
+        template.addSlot(55, 3);
+
+        assertFalse(template.isEncoded());
+
+        template.encode(encoder);
+
+        assertTrue(template.isEncoded());
+        assertValidFraming(finish());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotFinishBeforeReencodingAfterAddingASlot()
+    {
+        template.addSlot(55, 3);
+
+        template.finish();
+    }
+
+    private String finish()
+    {
+        final long result = template.finish();
+        return template.buffer().getAscii(Encoder.offset(result), Encoder.length(result));
+    }
+
+    private static void assertValidFraming(final String message)
+    {
+        final int checksumStart = message.length() - "10=000\001".length();
+        int checksum = 0;
+        for (int i = 0; i < checksumStart; i++)
+        {
+            checksum += message.charAt(i);
+        }
+        assertEquals(String.format("10=%03d\001", checksum & 0xFF), message.substring(checksumStart));
+
+        final int bodyLengthStart = message.indexOf("\0019=") + "\0019=".length();
+        final int bodyStart = message.indexOf('\001', bodyLengthStart) + 1;
+        final int bodyLength = Integer.parseInt(message.substring(bodyLengthStart, bodyStart - 1));
+        assertEquals(checksumStart - bodyStart, bodyLength);
+    }
+
+    private static final class StubEncoder implements Encoder
+    {
+        private final String body;
+
+        StubEncoder(final String body)
+        {
+            this.body = body;
+        }
+
+        public long encode(final MutableAsciiBuffer buffer, final int offset)
+        {
+            final String prefix = "8=FIX.4.4\0019=" + body.length() + "\001" + body;
+            int checksum = 0;
+            for (int i = 0; i < prefix.length(); i++)
+            {
+                checksum += prefix.charAt(i);
+            }
+
+            final String message = prefix + String.format("10=%03d\001", checksum & 0xFF);
+            final int length = buffer.putAscii(offset, message);
+            return Encoder.result(length, offset);
+        }
+
+        public void reset()
+        {
+        }
+
+        public int messageType()
+        {
+            return 'D';
+        }
+
+        public SessionHeaderEncoder header()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        public void resetMessage()
+        {
+        }
+    }
+}
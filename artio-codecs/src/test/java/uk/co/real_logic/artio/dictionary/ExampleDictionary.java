@@ -243,6 +243,10 @@ public final class ExampleDictionary
         "8=FIX.4.4\0019=53\00135=0\001115=abc\001116=2\001117=1.1\001127=19700101-00:00:00.001" +
         "\001136=2\001138=180\001137=TOM\001117=1.1\001138=22\001137=KEVIN\00110=043\001";
 
+    public static final String REPEATED_INT_FIELD_MESSAGE =
+        "8=FIX.4.4\0019=59\00135=0\001115=abc\001116=2\001116=3\001117=1.1\001127=19700101-00:00:00.001" +
+        "\00110=199\001";
+
     public static final String UNKNOWN_FIELD_MESSAGE =
         "8=FIX.4.4\0019=0027\00135=0\001115=abc\001117=1.1\0011000=UNKNOWN FIELD\001116=2" +
         "\001127=19700101-00:00:00.001\00110=161\001";
@@ -1226,6 +1226,82 @@ public abstract class AbstractDecoderGeneratorTest
         assertValid(decoder);
     }
 
+    @Test
+    public void shouldStopDecodingOnceProjectedFieldsDecodedWithoutValidation() throws Exception
+    {
+        final Decoder decoder = decodeProjectedHeartbeat(heartbeatWithoutValidation, ENCODED_MESSAGE, 116);
+
+        assertEquals(2, getIntField(decoder));
+        assertFalse(hasTestReqId(decoder));
+        assertFalse(hasBooleanField(decoder));
+    }
+
+    @Test
+    public void shouldSkipUnprojectedRepeatingGroupsWithoutValidation() throws Exception
+    {
+        final Decoder decoder = decodeProjectedHeartbeat(
+            heartbeatWithoutValidation, REPEATING_GROUP_MESSAGE, 116, TEST_REQ_ID_TAG);
+
+        assertEquals(2, getIntField(decoder));
+        assertFalse(hasNoEgGroupGroupCounter(decoder));
+    }
+
+    @Test
+    public void shouldDecodeProjectedRepeatingGroupsWithoutValidation() throws Exception
+    {
+        final Decoder decoder = decodeProjectedHeartbeat(heartbeatWithoutValidation, REPEATING_GROUP_MESSAGE, 120);
+
+        assertRepeatingGroupDecoded(decoder);
+    }
+
+    @Test
+    public void shouldDecodeProjectedFieldAfterRepeatedProjectedFieldWithoutValidation() throws Exception
+    {
+        final Decoder decoder = decodeProjectedHeartbeat(
+            heartbeatWithoutValidation, REPEATED_INT_FIELD_MESSAGE, 116, 117);
+
+        assertEquals(3, getIntField(decoder));
+        assertEquals(new DecimalFloat(11, 1), getFloatField(decoder));
+    }
+
+    @Test
+    public void shouldProjectGroupNumberAndComponentFields() throws Exception
+    {
+        final Decoder decoder = decodeProjectedHeartbeat(
+            heartbeatWithoutValidation, REPEATING_GROUP_MESSAGE, 120, 124, 130);
+
+        assertRepeatingGroupDecoded(decoder);
+    }
+
+    @Test
+    public void shouldNotProjectFieldsWithinRepeatingGroups()
+    {
+        assertThrows(
+            () -> decodeProjectedHeartbeat(heartbeatWithoutValidation, REPEATING_GROUP_MESSAGE, 116, 121),
+            IllegalArgumentException.class,
+            "Tag 121 isn't a top level field of Heartbeat so can't be projected");
+    }
+
+    @Test
+    public void shouldNotProjectHeaderFields()
+    {
+        assertThrows(
+            () -> decodeProjectedHeartbeat(heartbeatWithoutValidation, ENCODED_MESSAGE, 52),
+            IllegalArgumentException.class,
+            "Tag 52 isn't a top level field of Heartbeat so can't be projected");
+    }
+
+    @Test
+    public void shouldDecodeAllFieldsOfProjectedDecoderWithValidation() throws Exception
+    {
+        final Decoder decoder = decodeProjectedHeartbeat(heartbeat, ENCODED_MESSAGE, 116);
+
+        assertEquals(2, getIntField(decoder));
+        assertTrue(hasTestReqId(decoder));
+        assertTrue(hasBooleanField(decoder));
+        assertValid(decoder);
+    }
+
     @Test
     public void shouldSupportHighNumberedFields() throws Exception
     {
@@ -1594,6 +1670,20 @@ public abstract class AbstractDecoderGeneratorTest
         return decoder;
     }
 
+    private Decoder decodeProjectedHeartbeat(
+        final Class<?> heartbeatClass, final String example, final int... projectedFields) throws Exception
+    {
+        final IntHashSet projection = new IntHashSet();
+        for (final int projectedField : projectedFields)
+        {
+            projection.add(projectedField);
+        }
+
+        final Decoder decoder = (Decoder)heartbeatClass.getConstructor(IntHashSet.class).newInstance(projection);
+        decode(example, decoder);
+        return decoder;
+    }
+
     private Decoder decodeHeartbeatWithRejectingUnknownFields(final String example) throws Exception
     {
         final Decoder decoder = (Decoder)heartbeatWithRejectingUnknownFields.getConstructor().newInstance();
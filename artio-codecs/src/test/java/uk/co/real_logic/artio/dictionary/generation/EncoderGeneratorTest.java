@@ -49,6 +49,7 @@ public class EncoderGeneratorTest
     private static Class<?> heartbeat;
     private static Class<?> otherMessage;
     private static Class<?> heartbeatWithoutValidation;
+    private static Class<?> heartbeatWithIncrementalChecksum;
 
     private MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
 
@@ -70,9 +71,18 @@ public class EncoderGeneratorTest
 
         final Map<String, CharSequence> sourcesWithoutValidation = generateSources(false);
         heartbeatWithoutValidation = compileInMemory(HEARTBEAT_ENCODER, sourcesWithoutValidation);
+
+        final Map<String, CharSequence> sourcesWithIncrementalChecksum = generateSources(true, true);
+        heartbeatWithIncrementalChecksum = compileInMemory(HEARTBEAT_ENCODER, sourcesWithIncrementalChecksum);
     }
 
     private static Map<String, CharSequence> generateSources(final boolean validation)
+    {
+        return generateSources(validation, false);
+    }
+
+    private static Map<String, CharSequence> generateSources(
+        final boolean validation, final boolean incrementalChecksum)
     {
         final Class<?> validationClass = validation ? ValidationOn.class : ValidationOff.class;
         final Class<?> rejectUnknownField = RejectUnknownFieldOff.class;
@@ -81,7 +91,7 @@ public class EncoderGeneratorTest
         final EnumGenerator enumGenerator = new EnumGenerator(MESSAGE_EXAMPLE, TEST_PARENT_PACKAGE, outputManager);
         final EncoderGenerator encoderGenerator =
             new EncoderGenerator(MESSAGE_EXAMPLE, TEST_PACKAGE, TEST_PARENT_PACKAGE, outputManager, validationClass,
-            rejectUnknownField, rejectUnknownEnumValue);
+            rejectUnknownField, rejectUnknownEnumValue, incrementalChecksum);
         enumGenerator.generate();
         encoderGenerator.generate();
         return outputManager.getSources();
@@ -772,6 +782,47 @@ public class EncoderGeneratorTest
         assertEncodesTo(encoder, COMPONENT_MESSAGE);
     }
 
+    @Test
+    public void shouldComputeIncrementalChecksumWhenEncodingValues() throws Exception
+    {
+        final Encoder encoder = newIncrementalChecksumHeartbeat();
+
+        setRequiredFields(encoder);
+        setupHeader(encoder);
+        setupTrailer(encoder, "Good to go!");
+        setOptionalFields(encoder);
+
+        assertEncodesTo(encoder, ENCODED_MESSAGE_WITH_SIGNATURE);
+    }
+
+    @Test
+    public void shouldComputeIncrementalChecksumWhenEncodingGroups() throws Exception
+    {
+        final Encoder encoder = newIncrementalChecksumHeartbeat();
+        setRequiredFields(encoder);
+        setEgGroupToTwoElements(encoder);
+
+        assertEncodesTo(encoder, REPEATING_GROUP_MESSAGE);
+
+        final Encoder nestedEncoder = newIncrementalChecksumHeartbeat();
+        setRequiredFields(nestedEncoder);
+        final Object group = getEgGroup(nestedEncoder, 1);
+        setGroupField(group, 1);
+        setNestedField(group);
+
+        assertEncodesTo(nestedEncoder, NESTED_GROUP_MESSAGE);
+    }
+
+    @Test
+    public void shouldComputeIncrementalChecksumWhenEncodingComponents() throws Exception
+    {
+        final Encoder encoder = newIncrementalChecksumHeartbeat();
+        setRequiredFields(encoder);
+        setupComponent(encoder);
+
+        assertEncodesTo(encoder, COMPONENT_MESSAGE);
+    }
+
     @Test
     public void shouldBeAbleToToStringComponentValues() throws Exception
     {
@@ -988,6 +1039,11 @@ public class EncoderGeneratorTest
         return (Encoder)heartbeat.getConstructor().newInstance();
     }
 
+    private Encoder newIncrementalChecksumHeartbeat() throws Exception
+    {
+        return (Encoder)heartbeatWithIncrementalChecksum.getConstructor().newInstance();
+    }
+
     private void assertTestReqIdLength(final int expectedLength, final Object encoder) throws Exception
     {
         assertEquals(expectedLength, getField(encoder, TEST_REQ_ID_LENGTH));
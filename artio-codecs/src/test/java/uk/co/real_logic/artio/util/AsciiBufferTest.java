@@ -18,6 +18,8 @@ package uk.co.real_logic.artio.util;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import static java.nio.charset.StandardCharsets.US_ASCII;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
@@ -70,6 +72,51 @@ public class AsciiBufferTest
         assertEquals(UNKNOWN_INDEX, value);
     }
 
+    @Test
+    public void shouldFindCharactersWhenScanningForwards()
+    {
+        assertEquals(OFFSET + 1, buffer.scan(OFFSET, OFFSET + BYTES.length, '='));
+        assertEquals(OFFSET + 12, buffer.scan(OFFSET + 2, OFFSET + BYTES.length, '='));
+    }
+
+    @Test
+    public void shouldFindCharactersWhenScanningForwardsInTrailingBytes()
+    {
+        assertEquals(OFFSET + 12, buffer.scan(OFFSET + 10, OFFSET + 12, '='));
+    }
+
+    @Test
+    public void shouldNotFindCharactersBeyondEndOfForwardsScan()
+    {
+        assertEquals(UNKNOWN_INDEX, buffer.scan(OFFSET + 2, OFFSET + 11, '='));
+        assertEquals(UNKNOWN_INDEX, buffer.scan(OFFSET, OFFSET + BYTES.length, 'Z'));
+    }
+
+    @Test
+    public void shouldComputeChecksumOverWordsAndTrailingBytes()
+    {
+        for (int end = OFFSET; end <= OFFSET + BYTES.length; end++)
+        {
+            int total = 0;
+            for (int i = OFFSET; i < end; i++)
+            {
+                total += buffer.getByte(i);
+            }
+
+            assertEquals("Wrong checksum ending at " + end, total % 256, buffer.computeChecksum(OFFSET, end));
+        }
+    }
+
+    @Test
+    public void shouldComputeChecksumOfNonAsciiBytesAsSignedValues()
+    {
+        final byte[] bytes = new byte[19];
+        Arrays.fill(bytes, (byte)0xE9);
+        buffer.putBytes(0, bytes);
+
+        assertEquals((bytes.length * (byte)0xE9) % 256, buffer.computeChecksum(0, bytes.length));
+    }
+
     @Test
     public void shouldGetIntegerValuesAtSpecifiedOffset()
     {
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.ManyToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+import uk.co.real_logic.artio.engine.logger.LoggerUtil;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.Set;
+
+import static org.agrona.BitUtil.CACHE_LINE_LENGTH;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * A memory mapped ring buffer that debug messages are recorded into in binary form, so that they can be logged without
+ * allocating or formatting on the thread that logs them. Records are rendered offline by the {@link DebugLogPrinter}.
+ * <p>
+ * The header of the file holds a bit per {@link LogTag} that is enabled, which can be switched whilst the processes
+ * logging to the file are running. Records that are logged whilst the ring buffer is full are dropped and counted.
+ * <p>
+ * Record layout within the ring buffer, the message type id of each record is the tag's ordinal + 1:
+ * <pre>
+ *   0                   1                   2                   3
+ *   0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1
+ *  +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ *  |                       Timestamp in ms                         |
+ *  |                                                               |
+ *  +---------------------------------------------------------------+
+ *  |                          Thread Id                            |
+ *  |                                                               |
+ *  +---------------------------------------------------------------+
+ *  |                            Value                              |
+ *  |                                                               |
+ *  +---------------------------------------------------------------+
+ *  |                         Label Length                          |
+ *  +---------------------------------------------------------------+
+ *  |                      Label (ASCII)                           ...
+ * ...                                                              |
+ *  +---------------------------------------------------------------+
+ *  |                           Data                               ...
+ * ...                                                              |
+ *  +---------------------------------------------------------------+
+ * </pre>
+ */
+public final class BinaryDebugLog implements AutoCloseable
+{
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    static final int ENABLED_TAGS_OFFSET = 0;
+    static final int DROPPED_RECORDS_OFFSET = ENABLED_TAGS_OFFSET + SIZE_OF_LONG;
+    // Separate the header from the ring buffer so that switching tags doesn't contend with logging threads.
+    static final int HEADER_LENGTH = 2 * CACHE_LINE_LENGTH;
+
+    static final int TIMESTAMP_OFFSET = 0;
+    static final int THREAD_ID_OFFSET = TIMESTAMP_OFFSET + SIZE_OF_LONG;
+    static final int VALUE_OFFSET = THREAD_ID_OFFSET + SIZE_OF_LONG;
+    static final int LABEL_LENGTH_OFFSET = VALUE_OFFSET + SIZE_OF_LONG;
+    static final int LABEL_OFFSET = LABEL_LENGTH_OFFSET + SIZE_OF_INT;
+
+    private static final LogTag[] TAGS = LogTag.values();
+
+    private final ThreadLocal<MutableDirectBuffer> scratchBuffers;
+    private final MappedByteBuffer mappedByteBuffer;
+    private final AtomicBuffer header;
+    private final RingBuffer ringBuffer;
+
+    /**
+     * Map a debug log file, creating it if it doesn't already exist. Tags that have been switched in an existing file
+     * are kept.
+     *
+     * @param file the file to map.
+     * @param ringBufferLength the length of the ring buffer if the file is being created, must be a power of two.
+     * @param initialTags the tags that are enabled if the file is being created.
+     * @return the mapped debug log.
+     */
+    public static BinaryDebugLog map(final File file, final int ringBufferLength, final Set<LogTag> initialTags)
+    {
+        final boolean exists = file.exists();
+        final int length = HEADER_LENGTH + ringBufferLength + RingBufferDescriptor.TRAILER_LENGTH;
+        final MappedByteBuffer mappedByteBuffer = exists ?
+            LoggerUtil.mapExistingFile(file) : LoggerUtil.mapNewFile(file, length);
+        final BinaryDebugLog log = new BinaryDebugLog(mappedByteBuffer);
+        if (!exists)
+        {
+            for (final LogTag tag : initialTags)
+            {
+                log.enable(tag);
+            }
+        }
+
+        return log;
+    }
+
+    /**
+     * Map an existing debug log file, eg: in order to read it or switch the tags that it records.
+     *
+     * @param file the file to map.
+     * @return the mapped debug log.
+     */
+    public static BinaryDebugLog mapExisting(final File file)
+    {
+        if (!file.exists() || !file.canRead() || !file.isFile())
+        {
+            throw new IllegalStateException("Unable to read from file: " + file);
+        }
+
+        return new BinaryDebugLog(LoggerUtil.mapExistingFile(file));
+    }
+
+    private BinaryDebugLog(final MappedByteBuffer mappedByteBuffer)
+    {
+        this.mappedByteBuffer = mappedByteBuffer;
+        final int capacity = mappedByteBuffer.capacity();
+        header = new UnsafeBuffer(mappedByteBuffer, 0, HEADER_LENGTH);
+        ringBuffer = new ManyToOneRingBuffer(
+            new UnsafeBuffer(mappedByteBuffer, HEADER_LENGTH, capacity - HEADER_LENGTH));
+
+        final int maxRecordLength = ringBuffer.maxMsgLength();
+        scratchBuffers = ThreadLocal.withInitial(() -> new UnsafeBuffer(new byte[maxRecordLength]));
+    }
+
+    public boolean isEnabled(final LogTag tag)
+    {
+        return (header.getLongVolatile(ENABLED_TAGS_OFFSET) & mask(tag)) != 0;
+    }
+
+    public void enable(final LogTag tag)
+    {
+        final long mask = mask(tag);
+        long enabledTags;
+        do
+        {
+            enabledTags = header.getLongVolatile(ENABLED_TAGS_OFFSET);
+        }
+        while (!header.compareAndSetLong(ENABLED_TAGS_OFFSET, enabledTags, enabledTags | mask));
+    }
+
+    public void disable(final LogTag tag)
+    {
+        final long mask = mask(tag);
+        long enabledTags;
+        do
+        {
+            enabledTags = header.getLongVolatile(ENABLED_TAGS_OFFSET);
+        }
+        while (!header.compareAndSetLong(ENABLED_TAGS_OFFSET, enabledTags, enabledTags & ~mask));
+    }
+
+    /**
+     * Get the number of records that have been dropped because the ring buffer was full when they were logged.
+     *
+     * @return the number of records that have been dropped.
+     */
+    public long droppedRecords()
+    {
+        return header.getLongVolatile(DROPPED_RECORDS_OFFSET);
+    }
+
+    /**
+     * Record some data, the data is truncated if it doesn't fit within a single record.
+     *
+     * @param tag the tag to record the data under.
+     * @param label the format string that the record is rendered with, a %s for the data and a %d for the value
+     *              if one has been recorded.
+     * @param value a numeric argument to render the record with or {@link #NO_VALUE} if there isn't one.
+     * @param buffer the buffer that the data is in.
+     * @param offset the offset of the data within the buffer.
+     * @param length the length of the data.
+     */
+    public void log(
+        final LogTag tag,
+        final String label,
+        final long value,
+        final DirectBuffer buffer,
+        final int offset,
+        final int length)
+    {
+        final MutableDirectBuffer scratchBuffer = scratchBuffers.get();
+        final int dataOffset = putHeader(scratchBuffer, label, value);
+        final int dataLength = Math.min(length, scratchBuffer.capacity() - dataOffset);
+        scratchBuffer.putBytes(dataOffset, buffer, offset, dataLength);
+        write(tag, scratchBuffer, dataOffset + dataLength);
+    }
+
+    /**
+     * Record some data, the data is truncated if it doesn't fit within a single record.
+     *
+     * @param tag the tag to record the data under.
+     * @param label the format string that the record is rendered with, a %s for the data and a %d for the value
+     *              if one has been recorded.
+     * @param value a numeric argument to render the record with or {@link #NO_VALUE} if there isn't one.
+     * @param byteBuffer the buffer that the data is in, its position isn't changed.
+     * @param offset the offset of the data within the buffer.
+     * @param length the length of the data.
+     */
+    public void log(
+        final LogTag tag,
+        final String label,
+        final long value,
+        final ByteBuffer byteBuffer,
+        final int offset,
+        final int length)
+    {
+        final MutableDirectBuffer scratchBuffer = scratchBuffers.get();
+        final int dataOffset = putHeader(scratchBuffer, label, value);
+        final int dataLength = Math.min(length, scratchBuffer.capacity() - dataOffset);
+        scratchBuffer.putBytes(dataOffset, byteBuffer, offset, dataLength);
+        write(tag, scratchBuffer, dataOffset + dataLength);
+    }
+
+    /**
+     * Read and consume the records that have been logged.
+     *
+     * @param handler the handler to pass each record to.
+     * @param limit the maximum number of records to read.
+     * @return the number of records read.
+     */
+    public int read(final RecordHandler handler, final int limit)
+    {
+        return ringBuffer.read(
+            (msgTypeId, buffer, index, length) ->
+            {
+                final int labelLength = buffer.getInt(index + LABEL_LENGTH_OFFSET);
+                final int labelOffset = index + LABEL_OFFSET;
+                final int dataOffset = labelOffset + labelLength;
+                handler.onRecord(
+                    TAGS[msgTypeId - 1],
+                    buffer.getLong(index + TIMESTAMP_OFFSET),
+                    buffer.getLong(index + THREAD_ID_OFFSET),
+                    buffer.getLong(index + VALUE_OFFSET),
+                    buffer.getStringWithoutLengthAscii(labelOffset, labelLength),
+                    buffer,
+                    dataOffset,
+                    length - (dataOffset - index));
+            },
+            limit);
+    }
+
+    public void close()
+    {
+        IoUtil.unmap(mappedByteBuffer);
+    }
+
+    private int putHeader(final MutableDirectBuffer scratchBuffer, final String label, final long value)
+    {
+        scratchBuffer.putLong(TIMESTAMP_OFFSET, System.currentTimeMillis());
+        scratchBuffer.putLong(THREAD_ID_OFFSET, Thread.currentThread().getId());
+        scratchBuffer.putLong(VALUE_OFFSET, value);
+
+        // Copied a character at a time rather than using putStringWithoutLengthAscii in order to avoid allocating.
+        final int labelLength = Math.min(label.length(), scratchBuffer.capacity() - LABEL_OFFSET);
+        scratchBuffer.putInt(LABEL_LENGTH_OFFSET, labelLength);
+        for (int i = 0; i < labelLength; i++)
+        {
+            scratchBuffer.putByte(LABEL_OFFSET + i, (byte)label.charAt(i));
+        }
+
+        return LABEL_OFFSET + labelLength;
+    }
+
+    private void write(final LogTag tag, final MutableDirectBuffer scratchBuffer, final int length)
+    {
+        if (!ringBuffer.write(tag.ordinal() + 1, scratchBuffer, 0, length))
+        {
+            header.getAndAddLong(DROPPED_RECORDS_OFFSET, 1);
+        }
+    }
+
+    private static long mask(final LogTag tag)
+    {
+        return 1L << tag.ordinal();
+    }
+
+    @FunctionalInterface
+    public interface RecordHandler
+    {
+        /**
+         * Called for each record that is read from the debug log.
+         *
+         * @param tag the tag that the record was logged under.
+         * @param timestampInMs the time at which the record was logged.
+         * @param threadId the id of the thread that logged the record.
+         * @param value the numeric argument of the record or {@link #NO_VALUE} if there isn't one.
+         * @param label the format string to render the record with.
+         * @param buffer the buffer that the data of the record is in.
+         * @param offset the offset of the data within the buffer.
+         * @param length the length of the data.
+         */
+        void onRecord(
+            LogTag tag,
+            long timestampInMs,
+            long threadId,
+            long value,
+            String label,
+            DirectBuffer buffer,
+            int offset,
+            int length);
+    }
+}
@@ -92,6 +92,16 @@ public class CommonConfiguration
      * Property name for the file to log debug messages to, default is standard output
      */
     public static final String DEBUG_FILE_PROPERTY = "fix.core.debug.file";
+    /**
+     * Property name for the memory mapped file to record debug messages into in binary form, rather than formatting
+     * and printing them. The tags named by {@link #DEBUG_PRINT_MESSAGES_PROPERTY} are enabled when the file is
+     * created. See {@link BinaryDebugLog} and {@link DebugLogPrinter}.
+     */
+    public static final String DEBUG_LOG_FILE_PROPERTY = "fix.core.debug.log_file";
+    /**
+     * Property name for the length of the ring buffer within the binary debug log file, must be a power of two.
+     */
+    public static final String DEBUG_LOG_LENGTH_PROPERTY = "fix.core.debug.log_length";
     /**
      * Property name for the period at which histogram intervals are polled and logged
      */
@@ -171,6 +181,8 @@ public class CommonConfiguration
     }
 
     public static final String DEBUG_FILE = System.getProperty(DEBUG_FILE_PROPERTY);
+    public static final String DEBUG_LOG_FILE = System.getProperty(DEBUG_LOG_FILE_PROPERTY);
+    public static final int DEBUG_LOG_LENGTH = Integer.getInteger(DEBUG_LOG_LENGTH_PROPERTY, DEFAULT_DEBUG_LOG_LENGTH);
     public static final boolean TIME_MESSAGES = Boolean.getBoolean(TIME_MESSAGES_PROPERTY);
     public static final boolean FORCE_WRITES = Boolean.getBoolean(FORCE_WRITES_MESSAGES_PROPERTY);
 
@@ -182,6 +194,7 @@ public class CommonConfiguration
     // ------------------------------------------------
 
     public static final int DEFAULT_MONITORING_BUFFER_LENGTH = 4 * 1024 * 1024;
+    public static final int DEFAULT_DEBUG_LOG_LENGTH = 2 * 1024 * 1024;
     public static final String DEFAULT_DIRECTORY = optimalTmpDirName() + File.separator + "fix-%s";
     public static final String DEFAULT_MONITORING_FILE = DEFAULT_DIRECTORY + File.separator + "monitoring";
 
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+
+import java.io.File;
+import java.io.PrintStream;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static uk.co.real_logic.artio.BinaryDebugLog.NO_VALUE;
+import static uk.co.real_logic.artio.CommonConfiguration.DEBUG_LOGGING_SEPARATOR;
+import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_DEBUG_LOGGING_SEPARATOR;
+
+/**
+ * Renders the records of a {@link BinaryDebugLog} in the same format as the {@link DebugLogger} prints them, or
+ * switches the tags that it records.
+ * <p>
+ * Usage: DebugLogPrinter &lt;file&gt; [--enable=TAG,TAG] [--disable=TAG,TAG] [--follow]
+ * <p>
+ * If tags are enabled or disabled then the file is updated and no records are printed. Reading records consumes them,
+ * so there should only be one printer reading a file at a time.
+ */
+public final class DebugLogPrinter implements BinaryDebugLog.RecordHandler
+{
+    private static final int READ_LIMIT = 1024;
+
+    public static void main(final String[] args)
+    {
+        if (args.length < 1)
+        {
+            System.err.println("Usage: DebugLogPrinter <file> [--enable=TAG,TAG] [--disable=TAG,TAG] [--follow]");
+            System.exit(-1);
+        }
+
+        String enable = null;
+        String disable = null;
+        boolean follow = false;
+        for (int i = 1; i < args.length; i++)
+        {
+            final String arg = args[i];
+            if (arg.startsWith("--enable="))
+            {
+                enable = arg.substring("--enable=".length());
+            }
+            else if (arg.startsWith("--disable="))
+            {
+                disable = arg.substring("--disable=".length());
+            }
+            else if ("--follow".equals(arg))
+            {
+                follow = true;
+            }
+            else
+            {
+                System.err.println("Unknown option: " + arg);
+                System.exit(-1);
+            }
+        }
+
+        try (BinaryDebugLog log = BinaryDebugLog.mapExisting(new File(args[0])))
+        {
+            if (enable != null || disable != null)
+            {
+                if (enable != null)
+                {
+                    for (final String tag : enable.split(","))
+                    {
+                        log.enable(LogTag.valueOf(tag));
+                    }
+                }
+
+                if (disable != null)
+                {
+                    for (final String tag : disable.split(","))
+                    {
+                        log.disable(LogTag.valueOf(tag));
+                    }
+                }
+
+                return;
+            }
+
+            final DebugLogPrinter printer = new DebugLogPrinter(System.out);
+            final IdleStrategy idleStrategy = new BackoffIdleStrategy(1, 1, 1000, 1_000_000);
+            int read;
+            do
+            {
+                read = log.read(printer, READ_LIMIT);
+                idleStrategy.idle(read);
+            }
+            while (follow || read > 0);
+
+            final long droppedRecords = log.droppedRecords();
+            if (droppedRecords > 0)
+            {
+                System.err.printf("%d records were dropped because the debug log was full%n", droppedRecords);
+            }
+        }
+    }
+
+    private final PrintStream output;
+
+    public DebugLogPrinter(final PrintStream output)
+    {
+        this.output = output;
+    }
+
+    public void onRecord(
+        final LogTag tag,
+        final long timestampInMs,
+        final long threadId,
+        final long value,
+        final String label,
+        final DirectBuffer buffer,
+        final int offset,
+        final int length)
+    {
+        final byte[] data = new byte[length];
+        buffer.getBytes(offset, data);
+        substituteSeparator(data);
+        final String message = new String(data, US_ASCII);
+
+        final String formatString = timestampInMs + ":" + threadId + "[" + tag.name() + "]" + " : " + label;
+        if (value == NO_VALUE)
+        {
+            output.printf(formatString, message);
+        }
+        else
+        {
+            output.printf(formatString, value, message);
+        }
+    }
+
+    private static void substituteSeparator(final byte[] data)
+    {
+        if (DEBUG_LOGGING_SEPARATOR != DEFAULT_DEBUG_LOGGING_SEPARATOR)
+        {
+            final int size = data.length;
+            for (int i = 0; i < size; i++)
+            {
+                if (data[i] == DEFAULT_DEBUG_LOGGING_SEPARATOR)
+                {
+                    data[i] = DEBUG_LOGGING_SEPARATOR;
+                }
+            }
+        }
+    }
+}
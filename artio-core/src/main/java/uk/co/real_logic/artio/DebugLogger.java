@@ -19,6 +19,7 @@ package uk.co.real_logic.artio;
 import org.agrona.DirectBuffer;
 import uk.co.real_logic.artio.engine.ByteBufferUtil;
 
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
@@ -32,10 +33,16 @@ import static uk.co.real_logic.artio.engine.EngineConfiguration.DEBUG_PRINT_MESS
 /**
  * A logger purely for debug data. Not optimised for high performance logging, but all logging calls must be removable
  * by the optimiser.
+ * <p>
+ * If {@link CommonConfiguration#DEBUG_LOG_FILE_PROPERTY} is set then the calls that log the contents of a buffer, eg:
+ * FIX messages, are recorded into a {@link BinaryDebugLog} without allocating rather than being printed. The tags
+ * that are recorded can then be switched at runtime using the {@link DebugLogPrinter}.
  */
 public final class DebugLogger
 {
     private static final PrintStream OUTPUT;
+    private static final BinaryDebugLog BINARY_LOG = DEBUG_LOG_FILE == null ?
+        null : BinaryDebugLog.map(new File(DEBUG_LOG_FILE), DEBUG_LOG_LENGTH, DEBUG_TAGS);
 
     static
     {
@@ -70,7 +77,14 @@ public final class DebugLogger
         final int offset,
         final int length)
     {
-        if (isEnabled(tag))
+        if (BINARY_LOG != null)
+        {
+            if (BINARY_LOG.isEnabled(tag))
+            {
+                BINARY_LOG.log(tag, formatString, value, buffer, offset, length);
+            }
+        }
+        else if (isEnabled(tag))
         {
             final byte[] data = new byte[length];
             buffer.getBytes(offset, data);
@@ -96,7 +110,14 @@ public final class DebugLogger
         final int offset,
         final int length)
     {
-        if (isEnabled(tag))
+        if (BINARY_LOG != null)
+        {
+            if (BINARY_LOG.isEnabled(tag))
+            {
+                BINARY_LOG.log(tag, formatString, BinaryDebugLog.NO_VALUE, buffer, offset, length);
+            }
+        }
+        else if (isEnabled(tag))
         {
             final byte[] data = new byte[length];
             buffer.getBytes(offset, data);
@@ -111,7 +132,15 @@ public final class DebugLogger
         final ByteBuffer byteBuffer,
         final int length)
     {
-        if (isEnabled(tag))
+        if (BINARY_LOG != null)
+        {
+            if (BINARY_LOG.isEnabled(tag))
+            {
+                BINARY_LOG.log(
+                    tag, formatString, BinaryDebugLog.NO_VALUE, byteBuffer, byteBuffer.position() - length, length);
+            }
+        }
+        else if (isEnabled(tag))
         {
             final byte[] data = new byte[length];
             final int originalPosition = byteBuffer.position();
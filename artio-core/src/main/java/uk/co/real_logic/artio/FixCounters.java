@@ -23,6 +23,10 @@ import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Creates the counters of an engine or library. The counters are held by the Aeron client, so they can be read
+ * from outside the process whilst it is running, eg: with Aeron's <code>AeronStat</code> tool.
+ */
 public class FixCounters implements AutoCloseable
 {
 
@@ -35,6 +39,13 @@ public class FixCounters implements AutoCloseable
     private static final int INVALID_LIBRARY_ATTEMPTS_TYPE_ID = 10_005;
     private static final int SENT_MSG_SEQ_NO_TYPE_ID = 10_006;
     private static final int RECV_MSG_SEQ_NO_TYPE_ID = 10_007;
+    private static final int BUSY_POLLED_END_POINTS_TYPE_ID = 10_008;
+    private static final int SELECTED_END_POINTS_TYPE_ID = 10_009;
+    private static final int PUBLICATION_STALLS_TYPE_ID = 10_010;
+    private static final int PUBLICATION_STALL_TIME_TYPE_ID = 10_011;
+    private static final int INBOUND_BACK_PRESSURES_TYPE_ID = 10_012;
+    private static final int AGENT_WORKING_TIME_TYPE_ID = 10_013;
+    private static final int AGENT_IDLE_TIME_TYPE_ID = 10_014;
 
     private final List<Counter> counters = new ArrayList<>();
     private final AtomicCounter failedInboundPublications;
@@ -91,6 +102,45 @@ public class FixCounters implements AutoCloseable
         return newCounter(RECV_MSG_SEQ_NO_TYPE_ID, "Last Received MsgSeqNo for " + connectionId);
     }
 
+    public AtomicCounter busyPolledEndPoints()
+    {
+        return newCounter(BUSY_POLLED_END_POINTS_TYPE_ID, "TCP connections busy polled");
+    }
+
+    public AtomicCounter selectedEndPoints()
+    {
+        return newCounter(SELECTED_END_POINTS_TYPE_ID, "TCP connections polled through the selector");
+    }
+
+    public AtomicCounter inboundBackPressures(final long connectionId, final String address)
+    {
+        return newCounter(INBOUND_BACK_PRESSURES_TYPE_ID,
+            "Back pressured inbound messages from " + address + " id = " + connectionId);
+    }
+
+    public PublicationStallCounters publicationStalls(final String publicationName)
+    {
+        final AtomicCounter[] buckets = new AtomicCounter[PublicationStallCounters.bucketCount()];
+        for (int i = 0; i < buckets.length; i++)
+        {
+            buckets[i] = newCounter(PUBLICATION_STALLS_TYPE_ID,
+                "Back pressure stalls " + PublicationStallCounters.bucketLabel(i) + " on " + publicationName);
+        }
+
+        return new PublicationStallCounters(
+            buckets, newCounter(PUBLICATION_STALL_TIME_TYPE_ID, "Back pressure stall ns on " + publicationName));
+    }
+
+    public AtomicCounter agentWorkingTime(final String roleName)
+    {
+        return newCounter(AGENT_WORKING_TIME_TYPE_ID, "Working ns of " + roleName);
+    }
+
+    public AtomicCounter agentIdleTime(final String roleName)
+    {
+        return newCounter(AGENT_IDLE_TIME_TYPE_ID, "Idle ns of " + roleName);
+    }
+
     private AtomicCounter newCounter(final int typeId, final String label)
     {
         final Counter counter = aeron.addCounter(typeId, label);
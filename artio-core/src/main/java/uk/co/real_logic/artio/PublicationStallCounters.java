@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.concurrent.status.AtomicCounter;
+
+/**
+ * Counters that record how long claims on a publication were stalled by back pressure. Stalls are counted in buckets
+ * by duration, so the counters form a coarse histogram, along with the total time that was spent stalled.
+ */
+public final class PublicationStallCounters
+{
+    private static final long[] BUCKET_UPPER_BOUNDS_IN_NS =
+        { 1_000, 10_000, 100_000, 1_000_000, 10_000_000, Long.MAX_VALUE };
+    private static final String[] BUCKET_LABELS =
+        { "<= 1us", "<= 10us", "<= 100us", "<= 1ms", "<= 10ms", "> 10ms" };
+
+    private final AtomicCounter[] buckets;
+    private final AtomicCounter totalStallTimeInNs;
+
+    PublicationStallCounters(final AtomicCounter[] buckets, final AtomicCounter totalStallTimeInNs)
+    {
+        this.buckets = buckets;
+        this.totalStallTimeInNs = totalStallTimeInNs;
+    }
+
+    static int bucketCount()
+    {
+        return BUCKET_UPPER_BOUNDS_IN_NS.length;
+    }
+
+    static String bucketLabel(final int bucket)
+    {
+        return BUCKET_LABELS[bucket];
+    }
+
+    public void onStall(final long durationInNs)
+    {
+        totalStallTimeInNs.getAndAddOrdered(durationInNs);
+
+        final long[] upperBounds = BUCKET_UPPER_BOUNDS_IN_NS;
+        for (int i = 0; i < upperBounds.length; i++)
+        {
+            if (durationInNs <= upperBounds[i])
+            {
+                buckets[i].incrementOrdered();
+                return;
+            }
+        }
+    }
+}
@@ -16,12 +16,18 @@
 package uk.co.real_logic.artio.engine;
 
 import org.agrona.ErrorHandler;
+import org.agrona.collections.IntArrayList;
 import org.agrona.concurrent.AtomicBuffer;
 
 import java.nio.ByteBuffer;
 import java.util.zip.CRC32;
 
-// TODO: optimisation: write and checksum only needed bytes
+/**
+ * Maintains a checksum at the end of each sector of a buffer.
+ * <p>
+ * Writers can mark the sectors that they change as dirty so that {@link #updateDirtyChecksums()} only recalculates
+ * the checksums of those sectors, rather than every sector of the buffer.
+ */
 public class ChecksumFramer extends SectorFramer
 {
     private final CRC32 crc32 = new CRC32();
@@ -31,6 +37,8 @@ public class ChecksumFramer extends SectorFramer
     private final int errorReportingOffset;
     private final ChecksumConsumer validateChecksumFunc;
     private final String fileName;
+    private final boolean[] dirtySectors;
+    private final IntArrayList dirtySectorIndices = new IntArrayList();
 
     public ChecksumFramer(
         final AtomicBuffer buffer,
@@ -46,6 +54,7 @@ public class ChecksumFramer extends SectorFramer
         this.errorReportingOffset = errorReportingOffset;
         this.fileName = fileName;
         validateChecksumFunc = this::validateChecksum;
+        dirtySectors = new boolean[capacity / SECTOR_SIZE];
     }
 
     public void validateCheckSums()
@@ -56,6 +65,45 @@ public class ChecksumFramer extends SectorFramer
     public void updateChecksums()
     {
         withChecksums(saveChecksumFunc);
+        clearDirtySectors();
+    }
+
+    /**
+     * Mark the sector containing an offset as needing its checksum to be updated.
+     *
+     * @param offset an offset within the buffer that has been written to.
+     */
+    public void markDirty(final int offset)
+    {
+        final int sectorIndex = offset / SECTOR_SIZE;
+        if (sectorIndex < dirtySectors.length && !dirtySectors[sectorIndex])
+        {
+            dirtySectors[sectorIndex] = true;
+            dirtySectorIndices.addInt(sectorIndex);
+        }
+    }
+
+    /**
+     * Update the checksums of sectors that have been marked as dirty since the checksums were last updated.
+     *
+     * @return the number of sectors whose checksums were updated.
+     */
+    public int updateDirtyChecksums()
+    {
+        final IntArrayList dirtySectorIndices = this.dirtySectorIndices;
+        final int dirtySectorCount = dirtySectorIndices.size();
+        if (dirtySectorCount > 0)
+        {
+            for (int i = 0; i < dirtySectorCount; i++)
+            {
+                final int sectorEnd = (dirtySectorIndices.getInt(i) + 1) * SECTOR_SIZE;
+                checksumSector(sectorEnd, saveChecksumFunc);
+            }
+            resetByteBuffer();
+            clearDirtySectors();
+        }
+
+        return dirtySectorCount;
     }
 
     private void validateChecksum(final int checksumOffset, final int calculatedChecksum)
@@ -68,37 +116,58 @@ public class ChecksumFramer extends SectorFramer
 
     private void withChecksums(final ChecksumConsumer consumer)
     {
-        final byte[] inMemoryBytes = buffer.byteArray();
-        final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
-        final int wrapAdjustment = buffer.wrapAdjustment();
         final int capacity = this.capacity;
 
         for (int sectorEnd = SECTOR_SIZE; sectorEnd <= capacity; sectorEnd += SECTOR_SIZE)
         {
-            final int sectorStart = sectorEnd - SECTOR_SIZE + wrapAdjustment;
-            final int checksumOffset = sectorEnd - CHECKSUM_SIZE;
+            checksumSector(sectorEnd, consumer);
+        }
 
-            crc32.reset();
-            if (inMemoryBytes != null)
-            {
-                crc32.update(inMemoryBytes, sectorStart, SECTOR_DATA_LENGTH);
-            }
-            else
-            {
-                ByteBufferUtil.limit(inMemoryByteBuffer, sectorStart + SECTOR_DATA_LENGTH);
-                ByteBufferUtil.position(inMemoryByteBuffer, sectorStart);
-                crc32.update(inMemoryByteBuffer);
-            }
-            final int sectorChecksum = (int)crc32.getValue();
-            consumer.accept(checksumOffset, sectorChecksum);
+        resetByteBuffer();
+    }
+
+    private void checksumSector(final int sectorEnd, final ChecksumConsumer consumer)
+    {
+        final byte[] inMemoryBytes = buffer.byteArray();
+        final int sectorStart = sectorEnd - SECTOR_SIZE + buffer.wrapAdjustment();
+        final int checksumOffset = sectorEnd - CHECKSUM_SIZE;
+
+        crc32.reset();
+        if (inMemoryBytes != null)
+        {
+            crc32.update(inMemoryBytes, sectorStart, SECTOR_DATA_LENGTH);
+        }
+        else
+        {
+            final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
+            ByteBufferUtil.limit(inMemoryByteBuffer, sectorStart + SECTOR_DATA_LENGTH);
+            ByteBufferUtil.position(inMemoryByteBuffer, sectorStart);
+            crc32.update(inMemoryByteBuffer);
         }
+        final int sectorChecksum = (int)crc32.getValue();
+        consumer.accept(checksumOffset, sectorChecksum);
+    }
 
+    private void resetByteBuffer()
+    {
+        final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
         if (inMemoryByteBuffer != null)
         {
             inMemoryByteBuffer.clear();
         }
     }
 
+    private void clearDirtySectors()
+    {
+        final IntArrayList dirtySectorIndices = this.dirtySectorIndices;
+        final int dirtySectorCount = dirtySectorIndices.size();
+        for (int i = 0; i < dirtySectorCount; i++)
+        {
+            dirtySectors[dirtySectorIndices.getInt(i)] = false;
+        }
+        dirtySectorIndices.clear();
+    }
+
     private interface ChecksumConsumer
     {
         void accept(int checksumOffset, int sectorChecksum);
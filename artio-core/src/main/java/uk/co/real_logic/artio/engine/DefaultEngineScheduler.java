@@ -32,6 +32,7 @@ public class DefaultEngineScheduler implements EngineScheduler
 {
     private AgentRunner framerRunner;
     private AgentRunner archivingRunner;
+    private AgentRunner replayRunner;
     private AgentRunner monitoringRunner;
     private RecordingCoordinator recordingCoordinator;
 
@@ -43,6 +44,27 @@ public class DefaultEngineScheduler implements EngineScheduler
         final Agent monitoringAgent,
         final Agent conductorAgent,
         final RecordingCoordinator recordingCoordinator)
+    {
+        launch(
+            configuration,
+            errorHandler,
+            framer,
+            indexingAgent,
+            null,
+            monitoringAgent,
+            conductorAgent,
+            recordingCoordinator);
+    }
+
+    public void launch(
+        final EngineConfiguration configuration,
+        final ErrorHandler errorHandler,
+        final Agent framer,
+        final Agent indexingAgent,
+        final Agent replayAgent,
+        final Agent monitoringAgent,
+        final Agent conductorAgent,
+        final RecordingCoordinator recordingCoordinator)
     {
         this.recordingCoordinator = recordingCoordinator;
         if (framerRunner != null)
@@ -59,6 +81,13 @@ public class DefaultEngineScheduler implements EngineScheduler
         startOnThread(framerRunner, threadFactory);
         startOnThread(archivingRunner, threadFactory);
 
+        if (replayAgent != null)
+        {
+            replayRunner = new AgentRunner(
+                configuration.replayerIdleStrategy(), errorHandler, null, replayAgent);
+            startOnThread(replayRunner, threadFactory);
+        }
+
         if (monitoringAgent != null)
         {
             monitoringRunner = new AgentRunner(
@@ -74,9 +103,10 @@ public class DefaultEngineScheduler implements EngineScheduler
     {
         EngineScheduler.awaitRunnerStart(framerRunner);
         EngineScheduler.awaitRunnerStart(archivingRunner);
+        EngineScheduler.awaitRunnerStart(replayRunner);
         EngineScheduler.awaitRunnerStart(monitoringRunner);
 
-        Exceptions.closeAll(framerRunner, archivingRunner, recordingCoordinator, monitoringRunner);
+        Exceptions.closeAll(framerRunner, archivingRunner, replayRunner, recordingCoordinator, monitoringRunner);
     }
 
     public void configure(final Aeron.Context aeronContext)
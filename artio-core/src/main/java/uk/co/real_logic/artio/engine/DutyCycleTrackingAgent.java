@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.status.AtomicCounter;
+
+/**
+ * Splits the time of an agent into time spent working and time spent idle. Each duty cycle, from the start of one
+ * call to {@link #doWork()} to the start of the next, is counted as working if it did any work and idle otherwise, so
+ * the time spent in the idle strategy after a duty cycle is attributed to that duty cycle.
+ */
+final class DutyCycleTrackingAgent implements Agent
+{
+    private final Agent delegate;
+    private final AtomicCounter workingTimeInNs;
+    private final AtomicCounter idleTimeInNs;
+
+    private long cycleStartTimeInNs;
+    private boolean cycleDidWork;
+
+    DutyCycleTrackingAgent(final Agent delegate, final AtomicCounter workingTimeInNs, final AtomicCounter idleTimeInNs)
+    {
+        this.delegate = delegate;
+        this.workingTimeInNs = workingTimeInNs;
+        this.idleTimeInNs = idleTimeInNs;
+    }
+
+    public void onStart()
+    {
+        delegate.onStart();
+        cycleStartTimeInNs = System.nanoTime();
+    }
+
+    public int doWork() throws Exception
+    {
+        final long timeInNs = System.nanoTime();
+        final long cycleTimeInNs = timeInNs - cycleStartTimeInNs;
+        if (cycleDidWork)
+        {
+            workingTimeInNs.getAndAddOrdered(cycleTimeInNs);
+        }
+        else
+        {
+            idleTimeInNs.getAndAddOrdered(cycleTimeInNs);
+        }
+        cycleStartTimeInNs = timeInNs;
+
+        final int workCount = delegate.doWork();
+        cycleDidWork = workCount > 0;
+
+        return workCount;
+    }
+
+    public void onClose()
+    {
+        delegate.onClose();
+    }
+
+    public String roleName()
+    {
+        return delegate.roleName();
+    }
+}
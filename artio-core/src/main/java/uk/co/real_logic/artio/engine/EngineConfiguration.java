@@ -38,6 +38,7 @@ import java.util.Set;
 import java.util.function.Function;
 
 import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
 import static java.lang.System.getProperty;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.INITIAL_RECORD_OFFSET;
@@ -110,6 +111,59 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for the maximum number of bytes to allow in the quarantine buffer before disconnection
      */
     public static final String SENDER_MAX_BYTES_IN_BUFFER_PROP = "fix.core.sender_max_bytes_in_buffer";
+    /**
+     * Property name for the maximum size in bytes of a batch of outbound messages written to a TCP connection at
+     * once, 0 disables batching.
+     */
+    public static final String SENDER_MAX_BATCH_SIZE_PROP = "fix.core.sender_max_batch_size";
+    /**
+     * Property name for the maximum number of outbound messages in a batch written to a TCP connection at once.
+     */
+    public static final String SENDER_MAX_BATCH_MESSAGES_PROP = "fix.core.sender_max_batch_messages";
+    /**
+     * Property name for the size in bytes of the in memory cache of recently sent messages kept for each session,
+     * 0 disables the cache.
+     */
+    public static final String RESEND_CACHE_SIZE_PROP = "fix.core.resend_cache_size";
+    /**
+     * Property name for whether TCP connections are polled adaptively, busy polling the ones that are frequently
+     * read from and using the selector for the rest.
+     */
+    public static final String ADAPTIVE_RECEIVER_POLLING_PROP = "fix.core.adaptive_receiver_polling";
+    /**
+     * Property name for the length of the window, in milliseconds, over which the read rates of TCP connections are
+     * measured when polling adaptively.
+     */
+    public static final String RECEIVER_POLLING_WINDOW_PROP = "fix.core.receiver_polling_window";
+    /**
+     * Property name for the number of reads within a window at which a TCP connection is busy polled when polling
+     * adaptively.
+     */
+    public static final String BUSY_POLL_READ_THRESHOLD_PROP = "fix.core.busy_poll_read_threshold";
+    /**
+     * Property name for whether counters of the time each engine agent spends working and idle are kept.
+     */
+    public static final String AGENT_DUTY_CYCLE_COUNTERS_PROP = "fix.core.agent_duty_cycle_counters";
+    /**
+     * Property name for whether the sequence number indices are checkpointed incrementally, writing only the sectors
+     * that have changed rather than the whole file.
+     */
+    public static final String INCREMENTAL_SEQUENCE_NUMBER_INDEX_PROP = "fix.core.incremental_sequence_number_index";
+    /**
+     * Property name for whether the checksums of the replay index's position files are updated once per batch of
+     * indexed fragments rather than after every fragment.
+     */
+    public static final String BATCH_REPLAY_POSITION_CHECKSUMS_PROP = "fix.core.batch_replay_position_checksums";
+    /**
+     * Property name for the size in bytes of the time index file kept for each archived stream, 0 disables the
+     * time index.
+     */
+    public static final String TIME_INDEX_FILE_SIZE_PROP = "fix.core.time_index_file_size";
+    /**
+     * Property name for the size of the time buckets of the time index, in the precision of
+     * {@link uk.co.real_logic.artio.CommonConfiguration#clock()}.
+     */
+    public static final String TIME_INDEX_BUCKET_SIZE_PROP = "fix.core.time_index_bucket_size";
     /**
      * Property name for the timeout before a connection that hasn't sent a logon is disconnected
      */
@@ -133,6 +187,14 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     public static final int DEFAULT_SEQUENCE_NUMBER_INDEX_SIZE = 8 * 1024 * 1024;
     public static final int DEFAULT_SESSION_ID_BUFFER_SIZE = 4 * 1024 * 1024;
     public static final int DEFAULT_SENDER_MAX_BYTES_IN_BUFFER = 4 * 1024 * 1024;
+    public static final int DEFAULT_SENDER_MAX_BATCH_SIZE = 0;
+    public static final int DEFAULT_SENDER_MAX_BATCH_MESSAGES = 16;
+    public static final int DEFAULT_RESEND_CACHE_SIZE = 0;
+    public static final int DEFAULT_TIME_INDEX_FILE_SIZE = 0;
+    /** One second with the default, nanosecond precision, clock. */
+    public static final long DEFAULT_TIME_INDEX_BUCKET_SIZE = SECONDS.toNanos(1);
+    public static final long DEFAULT_RECEIVER_POLLING_WINDOW_IN_MS = 100;
+    public static final int DEFAULT_BUSY_POLL_READ_THRESHOLD = 10;
     public static final int DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT = (int)SECONDS.toMillis(5);
     public static final String DEFAULT_SESSION_ID_FILE = "session_id_buffer";
     public static final String DEFAULT_SEQUENCE_NUMBERS_SENT_FILE = "sequence_numbers_sent";
@@ -174,6 +236,8 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private boolean printStartupWarnings = true;
     private IdleStrategy framerIdleStrategy = backoffIdleStrategy();
     private IdleStrategy archiverIdleStrategy = backoffIdleStrategy();
+    private IdleStrategy replayerIdleStrategy = backoffIdleStrategy();
+    private boolean dedicatedReplayAgent = false;
     private AtomicBuffer sentSequenceNumberBuffer;
     private AtomicBuffer receivedSequenceNumberBuffer;
     private MappedFile sentSequenceNumberIndex;
@@ -202,6 +266,20 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         getInteger(SENDER_MAX_BYTES_IN_BUFFER_PROP, DEFAULT_SENDER_MAX_BYTES_IN_BUFFER);
     private int noLogonDisconnectTimeoutInMs =
         getInteger(NO_LOGON_DISCONNECT_TIMEOUT_PROP, DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT);
+    private int senderMaxBatchSize =
+        getInteger(SENDER_MAX_BATCH_SIZE_PROP, DEFAULT_SENDER_MAX_BATCH_SIZE);
+    private int senderMaxBatchMessages =
+        getInteger(SENDER_MAX_BATCH_MESSAGES_PROP, DEFAULT_SENDER_MAX_BATCH_MESSAGES);
+    private int resendCacheSize = getInteger(RESEND_CACHE_SIZE_PROP, DEFAULT_RESEND_CACHE_SIZE);
+    private boolean adaptiveReceiverPolling = Boolean.getBoolean(ADAPTIVE_RECEIVER_POLLING_PROP);
+    private long receiverPollingWindowInMs =
+        getLong(RECEIVER_POLLING_WINDOW_PROP, DEFAULT_RECEIVER_POLLING_WINDOW_IN_MS);
+    private int busyPollReadThreshold = getInteger(BUSY_POLL_READ_THRESHOLD_PROP, DEFAULT_BUSY_POLL_READ_THRESHOLD);
+    private boolean agentDutyCycleCounters = Boolean.getBoolean(AGENT_DUTY_CYCLE_COUNTERS_PROP);
+    private boolean incrementalSequenceNumberIndex = Boolean.getBoolean(INCREMENTAL_SEQUENCE_NUMBER_INDEX_PROP);
+    private boolean batchReplayPositionChecksums = Boolean.getBoolean(BATCH_REPLAY_POSITION_CHECKSUMS_PROP);
+    private int timeIndexFileSize = getInteger(TIME_INDEX_FILE_SIZE_PROP, DEFAULT_TIME_INDEX_FILE_SIZE);
+    private long timeIndexBucketSize = getLong(TIME_INDEX_BUCKET_SIZE_PROP, DEFAULT_TIME_INDEX_BUCKET_SIZE);
 
     private String libraryAeronChannel = null;
     private Function<EngineConfiguration, TcpChannelSupplier> channelSupplierFactory = DefaultTcpChannelSupplier::new;
@@ -405,6 +483,36 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the idle strategy for the Replayer thread, only used if {@link #dedicatedReplayAgent(boolean)} is set.
+     *
+     * @param replayerIdleStrategy the idle strategy for the Replayer thread.
+     * @return this
+     */
+    public EngineConfiguration replayerIdleStrategy(final IdleStrategy replayerIdleStrategy)
+    {
+        this.replayerIdleStrategy = replayerIdleStrategy;
+        return this;
+    }
+
+    /**
+     * Sets whether resend requests are replayed by their own agent rather than the archiving agent.
+     * <p>
+     * By default the Replayer shares the archiving agent with the indexers, so a large replay for one session delays
+     * index updates for every other session, and slow indexing delays replays. Switching this on hands a separate
+     * replay agent to the {@link EngineScheduler}, which can run it on its own thread.
+     * <p>
+     * Default: false.
+     *
+     * @param dedicatedReplayAgent true to run the Replayer on its own agent.
+     * @return this
+     */
+    public EngineConfiguration dedicatedReplayAgent(final boolean dedicatedReplayAgent)
+    {
+        this.dedicatedReplayAgent = dedicatedReplayAgent;
+        return this;
+    }
+
     /**
      * Sets the fragment limit for the subscription to outbound messages from libraries.
      *
@@ -450,6 +558,177 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the maximum size in bytes of a batch of outbound messages. When this is set consecutive messages to the
+     * same TCP connection that are read in the same duty cycle are written with a single write call rather than one
+     * call per message. Batches are always written by the end of the duty cycle that read them. Disabled by default.
+     *
+     * @param senderMaxBatchSize the maximum size in bytes of a batch of outbound messages, 0 disables batching.
+     * @return this
+     * @see EngineConfiguration#SENDER_MAX_BATCH_SIZE_PROP
+     */
+    public EngineConfiguration senderMaxBatchSize(final int senderMaxBatchSize)
+    {
+        this.senderMaxBatchSize = senderMaxBatchSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of outbound messages in a batch, a batch is written once it holds this many messages.
+     * This bounds the latency that batching can add to the first message of a batch.
+     *
+     * @param senderMaxBatchMessages the maximum number of outbound messages in a batch.
+     * @return this
+     * @see EngineConfiguration#SENDER_MAX_BATCH_MESSAGES_PROP
+     */
+    public EngineConfiguration senderMaxBatchMessages(final int senderMaxBatchMessages)
+    {
+        this.senderMaxBatchMessages = senderMaxBatchMessages;
+        return this;
+    }
+
+    /**
+     * Sets the size of the in memory cache of recently sent messages that is kept for each session. Resend requests
+     * that are fully covered by the cache are replayed from it rather than from the archive. Only used when
+     * outbound messages are logged. Disabled by default.
+     *
+     * @param resendCacheSize the size in bytes of each session's cache, a power of two or 0 to disable the cache.
+     * @return this
+     * @see EngineConfiguration#RESEND_CACHE_SIZE_PROP
+     */
+    public EngineConfiguration resendCacheSize(final int resendCacheSize)
+    {
+        this.resendCacheSize = resendCacheSize;
+        return this;
+    }
+
+    /**
+     * Sets whether TCP connections are polled adaptively.
+     * <p>
+     * By default every connection is polled on each duty cycle while there are only a few connections, and the
+     * selector is used once there are more. When polling adaptively the number of reads from each connection is
+     * measured over a window, see {@link #receiverPollingWindowInMs(long)}. Connections that were read from at least
+     * {@link #busyPollReadThreshold(int)} times are busy polled for the next window, and the idle remainder are
+     * polled through the selector. Disabled by default.
+     *
+     * @param adaptiveReceiverPolling true to poll TCP connections adaptively.
+     * @return this
+     * @see EngineConfiguration#ADAPTIVE_RECEIVER_POLLING_PROP
+     */
+    public EngineConfiguration adaptiveReceiverPolling(final boolean adaptiveReceiverPolling)
+    {
+        this.adaptiveReceiverPolling = adaptiveReceiverPolling;
+        return this;
+    }
+
+    /**
+     * Sets the length of the window over which the read rates of TCP connections are measured when
+     * {@link #adaptiveReceiverPolling(boolean)} is enabled.
+     *
+     * @param receiverPollingWindowInMs the length of the window in milliseconds.
+     * @return this
+     * @see EngineConfiguration#RECEIVER_POLLING_WINDOW_PROP
+     */
+    public EngineConfiguration receiverPollingWindowInMs(final long receiverPollingWindowInMs)
+    {
+        this.receiverPollingWindowInMs = receiverPollingWindowInMs;
+        return this;
+    }
+
+    /**
+     * Sets the number of reads within a window at which a TCP connection is busy polled when
+     * {@link #adaptiveReceiverPolling(boolean)} is enabled.
+     *
+     * @param busyPollReadThreshold the number of reads within a window.
+     * @return this
+     * @see EngineConfiguration#BUSY_POLL_READ_THRESHOLD_PROP
+     */
+    public EngineConfiguration busyPollReadThreshold(final int busyPollReadThreshold)
+    {
+        this.busyPollReadThreshold = busyPollReadThreshold;
+        return this;
+    }
+
+    /**
+     * Sets whether counters of the time each engine agent spends working and idle are kept. A duty cycle is counted
+     * as working if it does any work, so this costs reading the clock once per duty cycle. Disabled by default.
+     *
+     * @param agentDutyCycleCounters true to keep counters of the time spent working and idle.
+     * @return this
+     * @see EngineConfiguration#AGENT_DUTY_CYCLE_COUNTERS_PROP
+     */
+    public EngineConfiguration agentDutyCycleCounters(final boolean agentDutyCycleCounters)
+    {
+        this.agentDutyCycleCounters = agentDutyCycleCounters;
+        return this;
+    }
+
+    /**
+     * Sets whether the sent and received sequence number indices are checkpointed incrementally. When enabled only
+     * the sectors of the index that have changed since the last checkpoint are written, in place, via a journal file
+     * next to the index, so the cost of a checkpoint scales with the number of sessions that have changed rather than
+     * the size of the index. When disabled, the default, the whole index is written out and renamed over the old one.
+     *
+     * @param incrementalSequenceNumberIndex true to checkpoint the sequence number indices incrementally.
+     * @return this
+     * @see EngineConfiguration#INCREMENTAL_SEQUENCE_NUMBER_INDEX_PROP
+     */
+    public EngineConfiguration incrementalSequenceNumberIndex(final boolean incrementalSequenceNumberIndex)
+    {
+        this.incrementalSequenceNumberIndex = incrementalSequenceNumberIndex;
+        return this;
+    }
+
+    /**
+     * Sets whether the checksums of the replay index's position files are updated once per batch of fragments that
+     * the indexer polls, rather than after every fragment. This reduces the indexing cost per message, but a crash
+     * can leave the checksums of up to a batch's worth of position updates stale. Disabled by default.
+     *
+     * @param batchReplayPositionChecksums true to update the checksums once per batch of fragments.
+     * @return this
+     * @see EngineConfiguration#BATCH_REPLAY_POSITION_CHECKSUMS_PROP
+     */
+    public EngineConfiguration batchReplayPositionChecksums(final boolean batchReplayPositionChecksums)
+    {
+        this.batchReplayPositionChecksums = batchReplayPositionChecksums;
+        return this;
+    }
+
+    /**
+     * Sets the size of the time index file that is kept for each archived stream. The time index maps buckets of
+     * time to the archive positions of the messages within them, so that the archive can be scanned for a window of
+     * time without replaying whole recordings, see
+     * {@link uk.co.real_logic.artio.engine.logger.FixArchiveScanner#scanTimeWindow}. Only used when outbound messages
+     * are logged. Disabled by default.
+     *
+     * If you want to size in terms of the last N buckets of time then use the formula:
+     * INITIAL_RECORD_OFFSET + N * ReplayIndexDescriptor.RECORD_LENGTH, rounded so that N is a power of two.
+     *
+     * @param timeIndexFileSize the size in bytes of each stream's time index file, or 0 to disable the time index.
+     * @return this
+     * @see EngineConfiguration#TIME_INDEX_FILE_SIZE_PROP
+     */
+    public EngineConfiguration timeIndexFileSize(final int timeIndexFileSize)
+    {
+        this.timeIndexFileSize = timeIndexFileSize;
+        return this;
+    }
+
+    /**
+     * Sets the size of the buckets of time in the time index. A window scanned using the time index replays at most
+     * a bucket either side of the window from the archive. Defaults to one second of the default clock.
+     *
+     * @param timeIndexBucketSize the size of each bucket, in the precision of
+     *                            {@link uk.co.real_logic.artio.CommonConfiguration#clock()}.
+     * @return this
+     * @see EngineConfiguration#TIME_INDEX_BUCKET_SIZE_PROP
+     */
+    public EngineConfiguration timeIndexBucketSize(final long timeIndexBucketSize)
+    {
+        this.timeIndexBucketSize = timeIndexBucketSize;
+        return this;
+    }
+
     /**
      * Set the timeout in milliseconds for TCP connections which don't send a logon message.
      *
@@ -709,6 +988,16 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return archiverIdleStrategy;
     }
 
+    public IdleStrategy replayerIdleStrategy()
+    {
+        return replayerIdleStrategy;
+    }
+
+    public boolean dedicatedReplayAgent()
+    {
+        return dedicatedReplayAgent;
+    }
+
     public int outboundLibraryFragmentLimit()
     {
         return outboundLibraryFragmentLimit;
@@ -764,6 +1053,61 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return noLogonDisconnectTimeoutInMs;
     }
 
+    public int senderMaxBatchSize()
+    {
+        return senderMaxBatchSize;
+    }
+
+    public int senderMaxBatchMessages()
+    {
+        return senderMaxBatchMessages;
+    }
+
+    public int resendCacheSize()
+    {
+        return resendCacheSize;
+    }
+
+    public boolean adaptiveReceiverPolling()
+    {
+        return adaptiveReceiverPolling;
+    }
+
+    public long receiverPollingWindowInMs()
+    {
+        return receiverPollingWindowInMs;
+    }
+
+    public int busyPollReadThreshold()
+    {
+        return busyPollReadThreshold;
+    }
+
+    public boolean agentDutyCycleCounters()
+    {
+        return agentDutyCycleCounters;
+    }
+
+    public boolean incrementalSequenceNumberIndex()
+    {
+        return incrementalSequenceNumberIndex;
+    }
+
+    public boolean batchReplayPositionChecksums()
+    {
+        return batchReplayPositionChecksums;
+    }
+
+    public int timeIndexFileSize()
+    {
+        return timeIndexFileSize;
+    }
+
+    public long timeIndexBucketSize()
+    {
+        return timeIndexBucketSize;
+    }
+
     public SessionPersistenceStrategy sessionPersistenceStrategy()
     {
         return sessionPersistenceStrategy;
@@ -34,7 +34,7 @@ import uk.co.real_logic.artio.protocol.Streams;
 import java.util.ArrayList;
 import java.util.List;
 
-import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static uk.co.real_logic.artio.dictionary.generation.Exceptions.suppressingClose;
 
 public class EngineContext implements AutoCloseable
@@ -60,7 +60,9 @@ public class EngineContext implements AutoCloseable
     // Indexers are owned by the indexingAgent
     private Indexer inboundIndexer;
     private Indexer outboundIndexer;
+    private ResendCache resendCache;
     private Agent indexingAgent;
+    private Agent replayAgent;
 
     EngineContext(
         final EngineConfiguration configuration,
@@ -92,7 +94,8 @@ public class EngineContext implements AutoCloseable
                 configuration.outboundLibraryStream(),
                 recordingCoordinator.outboundRecordingIdLookup(),
                 configuration.indexFileStateFlushTimeoutInMs(),
-                epochClock);
+                epochClock,
+                configuration.incrementalSequenceNumberIndex());
             receivedSequenceNumberIndex = new SequenceNumberIndexWriter(
                 configuration.receivedSequenceNumberBuffer(),
                 configuration.receivedSequenceNumberIndex(),
@@ -100,7 +103,8 @@ public class EngineContext implements AutoCloseable
                 configuration.inboundLibraryStream(),
                 recordingCoordinator.inboundRecordingIdLookup(),
                 configuration.indexFileStateFlushTimeoutInMs(),
-                epochClock);
+                epochClock,
+                configuration.incrementalSequenceNumberIndex());
 
             newStreams();
             newArchivingAgent();
@@ -125,6 +129,7 @@ public class EngineContext implements AutoCloseable
             libraryAeronChannel,
             printAeronStreamIdentifiers,
             fixCounters.failedInboundPublications(),
+            fixCounters,
             configuration.inboundLibraryStream(),
             clock,
             configuration.inboundMaxClaimAttempts(),
@@ -134,6 +139,7 @@ public class EngineContext implements AutoCloseable
             libraryAeronChannel,
             printAeronStreamIdentifiers,
             fixCounters.failedOutboundPublications(),
+            fixCounters,
             configuration.outboundLibraryStream(),
             clock,
             configuration.outboundMaxClaimAttempts(),
@@ -156,7 +162,8 @@ public class EngineContext implements AutoCloseable
             LoggerUtil::map,
             ReplayIndexDescriptor.replayPositionBuffer(logFileDir, streamId),
             errorHandler,
-            recordingIdLookup);
+            recordingIdLookup,
+            configuration.batchReplayPositionChecksums());
     }
 
     private ReplayQuery newReplayQuery(final IdleStrategy idleStrategy, final int streamId)
@@ -175,17 +182,21 @@ public class EngineContext implements AutoCloseable
             idleStrategy,
             aeronArchive,
             errorHandler,
-            archiveReplayStream);
+            archiveReplayStream,
+            streamId == configuration.outboundLibraryStream());
     }
 
     private Replayer newReplayer(
         final ExclusivePublication replayPublication)
     {
+        final IdleStrategy idleStrategy = configuration.dedicatedReplayAgent() ?
+            configuration.replayerIdleStrategy() : configuration.archiverIdleStrategy();
+
         return new Replayer(
-            newReplayQuery(configuration.archiverIdleStrategy(), configuration.outboundLibraryStream()),
+            newReplayQuery(idleStrategy, configuration.outboundLibraryStream()),
             replayPublication,
             new BufferClaim(),
-            configuration.archiverIdleStrategy(),
+            idleStrategy,
             errorHandler,
             configuration.outboundMaxClaimAttempts(),
             inboundLibraryStreams.subscription("replayer"),
@@ -193,7 +204,8 @@ public class EngineContext implements AutoCloseable
             new SystemEpochClock(),
             configuration.gapfillOnReplayMessageTypes(),
             configuration.replayHandler(),
-            senderSequenceNumbers);
+            senderSequenceNumbers,
+            resendCache);
     }
 
     private void newIndexers()
@@ -209,8 +221,15 @@ public class EngineContext implements AutoCloseable
             configuration.inboundLibraryStream(),
             recordingCoordinator.inboundRecordingIdLookup());
 
+        final List<Index> inboundIndices = new ArrayList<>();
+        inboundIndices.add(inboundReplayIndex);
+        inboundIndices.add(receivedSequenceNumberIndex);
+        addTimeIndex(
+            inboundIndices, logFileDir, configuration.inboundLibraryStream(),
+            recordingCoordinator.inboundRecordingIdLookup());
+
         inboundIndexer = new Indexer(
-            asList(inboundReplayIndex, receivedSequenceNumberIndex),
+            inboundIndices,
             inboundLibraryStreams.subscription("inboundIndexer"),
             configuration.agentNamePrefix(),
             inboundCompletionPosition,
@@ -228,6 +247,19 @@ public class EngineContext implements AutoCloseable
             recordingCoordinator.outboundRecordingIdLookup()));
         outboundIndices.add(sentSequenceNumberIndex);
         outboundIndices.add(new PositionSender(inboundPublication()));
+        addTimeIndex(
+            outboundIndices, logFileDir, configuration.outboundLibraryStream(),
+            recordingCoordinator.outboundRecordingIdLookup());
+
+        final int resendCacheSize = configuration.resendCacheSize();
+        if (resendCacheSize > 0)
+        {
+            resendCache = new ResendCache(resendCacheSize);
+            if (!configuration.dedicatedReplayAgent())
+            {
+                outboundIndices.add(resendCache);
+            }
+        }
 
         outboundIndexer = new Indexer(
             outboundIndices,
@@ -239,6 +271,25 @@ public class EngineContext implements AutoCloseable
             configuration.archiveReplayStream(), configuration.gracefulShutdown());
     }
 
+    private void addTimeIndex(
+        final List<Index> indices,
+        final String logFileDir,
+        final int streamId,
+        final RecordingIdLookup recordingIdLookup)
+    {
+        final int timeIndexFileSize = configuration.timeIndexFileSize();
+        if (timeIndexFileSize > 0)
+        {
+            indices.add(new TimeIndex(
+                logFileDir,
+                streamId,
+                timeIndexFileSize,
+                configuration.timeIndexBucketSize(),
+                LoggerUtil::map,
+                recordingIdLookup));
+        }
+    }
+
     private void newArchivingAgent()
     {
         if (configuration.logOutboundMessages())
@@ -250,7 +301,15 @@ public class EngineContext implements AutoCloseable
             final List<Agent> agents = new ArrayList<>();
             agents.add(inboundIndexer);
             agents.add(outboundIndexer);
-            agents.add(replayer);
+
+            if (configuration.dedicatedReplayAgent())
+            {
+                replayAgent = newReplayAgent(replayer);
+            }
+            else
+            {
+                agents.add(replayer);
+            }
 
             indexingAgent = new CompositeAgent(agents);
         }
@@ -259,6 +318,7 @@ public class EngineContext implements AutoCloseable
             final GatewayPublication replayGatewayPublication = new GatewayPublication(
                 replayPublication,
                 fixCounters.failedReplayPublications(),
+                fixCounters.publicationStalls("replayPublication"),
                 configuration.archiverIdleStrategy(),
                 clock,
                 configuration.outboundMaxClaimAttempts());
@@ -271,6 +331,28 @@ public class EngineContext implements AutoCloseable
         }
     }
 
+    private Agent newReplayAgent(final Replayer replayer)
+    {
+        if (resendCache == null)
+        {
+            return replayer;
+        }
+
+        // The Replayer reads the resend cache without synchronisation, so the cache is fed by an indexer of its own
+        // on the replay agent rather than by the archiving agent's outbound indexer.
+        final Indexer resendCacheIndexer = new Indexer(
+            singletonList(resendCache),
+            outboundLibraryStreams.subscription("resendCacheIndexer"),
+            configuration.agentNamePrefix(),
+            outboundLibraryCompletionPosition,
+            aeronArchive,
+            errorHandler,
+            configuration.archiveReplayStream(),
+            configuration.gracefulShutdown());
+
+        return new CompositeAgent(resendCacheIndexer, replayer);
+    }
+
     public Streams outboundLibraryStreams()
     {
         return outboundLibraryStreams;
@@ -327,6 +409,11 @@ public class EngineContext implements AutoCloseable
         return indexingAgent;
     }
 
+    Agent replayAgent()
+    {
+        return replayAgent;
+    }
+
     public SenderSequenceNumbers senderSequenceNumbers()
     {
         return senderSequenceNumbers;
@@ -19,6 +19,7 @@ import io.aeron.Aeron;
 import org.agrona.ErrorHandler;
 import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.CompositeAgent;
 
 /**
  * Interface for determining how an Engine's Agents are allocated to threads.
@@ -45,6 +46,47 @@ public interface EngineScheduler extends AutoCloseable
         Agent conductorAgent,
         RecordingCoordinator recordingCoordinator);
 
+    /**
+     * Invoked by the FIX Engine to start the threads when it may have a dedicated replay agent.
+     * Should only return once they are started.
+     *
+     * The default implementation runs the replay agent within the archiver agent's thread, by composing the two
+     * and delegating to {@link #launch(EngineConfiguration, ErrorHandler, Agent, Agent, Agent, Agent,
+     * RecordingCoordinator)}. Override this method in order to schedule the replay agent separately.
+     *
+     * @param configuration the engine's configuration object.
+     * @param errorHandler the ErrorHandler used by the engine.
+     * @param framer the framer agent to schedule.
+     * @param indexingAgent the archiver agent to schedule.
+     * @param replayAgent the replay agent to schedule, null unless
+     *                    {@link EngineConfiguration#dedicatedReplayAgent(boolean)} is set.
+     * @param monitoringAgent the monitoring agent to schedule.
+     * @param conductorAgent if aeron has useConductorInvoker enable it
+     * @param recordingCoordinator must be shut down after the Framer but before the conductorAgent.
+     */
+    default void launch(
+        final EngineConfiguration configuration,
+        final ErrorHandler errorHandler,
+        final Agent framer,
+        final Agent indexingAgent,
+        final Agent replayAgent,
+        final Agent monitoringAgent,
+        final Agent conductorAgent,
+        final RecordingCoordinator recordingCoordinator)
+    {
+        final Agent archivingAgent = replayAgent == null ?
+            indexingAgent : new CompositeAgent(indexingAgent, replayAgent);
+
+        launch(
+            configuration,
+            errorHandler,
+            framer,
+            archivingAgent,
+            monitoringAgent,
+            conductorAgent,
+            recordingCoordinator);
+    }
+
     /**
      * Invoked by the FIX Engine to stop the threads. Should only return once they are completed stopped.
      */
@@ -19,6 +19,7 @@ import io.aeron.ExclusivePublication;
 import io.aeron.Image;
 import io.aeron.Subscription;
 import io.aeron.archive.client.AeronArchive;
+import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.AgentInvoker;
 import org.agrona.concurrent.IdleStrategy;
 import uk.co.real_logic.artio.FixCounters;
@@ -250,8 +251,9 @@ public final class FixEngine extends GatewayProcess
         scheduler.launch(
             configuration,
             errorHandler,
-            framerContext.framer(),
-            engineContext.indexingAgent(),
+            trackDutyCycle(framerContext.framer()),
+            trackDutyCycle(engineContext.indexingAgent()),
+            trackDutyCycle(engineContext.replayAgent()),
             monitoringAgent,
             conductorAgent(),
             recordingCoordinator);
@@ -259,6 +261,18 @@ public final class FixEngine extends GatewayProcess
         return this;
     }
 
+    private Agent trackDutyCycle(final Agent agent)
+    {
+        if (agent == null || !configuration.agentDutyCycleCounters())
+        {
+            return agent;
+        }
+
+        final String roleName = agent.roleName();
+        return new DutyCycleTrackingAgent(
+            agent, fixCounters.agentWorkingTime(roleName), fixCounters.agentIdleTime(roleName));
+    }
+
     /**
      * Close the engine down, including stopping other running threads.
      *
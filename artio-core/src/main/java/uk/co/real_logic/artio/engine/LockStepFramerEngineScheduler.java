@@ -28,6 +28,7 @@ import static org.agrona.concurrent.AgentRunner.startOnThread;
 public class LockStepFramerEngineScheduler implements EngineScheduler
 {
     private AgentRunner archivingRunner;
+    private AgentRunner replayRunner;
     private AgentRunner monitoringRunner;
     private AgentInvoker framerInvoker;
     private RecordingCoordinator recordingCoordinator;
@@ -40,6 +41,27 @@ public class LockStepFramerEngineScheduler implements EngineScheduler
         final Agent monitoringAgent,
         final Agent conductorAgent,
         final RecordingCoordinator recordingCoordinator)
+    {
+        launch(
+            configuration,
+            errorHandler,
+            framer,
+            indexingAgent,
+            null,
+            monitoringAgent,
+            conductorAgent,
+            recordingCoordinator);
+    }
+
+    public void launch(
+        final EngineConfiguration configuration,
+        final ErrorHandler errorHandler,
+        final Agent framer,
+        final Agent indexingAgent,
+        final Agent replayAgent,
+        final Agent monitoringAgent,
+        final Agent conductorAgent,
+        final RecordingCoordinator recordingCoordinator)
     {
         this.recordingCoordinator = recordingCoordinator;
         framerInvoker = new AgentInvoker(errorHandler, null, framer);
@@ -58,6 +80,17 @@ public class LockStepFramerEngineScheduler implements EngineScheduler
 
         startOnThread(archivingRunner, configuration.threadFactory());
 
+        if (replayAgent != null)
+        {
+            replayRunner = new AgentRunner(
+                configuration.replayerIdleStrategy(),
+                errorHandler,
+                null,
+                replayAgent);
+
+            startOnThread(replayRunner, configuration.threadFactory());
+        }
+
         if (monitoringAgent != null)
         {
             monitoringRunner = new AgentRunner(
@@ -85,9 +118,10 @@ public class LockStepFramerEngineScheduler implements EngineScheduler
     public void close()
     {
         EngineScheduler.awaitRunnerStart(archivingRunner);
+        EngineScheduler.awaitRunnerStart(replayRunner);
         EngineScheduler.awaitRunnerStart(monitoringRunner);
 
-        Exceptions.closeAll(framerInvoker, recordingCoordinator, archivingRunner, monitoringRunner);
+        Exceptions.closeAll(framerInvoker, recordingCoordinator, archivingRunner, replayRunner, monitoringRunner);
     }
 
     public void configure(final Aeron.Context aeronContext)
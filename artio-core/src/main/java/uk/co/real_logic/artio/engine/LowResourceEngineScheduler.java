@@ -51,6 +51,27 @@ public class LowResourceEngineScheduler implements EngineScheduler
         final Agent monitoringAgent,
         final Agent conductorAgent,
         final RecordingCoordinator recordingCoordinator)
+    {
+        launch(
+            configuration,
+            errorHandler,
+            framer,
+            indexingAgent,
+            null,
+            monitoringAgent,
+            conductorAgent,
+            recordingCoordinator);
+    }
+
+    public void launch(
+        final EngineConfiguration configuration,
+        final ErrorHandler errorHandler,
+        final Agent framer,
+        final Agent indexingAgent,
+        final Agent replayAgent,
+        final Agent monitoringAgent,
+        final Agent conductorAgent,
+        final RecordingCoordinator recordingCoordinator)
     {
         this.recordingCoordinator = recordingCoordinator;
 
@@ -61,7 +82,7 @@ public class LowResourceEngineScheduler implements EngineScheduler
 
         final List<Agent> agents = new ArrayList<>();
         Collections.addAll(agents,
-            monitoringAgent, framer, indexingAgent, new RecordingCoordinatorAgent(), conductorAgent);
+            monitoringAgent, framer, indexingAgent, replayAgent, new RecordingCoordinatorAgent(), conductorAgent);
 
         agents.removeIf(Objects::isNull);
 
@@ -27,6 +27,7 @@ import uk.co.real_logic.artio.LogTag;
 import uk.co.real_logic.artio.dictionary.IntDictionary;
 import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 import uk.co.real_logic.artio.otf.OtfParser;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
@@ -59,6 +60,8 @@ public class PossDupEnabler
     private final OtfParser parser = new OtfParser(possDupFinder, new IntDictionary());
     private final MutableAsciiBuffer mutableAsciiFlyweight = new MutableAsciiBuffer();
     private final UtcTimestampEncoder utcTimestampEncoder = new UtcTimestampEncoder();
+    private final MessageHeaderDecoder frameHeaderDecoder = new MessageHeaderDecoder();
+    private final FixMessageEncoder frameEncoder = new FixMessageEncoder();
 
     private final BufferClaim bufferClaim;
     private final IntPredicate claimer;
@@ -325,9 +328,10 @@ public class PossDupEnabler
         writeBuffer.putBytes(remainingClaimOffset, srcBuffer, sendingTimeSrcEnd, remainingLength);
 
         // Update the sending time
-        updateSendingTime(srcOffset);
+        final long sendingTime = updateSendingTime(srcOffset);
 
         updateFrameBodyLength(messageLength, writeBuffer, writeOffset, totalLengthDelta);
+        updateFrameHeaderFields(writeBuffer, writeOffset, sendingTime);
         final int messageClaimOffset = srcToClaim(messageOffset, srcOffset, writeOffset);
         updateBodyLengthAndChecksum(
             srcOffset, messageClaimOffset, writeBuffer, writeOffset, newBodyLength, writeOffset + newLength);
@@ -335,7 +339,7 @@ public class PossDupEnabler
         return true;
     }
 
-    private void updateSendingTime(final int srcOffset)
+    private long updateSendingTime(final int srcOffset)
     {
         final MutableDirectBuffer claimBuffer = writeBuffer();
         final int claimOffset = writeOffset();
@@ -343,8 +347,26 @@ public class PossDupEnabler
         final int sendingTimeLength = possDupFinder.sendingTimeLength();
 
         final int sendingTimeClaimOffset = srcToClaim(sendingTimeOffset, srcOffset, claimOffset);
-        utcTimestampEncoder.encode(clock.time());
+        final long sendingTime = clock.time();
+        utcTimestampEncoder.encode(sendingTime);
         claimBuffer.putBytes(sendingTimeClaimOffset, utcTimestampEncoder.buffer(), 0, sendingTimeLength);
+
+        return sendingTime;
+    }
+
+    // Keep the header fields that the framer parsed into the frame consistent with the altered message.
+    private void updateFrameHeaderFields(
+        final MutableDirectBuffer claimBuffer, final int claimOffset, final long sendingTime)
+    {
+        frameHeaderDecoder.wrap(claimBuffer, claimOffset);
+        if (frameHeaderDecoder.version() >= FixMessageDecoder.sendingTimeSinceVersion())
+        {
+            frameEncoder
+                .wrap(claimBuffer, claimOffset + MessageHeaderDecoder.ENCODED_LENGTH)
+                .sendingTime(sendingTime)
+                .headerFlags()
+                .possDup(true);
+        }
     }
 
     private void updateFrameBodyLength(
@@ -97,6 +97,10 @@ public class CatchupReplayer implements ControlledFragmentHandler, Continuation
 
     private int heartbeatRangeSequenceNumberStart = OUT_OF_RANGE;
 
+    // The sequence number of the message currently being replayed
+    private int msgSeqNum;
+    private boolean headerDecoded;
+
     private ReplayOperation replayOperation = null;
 
     CatchupReplayer(
@@ -176,13 +180,20 @@ public class CatchupReplayer implements ControlledFragmentHandler, Continuation
             messageHeaderDecoder.version());
 
         asciiBuffer.wrap(srcBuffer, messageOffset, messageLength);
-        headerDecoder.decode(asciiBuffer, 0, messageLength);
+        headerDecoded = false;
+        msgSeqNum = messageDecoder.msgSeqNum();
+        // Only decode the FIX header if the framer didn't parse the sequence number into the frame.
+        if (msgSeqNum <= 0)
+        {
+            decodeHeader();
+            msgSeqNum = headerDecoder.msgSeqNum();
+        }
 
         if (messageDecoder.messageType() == HeartbeatDecoder.MESSAGE_TYPE)
         {
             if (heartbeatRangeSequenceNumberStart == OUT_OF_RANGE)
             {
-                heartbeatRangeSequenceNumberStart = headerDecoder.msgSeqNum();
+                heartbeatRangeSequenceNumberStart = msgSeqNum;
             }
 
             return CONTINUE;
@@ -201,6 +212,15 @@ public class CatchupReplayer implements ControlledFragmentHandler, Continuation
         }
     }
 
+    private void decodeHeader()
+    {
+        if (!headerDecoded)
+        {
+            headerDecoder.decode(asciiBuffer, 0, asciiBuffer.capacity());
+            headerDecoded = true;
+        }
+    }
+
     private boolean sendGapFill()
     {
         if (sequenceResetEncoder == null)
@@ -209,6 +229,7 @@ public class CatchupReplayer implements ControlledFragmentHandler, Continuation
             timestampEncoder = new UtcTimestampEncoder();
             encodeBuffer = new MutableAsciiBuffer(new byte[ENCODE_BUFFER_SIZE]);
             sequenceResetEncoder.gapFillFlag(true);
+            decodeHeader();
 
             final HeaderEncoder header = sequenceResetEncoder.header();
 
@@ -233,7 +254,7 @@ public class CatchupReplayer implements ControlledFragmentHandler, Continuation
             }
         }
 
-        final int heartbeatRangeSequenceNumberEnd = headerDecoder.msgSeqNum();
+        final int heartbeatRangeSequenceNumberEnd = msgSeqNum;
 
         sequenceResetEncoder.header().msgSeqNum(heartbeatRangeSequenceNumberStart);
         sequenceResetEncoder.newSeqNo(heartbeatRangeSequenceNumberEnd);
@@ -269,7 +290,7 @@ public class CatchupReplayer implements ControlledFragmentHandler, Continuation
         if (action == CONTINUE)
         {
             // store the point to continue from if an abort happens.
-            replayFromSequenceNumber = headerDecoder.msgSeqNum() + 1;
+            replayFromSequenceNumber = msgSeqNum + 1;
             replayFromSequenceIndex = messageDecoder.sequenceIndex();
         }
         return action;
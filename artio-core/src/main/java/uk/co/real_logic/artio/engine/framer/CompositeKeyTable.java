@@ -0,0 +1,214 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Hashing;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteBuffer;
+
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static uk.co.real_logic.artio.session.Session.UNKNOWN;
+
+/**
+ * An off heap, open addressing hash table from the saved form of composite keys to their session ids.
+ * <p>
+ * Keys aren't copied into the table, each slot refers to the copy of its key within the session id file, so keys
+ * can be looked up straight from an encoding buffer without allocating.
+ */
+class CompositeKeyTable
+{
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int SESSION_ID_OFFSET = 0;
+    private static final int KEY_POSITION_OFFSET = SESSION_ID_OFFSET + SIZE_OF_LONG;
+    private static final int KEY_LENGTH_OFFSET = KEY_POSITION_OFFSET + SIZE_OF_INT;
+    private static final int HASH_OFFSET = KEY_LENGTH_OFFSET + SIZE_OF_INT;
+    // Padded so that the session ids stay aligned
+    private static final int SLOT_LENGTH = 3 * SIZE_OF_LONG;
+
+    // An empty slot has a key length of 0, saved keys always have length fields so can't be empty.
+    private static final int EMPTY = 0;
+
+    private final DirectBuffer keys;
+
+    private UnsafeBuffer slots;
+    private int capacity;
+    private int size;
+
+    CompositeKeyTable(final DirectBuffer keys)
+    {
+        this.keys = keys;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Lookup the session id of a key.
+     *
+     * @param buffer the buffer that the key has been saved into
+     * @param offset the offset of the key within the buffer
+     * @param length the length of the key
+     * @return the session id or {@link uk.co.real_logic.artio.session.Session#UNKNOWN} if the key isn't present.
+     */
+    long get(final DirectBuffer buffer, final int offset, final int length)
+    {
+        final int hash = hash(buffer, offset, length);
+        final int mask = capacity - 1;
+
+        int index = Hashing.hash(hash, mask);
+        while (true)
+        {
+            final int slotOffset = index * SLOT_LENGTH;
+            final int keyLength = slots.getInt(slotOffset + KEY_LENGTH_OFFSET);
+            if (keyLength == EMPTY)
+            {
+                return UNKNOWN;
+            }
+
+            if (matches(slotOffset, hash, keyLength, buffer, offset, length))
+            {
+                return slots.getLong(slotOffset + SESSION_ID_OFFSET);
+            }
+
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Put a key into the table, replacing the session id of the key if it's already present.
+     *
+     * @param keyPosition the position of the key within the session id file
+     * @param length the length of the key
+     * @param sessionId the session id of the key
+     */
+    void put(final int keyPosition, final int length, final long sessionId)
+    {
+        if ((size + 1) > (capacity >> 1))
+        {
+            resize();
+        }
+
+        final int hash = hash(keys, keyPosition, length);
+        final int mask = capacity - 1;
+
+        int index = Hashing.hash(hash, mask);
+        while (true)
+        {
+            final int slotOffset = index * SLOT_LENGTH;
+            final int keyLength = slots.getInt(slotOffset + KEY_LENGTH_OFFSET);
+            if (keyLength == EMPTY)
+            {
+                putSlot(slotOffset, keyPosition, length, hash, sessionId);
+                size++;
+                return;
+            }
+
+            if (matches(slotOffset, hash, keyLength, keys, keyPosition, length))
+            {
+                putSlot(slotOffset, keyPosition, length, hash, sessionId);
+                return;
+            }
+
+            index = (index + 1) & mask;
+        }
+    }
+
+    void clear()
+    {
+        slots.setMemory(0, slots.capacity(), (byte)0);
+        size = 0;
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    private boolean matches(
+        final int slotOffset,
+        final int hash,
+        final int keyLength,
+        final DirectBuffer buffer,
+        final int offset,
+        final int length)
+    {
+        if (keyLength != length || slots.getInt(slotOffset + HASH_OFFSET) != hash)
+        {
+            return false;
+        }
+
+        final int keyPosition = slots.getInt(slotOffset + KEY_POSITION_OFFSET);
+        for (int i = 0; i < length; i++)
+        {
+            if (keys.getByte(keyPosition + i) != buffer.getByte(offset + i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void putSlot(
+        final int slotOffset, final int keyPosition, final int length, final int hash, final long sessionId)
+    {
+        slots.putLong(slotOffset + SESSION_ID_OFFSET, sessionId);
+        slots.putInt(slotOffset + KEY_POSITION_OFFSET, keyPosition);
+        slots.putInt(slotOffset + KEY_LENGTH_OFFSET, length);
+        slots.putInt(slotOffset + HASH_OFFSET, hash);
+    }
+
+    private void resize()
+    {
+        final UnsafeBuffer oldSlots = slots;
+        final int oldCapacity = capacity;
+
+        allocate(oldCapacity << 1);
+        size = 0;
+
+        for (int i = 0; i < oldCapacity; i++)
+        {
+            final int slotOffset = i * SLOT_LENGTH;
+            final int keyLength = oldSlots.getInt(slotOffset + KEY_LENGTH_OFFSET);
+            if (keyLength != EMPTY)
+            {
+                put(
+                    oldSlots.getInt(slotOffset + KEY_POSITION_OFFSET),
+                    keyLength,
+                    oldSlots.getLong(slotOffset + SESSION_ID_OFFSET));
+            }
+        }
+    }
+
+    private void allocate(final int capacity)
+    {
+        this.capacity = capacity;
+        slots = new UnsafeBuffer(ByteBuffer.allocateDirect(capacity * SLOT_LENGTH));
+    }
+
+    private static int hash(final DirectBuffer buffer, final int offset, final int length)
+    {
+        int hash = 0;
+        for (int i = 0; i < length; i++)
+        {
+            hash = 31 * hash + buffer.getByte(offset + i);
+        }
+
+        return hash;
+    }
+}
@@ -20,6 +20,7 @@ import uk.co.real_logic.artio.FixCounters;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.engine.SenderSequenceNumbers;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.timing.Timer;
 
 class EndPointFactory
 {
@@ -30,6 +31,8 @@ class EndPointFactory
     private final ErrorHandler errorHandler;
     private final GatewaySessions gatewaySessions;
     private final SenderSequenceNumbers senderSequenceNumbers;
+    private final Timer inboundTimer;
+    private final Timer outboundEndToEndTimer;
 
     private SlowPeeker replaySlowPeeker;
 
@@ -40,7 +43,9 @@ class EndPointFactory
         final FixCounters fixCounters,
         final ErrorHandler errorHandler,
         final GatewaySessions gatewaySessions,
-        final SenderSequenceNumbers senderSequenceNumbers)
+        final SenderSequenceNumbers senderSequenceNumbers,
+        final Timer inboundTimer,
+        final Timer outboundEndToEndTimer)
     {
         this.configuration = configuration;
         this.sessionContexts = sessionContexts;
@@ -49,6 +54,8 @@ class EndPointFactory
         this.errorHandler = errorHandler;
         this.gatewaySessions = gatewaySessions;
         this.senderSequenceNumbers = senderSequenceNumbers;
+        this.inboundTimer = inboundTimer;
+        this.outboundEndToEndTimer = outboundEndToEndTimer;
     }
 
     ReceiverEndPoint receiverEndPoint(
@@ -68,10 +75,12 @@ class EndPointFactory
             sequenceIndex,
             sessionContexts,
             fixCounters.messagesRead(connectionId, channel.remoteAddress()),
+            fixCounters.inboundBackPressures(connectionId, channel.remoteAddress()),
             framer,
             errorHandler,
             libraryId,
-            gatewaySessions
+            gatewaySessions,
+            inboundTimer
         );
     }
 
@@ -96,7 +105,10 @@ class EndPointFactory
             configuration.senderMaxBytesInBuffer(),
             configuration.slowConsumerTimeoutInMs(),
             System.currentTimeMillis(),
-            senderSequenceNumbers.onNewSender(connectionId));
+            senderSequenceNumbers.onNewSender(connectionId),
+            configuration.senderMaxBatchSize(),
+            configuration.senderMaxBatchMessages(),
+            outboundEndToEndTimer);
     }
 
     void replaySlowPeeker(final SlowPeeker replaySlowPeeker)
@@ -108,12 +108,13 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private final EpochClock clock;
     private final Timer outboundTimer;
     private final Timer sendTimer;
+    private final Timer sessionSendTimer;
 
     private final ControlledFragmentHandler librarySubscriber;
     private final ControlledFragmentHandler replaySubscriber;
     private final ControlledFragmentHandler replaySlowSubscriber;
 
-    private final ReceiverEndPoints receiverEndPoints = new ReceiverEndPoints();
+    private final ReceiverEndPoints receiverEndPoints;
     private final ControlledFragmentAssembler senderEndPointAssembler;
     private final SenderEndPoints senderEndPoints;
 
@@ -162,8 +163,10 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final EpochClock clock,
         final Timer outboundTimer,
         final Timer sendTimer,
+        final Timer sessionSendTimer,
         final EngineConfiguration configuration,
         final EndPointFactory endPointFactory,
+        final ReceiverEndPoints receiverEndPoints,
         final Subscription librarySubscription,
         final Subscription slowSubscription,
         final Image replayImage,
@@ -188,8 +191,10 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         this.clock = clock;
         this.outboundTimer = outboundTimer;
         this.sendTimer = sendTimer;
+        this.sessionSendTimer = sessionSendTimer;
         this.configuration = configuration;
         this.endPointFactory = endPointFactory;
+        this.receiverEndPoints = receiverEndPoints;
         this.librarySubscription = librarySubscription;
         this.replayImage = replayImage;
         this.gatewaySessions = gatewaySessions;
@@ -243,6 +248,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                 final int sequenceIndex,
                 final int messageType,
                 final long timestamp,
+                final long originTimestamp,
                 final MessageStatus status,
                 final int sequenceNumber,
                 final long position)
@@ -272,6 +278,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                 final int sequenceIndex,
                 final int messageType,
                 final long timestamp,
+                final long originTimestamp,
                 final MessageStatus status,
                 final int sequenceNumber,
                 final long position)
@@ -314,7 +321,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         return retryManager.attemptSteps() +
             sendOutboundMessages() +
             sendReplayMessages() +
-            pollEndPoints() +
+            pollEndPoints(timeInMs) +
             pollNewConnections(timeInMs) +
             pollLibraries(timeInMs) +
             gatewaySessions.pollSessions(timeInMs) +
@@ -362,6 +369,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private int sendOutboundMessages()
     {
         int messagesRead = librarySubscription.controlledPoll(librarySubscriber, outboundLibraryFragmentLimit);
+        senderEndPoints.flushBatches();
         messagesRead += librarySlowPeeker.peek(senderEndPointAssembler);
 
         if (nonLoggingPositionSender != null)
@@ -479,7 +487,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         finalImagePositions.removePosition(library.aeronSessionId());
     }
 
-    private int pollEndPoints()
+    private int pollEndPoints(final long timeInMs)
     {
         final int inboundBytesReceivedLimit = this.inboundBytesReceivedLimit;
 
@@ -487,7 +495,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         int bytesReceived;
         do
         {
-            bytesReceived = receiverEndPoints.pollEndPoints();
+            bytesReceived = receiverEndPoints.pollEndPoints(timeInMs);
             totalBytesReceived += bytesReceived;
         }
         while (bytesReceived > 0 && totalBytesReceived < inboundBytesReceivedLimit);
@@ -944,15 +952,22 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final int sequenceIndex,
         final int messageType,
         final long timestamp,
+        final long originTimestamp,
         final MessageStatus status,
         final int sequenceNumber,
         final long position)
     {
         final long now = outboundTimer.recordSince(timestamp);
+        if (GatewayPublication.hasOriginTimestamp(originTimestamp))
+        {
+            sessionSendTimer.recordInterval(originTimestamp, timestamp);
+        }
 
         sessionContexts.onSentFollowerMessage(sessionId, sequenceIndex, messageType, buffer, offset, length);
 
-        senderEndPoints.onMessage(libraryId, connectionId, buffer, offset, length, sequenceNumber, position);
+        // The end to end time is recorded by the SenderEndPoint once the message has actually been written.
+        senderEndPoints.onMessage(
+            libraryId, connectionId, buffer, offset, length, sequenceNumber, originTimestamp, position);
 
         if (nonLoggingPositionSender != null)
         {
@@ -1028,6 +1043,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
     public Action onDisconnect(final int libraryId, final long connectionId, final DisconnectReason reason)
     {
+        senderEndPoints.flushBatchOnDisconnect(connectionId);
         receiverEndPoints.removeConnection(connectionId, reason);
         senderEndPoints.removeConnection(connectionId);
         final LiveLibraryInfo library = idToLibrary.get(libraryId);
@@ -1285,8 +1301,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         asciiBuffer.wrap(srcBuffer);
         headerDecoder.decode(asciiBuffer, srcOffset, srcLength);
 
-        final CompositeKey compositeKey = sessionIdStrategy.onAcceptLogon(headerDecoder);
-        final SessionContext sessionContext = sessionContexts.newSessionContext(compositeKey);
+        final SessionContext sessionContext = sessionContexts.newAcceptLogonContext(headerDecoder);
         final long sessionId = sessionContext.sessionId();
 
         final long position = inboundPublication.saveFollowerSessionReply(
@@ -1534,7 +1549,11 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
     void onQueryLibraries(final QueryLibrariesCommand command)
     {
-        final List<LibraryInfo> libraries = new ArrayList<>(idToLibrary.values());
+        final List<LibraryInfo> libraries = new ArrayList<>(idToLibrary.size() + 1);
+        for (final LiveLibraryInfo library : idToLibrary.values())
+        {
+            libraries.add(library.snapshot());
+        }
         libraries.add(new EngineLibraryInfo(gatewaySessions));
         command.success(libraries);
     }
@@ -105,7 +105,9 @@ public class FramerContext
             fixCounters,
             errorHandler,
             gatewaySessions,
-            engineContext.senderSequenceNumbers());
+            engineContext.senderSequenceNumbers(),
+            timers.inboundTimer(),
+            timers.outboundEndToEndTimer());
 
         final FinalImagePositions finalImagePositions = new FinalImagePositions();
 
@@ -113,8 +115,15 @@ public class FramerContext
             clock,
             timers.outboundTimer(),
             timers.sendTimer(),
+            timers.sessionSendTimer(),
             configuration,
             endPointFactory,
+            new ReceiverEndPoints(
+                configuration.adaptiveReceiverPolling(),
+                configuration.receiverPollingWindowInMs(),
+                configuration.busyPollReadThreshold(),
+                fixCounters.busyPolledEndPoints(),
+                fixCounters.selectedEndPoints()),
             engineContext.outboundLibrarySubscription(
                 "outboundLibrarySubscription", finalImagePositions),
             engineContext.outboundLibrarySubscription(
@@ -56,6 +56,9 @@ class GatewaySession implements SessionInfo
     private Consumer<GatewaySession> onGatewaySessionLogon;
     private SessionLogonListener logonListener = this::onSessionLogon;
     private boolean initialResetSeqNum;
+    // Index within the session list of its owner: GatewaySessions when the engine manages it, otherwise the
+    // LiveLibraryInfo of its library. A session only has one owner at a time, so one index suffices.
+    private int ownerIndex;
 
     GatewaySession(
         final long connectionId,
@@ -101,6 +104,16 @@ class GatewaySession implements SessionInfo
         return sessionId;
     }
 
+    int ownerIndex()
+    {
+        return ownerIndex;
+    }
+
+    void ownerIndex(final int ownerIndex)
+    {
+        this.ownerIndex = ownerIndex;
+    }
+
     public CompositeKey sessionKey()
     {
         return sessionKey;
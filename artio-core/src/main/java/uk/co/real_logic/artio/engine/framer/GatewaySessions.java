@@ -17,11 +17,13 @@ package uk.co.real_logic.artio.engine.framer;
 
 import org.agrona.ErrorHandler;
 import org.agrona.LangUtil;
+import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.concurrent.EpochClock;
 import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.FixCounters;
 import uk.co.real_logic.artio.FixGatewayException;
+import uk.co.real_logic.artio.decoder.HeaderDecoder;
 import uk.co.real_logic.artio.decoder.LogonDecoder;
 import uk.co.real_logic.artio.engine.FixEngine;
 import uk.co.real_logic.artio.engine.SessionInfo;
@@ -36,16 +38,24 @@ import uk.co.real_logic.artio.validation.*;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.agrona.collections.ArrayListUtil.fastUnorderedRemove;
 import static uk.co.real_logic.artio.LogTag.FIX_CONNECTION;
 import static uk.co.real_logic.artio.engine.framer.SessionContexts.DUPLICATE_SESSION;
+import static uk.co.real_logic.artio.session.Session.UNKNOWN;
 import static uk.co.real_logic.artio.validation.SessionPersistenceStrategy.resetSequenceNumbersUponLogon;
 
 /**
- * Keeps track of which sessions managed by the gateway
+ * Keeps track of which sessions managed by the gateway.
+ * <p>
+ * Sessions are indexed by both their connection id and, once they have logged on, their session id so that lookups
+ * don't have to scan every session that the engine manages. Each session also stores its index in the list of
+ * sessions, so it can be swapped out of the list when removed.
  */
 class GatewaySessions
 {
-    private final List<GatewaySession> sessions = new ArrayList<>();
+    private final ArrayList<GatewaySession> sessions = new ArrayList<>();
+    private final Long2ObjectHashMap<GatewaySession> connectionIdToSession = new Long2ObjectHashMap<>();
+    private final Long2ObjectHashMap<GatewaySession> sessionIdToSession = new Long2ObjectHashMap<>();
     private final EpochClock clock;
     private final GatewayPublication outboundPublication;
     private final SessionIdStrategy sessionIdStrategy;
@@ -100,21 +110,6 @@ class GatewaySessions
         this.receivedSequenceNumberIndex = receivedSequenceNumberIndex;
     }
 
-    static GatewaySession removeSessionByConnectionId(final long connectionId, final List<GatewaySession> sessions)
-    {
-        for (int i = 0, size = sessions.size(); i < size; i++)
-        {
-            final GatewaySession session = sessions.get(i);
-            if (session.connectionId() == connectionId)
-            {
-                sessions.remove(i);
-                return session;
-            }
-        }
-
-        return null;
-    }
-
     void acquire(
         final GatewaySession gatewaySession,
         final SessionState state,
@@ -169,7 +164,10 @@ class GatewaySessions
             validationStrategy,
             errorHandler);
 
+        gatewaySession.ownerIndex(sessions.size());
         sessions.add(gatewaySession);
+        connectionIdToSession.put(connectionId, gatewaySession);
+        indexBySessionId(gatewaySession);
         gatewaySession.manage(sessionParser, session, engineBlockablePosition);
 
         final CompositeKey sessionKey = gatewaySession.sessionKey();
@@ -183,48 +181,57 @@ class GatewaySessions
 
     GatewaySession releaseBySessionId(final long sessionId)
     {
-        final int index = indexBySessionId(sessionId);
-        if (index < 0)
+        final GatewaySession session = sessionIdToSession.get(sessionId);
+        if (session == null)
         {
             return null;
         }
 
-        return sessions.remove(index);
+        remove(session);
+        return session;
     }
 
     GatewaySession sessionById(final long sessionId)
     {
-        final int index = indexBySessionId(sessionId);
-        if (index < 0)
+        return sessionIdToSession.get(sessionId);
+    }
+
+    void releaseByConnectionId(final long connectionId)
+    {
+        final GatewaySession session = connectionIdToSession.get(connectionId);
+        if (session != null)
         {
-            return null;
+            remove(session);
+            session.close();
         }
-
-        return sessions.get(index);
     }
 
-    private int indexBySessionId(final long sessionId)
+    private void indexBySessionId(final GatewaySession gatewaySession)
     {
-        final List<GatewaySession> sessions = this.sessions;
-
-        for (int i = 0, size = sessions.size(); i < size; i++)
+        final long sessionId = gatewaySession.sessionId();
+        if (sessionId != UNKNOWN && connectionIdToSession.get(gatewaySession.connectionId()) == gatewaySession)
         {
-            final GatewaySession session = sessions.get(i);
-            if (session.sessionId() == sessionId)
-            {
-                return i;
-            }
+            sessionIdToSession.put(sessionId, gatewaySession);
         }
-
-        return -1;
     }
 
-    void releaseByConnectionId(final long connectionId)
+    private void remove(final GatewaySession gatewaySession)
     {
-        final GatewaySession session = removeSessionByConnectionId(connectionId, sessions);
-        if (session != null)
+        connectionIdToSession.remove(gatewaySession.connectionId());
+
+        // Only remove the session id entry if it belongs to this connection, a reconnect may have replaced it.
+        final long sessionId = gatewaySession.sessionId();
+        if (sessionIdToSession.get(sessionId) == gatewaySession)
         {
-            session.close();
+            sessionIdToSession.remove(sessionId);
+        }
+
+        final ArrayList<GatewaySession> sessions = this.sessions;
+        final int index = gatewaySession.ownerIndex();
+        fastUnorderedRemove(sessions, index);
+        if (index < sessions.size())
+        {
+            sessions.get(index).ownerIndex(index);
         }
     }
 
@@ -239,6 +246,7 @@ class GatewaySessions
             eventsProcessed += session.poll(time);
             if (session.hasDisconnected())
             {
+                // The last session has been swapped into its place, so it is polled next.
                 size--;
             }
             else
@@ -259,8 +267,10 @@ class GatewaySessions
         final long connectionId,
         final GatewaySession gatewaySession)
     {
-        final CompositeKey compositeKey = sessionIdStrategy.onAcceptLogon(logon.header());
-        final SessionContext sessionContext = sessionContexts.onLogon(compositeKey);
+        final HeaderDecoder header = logon.header();
+        final SessionContext sessionContext = sessionContexts.onAcceptLogon(header);
+        final CompositeKey compositeKey = sessionContext == DUPLICATE_SESSION ?
+            sessionIdStrategy.onAcceptLogon(header) : sessionContext.compositeKey();
 
         return new PendingAcceptorLogon(sessionContext, gatewaySession, logon, connectionId, compositeKey);
     }
@@ -450,6 +460,7 @@ class GatewaySessions
                 username,
                 password,
                 logon.heartBtInt());
+            indexBySessionId(session);
 
             // See Framer.handoverNewConnectionToLibrary for sole library mode equivalent
             if (resetSeqNum)
@@ -20,11 +20,15 @@ import uk.co.real_logic.artio.LivenessDetector;
 import uk.co.real_logic.artio.engine.SessionInfo;
 import uk.co.real_logic.artio.engine.framer.SubscriptionSlowPeeker.LibrarySlowPeeker;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 import static java.util.Collections.unmodifiableList;
+import static org.agrona.collections.ArrayListUtil.fastUnorderedRemove;
 
+/**
+ * Only accessed on the Framer thread, other threads are given a {@link #snapshot()}.
+ */
 final class LiveLibraryInfo implements LibraryInfo
 {
     private final int libraryId;
@@ -32,8 +36,9 @@ final class LiveLibraryInfo implements LibraryInfo
     private final LivenessDetector livenessDetector;
     private final int aeronSessionId;
     private final LibrarySlowPeeker librarySlowPeeker;
-    private final List<GatewaySession> allSessions = new CopyOnWriteArrayList<>();
+    private final ArrayList<GatewaySession> allSessions = new ArrayList<>();
     private final List<SessionInfo> unmodifiableAllSessions = unmodifiableList(allSessions);
+    private final Long2ObjectHashMap<GatewaySession> connectionIdToSession = new Long2ObjectHashMap<>();
     private final Long2ObjectHashMap<ConnectingSession> correlationIdToConnectingSession = new Long2ObjectHashMap<>();
 
     private long acquireAtPosition;
@@ -102,12 +107,31 @@ final class LiveLibraryInfo implements LibraryInfo
 
     void addSession(final GatewaySession session)
     {
+        session.ownerIndex(allSessions.size());
         allSessions.add(session);
+        connectionIdToSession.put(session.connectionId(), session);
     }
 
     GatewaySession removeSession(final long connectionId)
     {
-        return GatewaySessions.removeSessionByConnectionId(connectionId, allSessions);
+        final GatewaySession session = connectionIdToSession.remove(connectionId);
+        if (session != null)
+        {
+            final ArrayList<GatewaySession> allSessions = this.allSessions;
+            final int index = session.ownerIndex();
+            fastUnorderedRemove(allSessions, index);
+            if (index < allSessions.size())
+            {
+                allSessions.get(index).ownerIndex(index);
+            }
+        }
+
+        return session;
+    }
+
+    LibraryInfo snapshot()
+    {
+        return new Snapshot(libraryId, libraryName, new ArrayList<>(allSessions));
     }
 
     void acquireAtPosition(final long libraryPosition)
@@ -161,4 +185,62 @@ final class LiveLibraryInfo implements LibraryInfo
         return correlationIdToConnectingSession.remove(correlationId);
     }
 
+    // Copy of a library's sessions that can be read by threads other than the Framer.
+    private static final class Snapshot implements LibraryInfo
+    {
+        private final int libraryId;
+        private final String libraryName;
+        private final List<SessionInfo> sessions;
+
+        Snapshot(final int libraryId, final String libraryName, final List<SessionInfo> sessions)
+        {
+            this.libraryId = libraryId;
+            this.libraryName = libraryName;
+            this.sessions = unmodifiableList(sessions);
+        }
+
+        public int libraryId()
+        {
+            return libraryId;
+        }
+
+        public String libraryName()
+        {
+            return libraryName;
+        }
+
+        public List<SessionInfo> sessions()
+        {
+            return sessions;
+        }
+
+        public String toString()
+        {
+            return "LibraryInfo{" +
+                "libraryId=" + libraryId +
+                ", allSessions=" + sessions +
+                '}';
+        }
+
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+
+            final Snapshot that = (Snapshot)o;
+
+            return libraryId == that.libraryId;
+        }
+
+        public int hashCode()
+        {
+            return libraryId;
+        }
+    }
 }
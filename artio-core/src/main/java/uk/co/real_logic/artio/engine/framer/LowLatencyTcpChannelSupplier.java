@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import uk.co.real_logic.artio.Clock;
+import uk.co.real_logic.artio.engine.EngineConfiguration;
+
+import java.io.IOException;
+import java.net.SocketOption;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link TcpChannelSupplier} for latency sensitive deployments on Linux, plug it in with
+ * {@link EngineConfiguration#channelSupplierFactory(java.util.function.Function)}.
+ * <p>
+ * Delayed acknowledgements hold back the ACKs for data that a connection receives, which can stall a counterparty
+ * that is waiting on its congestion window. This supplier enables TCP_QUICKACK on each connection and enables it
+ * again when a read receives data, since Linux clears it whenever the connection leaves quick ack mode. In order to
+ * avoid a system call on every read it's only enabled again once the quick ack interval has passed, which defaults to
+ * the 40ms minimum delayed acknowledgement timeout of Linux. TCP_QUICKACK is only available from JDK 10 onwards, on
+ * older JDKs this supplier behaves like the {@link DefaultTcpChannelSupplier}.
+ * <p>
+ * NIO selectors are already backed by epoll on Linux and the receiving end points read all the data that is available
+ * in a single call, whilst busy polling of active connections is provided by
+ * {@link EngineConfiguration#adaptiveReceiverPolling(boolean)}.
+ */
+public class LowLatencyTcpChannelSupplier extends DefaultTcpChannelSupplier
+{
+    public static final long DEFAULT_QUICK_ACK_INTERVAL_IN_NS = TimeUnit.MILLISECONDS.toNanos(40);
+
+    private static final SocketOption<Boolean> TCP_QUICKACK = lookupExtendedSocketOption("TCP_QUICKACK");
+
+    private final SocketOption<Boolean> quickAckOption;
+    private final long quickAckIntervalInNs;
+    private final Clock clock;
+
+    public LowLatencyTcpChannelSupplier(final EngineConfiguration configuration)
+    {
+        this(configuration, true);
+    }
+
+    public LowLatencyTcpChannelSupplier(final EngineConfiguration configuration, final boolean quickAck)
+    {
+        this(configuration, quickAck, DEFAULT_QUICK_ACK_INTERVAL_IN_NS);
+    }
+
+    public LowLatencyTcpChannelSupplier(
+        final EngineConfiguration configuration, final boolean quickAck, final long quickAckIntervalInNs)
+    {
+        this(configuration, quickAck ? TCP_QUICKACK : null, quickAckIntervalInNs, Clock.systemNanoTime());
+    }
+
+    // Package scoped so tests can supply the socket option, which is null on JDKs without it, and the clock.
+    LowLatencyTcpChannelSupplier(
+        final EngineConfiguration configuration,
+        final SocketOption<Boolean> quickAckOption,
+        final long quickAckIntervalInNs,
+        final Clock clock)
+    {
+        super(configuration);
+        this.quickAckOption = quickAckOption;
+        this.quickAckIntervalInNs = quickAckIntervalInNs;
+        this.clock = clock;
+    }
+
+    public static boolean isQuickAckSupported()
+    {
+        return TCP_QUICKACK != null;
+    }
+
+    protected TcpChannel newTcpChannel(final SocketChannel channel) throws IOException
+    {
+        final SocketOption<Boolean> quickAckOption = this.quickAckOption;
+        if (quickAckOption != null && channel.supportedOptions().contains(quickAckOption))
+        {
+            return new QuickAckTcpChannel(channel, quickAckOption, quickAckIntervalInNs, clock);
+        }
+
+        return super.newTcpChannel(channel);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SocketOption<Boolean> lookupExtendedSocketOption(final String name)
+    {
+        try
+        {
+            final Class<?> extendedSocketOptions = Class.forName("jdk.net.ExtendedSocketOptions");
+            return (SocketOption<Boolean>)extendedSocketOptions.getField(name).get(null);
+        }
+        catch (final ReflectiveOperationException ex)
+        {
+            return null;
+        }
+    }
+
+    static final class QuickAckTcpChannel extends TcpChannel
+    {
+        private final SocketChannel socketChannel;
+        private final SocketOption<Boolean> quickAckOption;
+        private final long quickAckIntervalInNs;
+        private final Clock clock;
+
+        private long quickAckTimeInNs;
+
+        QuickAckTcpChannel(
+            final SocketChannel socketChannel,
+            final SocketOption<Boolean> quickAckOption,
+            final long quickAckIntervalInNs,
+            final Clock clock) throws IOException
+        {
+            super(socketChannel);
+            this.socketChannel = socketChannel;
+            this.quickAckOption = quickAckOption;
+            this.quickAckIntervalInNs = quickAckIntervalInNs;
+            this.clock = clock;
+
+            socketChannel.setOption(quickAckOption, true);
+            quickAckTimeInNs = clock.time();
+        }
+
+        public int read(final ByteBuffer dst) throws IOException
+        {
+            final int bytesRead = super.read(dst);
+            if (bytesRead > 0)
+            {
+                final long timeInNs = clock.time();
+                if (timeInNs - quickAckTimeInNs >= quickAckIntervalInNs)
+                {
+                    socketChannel.setOption(quickAckOption, true);
+                    quickAckTimeInNs = timeInNs;
+                }
+            }
+
+            return bytesRead;
+        }
+    }
+}
@@ -23,8 +23,11 @@ import uk.co.real_logic.artio.decoder.LogonDecoder;
 import uk.co.real_logic.artio.dictionary.StandardFixConstants;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.engine.ByteBufferUtil;
+import uk.co.real_logic.artio.fields.UtcTimestampDecoder;
 import uk.co.real_logic.artio.messages.DisconnectReason;
+import uk.co.real_logic.artio.messages.MessageStatus;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.timing.Timer;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.io.IOException;
@@ -39,9 +42,12 @@ import static uk.co.real_logic.artio.LogTag.FIX_MESSAGE;
 import static uk.co.real_logic.artio.LogTag.FIX_MESSAGE_TCP;
 import static uk.co.real_logic.artio.dictionary.StandardFixConstants.MIN_MESSAGE_SIZE;
 import static uk.co.real_logic.artio.dictionary.StandardFixConstants.START_OF_HEADER;
+import static uk.co.real_logic.artio.fields.UtcTimestampDecoder.LENGTH_WITHOUT_MILLISECONDS;
 import static uk.co.real_logic.artio.messages.DisconnectReason.NO_LOGON;
 import static uk.co.real_logic.artio.messages.DisconnectReason.REMOTE_DISCONNECT;
 import static uk.co.real_logic.artio.messages.MessageStatus.*;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_MSG_SEQ_NUM;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_SENDING_TIME;
 import static uk.co.real_logic.artio.session.Session.UNKNOWN;
 import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR;
 import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
@@ -71,6 +77,19 @@ class ReceiverEndPoint
     private static final int UNKNOWN_MESSAGE_TYPE = -1;
     private static final int BREAK = -1;
 
+    private static final int MSG_SEQ_NUM_TAG = 34;
+    private static final int POSS_DUP_FLAG_TAG = 43;
+    private static final int SENDING_TIME_TAG = 52;
+    private static final int POSS_RESEND_TAG = 97;
+    private static final int SECURE_DATA_LEN_TAG = 90;
+    private static final int SECURE_DATA_TAG = 91;
+    private static final int XML_DATA_LEN_TAG = 212;
+    private static final int XML_DATA_TAG = 213;
+    private static final int NOT_A_NUMBER = -1;
+    private static final int NUMBER_TOO_LARGE = -2;
+    // Integer.MAX_VALUE has 10 digits
+    private static final int MAX_NATURAL_DIGITS = 10;
+
     private final LogonDecoder logon = new LogonDecoder();
 
     private final TcpChannel channel;
@@ -78,11 +97,13 @@ class ReceiverEndPoint
     private final long connectionId;
     private final SessionContexts sessionContexts;
     private final AtomicCounter messagesRead;
+    private final AtomicCounter backPressures;
     private final Framer framer;
     private final ErrorHandler errorHandler;
     private final MutableAsciiBuffer buffer;
     private final ByteBuffer byteBuffer;
     private final GatewaySessions gatewaySessions;
+    private final Timer inboundTimer;
 
     private int libraryId;
     private GatewaySession gatewaySession;
@@ -92,6 +113,18 @@ class ReceiverEndPoint
     private boolean hasDisconnected = false;
     private SelectionKey selectionKey;
     private boolean isPaused = false;
+    private boolean isBusyPolled = false;
+    // A back pressured message is retried on later polls but only counted as back pressured once.
+    private boolean retryingBackPressuredMessage = false;
+    private int readsInWindow = 0;
+    // Time of the latest read from the channel, carried in the frame of each message completed by it
+    private long readTimestamp = GatewayPublication.NO_ORIGIN_TIMESTAMP;
+
+    // Header fields of the message being saved, parsed once here so that subscribers don't have to decode them.
+    private int msgSeqNum;
+    private long sendingTime;
+    private boolean possDup;
+    private boolean possResend;
 
     private AcceptorLogonResult pendingAcceptorLogon;
     private boolean hasNotifiedFramerOfLogonMessageReceived;
@@ -107,10 +140,12 @@ class ReceiverEndPoint
         final int sequenceIndex,
         final SessionContexts sessionContexts,
         final AtomicCounter messagesRead,
+        final AtomicCounter backPressures,
         final Framer framer,
         final ErrorHandler errorHandler,
         final int libraryId,
-        final GatewaySessions gatewaySessions)
+        final GatewaySessions gatewaySessions,
+        final Timer inboundTimer)
     {
         Objects.requireNonNull(publication, "publication");
         Objects.requireNonNull(sessionContexts, "sessionContexts");
@@ -123,10 +158,12 @@ class ReceiverEndPoint
         this.sequenceIndex = sequenceIndex;
         this.sessionContexts = sessionContexts;
         this.messagesRead = messagesRead;
+        this.backPressures = backPressures;
         this.framer = framer;
         this.errorHandler = errorHandler;
         this.libraryId = libraryId;
         this.gatewaySessions = gatewaySessions;
+        this.inboundTimer = inboundTimer;
 
         byteBuffer = ByteBuffer.allocateDirect(bufferSize);
         buffer = new MutableAsciiBuffer(byteBuffer);
@@ -236,6 +273,7 @@ class ReceiverEndPoint
         {
             if (dataRead > 0)
             {
+                readTimestamp = publication.originTimestamp();
                 DebugLogger.log(FIX_MESSAGE_TCP, "Read     %s%n", buffer, 0, dataRead);
             }
             usedBufferData += dataRead;
@@ -456,12 +494,27 @@ class ReceiverEndPoint
         final boolean backPressured = Pressure.isBackPressured(position);
         if (backPressured)
         {
-            moveRemainingDataToBufferStart(offset);
+            onBackPressured(offset);
+        }
+        else
+        {
+            retryingBackPressuredMessage = false;
         }
 
         return backPressured;
     }
 
+    private void onBackPressured(final int offset)
+    {
+        if (!retryingBackPressuredMessage)
+        {
+            backPressures.incrementOrdered();
+            retryingBackPressuredMessage = true;
+        }
+
+        moveRemainingDataToBufferStart(offset);
+    }
+
     private boolean saveMessage(final int offset, final int messageType, final int length)
     {
         return saveMessage(offset, messageType, length, sessionId, sequenceIndex);
@@ -474,6 +527,8 @@ class ReceiverEndPoint
         final long sessionId,
         final int sequenceIndex)
     {
+        final MessageStatus status = parseHeader(offset, length) ? OK : INVALID;
+
         final long position = publication.saveMessage(
             buffer,
             offset,
@@ -483,21 +538,224 @@ class ReceiverEndPoint
             sessionId,
             sequenceIndex,
             connectionId,
-            OK,
-            0);
+            status,
+            0,
+            readTimestamp,
+            msgSeqNum,
+            sendingTime,
+            possDup,
+            possResend);
 
         if (Pressure.isBackPressured(position))
         {
-            moveRemainingDataToBufferStart(offset);
+            onBackPressured(offset);
             return false;
         }
         else
         {
-            gatewaySession.onMessage(buffer, offset, length, messageType, sessionId);
+            retryingBackPressuredMessage = false;
+            inboundTimer.recordSince(readTimestamp);
+            if (status == OK)
+            {
+                gatewaySession.onMessage(buffer, offset, length, messageType, sessionId);
+            }
             return true;
         }
     }
 
+    /**
+     * Parses the MsgSeqNum, SendingTime, PossDupFlag and PossResend fields of the header of a framed message. Parsing
+     * stops at the first field that isn't a standard header field. Any field that isn't found, or can't be parsed,
+     * is left as its null value, and subscribers then fall back to decoding the message.
+     *
+     * @return false if the message has a MsgSeqNum too large to be represented and should be rejected.
+     */
+    private boolean parseHeader(final int offset, final int length)
+    {
+        msgSeqNum = NO_MSG_SEQ_NUM;
+        sendingTime = NO_SENDING_TIME;
+        possDup = false;
+        possResend = false;
+
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int endOfMessage = offset + length - 1;
+
+        // Skip the BeginString and BodyLength fields.
+        final int endOfBeginString = buffer.scan(offset, endOfMessage, START_OF_HEADER);
+        if (endOfBeginString == UNKNOWN_INDEX)
+        {
+            return true;
+        }
+        final int endOfBodyLength = buffer.scan(endOfBeginString + 1, endOfMessage, START_OF_HEADER);
+        if (endOfBodyLength == UNKNOWN_INDEX)
+        {
+            return true;
+        }
+
+        int dataLength = NOT_A_NUMBER;
+        int startOfField = endOfBodyLength + 1;
+        while (startOfField < endOfMessage)
+        {
+            final int equalsIndex = buffer.scan(startOfField, endOfMessage, '=');
+            if (equalsIndex == UNKNOWN_INDEX)
+            {
+                return true;
+            }
+
+            final int tag = parseNatural(startOfField, equalsIndex);
+            final int startOfValue = equalsIndex + 1;
+            final int endOfField;
+            if (tag == SECURE_DATA_TAG || tag == XML_DATA_TAG)
+            {
+                // Data fields can contain the SOH character so are delimited by their preceding length field.
+                if (dataLength < 0)
+                {
+                    return true;
+                }
+
+                endOfField = startOfValue + dataLength;
+                if (endOfField >= endOfMessage || buffer.getByte(endOfField) != START_OF_HEADER)
+                {
+                    return true;
+                }
+            }
+            else
+            {
+                endOfField = buffer.scan(startOfValue, endOfMessage, START_OF_HEADER);
+                if (endOfField == UNKNOWN_INDEX)
+                {
+                    return true;
+                }
+            }
+
+            dataLength = NOT_A_NUMBER;
+            switch (tag)
+            {
+                case MSG_SEQ_NUM_TAG:
+                {
+                    final int value = parseNatural(startOfValue, endOfField);
+                    if (value == NUMBER_TOO_LARGE)
+                    {
+                        return false;
+                    }
+
+                    if (value != NOT_A_NUMBER)
+                    {
+                        msgSeqNum = value;
+                    }
+                    break;
+                }
+
+                case SENDING_TIME_TAG:
+                    sendingTime = parseSendingTime(startOfValue, endOfField);
+                    break;
+
+                case POSS_DUP_FLAG_TAG:
+                    possDup = buffer.getByte(startOfValue) == 'Y';
+                    break;
+
+                case POSS_RESEND_TAG:
+                    possResend = buffer.getByte(startOfValue) == 'Y';
+                    break;
+
+                case SECURE_DATA_LEN_TAG:
+                case XML_DATA_LEN_TAG:
+                    dataLength = parseNatural(startOfValue, endOfField);
+                    break;
+
+                default:
+                    if (!isHeaderTag(tag))
+                    {
+                        return true;
+                    }
+            }
+
+            startOfField = endOfField + 1;
+        }
+
+        return true;
+    }
+
+    private int parseNatural(final int startInclusive, final int endExclusive)
+    {
+        final int length = endExclusive - startInclusive;
+        if (length <= 0)
+        {
+            return NOT_A_NUMBER;
+        }
+
+        long value = 0;
+        for (int i = startInclusive; i < endExclusive; i++)
+        {
+            final byte digit = buffer.getByte(i);
+            if (digit < '0' || digit > '9')
+            {
+                return NOT_A_NUMBER;
+            }
+            value = value * 10 + (digit - '0');
+        }
+
+        if (length > MAX_NATURAL_DIGITS || value > Integer.MAX_VALUE)
+        {
+            return NUMBER_TOO_LARGE;
+        }
+
+        return (int)value;
+    }
+
+    private long parseSendingTime(final int startInclusive, final int endExclusive)
+    {
+        final int length = endExclusive - startInclusive;
+        if (length < LENGTH_WITHOUT_MILLISECONDS)
+        {
+            return NO_SENDING_TIME;
+        }
+
+        try
+        {
+            return UtcTimestampDecoder.decode(buffer, startInclusive, length);
+        }
+        catch (final IllegalArgumentException e)
+        {
+            // Invalid sending times are rejected by the session, not the framer.
+            return NO_SENDING_TIME;
+        }
+    }
+
+    private static boolean isHeaderTag(final int tag)
+    {
+        switch (tag)
+        {
+            case 35: // MsgType
+            case 49: // SenderCompID
+            case 56: // TargetCompID
+            case 115: // OnBehalfOfCompID
+            case 128: // DeliverToCompID
+            case 50: // SenderSubID
+            case 142: // SenderLocationID
+            case 57: // TargetSubID
+            case 143: // TargetLocationID
+            case 116: // OnBehalfOfSubID
+            case 144: // OnBehalfOfLocationID
+            case 129: // DeliverToSubID
+            case 145: // DeliverToLocationID
+            case 122: // OrigSendingTime
+            case 347: // MessageEncoding
+            case 369: // LastMsgSeqNumProcessed
+            case 627: // NoHops
+            case 628: // HopCompID
+            case 629: // HopSendingTime
+            case 630: // HopRefID
+            case 1128: // ApplVerID
+            case 1129: // CstmApplVerID
+            case 1156: // ApplExtID
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
     private boolean validateBodyLength(final int startOfChecksumTag)
     {
         return isStartOfChecksum(startOfChecksumTag);
@@ -565,7 +823,8 @@ class ReceiverEndPoint
             sequenceIndex,
             connectionId,
             INVALID_BODYLENGTH,
-            0);
+            0,
+            readTimestamp);
 
         return stashIfBackPressured(offset, position);
     }
@@ -582,7 +841,8 @@ class ReceiverEndPoint
             sequenceIndex,
             connectionId,
             INVALID,
-            0);
+            0,
+            readTimestamp);
 
         final boolean backPressured = stashIfBackPressured(offset, position);
 
@@ -609,7 +869,8 @@ class ReceiverEndPoint
             sequenceIndex,
             connectionId,
             INVALID_CHECKSUM,
-            0);
+            0,
+            readTimestamp);
 
         return stashIfBackPressured(offset, position);
     }
@@ -630,6 +891,7 @@ class ReceiverEndPoint
         {
             channel.close();
             messagesRead.close();
+            backPressures.close();
         }
         catch (final Exception ex)
         {
@@ -681,6 +943,36 @@ class ReceiverEndPoint
         selectionKey = channel.register(selector, OP_READ, this);
     }
 
+    boolean isBusyPolled()
+    {
+        return isBusyPolled;
+    }
+
+    // A busy polled end point is deregistered from the selector so that it isn't also polled when selected.
+    void busyPolled(final boolean isBusyPolled)
+    {
+        this.isBusyPolled = isBusyPolled;
+        if (selectionKey != null && selectionKey.isValid())
+        {
+            selectionKey.interestOps(isBusyPolled ? 0 : OP_READ);
+        }
+    }
+
+    void onRead()
+    {
+        readsInWindow++;
+    }
+
+    int readsInWindow()
+    {
+        return readsInWindow;
+    }
+
+    void resetReadsInWindow()
+    {
+        readsInWindow = 0;
+    }
+
     public int libraryId()
     {
         return libraryId;
@@ -17,23 +17,58 @@ package uk.co.real_logic.artio.engine.framer;
 
 import org.agrona.LangUtil;
 import org.agrona.collections.ArrayUtil;
+import org.agrona.concurrent.status.AtomicCounter;
 import org.agrona.nio.TransportPoller;
 import uk.co.real_logic.artio.messages.DisconnectReason;
 
 import java.io.IOException;
 import java.nio.channels.SelectionKey;
+import java.util.Arrays;
 import java.util.stream.Stream;
 
 import static org.agrona.collections.ArrayUtil.UNKNOWN_INDEX;
 import static uk.co.real_logic.artio.messages.DisconnectReason.ENGINE_SHUTDOWN;
 
+/**
+ * Polls the TCP connections of the engine. By default every connection is polled on each duty cycle while there are
+ * only a few of them, and only the connections that the selector reports as readable are polled once there are more.
+ * <p>
+ * When polling adaptively, the connections that were frequently read from in the last window are busy polled on each
+ * duty cycle and removed from the selector, whilst the selector is still used for the rest. Most connections are
+ * often idle, so this avoids both reading every idle socket and the cost of the selector for the busy ones.
+ */
 class ReceiverEndPoints extends TransportPoller
 {
+    private final boolean adaptivePolling;
+    private final long pollingWindowInMs;
+    private final int busyPollReadThreshold;
+    private final AtomicCounter busyPolledEndPointsCounter;
+    private final AtomicCounter selectedEndPointsCounter;
+
     // Authentication flow requires periodic polling of the receiver end points until the authentication is
     // complete, so these endpoints are always polled, rather than using the selector.
     private ReceiverEndPoint[] requiredPollingEndPoints = new ReceiverEndPoint[0];
     private ReceiverEndPoint[] endPoints = new ReceiverEndPoint[0];
 
+    // Only used when polling adaptively, a prefix of busyPolledCount end points of this array are busy polled.
+    private ReceiverEndPoint[] busyPolledEndPoints = new ReceiverEndPoint[0];
+    private int busyPolledCount;
+    private long windowEndInMs;
+
+    ReceiverEndPoints(
+        final boolean adaptivePolling,
+        final long pollingWindowInMs,
+        final int busyPollReadThreshold,
+        final AtomicCounter busyPolledEndPointsCounter,
+        final AtomicCounter selectedEndPointsCounter)
+    {
+        this.adaptivePolling = adaptivePolling;
+        this.pollingWindowInMs = pollingWindowInMs;
+        this.busyPollReadThreshold = busyPollReadThreshold;
+        this.busyPolledEndPointsCounter = busyPolledEndPointsCounter;
+        this.selectedEndPointsCounter = selectedEndPointsCounter;
+    }
+
     void add(final ReceiverEndPoint endPoint)
     {
         if (endPoint.requiresAuthentication())
@@ -52,6 +87,7 @@ class ReceiverEndPoints extends TransportPoller
         {
             endPoints = ArrayUtil.add(endPoints, endPoint);
             endPoint.register(selector);
+            updateCounters();
         }
         catch (final IOException ex)
         {
@@ -66,7 +102,14 @@ class ReceiverEndPoints extends TransportPoller
 
         if (index != UNKNOWN_INDEX)
         {
+            final ReceiverEndPoint endPoint = endPoints[index];
+            if (endPoint.isBusyPolled())
+            {
+                removeBusyPolled(endPoint);
+            }
+
             this.endPoints = ArrayUtil.remove(endPoints, index);
+            updateCounters();
         }
         else
         {
@@ -108,7 +151,24 @@ class ReceiverEndPoints extends TransportPoller
         }
     }
 
-    int pollEndPoints()
+    private void removeBusyPolled(final ReceiverEndPoint endPoint)
+    {
+        final ReceiverEndPoint[] busyPolledEndPoints = this.busyPolledEndPoints;
+        final int busyPolledCount = this.busyPolledCount;
+        for (int i = 0; i < busyPolledCount; i++)
+        {
+            if (busyPolledEndPoints[i] == endPoint)
+            {
+                final int lastIndex = busyPolledCount - 1;
+                System.arraycopy(busyPolledEndPoints, i + 1, busyPolledEndPoints, i, lastIndex - i);
+                busyPolledEndPoints[lastIndex] = null;
+                this.busyPolledCount = lastIndex;
+                return;
+            }
+        }
+    }
+
+    int pollEndPoints(final long timeInMs)
     {
         int bytesReceived = 0;
         try
@@ -119,7 +179,11 @@ class ReceiverEndPoints extends TransportPoller
             final int numRequiredPollingEndPoints = requiredPollingEndPoints.length;
             final int numEndPoints = endPoints.length;
             final int threshold = ITERATION_THRESHOLD - numRequiredPollingEndPoints;
-            if (numEndPoints <= threshold)
+            if (adaptivePolling)
+            {
+                bytesReceived = pollAdaptively(timeInMs);
+            }
+            else if (numEndPoints <= threshold)
             {
                 for (int i = numEndPoints - 1; i >= 0; i--)
                 {
@@ -159,6 +223,105 @@ class ReceiverEndPoints extends TransportPoller
         return bytesReceived;
     }
 
+    private int pollAdaptively(final long timeInMs) throws IOException
+    {
+        int bytesReceived = 0;
+
+        final ReceiverEndPoint[] busyPolledEndPoints = this.busyPolledEndPoints;
+        final int busyPolledCount = this.busyPolledCount;
+        for (int i = busyPolledCount - 1; i >= 0; i--)
+        {
+            bytesReceived += pollAndCountReads(busyPolledEndPoints[i]);
+        }
+
+        if (busyPolledCount < endPoints.length)
+        {
+            selector.selectNow();
+
+            final SelectionKey[] keys = selectedKeySet.keys();
+            for (int i = selectedKeySet.size() - 1; i >= 0; i--)
+            {
+                bytesReceived += pollAndCountReads((ReceiverEndPoint)keys[i].attachment());
+            }
+
+            selectedKeySet.reset();
+        }
+
+        if (timeInMs >= windowEndInMs)
+        {
+            rebalance();
+            windowEndInMs = timeInMs + pollingWindowInMs;
+        }
+
+        return bytesReceived;
+    }
+
+    private static int pollAndCountReads(final ReceiverEndPoint endPoint)
+    {
+        final int bytesReceived = endPoint.poll();
+        if (bytesReceived > 0)
+        {
+            endPoint.onRead();
+        }
+
+        return bytesReceived;
+    }
+
+    // Busy poll the end points that reached the read threshold in the window that has just finished.
+    private void rebalance()
+    {
+        final ReceiverEndPoint[] endPoints = this.endPoints;
+        final int numEndPoints = endPoints.length;
+        final int busyPollReadThreshold = this.busyPollReadThreshold;
+
+        ReceiverEndPoint[] busyPolledEndPoints = this.busyPolledEndPoints;
+        if (busyPolledEndPoints.length < numEndPoints)
+        {
+            busyPolledEndPoints = new ReceiverEndPoint[numEndPoints];
+            this.busyPolledEndPoints = busyPolledEndPoints;
+        }
+
+        int busyPolledCount = 0;
+        for (int i = 0; i < numEndPoints; i++)
+        {
+            final ReceiverEndPoint endPoint = endPoints[i];
+            final boolean busyPoll = endPoint.readsInWindow() >= busyPollReadThreshold;
+            endPoint.resetReadsInWindow();
+
+            if (busyPoll != endPoint.isBusyPolled())
+            {
+                endPoint.busyPolled(busyPoll);
+            }
+
+            if (busyPoll)
+            {
+                busyPolledEndPoints[busyPolledCount] = endPoint;
+                busyPolledCount++;
+            }
+        }
+
+        Arrays.fill(busyPolledEndPoints, busyPolledCount, busyPolledEndPoints.length, null);
+        this.busyPolledCount = busyPolledCount;
+        updateCounters();
+    }
+
+    private void updateCounters()
+    {
+        final int numEndPoints = endPoints.length;
+        final int busyPolledCount;
+        if (adaptivePolling)
+        {
+            busyPolledCount = this.busyPolledCount;
+        }
+        else
+        {
+            busyPolledCount = numEndPoints <= ITERATION_THRESHOLD - requiredPollingEndPoints.length ? numEndPoints : 0;
+        }
+
+        busyPolledEndPointsCounter.setOrdered(busyPolledCount);
+        selectedEndPointsCounter.setOrdered(numEndPoints - busyPolledCount);
+    }
+
     public void close()
     {
         Stream.of(endPoints).forEach(receiverEndPoint -> receiverEndPoint.close(ENGINE_SHUTDOWN));
@@ -25,6 +25,7 @@ import uk.co.real_logic.artio.engine.ByteBufferUtil;
 import uk.co.real_logic.artio.engine.SenderSequenceNumber;
 import uk.co.real_logic.artio.engine.logger.ArchiveDescriptor;
 import uk.co.real_logic.artio.messages.DisconnectReason;
+import uk.co.real_logic.artio.timing.Timer;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -35,9 +36,13 @@ import static uk.co.real_logic.artio.engine.FixEngine.ENGINE_LIBRARY_ID;
 import static uk.co.real_logic.artio.messages.DisconnectReason.EXCEPTION;
 import static uk.co.real_logic.artio.messages.DisconnectReason.SLOW_CONSUMER;
 import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAME_SIZE;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_ORIGIN_TIMESTAMP;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.hasOriginTimestamp;
 
 class SenderEndPoint
 {
+    static final int NO_BATCHING = 0;
+
     private final long connectionId;
     private final TcpChannel channel;
     private final AtomicCounter bytesInBuffer;
@@ -49,6 +54,16 @@ class SenderEndPoint
     private final StreamTracker outboundTracker;
     private final StreamTracker replayTracker;
     private final SenderSequenceNumber senderSequenceNumber;
+    private final Timer outboundEndToEndTimer;
+
+    // Outbound messages are copied into the batch buffer and written together when it's flushed. Null when
+    // batching is disabled.
+    private final ByteBuffer batchBuffer;
+    private final long[] batchPositions;
+    private final int[] batchLengths;
+    private final long[] batchOriginTimestamps;
+    private int batchMessages;
+    private boolean queuedForFlush;
 
     private int libraryId;
     private long sessionId;
@@ -68,7 +83,10 @@ class SenderEndPoint
         final int maxBytesInBuffer,
         final long slowConsumerTimeoutInMs,
         final long timeInMs,
-        final SenderSequenceNumber senderSequenceNumber)
+        final SenderSequenceNumber senderSequenceNumber,
+        final int maxBatchSize,
+        final int maxBatchMessages,
+        final Timer outboundEndToEndTimer)
     {
         this.connectionId = connectionId;
         this.libraryId = libraryId;
@@ -80,10 +98,26 @@ class SenderEndPoint
         this.maxBytesInBuffer = maxBytesInBuffer;
         this.slowConsumerTimeoutInMs = slowConsumerTimeoutInMs;
         this.senderSequenceNumber = senderSequenceNumber;
+        this.outboundEndToEndTimer = outboundEndToEndTimer;
 
         outboundTracker = new StreamTracker(outboundBlockablePosition);
         replayTracker = new StreamTracker(replayBlockablePosition);
         sendingTimeoutTimeInMs = timeInMs + slowConsumerTimeoutInMs;
+
+        if (maxBatchSize == NO_BATCHING || maxBatchMessages <= 1)
+        {
+            batchBuffer = null;
+            batchPositions = null;
+            batchLengths = null;
+            batchOriginTimestamps = null;
+        }
+        else
+        {
+            batchBuffer = ByteBuffer.allocateDirect(maxBatchSize);
+            batchPositions = new long[maxBatchMessages];
+            batchLengths = new int[maxBatchMessages];
+            batchOriginTimestamps = new long[maxBatchMessages];
+        }
     }
 
     void onOutboundMessage(
@@ -92,6 +126,7 @@ class SenderEndPoint
         final int offset,
         final int bodyLength,
         final int sequenceNumber,
+        final long originTimestamp,
         final long position,
         final long timeInMs)
     {
@@ -108,11 +143,178 @@ class SenderEndPoint
             return;
         }
 
-        attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, outboundTracker);
+        if (batchBuffer != null)
+        {
+            batchFramedMessage(directBuffer, offset, bodyLength, timeInMs, originTimestamp, position);
+        }
+        else
+        {
+            attemptFramedMessage(
+                directBuffer, offset, bodyLength, timeInMs, originTimestamp, position, outboundTracker);
+        }
 
         senderSequenceNumber.onNewMessage(sequenceNumber);
     }
 
+    private void batchFramedMessage(
+        final DirectBuffer directBuffer,
+        final int offset,
+        final int bodyLength,
+        final long timeInMs,
+        final long originTimestamp,
+        final long position)
+    {
+        final ByteBuffer batchBuffer = this.batchBuffer;
+        if (bodyLength > batchBuffer.remaining())
+        {
+            flushBatch(timeInMs);
+
+            if (bodyLength > batchBuffer.capacity())
+            {
+                attemptFramedMessage(
+                    directBuffer, offset, bodyLength, timeInMs, originTimestamp, position, outboundTracker);
+                return;
+            }
+        }
+
+        // Checked after any flush as a partial write of the batch would make this a slow consumer.
+        if (isSlowConsumer())
+        {
+            dropFurtherBehind(bodyLength);
+            return;
+        }
+
+        directBuffer.getBytes(offset, batchBuffer, bodyLength);
+        final int batchMessages = this.batchMessages;
+        batchPositions[batchMessages] = position;
+        batchLengths[batchMessages] = bodyLength;
+        batchOriginTimestamps[batchMessages] = originTimestamp;
+        this.batchMessages = batchMessages + 1;
+
+        if (this.batchMessages == batchLengths.length)
+        {
+            flushBatch(timeInMs);
+        }
+    }
+
+    /**
+     * Write any batched outbound messages to the TCP connection.
+     *
+     * @param timeInMs the current time
+     * @return the number of messages that were flushed
+     */
+    int flushBatch(final long timeInMs)
+    {
+        final int batchMessages = this.batchMessages;
+        if (batchMessages == 0)
+        {
+            return 0;
+        }
+
+        // Reset before writing as an error can re-enter this end point through the disconnect.
+        this.batchMessages = 0;
+
+        final ByteBuffer batchBuffer = this.batchBuffer;
+        batchBuffer.flip();
+        try
+        {
+            final int batchLength = batchBuffer.limit();
+            final int written = channel.write(batchBuffer);
+            DebugLogger.log(FIX_MESSAGE_TCP, "Written  %s%n", batchBuffer, written);
+            updateSendingTimeoutTimeInMs(timeInMs, written);
+
+            if (written != batchLength)
+            {
+                onPartialBatchWrite(written, batchMessages);
+            }
+            else
+            {
+                outboundTracker.sentPosition = batchPositions[batchMessages - 1];
+                for (int i = 0; i < batchMessages; i++)
+                {
+                    onMessageWritten(batchOriginTimestamps[i]);
+                }
+            }
+        }
+        catch (final IOException ex)
+        {
+            onError(ex);
+        }
+        finally
+        {
+            batchBuffer.clear();
+        }
+
+        return batchMessages;
+    }
+
+    // Leaves the same slow consumer state as if each message of the batch had been written individually: the first
+    // message that wasn't completely written becomes the partially sent message and those after it are behind.
+    private void onPartialBatchWrite(final int written, final int batchMessages)
+    {
+        final int[] batchLengths = this.batchLengths;
+        int writtenOfMessage = written;
+        int i = 0;
+        while (writtenOfMessage >= batchLengths[i])
+        {
+            outboundTracker.sentPosition = batchPositions[i];
+            onMessageWritten(batchOriginTimestamps[i]);
+            writtenOfMessage -= batchLengths[i];
+            i++;
+        }
+
+        becomeSlowConsumer(writtenOfMessage, batchLengths[i], batchPositions[i], outboundTracker);
+
+        for (i++; i < batchMessages; i++)
+        {
+            dropFurtherBehind(batchLengths[i]);
+        }
+    }
+
+    // Best effort attempt to send messages batched before a disconnect, as the connection is being closed any
+    // failure to write them is only reported.
+    void flushBatchOnDisconnect()
+    {
+        if (batchMessages == 0)
+        {
+            return;
+        }
+
+        batchMessages = 0;
+
+        final ByteBuffer batchBuffer = this.batchBuffer;
+        batchBuffer.flip();
+        try
+        {
+            final int written = channel.write(batchBuffer);
+            DebugLogger.log(FIX_MESSAGE_TCP, "Written  %s%n", batchBuffer, written);
+        }
+        catch (final IOException ex)
+        {
+            errorHandler.onError(new Exception(String.format(
+                "Exception reported for sessionId=%d,connectionId=%d", sessionId, connectionId), ex));
+        }
+        finally
+        {
+            batchBuffer.clear();
+        }
+    }
+
+    boolean queuedForFlush()
+    {
+        return queuedForFlush;
+    }
+
+    void queuedForFlush(final boolean queuedForFlush)
+    {
+        this.queuedForFlush = queuedForFlush;
+    }
+
+    boolean hasBatchedMessages()
+    {
+        return batchMessages > 0;
+    }
+
     Action onReplayMessage(
         final DirectBuffer directBuffer,
         final int offset,
@@ -125,7 +327,7 @@ class SenderEndPoint
             replayPaused = true;
         }
 
-        attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, replayTracker);
+        attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, NO_ORIGIN_TIMESTAMP, position, replayTracker);
 
         return CONTINUE;
     }
@@ -145,7 +347,8 @@ class SenderEndPoint
         final int offsetAfterHeader = offset - FRAME_SIZE;
         final int length = bodyLength + FRAME_SIZE;
 
-        return attemptSlowMessage(buffer, offsetAfterHeader, length, position, bodyLength, timeInMs, replayTracker);
+        return attemptSlowMessage(
+            buffer, offsetAfterHeader, length, position, bodyLength, NO_ORIGIN_TIMESTAMP, timeInMs, replayTracker);
     }
 
     private void attemptFramedMessage(
@@ -153,6 +356,7 @@ class SenderEndPoint
         final int offset,
         final int bodyLength,
         final long timeInMs,
+        final long originTimestamp,
         final long position,
         final StreamTracker tracker)
     {
@@ -174,6 +378,7 @@ class SenderEndPoint
             else
             {
                 tracker.sentPosition = position;
+                onMessageWritten(originTimestamp);
             }
         }
         catch (final IOException ex)
@@ -211,6 +416,15 @@ class SenderEndPoint
         return written;
     }
 
+    // Outbound messages are timed end to end once they've been completely written to the TCP connection.
+    private void onMessageWritten(final long originTimestamp)
+    {
+        if (hasOriginTimestamp(originTimestamp))
+        {
+            outboundEndToEndTimer.recordSince(originTimestamp);
+        }
+    }
+
     private void updateSendingTimeoutTimeInMs(final long timeInMs, final int written)
     {
         if (written > 0)
@@ -280,6 +494,7 @@ class SenderEndPoint
         final long position,
         final int bodyLength,
         final int libraryId,
+        final long originTimestamp,
         final long timeInMs)
     {
         if (isWrongLibraryId(libraryId))
@@ -294,7 +509,7 @@ class SenderEndPoint
         }
 
         return attemptSlowMessage(
-            directBuffer, offsetAfterHeader, length, position, bodyLength, timeInMs, outboundTracker);
+            directBuffer, offsetAfterHeader, length, position, bodyLength, originTimestamp, timeInMs, outboundTracker);
     }
 
     private Action attemptSlowMessage(
@@ -303,6 +518,7 @@ class SenderEndPoint
         final int length,
         final long position,
         final int bodyLength,
+        final long originTimestamp,
         final long timeInMs,
         final StreamTracker tracker)
     {
@@ -371,6 +587,7 @@ class SenderEndPoint
                 tracker.sentPosition = position;
                 tracker.partiallySentMessage = false;
                 tracker.skipPosition = Long.MAX_VALUE;
+                onMessageWritten(originTimestamp);
 
                 if (!isSlowConsumer())
                 {
@@ -411,7 +628,7 @@ class SenderEndPoint
     }
 
     // Only access on Framer thread
-    private boolean isSlowConsumer()
+    boolean isSlowConsumer()
     {
         return bytesInBufferWeak() > 0;
     }
@@ -24,9 +24,11 @@ import uk.co.real_logic.artio.engine.FixEngine;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 
+import java.util.ArrayList;
 import java.util.function.LongToIntFunction;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static org.agrona.collections.ArrayListUtil.fastUnorderedRemove;
 
 class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
 {
@@ -35,6 +37,8 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
     private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
     private final FixMessageDecoder fixMessage = new FixMessageDecoder();
     private final Long2ObjectHashMap<SenderEndPoint> connectionIdToSenderEndpoint = new Long2ObjectHashMap<>();
+    // End points with outbound messages batched during this duty cycle's poll of the outbound stream.
+    private final ArrayList<SenderEndPoint> batchedEndPoints = new ArrayList<>();
     private final ErrorHandler errorHandler;
     private final LongToIntFunction libraryLookup = this::libraryLookup;
 
@@ -68,6 +72,13 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         final SenderEndPoint senderEndPoint = connectionIdToSenderEndpoint.remove(connectionId);
         if (senderEndPoint != null)
         {
+            if (senderEndPoint.queuedForFlush())
+            {
+                senderEndPoint.queuedForFlush(false);
+                final ArrayList<SenderEndPoint> batchedEndPoints = this.batchedEndPoints;
+                fastUnorderedRemove(batchedEndPoints, batchedEndPoints.indexOf(senderEndPoint));
+            }
+
             senderEndPoint.close();
         }
     }
@@ -79,12 +90,50 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         final int offset,
         final int length,
         final int sequenceNumber,
+        final long originTimestamp,
         final long position)
     {
         final SenderEndPoint endPoint = connectionIdToSenderEndpoint.get(connectionId);
         if (endPoint != null)
         {
-            endPoint.onOutboundMessage(libraryId, buffer, offset, length, sequenceNumber, position, timeInMs);
+            endPoint.onOutboundMessage(
+                libraryId, buffer, offset, length, sequenceNumber, originTimestamp, position, timeInMs);
+            if (!endPoint.queuedForFlush() && endPoint.hasBatchedMessages())
+            {
+                endPoint.queuedForFlush(true);
+                batchedEndPoints.add(endPoint);
+            }
+        }
+    }
+
+    int flushBatches()
+    {
+        final ArrayList<SenderEndPoint> batchedEndPoints = this.batchedEndPoints;
+        final int size = batchedEndPoints.size();
+        if (size == 0)
+        {
+            return 0;
+        }
+
+        int flushed = 0;
+        // Iterate backwards so that end points removed by a disconnect during a flush don't cause any to be skipped.
+        for (int i = size - 1; i >= 0; i--)
+        {
+            final SenderEndPoint endPoint = batchedEndPoints.get(i);
+            endPoint.queuedForFlush(false);
+            fastUnorderedRemove(batchedEndPoints, i);
+            flushed += endPoint.flushBatch(timeInMs);
+        }
+
+        return flushed;
+    }
+
+    void flushBatchOnDisconnect(final long connectionId)
+    {
+        final SenderEndPoint endPoint = connectionIdToSenderEndpoint.get(connectionId);
+        if (endPoint != null)
+        {
+            endPoint.flushBatchOnDisconnect();
         }
     }
 
@@ -154,8 +203,16 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
             {
                 final int bodyLength = fixMessage.bodyLength();
                 final int libraryId = fixMessage.libraryId();
+                final long originTimestamp = fixMessage.originTimestamp();
                 return senderEndPoint.onSlowOutboundMessage(
-                    buffer, offset, length - HEADER_LENGTH, position, bodyLength, libraryId, timeInMs);
+                    buffer,
+                    offset,
+                    length - HEADER_LENGTH,
+                    position,
+                    bodyLength,
+                    libraryId,
+                    originTimestamp,
+                    timeInMs);
             }
         }
 
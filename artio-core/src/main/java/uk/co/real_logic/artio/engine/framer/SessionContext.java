@@ -15,6 +15,7 @@
  */
 package uk.co.real_logic.artio.engine.framer;
 
+import uk.co.real_logic.artio.session.CompositeKey;
 import uk.co.real_logic.artio.session.Session;
 
 /**
@@ -27,6 +28,7 @@ class SessionContext
     private final long sessionId;
     private final SessionContexts sessionContexts;
     private final int filePosition;
+    private final CompositeKey compositeKey;
 
     // onSequenceReset() will be called upon logon or not depending upon whether this is a persistent
     // session or not.
@@ -40,12 +42,24 @@ class SessionContext
         final long logonTime,
         final SessionContexts sessionContexts,
         final int filePosition)
+    {
+        this(sessionId, sequenceIndex, logonTime, sessionContexts, filePosition, null);
+    }
+
+    SessionContext(
+        final long sessionId,
+        final int sequenceIndex,
+        final long logonTime,
+        final SessionContexts sessionContexts,
+        final int filePosition,
+        final CompositeKey compositeKey)
     {
         this.sessionId = sessionId;
         this.sequenceIndex = sequenceIndex;
         this.logonTime = logonTime;
         this.sessionContexts = sessionContexts;
         this.filePosition = filePosition;
+        this.compositeKey = compositeKey;
     }
 
     void onSequenceReset()
@@ -86,6 +100,11 @@ class SessionContext
         return sessionId;
     }
 
+    CompositeKey compositeKey()
+    {
+        return compositeKey;
+    }
+
     public boolean equals(final Object o)
     {
         if (this == o)
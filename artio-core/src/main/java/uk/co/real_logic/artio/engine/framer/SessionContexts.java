@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.engine.framer;
 
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.collections.LongHashSet;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -53,6 +54,9 @@ import static uk.co.real_logic.artio.storage.messages.SessionIdEncoder.BLOCK_LEN
  * The session ids table is saved into a file. Records are written out using the {@link SessionIdEncoder}
  * and aren't allowed to span sectors. Each sector has a CRC32 checksum and each checksum is updated after writing
  * each session id record.
+ * <p>
+ * Sessions are looked up by their composite key, or where the {@link SessionIdStrategy} supports it, by the saved
+ * form of their key in a {@link CompositeKeyTable} so that accepting the logon of a known session doesn't allocate.
  */
 public class SessionContexts
 {
@@ -83,6 +87,8 @@ public class SessionContexts
     private final LongHashSet currentlyAuthenticatedSessionIds = new LongHashSet();
     private final LongHashSet recordedSessions = new LongHashSet();
     private final Map<CompositeKey, SessionContext> compositeToContext = new HashMap<>();
+    private final Long2ObjectHashMap<SessionContext> sessionIdToContext = new Long2ObjectHashMap<>();
+    private final CompositeKeyTable compositeKeyTable;
 
     private final CRC32 crc32 = new CRC32();
     private final SectorFramer sectorFramer;
@@ -105,6 +111,7 @@ public class SessionContexts
         sectorFramer = new SectorFramer(buffer.capacity());
         this.idStrategy = idStrategy;
         this.errorHandler = errorHandler;
+        compositeKeyTable = new CompositeKeyTable(buffer);
         loadBuffer();
     }
 
@@ -150,8 +157,10 @@ public class SessionContexts
                 return;
             }
 
-            compositeToContext.put(compositeKey,
-                new SessionContext(sessionId, sequenceIndex, logonTime, this, filePosition));
+            final SessionContext sessionContext = new SessionContext(
+                sessionId, sequenceIndex, logonTime, this, filePosition, compositeKey);
+            putContext(compositeKey, sessionContext);
+            compositeKeyTable.put(filePosition + BLOCK_LENGTH, compositeKeyLength, sessionId);
             recordedSessions.add(sessionId);
             counter = Math.max(counter, sessionId + 1);
 
@@ -228,6 +237,45 @@ public class SessionContexts
         return compositeToContext.computeIfAbsent(compositeKey, onNewLogonFunc);
     }
 
+    /**
+     * Equivalent to {@code onLogon(idStrategy.onAcceptLogon(header))}, but sessions that are already known are
+     * looked up without creating a composite key.
+     *
+     * @param header the header of the logon message.
+     * @return the context of the session, or {@link #DUPLICATE_SESSION} if it's already authenticated.
+     */
+    SessionContext onAcceptLogon(final HeaderDecoder header)
+    {
+        final SessionContext sessionContext = newAcceptLogonContext(header);
+
+        if (!currentlyAuthenticatedSessionIds.add(sessionContext.sessionId()))
+        {
+            return DUPLICATE_SESSION;
+        }
+
+        return sessionContext;
+    }
+
+    SessionContext newAcceptLogonContext(final HeaderDecoder header)
+    {
+        final int compositeKeyLength = idStrategy.saveOnAcceptLogon(header, compositeKeyBuffer, 0);
+        if (compositeKeyLength > 0)
+        {
+            final long sessionId = compositeKeyTable.get(compositeKeyBuffer, 0, compositeKeyLength);
+            if (sessionId != Session.UNKNOWN)
+            {
+                final SessionContext sessionContext = sessionIdToContext.get(sessionId);
+                if (sessionContext != null)
+                {
+                    return sessionContext;
+                }
+            }
+        }
+
+        // Either the strategy doesn't support saving from a header or this is a session we haven't seen before.
+        return newSessionContext(idStrategy.onAcceptLogon(header));
+    }
+
     private SessionContext onNewLogon(final CompositeKey compositeKey)
     {
         final long sessionId = counter++;
@@ -247,7 +295,7 @@ public class SessionContexts
                 "Unable to save record session id %d for %s, because the buffer is too small",
                 sessionId,
                 compositeKey)));
-            return new SessionContext(sessionId, sequenceIndex, Session.NO_LOGON_TIME, this, OUT_OF_SPACE);
+            return createSessionContext(compositeKey, sessionId, sequenceIndex, OUT_OF_SPACE);
         }
         else
         {
@@ -275,20 +323,41 @@ public class SessionContexts
 
                     updateChecksum(sectorFramer.sectorStart(), sectorFramer.checksumOffset());
                     mappedFile.force();
+
+                    compositeKeyTable.put(keyPosition + BLOCK_LENGTH, compositeKeyLength, sessionId);
                 }
             }
 
-            return new SessionContext(sessionId, sequenceIndex, Session.NO_LOGON_TIME, this, keyPosition);
+            return createSessionContext(compositeKey, sessionId, sequenceIndex, keyPosition);
+        }
+    }
+
+    private SessionContext createSessionContext(
+        final CompositeKey compositeKey, final long sessionId, final int sequenceIndex, final int keyPosition)
+    {
+        final SessionContext sessionContext = new SessionContext(
+            sessionId, sequenceIndex, Session.NO_LOGON_TIME, this, keyPosition, compositeKey);
+        sessionIdToContext.put(sessionId, sessionContext);
+        return sessionContext;
+    }
+
+    private void putContext(final CompositeKey compositeKey, final SessionContext sessionContext)
+    {
+        final SessionContext oldContext = compositeToContext.put(compositeKey, sessionContext);
+        if (oldContext != null && oldContext.sessionId() != sessionContext.sessionId())
+        {
+            sessionIdToContext.remove(oldContext.sessionId());
         }
+        sessionIdToContext.put(sessionContext.sessionId(), sessionContext);
     }
 
     void sequenceReset(final long sessionId)
     {
-        compositeToContext
-            .values()
-            .stream()
-            .filter(context -> context.sessionId() == sessionId)
-            .forEach(SessionContext::onSequenceReset);
+        final SessionContext sessionContext = sessionIdToContext.get(sessionId);
+        if (sessionContext != null)
+        {
+            sessionContext.onSequenceReset();
+        }
     }
 
     // TODO: optimisation, more efficient checksumming, only checksum new data
@@ -320,6 +389,8 @@ public class SessionContexts
         counter = LOWEST_VALID_SESSION_ID;
         currentlyAuthenticatedSessionIds.clear();
         compositeToContext.clear();
+        sessionIdToContext.clear();
+        compositeKeyTable.clear();
 
         if (backupLocation != null)
         {
@@ -360,7 +431,7 @@ public class SessionContexts
             header.targetLocationIDAsString());
 
         final SessionContext sessionContext = assignSessionId(compositeKey, sessionId, sequenceIndex);
-        compositeToContext.put(compositeKey, sessionContext);
+        putContext(compositeKey, sessionContext);
     }
 
     void updateSavedData(final int filePosition, final int sequenceIndex, final long logonTime)
@@ -394,6 +465,6 @@ public class SessionContexts
 
     boolean isKnownSessionId(final long sessionId)
     {
-        return compositeToContext.values().stream().anyMatch(context -> context.sessionId() == sessionId);
+        return sessionIdToContext.containsKey(sessionId);
     }
 }
@@ -36,6 +36,8 @@ import static uk.co.real_logic.artio.engine.logger.FixMessagePredicates.*;
  */
 public final class FixArchivePrinter
 {
+    private static final long NO_FIX_SESSION_ID = -1;
+
     public static void main(final String[] args)
     {
         String aeronDirectoryName = null;
@@ -44,13 +46,20 @@ public final class FixArchivePrinter
         int archiveScannerStreamId = DEFAULT_ARCHIVE_SCANNER_STREAM;
         FixMessagePredicate predicate = FixMessagePredicates.alwaysTrue();
         boolean follow = false;
+        boolean timeIndex = false;
+        String logFileDir = null;
+        long fixSessionId = NO_FIX_SESSION_ID;
+        long fromTimestamp = Long.MIN_VALUE;
+        long toTimestamp = Long.MAX_VALUE;
 
         Predicate<HeaderDecoder> headerPredicate = null;
 
         for (final String arg : args)
         {
+            requiredOptionPrefix(arg);
+
             final int eqIndex = arg.indexOf('=');
-            final String optionName = eqIndex != -1 ? arg.substring(2, eqIndex) : arg;
+            final String optionName = eqIndex != -1 ? arg.substring(2, eqIndex) : arg.substring(2);
 
             // Options without arguments
             switch (optionName)
@@ -63,6 +72,10 @@ public final class FixArchivePrinter
                     follow = true;
                     break;
 
+                case "time-index":
+                    timeIndex = true;
+                    break;
+
                 default:
                     requiredArgument(eqIndex);
             }
@@ -72,11 +85,13 @@ public final class FixArchivePrinter
             switch (optionName)
             {
                 case "from":
-                    predicate = from(parseLong(optionValue)).and(predicate);
+                    fromTimestamp = parseLong(optionValue);
+                    predicate = from(fromTimestamp).and(predicate);
                     break;
 
                 case "to":
-                    predicate = to(parseLong(optionValue)).and(predicate);
+                    toTimestamp = parseLong(optionValue);
+                    predicate = to(toTimestamp).and(predicate);
                     break;
 
                 case "message-types":
@@ -123,21 +138,57 @@ public final class FixArchivePrinter
                 case "aeron-channel":
                     aeronChannel = optionValue;
                     break;
+
+                case "log-file-dir":
+                    logFileDir = optionValue;
+                    break;
+
+                case "fix-session-id":
+                    fixSessionId = parseLong(optionValue);
+                    break;
             }
         }
 
         requiredArgument(aeronDirectoryName, "aeron-dir-name");
-        requiredArgument(aeronChannel, "aeron-channel");
 
-        scanArchive(aeronDirectoryName, aeronChannel, queryStreamId, predicate, follow, headerPredicate,
-            archiveScannerStreamId);
+        if (fixSessionId != NO_FIX_SESSION_ID)
+        {
+            requiredArgument(logFileDir, "log-file-dir");
+
+            scanSession(aeronDirectoryName, logFileDir, fixSessionId, queryStreamId, predicate, headerPredicate,
+                archiveScannerStreamId);
+        }
+        else if (timeIndex)
+        {
+            requiredArgument(logFileDir, "log-file-dir");
+
+            scanTimeWindow(aeronDirectoryName, logFileDir, fromTimestamp, toTimestamp, queryStreamId, predicate,
+                headerPredicate, archiveScannerStreamId);
+        }
+        else
+        {
+            requiredArgument(aeronChannel, "aeron-channel");
+
+            scanArchive(aeronDirectoryName, aeronChannel, queryStreamId, predicate, follow, headerPredicate,
+                archiveScannerStreamId);
+        }
+    }
+
+    private static void requiredOptionPrefix(final String arg)
+    {
+        if (!arg.startsWith("--"))
+        {
+            System.err.printf("Invalid option '%s', options must start with --%n", arg);
+            printHelp();
+            System.exit(-1);
+        }
     }
 
     private static void requiredArgument(final int eqIndex)
     {
         if (eqIndex == -1)
         {
-            System.err.println("--help and --follow are the only options that don't take a value");
+            System.err.println("--help, --follow and --time-index are the only options that don't take a value");
             printHelp();
             System.exit(-1);
         }
@@ -171,6 +222,68 @@ public final class FixArchivePrinter
             archiveScannerStreamId);
     }
 
+    private static void scanSession(
+        final String aeronDirectoryName,
+        final String logFileDir,
+        final long fixSessionId,
+        final int queryStreamId,
+        final FixMessagePredicate otherPredicate,
+        final Predicate<HeaderDecoder> headerPredicate,
+        final int archiveScannerStreamId)
+    {
+        FixMessagePredicate predicate = otherPredicate;
+        if (headerPredicate != null)
+        {
+            predicate = whereHeader(headerPredicate).and(predicate);
+        }
+
+        final FixArchiveScanner.Context context = new FixArchiveScanner.Context()
+            .aeronDirectoryName(aeronDirectoryName)
+            .logFileDir(logFileDir)
+            .idleStrategy(CommonConfiguration.backoffIdleStrategy());
+
+        try (FixArchiveScanner scanner = new FixArchiveScanner(context))
+        {
+            scanner.scanSession(
+                fixSessionId,
+                new int[] {queryStreamId},
+                filterBy(FixArchivePrinter::print, predicate),
+                archiveScannerStreamId);
+        }
+    }
+
+    private static void scanTimeWindow(
+        final String aeronDirectoryName,
+        final String logFileDir,
+        final long fromTimestamp,
+        final long toTimestamp,
+        final int queryStreamId,
+        final FixMessagePredicate otherPredicate,
+        final Predicate<HeaderDecoder> headerPredicate,
+        final int archiveScannerStreamId)
+    {
+        FixMessagePredicate predicate = otherPredicate;
+        if (headerPredicate != null)
+        {
+            predicate = whereHeader(headerPredicate).and(predicate);
+        }
+
+        final FixArchiveScanner.Context context = new FixArchiveScanner.Context()
+            .aeronDirectoryName(aeronDirectoryName)
+            .logFileDir(logFileDir)
+            .idleStrategy(CommonConfiguration.backoffIdleStrategy());
+
+        try (FixArchiveScanner scanner = new FixArchiveScanner(context))
+        {
+            scanner.scanTimeWindow(
+                new int[] {queryStreamId},
+                fromTimestamp,
+                toTimestamp,
+                filterBy(FixArchivePrinter::print, predicate),
+                archiveScannerStreamId);
+        }
+    }
+
     private static void requiredArgument(final String argument, final String description)
     {
         if (argument == null)
@@ -193,7 +306,7 @@ public final class FixArchivePrinter
             true);
         printOption(
             "aeron-channel",
-            "Specifies the aeron channel that was used to by the engine",
+            "Specifies the aeron channel that was used to by the engine, not required with fix-session-id",
             true);
 
         printOption(
@@ -238,6 +351,22 @@ public final class FixArchivePrinter
             " This should be your configuration.inboundLibraryStream() or configuration.outboundLibraryStream()" +
             " Defaults to sent.",
             false);
+        printOption(
+            "fix-session-id",
+            "Only print messages of the FIX session with this id, found using the replay index rather than by" +
+            " scanning the whole archive. Requires log-file-dir and doesn't support follow.",
+            false);
+        printOption(
+            "log-file-dir",
+            "Specifies the log file directory of the engine, should be the same as your" +
+            " configuration.logFileDir()",
+            false);
+        printOption(
+            "time-index",
+            "Only replay the spans of the archive that cover the from and to times, found using the engine's time" +
+            " index rather than by scanning the whole archive. Requires log-file-dir and the engine to have been" +
+            " configured with a timeIndexFileSize.",
+            false);
         printOption(
             "follow",
             "Continue to print out archive messages for a recording that is still in flight. defaults to off",
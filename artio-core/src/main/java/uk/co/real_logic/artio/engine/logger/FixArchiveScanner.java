@@ -18,17 +18,34 @@ package uk.co.real_logic.artio.engine.logger;
 import io.aeron.Aeron;
 import io.aeron.FragmentAssembler;
 import io.aeron.Image;
+import io.aeron.ImageControlledFragmentAssembler;
 import io.aeron.Subscription;
 import io.aeron.archive.client.AeronArchive;
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordDecoder;
 
+import java.io.File;
+import java.nio.MappedByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static io.aeron.archive.client.AeronArchive.NULL_LENGTH;
 import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
 import static java.util.Comparator.comparingLong;
+import static org.agrona.UnsafeAccess.UNSAFE;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
 
 /**
  * Scan the archive for fix messages. Can be combined with predicates to create rich queries.
@@ -42,11 +59,13 @@ public class FixArchiveScanner implements AutoCloseable
     private final Aeron aeron;
     private final AeronArchive aeronArchive;
     private final IdleStrategy idleStrategy;
+    private final String logFileDir;
 
     public static class Context
     {
         private String aeronDirectoryName;
         private IdleStrategy idleStrategy;
+        private String logFileDir;
 
         public Context()
         {
@@ -73,11 +92,31 @@ public class FixArchiveScanner implements AutoCloseable
         {
             return idleStrategy;
         }
+
+        /**
+         * Sets the log file directory of the engine that recorded the archive. This is only required in order to
+         * use {@link #scanSession(long, int[], FixMessageConsumer, int)} or
+         * {@link #scanTimeWindow(int[], long, long, FixMessageConsumer, int)}, which read the index files within it.
+         *
+         * @param logFileDir the engine's log file directory.
+         * @return this
+         */
+        public Context logFileDir(final String logFileDir)
+        {
+            this.logFileDir = logFileDir;
+            return this;
+        }
+
+        public String logFileDir()
+        {
+            return logFileDir;
+        }
     }
 
     public FixArchiveScanner(final Context context)
     {
         this.idleStrategy = context.idleStrategy();
+        this.logFileDir = context.logFileDir();
 
         final Aeron.Context aeronContext = new Aeron.Context().aeronDirectoryName(context.aeronDirectoryName());
         aeron = Aeron.connect(aeronContext);
@@ -144,6 +183,283 @@ public class FixArchiveScanner implements AutoCloseable
         }
     }
 
+    /**
+     * Scan the archive for the messages of a single FIX session.
+     *
+     * Rather than replaying every recording from start to end this reads the session's replay index files from the
+     * log file directory and only replays the span of each recording that holds the session's messages. The
+     * recordings, including those of different streams, are replayed concurrently by the archive and their messages
+     * are passed to the handler in timestamp order.
+     *
+     * Only the messages that are still covered by the replay index are found, so older messages of a session that
+     * has wrapped its index file will be missing.
+     *
+     * @param fixSessionId the id of the FIX session to scan for.
+     * @param queryStreamIds the streams to scan, eg: your configuration.inboundLibraryStream() and
+     *                       configuration.outboundLibraryStream().
+     * @param handler the handler that messages of the session are passed to.
+     * @param archiveScannerStreamId the stream id to replay the archive over.
+     * @throws IllegalStateException if no log file directory has been configured.
+     */
+    public void scanSession(
+        final long fixSessionId,
+        final int[] queryStreamIds,
+        final FixMessageConsumer handler,
+        final int archiveScannerStreamId)
+    {
+        checkLogFileDir("session");
+
+        final List<RecordingRange> ranges = new ArrayList<>();
+        for (final int queryStreamId : queryStreamIds)
+        {
+            lookupRecordingRanges(logFileDir, fixSessionId, queryStreamId, ranges);
+        }
+
+        final FixMessagePredicate predicate = FixMessagePredicates.sessionOf(fixSessionId);
+        try (Subscription replaySubscription = aeron.addSubscription(IPC_CHANNEL, archiveScannerStreamId))
+        {
+            final List<RangeReplay> replays = new ArrayList<>();
+            for (final RecordingRange range : ranges)
+            {
+                final int sessionId = (int)aeronArchive.startReplay(
+                    range.recordingId,
+                    range.position,
+                    range.length,
+                    IPC_CHANNEL,
+                    archiveScannerStreamId);
+
+                final Image image = lookupImage(replaySubscription, sessionId);
+                replays.add(new RangeReplay(image, range.position + range.length, predicate, handler));
+            }
+
+            mergeReplays(replays);
+        }
+    }
+
+    /**
+     * Scan the archive for the messages within a window of time.
+     *
+     * Rather than replaying every recording from start to end this reads the time index file of each stream from the
+     * log file directory and only replays the span of each recording that covers the window, so the cost of a scan
+     * is proportional to the size of the window. The engine must have been configured to keep a time index, see
+     * {@link uk.co.real_logic.artio.engine.EngineConfiguration#timeIndexFileSize(int)}. Messages are passed to the
+     * handler in timestamp order.
+     *
+     * Only the messages that are still covered by the time index are found, so the window should lie within the
+     * period of the index file.
+     *
+     * @param queryStreamIds the streams to scan, eg: your configuration.inboundLibraryStream() and
+     *                       configuration.outboundLibraryStream().
+     * @param fromTimestampInclusive messages' timestamps must be &gt;= this value, in the precision of
+     *                               CommonConfiguration.clock().
+     * @param toTimestampExclusive messages' timestamps must be &lt; this value, in the precision of
+     *                             CommonConfiguration.clock().
+     * @param handler the handler that messages within the window are passed to.
+     * @param archiveScannerStreamId the stream id to replay the archive over.
+     * @throws IllegalStateException if no log file directory has been configured.
+     */
+    public void scanTimeWindow(
+        final int[] queryStreamIds,
+        final long fromTimestampInclusive,
+        final long toTimestampExclusive,
+        final FixMessageConsumer handler,
+        final int archiveScannerStreamId)
+    {
+        checkLogFileDir("time window");
+
+        final List<ArchiveLocation> spans = new ArrayList<>();
+        for (final int queryStreamId : queryStreamIds)
+        {
+            lookupTimeWindowSpans(
+                logFileDir,
+                queryStreamId,
+                fromTimestampInclusive,
+                toTimestampExclusive,
+                (recordingId, startPosition, stopPosition) ->
+                    spans.add(new ArchiveLocation(recordingId, startPosition, stopPosition)));
+        }
+
+        final FixMessagePredicate predicate = FixMessagePredicates.between(
+            fromTimestampInclusive, toTimestampExclusive);
+        try (Subscription replaySubscription = aeron.addSubscription(IPC_CHANNEL, archiveScannerStreamId))
+        {
+            final List<RangeReplay> replays = new ArrayList<>();
+            for (final ArchiveLocation span : spans)
+            {
+                final long recordingId = span.recordingId;
+                long stopPosition = span.stopPosition;
+                if (stopPosition == NULL_POSITION)
+                {
+                    stopPosition = aeronArchive.getStopPosition(recordingId);
+                    if (stopPosition == NULL_POSITION)
+                    {
+                        stopPosition = aeronArchive.getRecordingPosition(recordingId);
+                    }
+                }
+
+                final long length = stopPosition - span.startPosition;
+                if (length > 0)
+                {
+                    final int sessionId = (int)aeronArchive.startReplay(
+                        recordingId,
+                        span.startPosition,
+                        length,
+                        IPC_CHANNEL,
+                        archiveScannerStreamId);
+
+                    final Image image = lookupImage(replaySubscription, sessionId);
+                    replays.add(new RangeReplay(image, stopPosition, predicate, handler));
+                }
+            }
+
+            mergeReplays(replays);
+        }
+    }
+
+    private void checkLogFileDir(final String scanType)
+    {
+        if (logFileDir == null)
+        {
+            throw new IllegalStateException("A logFileDir must be configured in order to scan by " + scanType);
+        }
+    }
+
+    static void lookupTimeWindowSpans(
+        final String logFileDir,
+        final int queryStreamId,
+        final long fromTimestampInclusive,
+        final long toTimestampExclusive,
+        final TimeIndexReader.RecordingSpanConsumer consumer)
+    {
+        final File indexFile = timeIndexFile(logFileDir, queryStreamId);
+        if (!indexFile.exists())
+        {
+            return;
+        }
+
+        final MappedByteBuffer mappedBuffer = LoggerUtil.mapExistingFile(indexFile);
+        try
+        {
+            new TimeIndexReader(new UnsafeBuffer(mappedBuffer)).lookupWindow(
+                fromTimestampInclusive, toTimestampExclusive, consumer);
+        }
+        finally
+        {
+            IoUtil.unmap(mappedBuffer);
+        }
+    }
+
+    // Each replay is polled until it has peeked at its next message, the earliest of these is then delivered.
+    // Messages are handled in place within the images so nothing needs to be buffered in order to merge them.
+    private void mergeReplays(final List<RangeReplay> replays)
+    {
+        while (!replays.isEmpty())
+        {
+            int workCount = 0;
+            boolean allPeeked = true;
+            for (int i = replays.size() - 1; i >= 0; i--)
+            {
+                final RangeReplay replay = replays.get(i);
+                if (!replay.hasPeeked)
+                {
+                    workCount += replay.poll();
+                    if (!replay.hasPeeked)
+                    {
+                        if (replay.isComplete())
+                        {
+                            replays.remove(i);
+                        }
+                        else
+                        {
+                            allPeeked = false;
+                        }
+                    }
+                }
+            }
+
+            if (allPeeked && !replays.isEmpty())
+            {
+                RangeReplay earliest = replays.get(0);
+                for (int i = 1, size = replays.size(); i < size; i++)
+                {
+                    final RangeReplay replay = replays.get(i);
+                    if (replay.peekedTimestamp < earliest.peekedTimestamp)
+                    {
+                        earliest = replay;
+                    }
+                }
+
+                workCount += earliest.poll();
+            }
+
+            idleStrategy.idle(workCount);
+        }
+    }
+
+    static void lookupRecordingRanges(
+        final String logFileDir, final long fixSessionId, final int queryStreamId, final List<RecordingRange> ranges)
+    {
+        final File indexFile = replayIndexFile(logFileDir, fixSessionId, queryStreamId);
+        if (!indexFile.exists())
+        {
+            return;
+        }
+
+        final MappedByteBuffer mappedBuffer = LoggerUtil.mapExistingFile(indexFile);
+        try
+        {
+            final UnsafeBuffer buffer = new UnsafeBuffer(mappedBuffer);
+            final MessageHeaderDecoder messageFrameHeader = new MessageHeaderDecoder();
+            final ReplayIndexRecordDecoder indexRecord = new ReplayIndexRecordDecoder();
+            final Long2ObjectHashMap<RecordingRange> recordingIdToRange = new Long2ObjectHashMap<>();
+
+            messageFrameHeader.wrap(buffer, 0);
+            final int actingBlockLength = messageFrameHeader.blockLength();
+            final int actingVersion = messageFrameHeader.version();
+            final int capacity = recordCapacity(buffer.capacity());
+
+            // Every record in the ring is read, the engine may still be writing to it so each read is validated.
+            for (int recordOffset = 0; recordOffset < capacity; recordOffset += RECORD_LENGTH)
+            {
+                final int offset = INITIAL_RECORD_OFFSET + recordOffset;
+                long beginPosition;
+                long recordingId;
+                int readLength;
+                long changePosition;
+                do
+                {
+                    changePosition = endChangeVolatile(buffer);
+
+                    indexRecord.wrap(buffer, offset, actingBlockLength, actingVersion);
+                    beginPosition = indexRecord.position();
+                    recordingId = indexRecord.recordingId();
+                    readLength = indexRecord.length();
+
+                    UNSAFE.loadFence(); // LoadLoad required so previous loads don't move past version check below.
+                }
+                while (changePosition != beginChangeVolatile(buffer));
+
+                if (beginPosition != 0)
+                {
+                    RecordingRange range = recordingIdToRange.get(recordingId);
+                    if (range == null)
+                    {
+                        range = new RecordingRange(recordingId, fixSessionId);
+                        recordingIdToRange.put(recordingId, range);
+                        ranges.add(range);
+                    }
+
+                    range.add(beginPosition - FRAME_ALIGNMENT, readLength + FRAME_ALIGNMENT);
+                    range.count++;
+                }
+            }
+        }
+        finally
+        {
+            IoUtil.unmap(mappedBuffer);
+        }
+    }
+
     private Image lookupImage(final Subscription replaySubscription, final int sessionId)
     {
         Image image = null;
@@ -217,6 +533,78 @@ public class FixArchiveScanner implements AutoCloseable
         }
     }
 
+    static final class RangeReplay implements ControlledFragmentHandler
+    {
+        private static final int FRAGMENT_LIMIT = 10;
+
+        private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+        private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+        private final ImageControlledFragmentAssembler assembler = new ImageControlledFragmentAssembler(this);
+        private final Image image;
+        private final long stopPosition;
+        private final FixMessagePredicate predicate;
+        private final FixMessageConsumer handler;
+
+        private boolean hasPeeked;
+        private long peekedTimestamp;
+
+        RangeReplay(
+            final Image image,
+            final long stopPosition,
+            final FixMessagePredicate predicate,
+            final FixMessageConsumer handler)
+        {
+            this.image = image;
+            this.stopPosition = stopPosition;
+            this.predicate = predicate;
+            this.handler = handler;
+        }
+
+        int poll()
+        {
+            return image.controlledPoll(assembler, FRAGMENT_LIMIT);
+        }
+
+        boolean isComplete()
+        {
+            return image.position() >= stopPosition || image.isClosed();
+        }
+
+        @SuppressWarnings("FinalParameters")
+        public Action onFragment(final DirectBuffer buffer, int offset, final int length, final Header header)
+        {
+            messageHeader.wrap(buffer, offset);
+            if (messageHeader.templateId() != FixMessageDecoder.TEMPLATE_ID)
+            {
+                return CONTINUE;
+            }
+
+            offset += MessageHeaderDecoder.ENCODED_LENGTH;
+            fixMessage.wrap(buffer, offset, messageHeader.blockLength(), messageHeader.version());
+
+            // The replayed span of the recording can be interleaved with other sessions' messages, or hold messages
+            // either side of a window of time.
+            if (!predicate.test(fixMessage))
+            {
+                return CONTINUE;
+            }
+
+            if (hasPeeked)
+            {
+                hasPeeked = false;
+                handler.onMessage(fixMessage, buffer, offset, length, header);
+                return CONTINUE;
+            }
+            else
+            {
+                // Leave the message in the image until it is the earliest of all the replays
+                hasPeeked = true;
+                peekedTimestamp = fixMessage.timestamp();
+                return ABORT;
+            }
+        }
+    }
+
     public void close()
     {
         aeronArchive.close();
@@ -39,18 +39,34 @@ class GapFillEncoder
         {
             respHeader.targetLocationID(reqHeader.senderLocationID(), reqHeader.senderLocationIDLength());
         }
+        else
+        {
+            respHeader.resetTargetLocationID();
+        }
         if (reqHeader.hasSenderSubID())
         {
             respHeader.targetSubID(reqHeader.senderSubID(), reqHeader.senderSubIDLength());
         }
+        else
+        {
+            respHeader.resetTargetSubID();
+        }
         if (reqHeader.hasTargetLocationID())
         {
             respHeader.senderLocationID(reqHeader.targetLocationID(), reqHeader.targetLocationIDLength());
         }
+        else
+        {
+            respHeader.resetSenderLocationID();
+        }
         if (reqHeader.hasTargetSubID())
         {
             respHeader.senderSubID(reqHeader.targetSubID(), reqHeader.targetSubIDLength());
         }
+        else
+        {
+            respHeader.resetSenderSubID();
+        }
     }
 
     MutableAsciiBuffer buffer()
@@ -80,6 +80,7 @@ public class GapFiller implements ProtocolHandler, Agent
         final int sequenceIndex,
         final int messageType,
         final long timestamp,
+        final long originTimestamp,
         final MessageStatus status,
         final int sequenceNumber,
         final long position)
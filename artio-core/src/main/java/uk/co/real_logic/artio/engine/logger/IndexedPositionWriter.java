@@ -83,7 +83,16 @@ class IndexedPositionWriter
         }
     }
 
-    void indexedUpTo(final int aeronSessionId, final long recordingId, final long position)
+    /**
+     * Record the position that a stream has been indexed up to.
+     *
+     * @param aeronSessionId the session id of the stream.
+     * @param recordingId the recording id of the stream.
+     * @param position the position indexed up to.
+     * @return the offset of the record that was updated or {@link
+     * uk.co.real_logic.artio.engine.SectorFramer#OUT_OF_SPACE} if it couldn't be recorded.
+     */
+    int indexedUpTo(final int aeronSessionId, final long recordingId, final long position)
     {
         final Int2IntHashMap recordOffsets = this.recordOffsets;
 
@@ -99,12 +108,12 @@ class IndexedPositionWriter
             while (true)
             {
                 offset = checksumFramer.claim(offset, RECORD_LENGTH);
-                if (position == OUT_OF_SPACE)
+                if (offset == OUT_OF_SPACE)
                 {
                     errorHandler.onError(new IllegalStateException(String.format(
                         "Unable to record new session (%d), indexed position buffer full",
                         aeronSessionId)));
-                    return;
+                    return OUT_OF_SPACE;
                 }
 
                 decoder.wrap(buffer, offset, actingBlockLength, actingVersion);
@@ -117,7 +126,7 @@ class IndexedPositionWriter
 
                     recordOffsets.put(aeronSessionId, offset);
                     putPosition(position, buffer, offset);
-                    return;
+                    return offset;
                 }
 
                 offset += RECORD_LENGTH;
@@ -127,6 +136,8 @@ class IndexedPositionWriter
         {
             putPosition(position, buffer, offset);
         }
+
+        return offset;
     }
 
     void close()
@@ -134,9 +145,12 @@ class IndexedPositionWriter
         updateChecksums();
     }
 
+    /**
+     * Update the checksums of the sectors that have been written to since they were last updated.
+     */
     void updateChecksums()
     {
-        checksumFramer.updateChecksums();
+        checksumFramer.updateDirtyChecksums();
     }
 
     AtomicBuffer buffer()
@@ -147,5 +161,6 @@ class IndexedPositionWriter
     private void putPosition(final long position, final AtomicBuffer buffer, final int offset)
     {
         buffer.putLongVolatile(offset + POSITION_OFFSET, position);
+        checksumFramer.markDirty(offset);
     }
 }
@@ -22,20 +22,28 @@ import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_LON
 
 public final class RecordingRange
 {
-    final long recordingId;
-    final long sessionId;
+    long recordingId;
+    long sessionId;
     long position = MISSING_LONG;
-    int length;
+    // A long since a session's records can be spread over more than 2GB of a recording.
+    long length;
     int count;
 
     RecordingRange(final long recordingId, final long sessionId)
+    {
+        reset(recordingId, sessionId);
+    }
+
+    void reset(final long recordingId, final long sessionId)
     {
         this.recordingId = recordingId;
         this.sessionId = sessionId;
+        this.position = MISSING_LONG;
+        this.length = 0;
         this.count = 0;
     }
 
-    void add(final long addPosition, final int addLength)
+    void add(final long addPosition, final long addLength)
     {
         final long currentPosition = this.position;
 
@@ -53,13 +61,13 @@ public final class RecordingRange
         if (currentPosition < addPosition)
         {
             // Add to the end
-            this.length = (int)(newEnd - currentPosition);
+            this.length = newEnd - currentPosition;
         }
         else if (addPosition < currentPosition)
         {
             // Add to the start
             this.position = addPosition;
-            this.length = (int)(newEnd - addPosition);
+            this.length = newEnd - addPosition;
         }
         else
         {
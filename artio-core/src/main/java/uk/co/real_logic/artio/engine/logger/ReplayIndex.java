@@ -73,6 +73,7 @@ public class ReplayIndex implements Index
     private final BufferFactory bufferFactory;
     private final AtomicBuffer positionBuffer;
     private final RecordingIdLookup recordingIdLookup;
+    private final boolean batchPositionChecksums;
 
     public ReplayIndex(
         final String logFileDir,
@@ -84,6 +85,46 @@ public class ReplayIndex implements Index
         final AtomicBuffer positionBuffer,
         final ErrorHandler errorHandler,
         final RecordingIdLookup recordingIdLookup)
+    {
+        this(
+            logFileDir,
+            requiredStreamId,
+            indexFileSize,
+            cacheNumSets,
+            cacheSetSize,
+            bufferFactory,
+            positionBuffer,
+            errorHandler,
+            recordingIdLookup,
+            false);
+    }
+
+    /**
+     * Create a replay index.
+     *
+     * @param logFileDir the directory that the index files are stored in.
+     * @param requiredStreamId the stream id to index.
+     * @param indexFileSize the size of each session's index file.
+     * @param cacheNumSets the number of sets in the cache of open session index files.
+     * @param cacheSetSize the size of each set in the cache of open session index files.
+     * @param bufferFactory maps the index files.
+     * @param positionBuffer the buffer that indexed positions are written to.
+     * @param errorHandler handles errors.
+     * @param recordingIdLookup looks up the recording id of a stream.
+     * @param batchPositionChecksums true to update the checksums of the position buffer once per batch of
+     *                               fragments, from {@link #doWork()}, rather than after every fragment.
+     */
+    public ReplayIndex(
+        final String logFileDir,
+        final int requiredStreamId,
+        final int indexFileSize,
+        final int cacheNumSets,
+        final int cacheSetSize,
+        final BufferFactory bufferFactory,
+        final AtomicBuffer positionBuffer,
+        final ErrorHandler errorHandler,
+        final RecordingIdLookup recordingIdLookup,
+        final boolean batchPositionChecksums)
     {
         this.logFileDir = logFileDir;
         this.requiredStreamId = requiredStreamId;
@@ -91,6 +132,7 @@ public class ReplayIndex implements Index
         this.bufferFactory = bufferFactory;
         this.positionBuffer = positionBuffer;
         this.recordingIdLookup = recordingIdLookup;
+        this.batchPositionChecksums = batchPositionChecksums;
 
         checkIndexFileSize(indexFileSize);
         fixSessionIdToIndex = new Long2ObjectCache<>(cacheNumSets, cacheSetSize, SessionIndex::close);
@@ -133,14 +175,17 @@ public class ReplayIndex implements Index
                 messageFrame.wrap(srcBuffer, offset, actingBlockLength, frameHeaderDecoder.version());
                 if (messageFrame.status() == OK)
                 {
-                    offset += actingBlockLength + 2;
-
-                    asciiBuffer.wrap(srcBuffer);
-                    fixHeader.decode(asciiBuffer, offset, messageFrame.bodyLength());
-
                     final long fixSessionId = messageFrame.session();
-                    final int sequenceNumber = fixHeader.msgSeqNum();
                     final int sequenceIndex = messageFrame.sequenceIndex();
+                    int sequenceNumber = messageFrame.msgSeqNum();
+                    if (sequenceNumber <= 0)
+                    {
+                        offset += actingBlockLength + 2;
+
+                        asciiBuffer.wrap(srcBuffer);
+                        fixHeader.decode(asciiBuffer, offset, messageFrame.bodyLength());
+                        sequenceNumber = fixHeader.msgSeqNum();
+                    }
 
                     if (beginMessage)
                     {
@@ -165,7 +210,21 @@ public class ReplayIndex implements Index
         final int aeronSessionId = header.sessionId();
         final long recordingId = recordingIdLookup.getRecordingId(aeronSessionId);
         positionWriter.indexedUpTo(aeronSessionId, recordingId, endPosition);
-        positionWriter.updateChecksums();
+        if (!batchPositionChecksums)
+        {
+            positionWriter.updateChecksums();
+        }
+    }
+
+    public int doWork()
+    {
+        if (batchPositionChecksums)
+        {
+            // Called by the indexer after each poll of the stream, so this is once per batch of fragments.
+            positionWriter.updateChecksums();
+        }
+
+        return 0;
     }
 
     public void close()
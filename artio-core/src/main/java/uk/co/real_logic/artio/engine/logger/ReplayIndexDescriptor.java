@@ -20,6 +20,7 @@ import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
 import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordDecoder;
+import uk.co.real_logic.artio.storage.messages.TimeIndexRecordDecoder;
 
 import java.io.File;
 
@@ -35,8 +36,9 @@ public final class ReplayIndexDescriptor
     static final int RECORD_LENGTH = 32;
     static
     {
-        // Safety check against making the ReplayIndexRecord big without modifying this
-        if (RECORD_LENGTH < ReplayIndexRecordDecoder.BLOCK_LENGTH)
+        // Safety check against making the ReplayIndexRecord or TimeIndexRecord big without modifying this
+        if (RECORD_LENGTH < ReplayIndexRecordDecoder.BLOCK_LENGTH ||
+            RECORD_LENGTH < TimeIndexRecordDecoder.BLOCK_LENGTH)
         {
             throw new IllegalStateException("Invalid record length");
         }
@@ -47,6 +49,11 @@ public final class ReplayIndexDescriptor
         return new File(String.format(logFileDir + File.separator + "replay-index-%d-%d", fixSessionId, streamId));
     }
 
+    static File timeIndexFile(final String logFileDir, final int streamId)
+    {
+        return new File(logFileDir + File.separator + "time-index-" + streamId);
+    }
+
     public static UnsafeBuffer replayPositionBuffer(final String logFileDir, final int streamId)
     {
         final String pathname = replayPositionPath(logFileDir, streamId);
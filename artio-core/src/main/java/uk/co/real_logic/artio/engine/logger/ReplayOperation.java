@@ -31,7 +31,7 @@ import uk.co.real_logic.artio.LogTag;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 
-import java.util.List;
+import java.util.ArrayList;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
@@ -41,21 +41,26 @@ import static uk.co.real_logic.artio.engine.SessionInfo.UNK_SESSION;
 /**
  * A continuable replay operation that can retried.
  *
- * Each object is single threaded, but different objects used on different threads.
+ * Each object is single threaded, but different objects used on different threads. Operations are pooled by the
+ * {@link ReplayQuery} that created them, so they are re-initialised for each query rather than allocated.
  */
 public class ReplayOperation
 {
-    private final MessageTracker messageTracker;
-    private final ControlledFragmentAssembler assembler;
+    private final MessageTracker messageTracker = new MessageTracker();
+    private final ControlledFragmentAssembler assembler = new ControlledFragmentAssembler(messageTracker);
 
-    private final List<RecordingRange> ranges;
+    // Ranges are retained when the operation is reused, only the first rangeCount belong to the current query.
+    private final ArrayList<RecordingRange> ranges = new ArrayList<>();
     private final AeronArchive aeronArchive;
     private final ErrorHandler errorHandler;
     private final int archiveReplayStream;
-    private final LogTag logTag;
     private final CountersReader countersReader;
     private final Subscription subscription;
 
+    private LogTag logTag;
+    private int rangeCount;
+    private int rangeIndex;
+
     // fields reset for each recordingRange
     private int replayedMessages = 0;
     private RecordingRange recordingRange;
@@ -63,28 +68,51 @@ public class ReplayOperation
     private Image image;
 
     ReplayOperation(
-        final ControlledFragmentHandler handler,
-        final List<RecordingRange> ranges,
         final AeronArchive aeronArchive,
         final ErrorHandler errorHandler,
         final Subscription subscription,
-        final int archiveReplayStream,
-        final LogTag logTag)
+        final int archiveReplayStream)
     {
-        messageTracker = new MessageTracker(logTag, handler);
-        assembler = new ControlledFragmentAssembler(messageTracker);
-
-        this.ranges = ranges;
         this.aeronArchive = aeronArchive;
         this.errorHandler = errorHandler;
         this.archiveReplayStream = archiveReplayStream;
-        this.logTag = logTag;
 
         final Aeron aeron = aeronArchive.context().aeron();
         countersReader = aeron.countersReader();
         this.subscription = subscription;
     }
 
+    void init(final ControlledFragmentHandler handler, final LogTag logTag)
+    {
+        this.logTag = logTag;
+        messageTracker.messageHandler = handler;
+        messageTracker.logTag = logTag;
+
+        rangeCount = 0;
+        rangeIndex = 0;
+        replayedMessages = 0;
+        recordingRange = null;
+        image = null;
+    }
+
+    RecordingRange addRange(final long recordingId, final long sessionId)
+    {
+        final RecordingRange range;
+        if (rangeCount < ranges.size())
+        {
+            range = ranges.get(rangeCount);
+            range.reset(recordingId, sessionId);
+        }
+        else
+        {
+            range = new RecordingRange(recordingId, sessionId);
+            ranges.add(range);
+        }
+        rangeCount++;
+
+        return range;
+    }
+
     /**
      * Attempt a replay step
      *
@@ -101,12 +129,12 @@ public class ReplayOperation
         {
             DebugLogger.log(logTag, "Acquiring Recording Range");
 
-            if (ranges.isEmpty())
+            if (rangeIndex == rangeCount)
             {
                 return true;
             }
 
-            recordingRange = ranges.get(0);
+            recordingRange = ranges.get(rangeIndex);
             DebugLogger.log(logTag,
                 "ReplayOperation : Attempting Recording Range: %s%n",
                 recordingRange);
@@ -128,7 +156,7 @@ public class ReplayOperation
             }
             else
             {
-                ranges.remove(0);
+                rangeIndex++;
             }
 
             try
@@ -188,7 +216,7 @@ public class ReplayOperation
                 replayedMessages += recordingRangeCount;
                 recordingRange = null;
 
-                return ranges.isEmpty();
+                return rangeIndex == rangeCount;
             }
         }
     }
@@ -211,22 +239,32 @@ public class ReplayOperation
         return false;
     }
 
+    @Override
+    public String toString()
+    {
+        final StringBuilder builder = new StringBuilder("ReplayOperation{ranges=[");
+        for (int i = rangeIndex; i < rangeCount; i++)
+        {
+            if (i > rangeIndex)
+            {
+                builder.append(", ");
+            }
+            builder.append(ranges.get(i));
+        }
+
+        return builder.append("]}").toString();
+    }
+
     private static class MessageTracker implements ControlledFragmentHandler
     {
         private final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
         private final FixMessageDecoder messageDecoder = new FixMessageDecoder();
-        private final LogTag logTag;
-        private final ControlledFragmentHandler messageHandler;
 
+        LogTag logTag;
+        ControlledFragmentHandler messageHandler;
         int count;
         long sessionId;
 
-        MessageTracker(final LogTag logTag, final ControlledFragmentHandler messageHandler)
-        {
-            this.logTag = logTag;
-            this.messageHandler = messageHandler;
-        }
-
         @Override
         public Action onFragment(
             final DirectBuffer buffer, final int offset, final int length, final Header header)
@@ -32,7 +32,6 @@ import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordDecoder;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.util.ArrayList;
-import java.util.List;
 import java.util.function.LongFunction;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
@@ -45,6 +44,8 @@ import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
  * Queries an index of a composite key of session id and sequence number.
  *
  * This object isn't thread-safe, but the underlying replay index is a single-writer, multiple-reader threadsafe index.
+ * Operations returned from {@link #query} can be handed back with {@link #release(ReplayOperation)} once they're
+ * complete, so that querying doesn't allocate in steady state.
  */
 public class ReplayQuery implements AutoCloseable
 {
@@ -52,6 +53,7 @@ public class ReplayQuery implements AutoCloseable
     private final ReplayIndexRecordDecoder indexRecord = new ReplayIndexRecordDecoder();
 
     private final LongFunction<SessionQuery> newSessionQuery = SessionQuery::new;
+    private final ArrayList<ReplayOperation> freeReplayOperations = new ArrayList<>();
     private final Long2ObjectCache<SessionQuery> fixSessionToIndex;
     private final String logFileDir;
     private final ExistingBufferFactory indexBufferFactory;
@@ -60,6 +62,9 @@ public class ReplayQuery implements AutoCloseable
     private final AeronArchive aeronArchive;
     private final ErrorHandler errorHandler;
     private final int archiveReplayStream;
+    // True when records are indexed in sequence number order, so the start of a query can be binary searched for.
+    // Inbound streams can't be searched as they contain resent messages that fill gaps out of order.
+    private final boolean sequenceOrdered;
 
     private Subscription replaySubscription;
 
@@ -72,7 +77,8 @@ public class ReplayQuery implements AutoCloseable
         final IdleStrategy idleStrategy,
         final AeronArchive aeronArchive,
         final ErrorHandler errorHandler,
-        final int archiveReplayStream)
+        final int archiveReplayStream,
+        final boolean sequenceOrdered)
     {
         this.logFileDir = logFileDir;
         this.indexBufferFactory = indexBufferFactory;
@@ -81,6 +87,7 @@ public class ReplayQuery implements AutoCloseable
         this.aeronArchive = aeronArchive;
         this.errorHandler = errorHandler;
         this.archiveReplayStream = archiveReplayStream;
+        this.sequenceOrdered = sequenceOrdered;
 
         fixSessionToIndex = new Long2ObjectCache<>(cacheNumSets, cacheSetSize, SessionQuery::close);
     }
@@ -110,9 +117,20 @@ public class ReplayQuery implements AutoCloseable
             .query(handler, beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex, logTag);
     }
 
+    /**
+     * Return an operation to the pool once it has completed, it mustn't be used after it has been released.
+     *
+     * @param operation the operation to release, which must have been returned by this query.
+     */
+    public void release(final ReplayOperation operation)
+    {
+        freeReplayOperations.add(operation);
+    }
+
     public void close()
     {
         fixSessionToIndex.clear();
+        freeReplayOperations.clear();
     }
 
     private final class SessionQuery implements AutoCloseable
@@ -145,12 +163,19 @@ public class ReplayQuery implements AutoCloseable
             final boolean upToMostRecentMessage = endSequenceNumber == MOST_RECENT_MESSAGE;
 
             // LOOKUP THE RANGE FROM THE INDEX
-            // NB: this is a List as we are looking up recordings in the correct order to replay them.
-            final List<RecordingRange> ranges = new ArrayList<>();
+            // NB: ranges are added to the operation in the correct order to replay them.
+            final ReplayOperation operation = acquireReplayOperation(handler, logTag);
             RecordingRange currentRange = null;
 
-            long iteratorPosition = getIteratorPosition();
-            long stopIteratingPosition = iteratorPosition + capacity;
+            final long startPosition = getIteratorPosition();
+            long stopIteratingPosition = startPosition + capacity;
+            long iteratorPosition = !sequenceOrdered ? startPosition : searchStartPosition(
+                startPosition,
+                stopIteratingPosition,
+                beginSequenceNumber,
+                beginSequenceIndex,
+                actingBlockLength,
+                actingVersion);
 
             int lastSequenceNumber = -1;
             while (iteratorPosition != stopIteratingPosition)
@@ -191,7 +216,7 @@ public class ReplayQuery implements AutoCloseable
                     if (withinQueryRange)
                     {
                         currentRange = addRange(
-                            ranges,
+                            operation,
                             currentRange,
                             lastSequenceNumber,
                             beginPosition,
@@ -212,12 +237,66 @@ public class ReplayQuery implements AutoCloseable
                 }
             }
 
-            if (currentRange != null)
+            DebugLogger.log(logTag, "ReplayQuery : Built new replay operation with %s%n", operation);
+
+            return operation;
+        }
+
+        // Binary search for the first record at or after the start of the query, records are indexed in
+        // (sequenceIndex, sequenceNumber) order. Any record overwritten by the writer during the search only has a
+        // greater key, so races can only move the result earlier, never past the start of the query.
+        private long searchStartPosition(
+            final long startPosition,
+            final long stopPosition,
+            final int beginSequenceNumber,
+            final int beginSequenceIndex,
+            final int actingBlockLength,
+            final int actingVersion)
+        {
+            final long beginKey = sequenceKey(beginSequenceIndex, beginSequenceNumber);
+
+            long low = startPosition;
+            long high = stopPosition;
+            while (low < high)
             {
-                ranges.add(currentRange);
+                final long middle = low + ((high - low) / RECORD_LENGTH >> 1) * RECORD_LENGTH;
+                if (readSequenceKey(middle, actingBlockLength, actingVersion) < beginKey)
+                {
+                    low = middle + RECORD_LENGTH;
+                }
+                else
+                {
+                    high = middle;
+                }
             }
 
-            return newReplayOperation(handler, ranges, logTag);
+            return low;
+        }
+
+        private long readSequenceKey(final long position, final int actingBlockLength, final int actingVersion)
+        {
+            final int offset = offset(position, capacity);
+            while (true)
+            {
+                final long changePosition = endChangeVolatile(buffer);
+
+                indexRecord.wrap(buffer, offset, actingBlockLength, actingVersion);
+                final long beginPosition = indexRecord.position();
+                final int sequenceIndex = indexRecord.sequenceIndex();
+                final int sequenceNumber = indexRecord.sequenceNumber();
+
+                UNSAFE.loadFence(); // LoadLoad required so previous loads don't move past version check below.
+
+                if (changePosition == beginChangeVolatile(buffer))
+                {
+                    idleStrategy.reset();
+
+                    // Unwritten records sort after everything that has been written.
+                    return beginPosition == 0 ? Long.MAX_VALUE : sequenceKey(sequenceIndex, sequenceNumber);
+                }
+
+                idleStrategy.idle();
+            }
         }
 
         private long skipToStart(final int beginSequenceNumber, final long iteratorPosition, final int sequenceNumber)
@@ -241,31 +320,40 @@ public class ReplayQuery implements AutoCloseable
             return iteratorPosition + sequenceNumberJump * RECORD_LENGTH;
         }
 
-        private ReplayOperation newReplayOperation(
-            final ControlledFragmentHandler handler, final List<RecordingRange> ranges, final LogTag logTag)
+        private long sequenceKey(final int sequenceIndex, final int sequenceNumber)
         {
-            if (replaySubscription == null)
+            return ((long)sequenceIndex << 32) | (sequenceNumber & 0xFFFF_FFFFL);
+        }
+
+        private ReplayOperation acquireReplayOperation(
+            final ControlledFragmentHandler handler, final LogTag logTag)
+        {
+            final ArrayList<ReplayOperation> freeReplayOperations = ReplayQuery.this.freeReplayOperations;
+            final int size = freeReplayOperations.size();
+
+            final ReplayOperation operation;
+            if (size > 0)
+            {
+                operation = freeReplayOperations.remove(size - 1);
+            }
+            else
             {
-                replaySubscription = aeronArchive.context().aeron().addSubscription(
-                    IPC_CHANNEL, archiveReplayStream);
+                if (replaySubscription == null)
+                {
+                    replaySubscription = aeronArchive.context().aeron().addSubscription(
+                        IPC_CHANNEL, archiveReplayStream);
+                }
+
+                operation = new ReplayOperation(aeronArchive, errorHandler, replaySubscription, archiveReplayStream);
             }
 
-            DebugLogger.log(logTag,
-                "ReplayQuery : Built new replay operation with Recording Ranges: %s%n",
-                ranges);
-
-            return new ReplayOperation(
-                handler,
-                ranges,
-                aeronArchive,
-                errorHandler,
-                replaySubscription,
-                archiveReplayStream,
-                logTag);
+            operation.init(handler, logTag);
+
+            return operation;
         }
 
         private RecordingRange addRange(
-            final List<RecordingRange> ranges,
+            final ReplayOperation operation,
             final RecordingRange currentRange,
             final int lastSequenceNumber,
             final long beginPosition,
@@ -274,14 +362,9 @@ public class ReplayQuery implements AutoCloseable
             final int readLength)
         {
             RecordingRange range = currentRange;
-            if (range == null)
-            {
-                range = new RecordingRange(recordingId, sessionId);
-            }
-            else if (range.recordingId != recordingId)
+            if (range == null || range.recordingId != recordingId)
             {
-                ranges.add(range);
-                range = new RecordingRange(recordingId, sessionId);
+                range = operation.addRange(recordingId, sessionId);
             }
 
             range.add(
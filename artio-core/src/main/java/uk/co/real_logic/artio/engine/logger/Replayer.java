@@ -70,8 +70,11 @@ public class Replayer implements ProtocolHandler, Agent
     private final BufferClaim bufferClaim;
     private final ProtocolSubscription protocolSubscription = ProtocolSubscription.of(this);
     private final ArrayList<ReplayerSession> replayerSessions = new ArrayList<>();
+    // Sessions are pooled so that handling a resend request doesn't allocate in steady state
+    private final ArrayList<ReplayerSession> freeReplayerSessions = new ArrayList<>();
 
     private final ReplayQuery replayQuery;
+    private final ResendCache resendCache;
     private final ExclusivePublication publication;
     private final IdleStrategy idleStrategy;
     private final ErrorHandler errorHandler;
@@ -95,7 +98,8 @@ public class Replayer implements ProtocolHandler, Agent
         final EpochClock clock,
         final Set<String> gapfillOnReplayMessageTypes,
         final ReplayHandler replayHandler,
-        final SenderSequenceNumbers senderSequenceNumbers)
+        final SenderSequenceNumbers senderSequenceNumbers,
+        final ResendCache resendCache)
     {
         this.replayQuery = replayQuery;
         this.publication = publication;
@@ -108,6 +112,7 @@ public class Replayer implements ProtocolHandler, Agent
         this.clock = clock;
         this.replayHandler = replayHandler;
         this.senderSequenceNumbers = senderSequenceNumbers;
+        this.resendCache = resendCache;
 
         gapFillMessageTypes = new IntHashSet();
         gapfillOnReplayMessageTypes.forEach(messageTypeAsString ->
@@ -124,6 +129,7 @@ public class Replayer implements ProtocolHandler, Agent
         final int sequenceIndex,
         final int messageType,
         final long timestamp,
+        final long originTimestamp,
         final MessageStatus status,
         final int sequenceNumber,
         final long position)
@@ -146,36 +152,28 @@ public class Replayer implements ProtocolHandler, Agent
                 endSeqNo);
 
             final boolean replayUpToMostRecent = endSeqNo == MOST_RECENT_MESSAGE;
-            final String message = asciiBuffer.getAscii(srcOffset, limit);
             // Validate endSeqNo
             if (!replayUpToMostRecent && endSeqNo < beginSeqNo)
             {
                 errorHandler.onError(new IllegalStateException(String.format(
                     "[%s] Error in resend request, endSeqNo (%d) < beginSeqNo (%d)",
-                    message,
+                    asciiBuffer.getAscii(srcOffset, limit),
                     endSeqNo,
                     beginSeqNo)));
                 return CONTINUE;
             }
 
-            final ReplayerSession replayerSession = new ReplayerSession(
-                bufferClaim,
-                idleStrategy,
-                replayHandler,
-                maxClaimAttempts,
-                gapFillMessageTypes,
-                senderSequenceNumbers,
-                publication,
-                clock,
+            final ReplayerSession replayerSession = acquireReplayerSession();
+            replayerSession.init(
                 beginSeqNo,
                 endSeqNo,
                 replayUpToMostRecent,
                 connectionId,
                 sessionId,
                 sequenceIndex,
-                replayQuery,
-                message,
-                errorHandler,
+                srcBuffer,
+                srcOffset,
+                limit,
                 resendRequest.header());
 
             replayerSession.query();
@@ -188,6 +186,29 @@ public class Replayer implements ProtocolHandler, Agent
         return CONTINUE;
     }
 
+    private ReplayerSession acquireReplayerSession()
+    {
+        final ArrayList<ReplayerSession> freeReplayerSessions = this.freeReplayerSessions;
+        final int size = freeReplayerSessions.size();
+        if (size > 0)
+        {
+            return freeReplayerSessions.remove(size - 1);
+        }
+
+        return new ReplayerSession(
+            bufferClaim,
+            idleStrategy,
+            replayHandler,
+            maxClaimAttempts,
+            gapFillMessageTypes,
+            senderSequenceNumbers,
+            publication,
+            clock,
+            replayQuery,
+            resendCache,
+            errorHandler);
+    }
+
     public Action onDisconnect(final int libraryId, final long connectionId, final DisconnectReason reason)
     {
         return CONTINUE;
@@ -211,6 +232,8 @@ public class Replayer implements ProtocolHandler, Agent
             if (replayerSession.attempReplay())
             {
                 fastUnorderedRemove(replayerSessions, i, lastIndex--);
+                replayerSession.reset();
+                freeReplayerSessions.add(replayerSession);
             }
         }
         return size;
@@ -21,6 +21,7 @@ import io.aeron.logbuffer.ControlledFragmentHandler;
 import io.aeron.logbuffer.Header;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.ExpandableArrayBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.collections.IntHashSet;
 import org.agrona.concurrent.EpochClock;
@@ -42,11 +43,17 @@ import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
 import static uk.co.real_logic.artio.LogTag.REPLAY;
 import static uk.co.real_logic.artio.engine.FixEngine.ENGINE_LIBRARY_ID;
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static uk.co.real_logic.artio.engine.logger.Replayer.MESSAGE_FRAME_BLOCK_LENGTH;
 
+/**
+ * Replays the messages requested by a single resend request. Instances are pooled by the {@link Replayer} and
+ * re-initialised with {@link #init} for each request.
+ */
 class ReplayerSession implements ControlledFragmentHandler
 {
     private static final int NONE = -1;
+    private static final int INITIAL_MESSAGE_CAPACITY = 256;
 
     private enum State
     {
@@ -65,10 +72,11 @@ class ReplayerSession implements ControlledFragmentHandler
     private static final ReplayCompleteEncoder REPLAY_COMPLETE_ENCODER = new ReplayCompleteEncoder();
 
     private final GapFillEncoder gapFillEncoder = new GapFillEncoder();
+    // Copy of the resend request, only decoded into a String when reporting an error
+    private final ExpandableArrayBuffer message = new ExpandableArrayBuffer(INITIAL_MESSAGE_CAPACITY);
 
     private final BufferClaim bufferClaim;
     private final PossDupEnabler possDupEnabler;
-    private final String message;
     private final IdleStrategy idleStrategy;
     private final ReplayHandler replayHandler;
     private final int maxClaimAttempts;
@@ -76,7 +84,9 @@ class ReplayerSession implements ControlledFragmentHandler
     private final SenderSequenceNumbers senderSequenceNumbers;
     private final ExclusivePublication publication;
     private final ReplayQuery replayQuery;
+    private final ResendCache resendCache;
     private final ErrorHandler errorHandler;
+    private final ControlledFragmentHandler cachedMessageHandler = this::onCachedMessage;
 
     private int beginSeqNo;
     private int endSeqNo;
@@ -85,11 +95,17 @@ class ReplayerSession implements ControlledFragmentHandler
     private long sessionId;
     private int sequenceIndex;
     private int lastSeqNo;
+    private int messageLength;
 
     private int beginGapFillSeqNum = NONE;
 
     private ReplayOperation replayOperation;
 
+    private ResendCache.SessionCache sessionCache;
+    private long cachePosition;
+    private long cacheEndPosition;
+    private int cachedMessages;
+
     private State state;
 
     ReplayerSession(
@@ -101,16 +117,9 @@ class ReplayerSession implements ControlledFragmentHandler
         final SenderSequenceNumbers senderSequenceNumbers,
         final ExclusivePublication publication,
         final EpochClock clock,
-        final int beginSeqNo,
-        final int endSeqNo,
-        final boolean upToMostRecent,
-        final long connectionId,
-        final long sessionId,
-        final int sequenceIndex,
         final ReplayQuery replayQuery,
-        final String message,
-        final ErrorHandler errorHandler,
-        final HeaderDecoder requestHeader)
+        final ResendCache resendCache,
+        final ErrorHandler errorHandler)
     {
         this.bufferClaim = bufferClaim;
         this.idleStrategy = idleStrategy;
@@ -119,19 +128,9 @@ class ReplayerSession implements ControlledFragmentHandler
         this.gapFillMessageTypes = gapFillMessageTypes;
         this.senderSequenceNumbers = senderSequenceNumbers;
         this.publication = publication;
-        this.beginSeqNo = beginSeqNo;
-        this.endSeqNo = endSeqNo;
-        this.upToMostRecent = upToMostRecent;
-        this.connectionId = connectionId;
-        this.sessionId = sessionId;
-        this.sequenceIndex = sequenceIndex;
-        this.message = message;
         this.errorHandler = errorHandler;
         this.replayQuery = replayQuery;
-
-        lastSeqNo = beginSeqNo - 1;
-
-        gapFillEncoder.setupMessage(requestHeader);
+        this.resendCache = resendCache;
 
         possDupEnabler = new PossDupEnabler(
             bufferClaim,
@@ -142,10 +141,61 @@ class ReplayerSession implements ControlledFragmentHandler
             clock,
             publication.maxPayloadLength(),
             LogTag.FIX_MESSAGE);
+    }
+
+    void init(
+        final int beginSeqNo,
+        final int endSeqNo,
+        final boolean upToMostRecent,
+        final long connectionId,
+        final long sessionId,
+        final int sequenceIndex,
+        final DirectBuffer messageBuffer,
+        final int messageOffset,
+        final int messageLength,
+        final HeaderDecoder requestHeader)
+    {
+        this.beginSeqNo = beginSeqNo;
+        this.endSeqNo = endSeqNo;
+        this.upToMostRecent = upToMostRecent;
+        this.connectionId = connectionId;
+        this.sessionId = sessionId;
+        this.sequenceIndex = sequenceIndex;
+
+        message.putBytes(0, messageBuffer, messageOffset, messageLength);
+        this.messageLength = messageLength;
+
+        lastSeqNo = beginSeqNo - 1;
+        beginGapFillSeqNum = NONE;
+        replayOperation = null;
+        sessionCache = null;
+        cachePosition = 0;
+        cacheEndPosition = 0;
+        cachedMessages = 0;
+
+        gapFillEncoder.setupMessage(requestHeader);
 
         state = State.REPLAYING;
     }
 
+    /**
+     * Release any resources held for the request that has just completed, so this session can be pooled.
+     */
+    void reset()
+    {
+        if (replayOperation != null)
+        {
+            replayQuery.release(replayOperation);
+            replayOperation = null;
+        }
+        sessionCache = null;
+    }
+
+    private String message()
+    {
+        return new String(message.byteArray(), 0, messageLength, US_ASCII);
+    }
+
     private void onPreCommit(final MutableDirectBuffer buffer, final int offset)
     {
         final int frameOffset = offset + MessageHeaderEncoder.ENCODED_LENGTH;
@@ -156,7 +206,7 @@ class ReplayerSession implements ControlledFragmentHandler
 
     private void onException(final Throwable e)
     {
-        final String exMessage = String.format("[%s] Error replying to message", message);
+        final String exMessage = String.format("[%s] Error replying to message", message());
         errorHandler.onError(new IllegalArgumentException(exMessage, e));
     }
 
@@ -166,6 +216,28 @@ class ReplayerSession implements ControlledFragmentHandler
     }
 
     void query()
+    {
+        if (resendCache != null)
+        {
+            final ResendCache.SessionCache sessionCache = resendCache.sessionCache(sessionId);
+            if (sessionCache != null)
+            {
+                cachePosition = sessionCache.find(sequenceIndex, beginSeqNo);
+                if (cachePosition != ResendCache.NO_POSITION)
+                {
+                    DebugLogger.log(REPLAY, "ReplayerSession: replaying from cache @ %d%n", cachePosition);
+
+                    this.sessionCache = sessionCache;
+                    cacheEndPosition = sessionCache.head();
+                    return;
+                }
+            }
+        }
+
+        queryArchive(beginSeqNo);
+    }
+
+    private void queryArchive(final int beginSeqNo)
     {
         replayOperation = replayQuery.query(
             this,
@@ -177,6 +249,18 @@ class ReplayerSession implements ControlledFragmentHandler
             LogTag.CATCHUP);
     }
 
+    private Action onCachedMessage(
+        final DirectBuffer srcBuffer, final int srcOffset, final int srcLength, final Header header)
+    {
+        final Action action = onFragment(srcBuffer, srcOffset, srcLength, header);
+        if (action != ABORT)
+        {
+            cachedMessages++;
+        }
+
+        return action;
+    }
+
     // Callback for the ReplayQuery:
     public Action onFragment(
         final DirectBuffer srcBuffer, final int srcOffset, final int srcLength, final Header header)
@@ -262,7 +346,11 @@ class ReplayerSession implements ControlledFragmentHandler
                 .connection(this.connectionId)
                 .timestamp(0)
                 .status(MessageStatus.OK)
-                .putBody(gapFillBuffer, gapFillOffset, gapFillLength);
+                .originTimestamp(0)
+                .msgSeqNum(msgSeqNo)
+                .sendingTime(FixMessageEncoder.sendingTimeNullValue())
+                .headerFlags().clear().possDup(true);
+            FIX_MESSAGE_ENCODER.putBody(gapFillBuffer, gapFillOffset, gapFillLength);
 
             bufferClaim.commit();
 
@@ -309,7 +397,7 @@ class ReplayerSession implements ControlledFragmentHandler
         {
             case REPLAYING:
                 DebugLogger.log(REPLAY, "ReplayerSession: REPLAYING step");
-                if (replayOperation.attemptReplay())
+                if (replay())
                 {
                     state = State.CHECK_REPLAY;
                     return attempReplay();
@@ -332,10 +420,38 @@ class ReplayerSession implements ControlledFragmentHandler
         }
     }
 
+    private boolean replay()
+    {
+        if (sessionCache != null)
+        {
+            final int cacheEndSeqNo = upToMostRecent ? Integer.MAX_VALUE : endSeqNo;
+            cachePosition = sessionCache.replay(
+                cachePosition, cacheEndPosition, sequenceIndex, cacheEndSeqNo, cachedMessageHandler);
+
+            if (cachePosition != ResendCache.NO_POSITION)
+            {
+                return cachePosition == cacheEndPosition;
+            }
+
+            // Evicted whilst we were back pressured, so replay the remaining messages from the archive.
+            sessionCache = null;
+            if (!upToMostRecent && lastSeqNo >= endSeqNo)
+            {
+                return true;
+            }
+
+            DebugLogger.log(REPLAY, "ReplayerSession: cache evicted, replaying from archive @ %d%n", lastSeqNo + 1);
+            queryArchive(lastSeqNo + 1);
+        }
+
+        return replayOperation.attemptReplay();
+    }
+
     private boolean completeReplay()
     {
         // Load state needed to complete the replay
-        final int replayedMessages = replayOperation.replayedMessages();
+        final int replayedMessages =
+            cachedMessages + (replayOperation == null ? 0 : replayOperation.replayedMessages());
 
         // If the last N messages were admin messages then we need to send a gapfill
         // after the replay query has run.
@@ -387,7 +503,7 @@ class ReplayerSession implements ControlledFragmentHandler
 
                     onIllegalState(
                         "[%s] Error in resend request, count(%d) < expectedCount (%d)",
-                        message, replayedMessages, expectedCount);
+                        message(), replayedMessages, expectedCount);
                 }
             }
             else
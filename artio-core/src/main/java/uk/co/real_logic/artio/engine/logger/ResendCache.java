@@ -0,0 +1,334 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.BitUtil;
+import org.agrona.BufferUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.decoder.HeaderDecoder;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.function.LongFunction;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static org.agrona.BitUtil.CACHE_LINE_LENGTH;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static uk.co.real_logic.artio.messages.MessageStatus.OK;
+
+/**
+ * Keeps the most recently sent messages of each session in memory so that resend requests for them can be
+ * served without starting a replay from the archive.
+ *
+ * Each session has an off heap ring buffer of whole FixMessage frames, the oldest frames are overwritten once it
+ * fills up. The cache is fed by an outbound {@link Indexer} and read by the {@link Replayer} so they must be run
+ * on the same thread.
+ */
+public class ResendCache implements Index
+{
+    static final long NO_POSITION = -1;
+
+    private final LongFunction<SessionCache> newSessionCache = this::newSessionCache;
+    private final AsciiBuffer asciiBuffer = new MutableAsciiBuffer();
+    private final MessageHeaderDecoder frameHeaderDecoder = new MessageHeaderDecoder();
+    private final FixMessageDecoder messageFrame = new FixMessageDecoder();
+    private final HeaderDecoder fixHeader = new HeaderDecoder();
+    private final Long2ObjectHashMap<SessionCache> fixSessionIdToCache = new Long2ObjectHashMap<>();
+
+    private final int sessionCacheSize;
+
+    /**
+     * Create the cache.
+     *
+     * @param sessionCacheSize the number of bytes of messages to keep for each session, must be a power of two.
+     */
+    public ResendCache(final int sessionCacheSize)
+    {
+        if (!BitUtil.isPowerOfTwo(sessionCacheSize) || sessionCacheSize < SessionCache.RECORD_HEADER_LENGTH)
+        {
+            throw new IllegalStateException(
+                "Resend cache size must be a positive power of 2: sessionCacheSize=" + sessionCacheSize);
+        }
+
+        this.sessionCacheSize = sessionCacheSize;
+    }
+
+    public void onFragment(final DirectBuffer srcBuffer, final int srcOffset, final int srcLength, final Header header)
+    {
+        final byte flags = header.flags();
+        final boolean unfragmented = (flags & UNFRAGMENTED) == UNFRAGMENTED;
+        if (!unfragmented && (flags & BEGIN_FRAG_FLAG) != BEGIN_FRAG_FLAG)
+        {
+            return;
+        }
+
+        int offset = srcOffset;
+        frameHeaderDecoder.wrap(srcBuffer, offset);
+        if (frameHeaderDecoder.templateId() != FixMessageEncoder.TEMPLATE_ID)
+        {
+            return;
+        }
+
+        final int actingBlockLength = frameHeaderDecoder.blockLength();
+        offset += frameHeaderDecoder.encodedLength();
+
+        messageFrame.wrap(srcBuffer, offset, actingBlockLength, frameHeaderDecoder.version());
+        if (messageFrame.status() != OK)
+        {
+            return;
+        }
+
+        final SessionCache sessionCache = fixSessionIdToCache.computeIfAbsent(messageFrame.session(), newSessionCache);
+
+        // Messages that span multiple fragments aren't cached, so forget everything before them in order that
+        // resend requests covering them get served from the archive.
+        if (!unfragmented)
+        {
+            sessionCache.clear();
+            return;
+        }
+
+        offset += actingBlockLength + 2;
+
+        asciiBuffer.wrap(srcBuffer);
+        fixHeader.reset();
+        fixHeader.decode(asciiBuffer, offset, messageFrame.bodyLength());
+
+        sessionCache.onMessage(srcBuffer, srcOffset, srcLength, fixHeader.msgSeqNum(), messageFrame.sequenceIndex());
+    }
+
+    /**
+     * Lookup the cache of a given session.
+     *
+     * @param fixSessionId the id of the session.
+     * @return the cache or null if nothing has been sent for the session.
+     */
+    SessionCache sessionCache(final long fixSessionId)
+    {
+        return fixSessionIdToCache.get(fixSessionId);
+    }
+
+    public void close()
+    {
+        fixSessionIdToCache.clear();
+    }
+
+    public void readLastPosition(final IndexedPositionConsumer consumer)
+    {
+        // Nothing is persisted, so the cache starts empty and doesn't need to catch up.
+    }
+
+    private SessionCache newSessionCache(final long fixSessionId)
+    {
+        return new SessionCache(sessionCacheSize);
+    }
+
+    /**
+     * Ring buffer of the messages sent by a single session.
+     *
+     * Positions are logical and only ever increase, the records between the tail and the head are retained. Records
+     * never wrap around the end of the buffer, a padding record fills the space instead.
+     */
+    static final class SessionCache
+    {
+        private static final int RECORD_LENGTH_OFFSET = 0;
+        private static final int MESSAGE_LENGTH_OFFSET = RECORD_LENGTH_OFFSET + SIZE_OF_INT;
+        private static final int SEQUENCE_NUMBER_OFFSET = MESSAGE_LENGTH_OFFSET + SIZE_OF_INT;
+        private static final int SEQUENCE_INDEX_OFFSET = SEQUENCE_NUMBER_OFFSET + SIZE_OF_INT;
+        static final int RECORD_HEADER_LENGTH = SEQUENCE_INDEX_OFFSET + SIZE_OF_INT;
+
+        private static final int PADDING = -1;
+
+        private final UnsafeBuffer buffer;
+        private final int capacity;
+        private final int mask;
+
+        private long head;
+        private long tail;
+
+        SessionCache(final int capacity)
+        {
+            this.capacity = capacity;
+            mask = capacity - 1;
+            buffer = new UnsafeBuffer(BufferUtil.allocateDirectAligned(capacity, CACHE_LINE_LENGTH));
+        }
+
+        void onMessage(
+            final DirectBuffer srcBuffer,
+            final int srcOffset,
+            final int srcLength,
+            final int sequenceNumber,
+            final int sequenceIndex)
+        {
+            final int recordLength = BitUtil.align(RECORD_HEADER_LENGTH + srcLength, RECORD_HEADER_LENGTH);
+            if (recordLength > capacity)
+            {
+                clear();
+                return;
+            }
+
+            int offset = offset(head);
+            final int remainingLength = capacity - offset;
+            if (remainingLength < recordLength)
+            {
+                evict(remainingLength);
+                putHeader(offset, remainingLength, PADDING, 0, 0);
+                head += remainingLength;
+                offset = 0;
+            }
+
+            evict(recordLength);
+            putHeader(offset, recordLength, srcLength, sequenceNumber, sequenceIndex);
+            buffer.putBytes(offset + RECORD_HEADER_LENGTH, srcBuffer, srcOffset, srcLength);
+            head += recordLength;
+        }
+
+        /**
+         * Find the first message that a resend request should replay.
+         *
+         * A request is only covered by the cache if its oldest retained message for the sequence index isn't after
+         * the beginning of the request, otherwise some of the messages to replay could have been evicted.
+         *
+         * @param sequenceIndex the sequence index of the request.
+         * @param beginSeqNo the first sequence number to replay.
+         * @return the position to replay from or {@link #NO_POSITION} if the request isn't covered by the cache.
+         */
+        long find(final int sequenceIndex, final int beginSeqNo)
+        {
+            boolean covered = false;
+            long position = tail;
+            while (position < head)
+            {
+                final int offset = offset(position);
+                if (isMessage(offset, sequenceIndex))
+                {
+                    final int sequenceNumber = buffer.getInt(offset + SEQUENCE_NUMBER_OFFSET);
+                    if (!covered)
+                    {
+                        if (sequenceNumber > beginSeqNo)
+                        {
+                            return NO_POSITION;
+                        }
+
+                        covered = true;
+                    }
+
+                    if (sequenceNumber >= beginSeqNo)
+                    {
+                        return position;
+                    }
+                }
+
+                position += buffer.getInt(offset + RECORD_LENGTH_OFFSET);
+            }
+
+            return covered ? head : NO_POSITION;
+        }
+
+        /**
+         * Replay cached messages to a handler until it aborts.
+         *
+         * @param fromPosition the position to replay from.
+         * @param toPosition the position to stop replaying at.
+         * @param sequenceIndex the sequence index of the messages to replay.
+         * @param endSeqNo the last sequence number to replay, inclusive.
+         * @param handler the handler to replay messages to, no header is passed to it.
+         * @return the position to resume the replay at, toPosition once the replay is complete or
+         * {@link #NO_POSITION} if the resume position has been evicted.
+         */
+        long replay(
+            final long fromPosition,
+            final long toPosition,
+            final int sequenceIndex,
+            final int endSeqNo,
+            final ControlledFragmentHandler handler)
+        {
+            if (fromPosition < tail)
+            {
+                return NO_POSITION;
+            }
+
+            long position = fromPosition;
+            while (position < toPosition)
+            {
+                final int offset = offset(position);
+                if (isMessage(offset, sequenceIndex) && buffer.getInt(offset + SEQUENCE_NUMBER_OFFSET) <= endSeqNo)
+                {
+                    final int messageLength = buffer.getInt(offset + MESSAGE_LENGTH_OFFSET);
+                    if (handler.onFragment(buffer, offset + RECORD_HEADER_LENGTH, messageLength, null) == ABORT)
+                    {
+                        return position;
+                    }
+                }
+
+                position += buffer.getInt(offset + RECORD_LENGTH_OFFSET);
+            }
+
+            return position;
+        }
+
+        long head()
+        {
+            return head;
+        }
+
+        void clear()
+        {
+            tail = head;
+        }
+
+        private boolean isMessage(final int offset, final int sequenceIndex)
+        {
+            return buffer.getInt(offset + MESSAGE_LENGTH_OFFSET) != PADDING &&
+                buffer.getInt(offset + SEQUENCE_INDEX_OFFSET) == sequenceIndex;
+        }
+
+        private void evict(final int length)
+        {
+            while (head + length - tail > capacity)
+            {
+                tail += buffer.getInt(offset(tail) + RECORD_LENGTH_OFFSET);
+            }
+        }
+
+        private void putHeader(
+            final int offset,
+            final int recordLength,
+            final int messageLength,
+            final int sequenceNumber,
+            final int sequenceIndex)
+        {
+            buffer.putInt(offset + RECORD_LENGTH_OFFSET, recordLength);
+            buffer.putInt(offset + MESSAGE_LENGTH_OFFSET, messageLength);
+            buffer.putInt(offset + SEQUENCE_NUMBER_OFFSET, sequenceNumber);
+            buffer.putInt(offset + SEQUENCE_INDEX_OFFSET, sequenceIndex);
+        }
+
+        private int offset(final long position)
+        {
+            return (int)(position & mask);
+        }
+    }
+}
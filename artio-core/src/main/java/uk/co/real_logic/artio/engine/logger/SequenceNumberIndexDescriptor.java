@@ -74,4 +74,9 @@ final class SequenceNumberIndexDescriptor
     {
         return new File(indexFilePath + "-writable");
     }
+
+    public static File journalPath(final String indexFilePath)
+    {
+        return new File(indexFilePath + "-journal");
+    }
 }
@@ -20,10 +20,12 @@ import io.aeron.protocol.DataHeaderFlyweight;
 import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.collections.IntArrayList;
 import org.agrona.collections.Long2LongHashMap;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.EpochClock;
 import uk.co.real_logic.artio.decoder.HeaderDecoder;
+import uk.co.real_logic.artio.engine.ByteBufferUtil;
 import uk.co.real_logic.artio.engine.ChecksumFramer;
 import uk.co.real_logic.artio.engine.MappedFile;
 import uk.co.real_logic.artio.messages.*;
@@ -33,8 +35,11 @@ import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
 
 import static io.aeron.protocol.DataHeaderFlyweight.BEGIN_FLAG;
+import static org.agrona.BitUtil.SIZE_OF_INT;
 import static uk.co.real_logic.artio.engine.SectorFramer.*;
 import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexDescriptor.*;
 import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder.SCHEMA_VERSION;
@@ -42,6 +47,12 @@ import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEnc
 /**
  * Writes updates into an in-memory buffer. This buffer is then flushed down to disk. A passing place
  * file is used to ensure that there's a recoverable option if it fails.
+ * <p>
+ * With incremental checkpoints the writer tracks which sectors have changed since the last flush and only writes
+ * those sectors, in place, into the index file. The dirty sectors are first written to a journal file, which is
+ * replayed on startup, so a crash part way through the in place writes is recoverable. The journal is invalidated
+ * before it's rewritten and cleared once the in place writes are complete. If more sectors are dirty than the
+ * journal can hold then the whole file is flipped as usual.
  */
 public class SequenceNumberIndexWriter implements Index
 {
@@ -51,6 +62,12 @@ public class SequenceNumberIndexWriter implements Index
     private static final long UNINITIALISED = -1;
     static final int SEQUENCE_NUMBER_OFFSET = 8;
 
+    // Journal header: a count of the journaled sectors, followed by their indices, with a checksum at the end
+    // of the sector. The journaled sectors are then stored, in order, after the header.
+    private static final int JOURNAL_SECTOR_COUNT_OFFSET = 0;
+    private static final int JOURNAL_SECTOR_INDICES_OFFSET = JOURNAL_SECTOR_COUNT_OFFSET + SIZE_OF_INT;
+    private static final int MAX_JOURNAL_SECTORS = (SECTOR_DATA_LENGTH - JOURNAL_SECTOR_INDICES_OFFSET) / SIZE_OF_INT;
+
     private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
     private final FixMessageDecoder messageFrame = new FixMessageDecoder();
     private final ResetSequenceNumberDecoder resetSequenceNumber = new ResetSequenceNumberDecoder();
@@ -75,6 +92,13 @@ public class SequenceNumberIndexWriter implements Index
     private final int indexedPositionsOffset;
     private final IndexedPositionWriter positions;
 
+    private final boolean incrementalCheckpoints;
+    private final boolean[] dirtySectors;
+    private final IntArrayList dirtySectorIndices;
+    private final CRC32 journalCrc32;
+    private final MappedFile journalFile;
+    private final int maxJournalSectors;
+
     private MappedFile writableFile;
     private MappedFile indexFile;
     private long nextRollPosition = UNINITIALISED;
@@ -92,6 +116,27 @@ public class SequenceNumberIndexWriter implements Index
         final RecordingIdLookup recordingIdLookup,
         final long indexFileStateFlushTimeoutInMs,
         final EpochClock clock)
+    {
+        this(
+            inMemoryBuffer,
+            indexFile,
+            errorHandler,
+            streamId,
+            recordingIdLookup,
+            indexFileStateFlushTimeoutInMs,
+            clock,
+            false);
+    }
+
+    public SequenceNumberIndexWriter(
+        final AtomicBuffer inMemoryBuffer,
+        final MappedFile indexFile,
+        final ErrorHandler errorHandler,
+        final int streamId,
+        final RecordingIdLookup recordingIdLookup,
+        final long indexFileStateFlushTimeoutInMs,
+        final EpochClock clock,
+        final boolean incrementalCheckpoints)
     {
         this.inMemoryBuffer = inMemoryBuffer;
         this.indexFile = indexFile;
@@ -101,6 +146,7 @@ public class SequenceNumberIndexWriter implements Index
         this.recordingIdLookup = recordingIdLookup;
         this.indexFileStateFlushTimeoutInMs = indexFileStateFlushTimeoutInMs;
         this.clock = clock;
+        this.incrementalCheckpoints = incrementalCheckpoints;
 
         final String indexFilePath = indexFile.file().getAbsolutePath();
         indexPath = indexFile.file();
@@ -112,8 +158,31 @@ public class SequenceNumberIndexWriter implements Index
         indexedPositionsOffset = positionTableOffset(fileCapacity);
         checksumFramer = new ChecksumFramer(
             inMemoryBuffer, indexedPositionsOffset, errorHandler, 0, "SequenceNumberIndex");
+
+        if (incrementalCheckpoints)
+        {
+            final int sectorCount = fileCapacity / SECTOR_SIZE;
+            dirtySectors = new boolean[sectorCount];
+            dirtySectorIndices = new IntArrayList();
+            journalCrc32 = new CRC32();
+            maxJournalSectors = Math.min(sectorCount, MAX_JOURNAL_SECTORS);
+            journalFile = MappedFile.map(journalPath(indexFilePath), (maxJournalSectors + 1) * SECTOR_SIZE);
+        }
+        else
+        {
+            dirtySectors = null;
+            dirtySectorIndices = null;
+            journalCrc32 = null;
+            maxJournalSectors = 0;
+            journalFile = null;
+        }
+
         try
         {
+            if (incrementalCheckpoints)
+            {
+                replayJournal();
+            }
             initialiseBuffer();
             positions = new IndexedPositionWriter(
                 positionsBuffer(inMemoryBuffer, indexedPositionsOffset),
@@ -124,6 +193,7 @@ public class SequenceNumberIndexWriter implements Index
         catch (final Exception e)
         {
             CloseHelper.close(writableFile);
+            CloseHelper.close(journalFile);
             indexFile.close();
             throw e;
         }
@@ -167,13 +237,17 @@ public class SequenceNumberIndexWriter implements Index
                     return;
                 }
 
-                offset += actingBlockLength + 2;
-
-                asciiBuffer.wrap(buffer);
-                fixHeader.decode(asciiBuffer, offset, messageFrame.bodyLength());
-
-                final int msgSeqNum = fixHeader.msgSeqNum();
                 final long sessionId = messageFrame.session();
+                int msgSeqNum = messageFrame.msgSeqNum();
+                // Older frames, or frames whose header wasn't parsed by the framer, don't carry the sequence number.
+                if (msgSeqNum <= 0)
+                {
+                    offset += actingBlockLength + 2;
+
+                    asciiBuffer.wrap(buffer);
+                    fixHeader.decode(asciiBuffer, offset, messageFrame.bodyLength());
+                    msgSeqNum = fixHeader.msgSeqNum();
+                }
 
                 saveRecord(msgSeqNum, sessionId);
                 break;
@@ -195,7 +269,11 @@ public class SequenceNumberIndexWriter implements Index
         checkTermRoll(buffer, srcOffset, endPosition, length);
 
         final long recordingId = recordingIdLookup.getRecordingId(aeronSessionId);
-        positions.indexedUpTo(aeronSessionId, recordingId, endPosition);
+        final int positionOffset = positions.indexedUpTo(aeronSessionId, recordingId, endPosition);
+        if (positionOffset != OUT_OF_SPACE)
+        {
+            markDirty(indexedPositionsOffset + positionOffset);
+        }
     }
 
     @Override
@@ -237,10 +315,28 @@ public class SequenceNumberIndexWriter implements Index
 
     private void updateFile()
     {
-        checksumFramer.updateChecksums();
+        checksumFramer.updateDirtyChecksums();
         positions.updateChecksums();
-        saveFile();
-        flipFiles();
+        if (incrementalCheckpoints && dirtySectorIndices.size() <= maxJournalSectors)
+        {
+            if (journalDirtySectors())
+            {
+                writeDirtySectorsInPlace();
+
+                // Once the sectors are in place the journal is stale, a later flip mustn't be overwritten by it.
+                clearJournal();
+            }
+        }
+        else
+        {
+            if (incrementalCheckpoints)
+            {
+                clearJournal();
+            }
+            saveFile();
+            flipFiles();
+        }
+        clearDirtySectors();
         hasSavedRecordSinceFileUpdate = false;
         lastUpdatedFileTimeInMs = clock.time();
     }
@@ -251,6 +347,143 @@ public class SequenceNumberIndexWriter implements Index
         writableFile.force();
     }
 
+    // Package scoped so that tests can simulate a crash part way through an incremental checkpoint.
+    boolean journalDirtySectors()
+    {
+        final IntArrayList dirtySectorIndices = this.dirtySectorIndices;
+        final int dirtySectorCount = dirtySectorIndices.size();
+        if (dirtySectorCount == 0)
+        {
+            return false;
+        }
+
+        checksumFramer.updateDirtyChecksums();
+        positions.updateChecksums();
+
+        final AtomicBuffer inMemoryBuffer = this.inMemoryBuffer;
+        final AtomicBuffer journalBuffer = journalFile.buffer();
+
+        // A committed header must never refer to slots that are being overwritten, otherwise pages flushed out of
+        // order could replay new sector data over the wrong sector's location.
+        if (journalBuffer.getInt(JOURNAL_SECTOR_COUNT_OFFSET) != 0)
+        {
+            clearJournal();
+        }
+
+        for (int i = 0; i < dirtySectorCount; i++)
+        {
+            final int sectorIndex = dirtySectorIndices.getInt(i);
+            journalBuffer.putInt(JOURNAL_SECTOR_INDICES_OFFSET + i * SIZE_OF_INT, sectorIndex);
+            journalBuffer.putBytes((i + 1) * SECTOR_SIZE, inMemoryBuffer, sectorIndex * SECTOR_SIZE, SECTOR_SIZE);
+        }
+        journalFile.force();
+
+        // The sectors are only committed once they're all on disk, a torn header fails its checksum.
+        journalBuffer.putInt(JOURNAL_SECTOR_COUNT_OFFSET, dirtySectorCount);
+        journalBuffer.putInt(FIRST_CHECKSUM_LOCATION, journalChecksum(journalBuffer));
+        journalFile.force();
+
+        return true;
+    }
+
+    private void writeDirtySectorsInPlace()
+    {
+        final IntArrayList dirtySectorIndices = this.dirtySectorIndices;
+        final AtomicBuffer inMemoryBuffer = this.inMemoryBuffer;
+        final AtomicBuffer indexBuffer = indexFile.buffer();
+        for (int i = 0, size = dirtySectorIndices.size(); i < size; i++)
+        {
+            final int sectorOffset = dirtySectorIndices.getInt(i) * SECTOR_SIZE;
+            indexBuffer.putBytes(sectorOffset, inMemoryBuffer, sectorOffset, SECTOR_SIZE);
+        }
+        indexFile.force();
+    }
+
+    private void replayJournal()
+    {
+        final AtomicBuffer journalBuffer = journalFile.buffer();
+        final int sectorCount = journalBuffer.getInt(JOURNAL_SECTOR_COUNT_OFFSET);
+        final int journalCapacityInSectors = journalBuffer.capacity() / SECTOR_SIZE - 1;
+        if (sectorCount <= 0 || sectorCount > Math.min(journalCapacityInSectors, MAX_JOURNAL_SECTORS) ||
+            journalBuffer.getInt(FIRST_CHECKSUM_LOCATION) != journalChecksum(journalBuffer))
+        {
+            return;
+        }
+
+        final AtomicBuffer indexBuffer = indexFile.buffer();
+        for (int i = 0; i < sectorCount; i++)
+        {
+            final int sectorIndex = journalBuffer.getInt(JOURNAL_SECTOR_INDICES_OFFSET + i * SIZE_OF_INT);
+            final int sectorOffset = sectorIndex * SECTOR_SIZE;
+            if (sectorOffset >= 0 && sectorOffset + SECTOR_SIZE <= fileCapacity)
+            {
+                indexBuffer.putBytes(sectorOffset, journalBuffer, (i + 1) * SECTOR_SIZE, SECTOR_SIZE);
+            }
+        }
+        indexFile.force();
+        clearJournal();
+    }
+
+    private void clearJournal()
+    {
+        // Stops a stale journal from being replayed over a newer index file.
+        journalFile.buffer().putInt(JOURNAL_SECTOR_COUNT_OFFSET, 0);
+        journalFile.force();
+    }
+
+    private int journalChecksum(final AtomicBuffer journalBuffer)
+    {
+        final CRC32 crc32 = journalCrc32;
+        final ByteBuffer byteBuffer = journalBuffer.byteBuffer();
+        final int wrapAdjustment = journalBuffer.wrapAdjustment();
+
+        crc32.reset();
+        ByteBufferUtil.limit(byteBuffer, wrapAdjustment + SECTOR_DATA_LENGTH);
+        ByteBufferUtil.position(byteBuffer, wrapAdjustment);
+        crc32.update(byteBuffer);
+        byteBuffer.clear();
+
+        return (int)crc32.getValue();
+    }
+
+    private void markDirty(final int offset)
+    {
+        if (incrementalCheckpoints)
+        {
+            final int sectorIndex = offset / SECTOR_SIZE;
+            if (!dirtySectors[sectorIndex])
+            {
+                dirtySectors[sectorIndex] = true;
+                dirtySectorIndices.addInt(sectorIndex);
+            }
+        }
+    }
+
+    private void markAllDirty()
+    {
+        if (incrementalCheckpoints)
+        {
+            for (int offset = 0; offset < fileCapacity; offset += SECTOR_SIZE)
+            {
+                markDirty(offset);
+            }
+        }
+    }
+
+    private void clearDirtySectors()
+    {
+        if (incrementalCheckpoints)
+        {
+            final IntArrayList dirtySectorIndices = this.dirtySectorIndices;
+            final int dirtySectorCount = dirtySectorIndices.size();
+            for (int i = 0; i < dirtySectorCount; i++)
+            {
+                dirtySectors[dirtySectorIndices.getInt(i)] = false;
+            }
+            dirtySectorIndices.clear();
+        }
+    }
+
     private void flipFiles()
     {
         if (RUNNING_ON_WINDOWS)
@@ -311,6 +544,7 @@ public class SequenceNumberIndexWriter implements Index
         {
             indexFile.close();
             writableFile.close();
+            CloseHelper.close(journalFile);
         }
     }
 
@@ -404,6 +638,7 @@ public class SequenceNumberIndexWriter implements Index
 
     private void initialiseBlankBuffer()
     {
+        markAllDirty();
         LoggerUtil.initialiseBuffer(
             inMemoryBuffer,
             fileHeaderEncoder,
@@ -413,6 +648,7 @@ public class SequenceNumberIndexWriter implements Index
             lastKnownEncoder.sbeSchemaVersion(),
             lastKnownEncoder.sbeBlockLength(),
             errorHandler);
+        checksumFramer.updateChecksums();
     }
 
     private boolean fileHasBeenInitialized(final AtomicBuffer fileBuffer)
@@ -457,5 +693,7 @@ public class SequenceNumberIndexWriter implements Index
         final int value)
     {
         inMemoryBuffer.putIntOrdered(recordOffset + SEQUENCE_NUMBER_OFFSET, value);
+        checksumFramer.markDirty(recordOffset);
+        markDirty(recordOffset);
     }
 }
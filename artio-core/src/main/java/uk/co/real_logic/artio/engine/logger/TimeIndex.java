@@ -0,0 +1,210 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.Header;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.storage.messages.TimeIndexRecordEncoder;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import static io.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
+import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static org.agrona.UnsafeAccess.UNSAFE;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
+
+/**
+ * Builds an index of time to archive position for a given stream, so that a window of time can be scanned without
+ * replaying whole recordings.
+ *
+ * Message timestamps are divided into buckets of a fixed size, and a record is written for the first message of each
+ * bucket within each recording. Timestamps are those of the message frames so are in the precision of
+ * {@link uk.co.real_logic.artio.CommonConfiguration#clock()}.
+ *
+ * Stored at {@link ReplayIndexDescriptor#timeIndexFile(String, int)}, read by {@link TimeIndexReader}.
+ *
+ * Buffer Consists of:
+ *
+ * MessageHeader
+ * Head position counter
+ * Tail position counter
+ * Multiple TimeIndexRecord entries
+ */
+public class TimeIndex implements Index
+{
+    private static final long NO_BUCKET = Long.MIN_VALUE;
+
+    private final MessageHeaderDecoder frameHeaderDecoder = new MessageHeaderDecoder();
+    private final FixMessageDecoder messageFrame = new FixMessageDecoder();
+    private final TimeIndexRecordEncoder timeIndexRecord = new TimeIndexRecordEncoder();
+    private final MessageHeaderEncoder indexHeaderEncoder = new MessageHeaderEncoder();
+    private final Long2LongHashMap recordingIdToLastBucket = new Long2LongHashMap(NO_BUCKET);
+
+    private final int requiredStreamId;
+    private final long bucketSize;
+    private final RecordingIdLookup recordingIdLookup;
+    private final ByteBuffer wrappedBuffer;
+    private final AtomicBuffer buffer;
+    private final int recordCapacity;
+    private final TimeIndexReader reader;
+
+    /**
+     * Create a time index.
+     *
+     * @param logFileDir the directory that the index file is stored in.
+     * @param requiredStreamId the stream id to index.
+     * @param indexFileSize the size of the index file.
+     * @param bucketSize the size of each bucket of time, in the precision of the message timestamps.
+     * @param bufferFactory maps the index file.
+     * @param recordingIdLookup looks up the recording id of a stream.
+     */
+    public TimeIndex(
+        final String logFileDir,
+        final int requiredStreamId,
+        final int indexFileSize,
+        final long bucketSize,
+        final BufferFactory bufferFactory,
+        final RecordingIdLookup recordingIdLookup)
+    {
+        if (bucketSize <= 0)
+        {
+            throw new IllegalArgumentException("bucketSize must be positive: " + bucketSize);
+        }
+        checkIndexFileSize(indexFileSize);
+
+        this.requiredStreamId = requiredStreamId;
+        this.bucketSize = bucketSize;
+        this.recordingIdLookup = recordingIdLookup;
+
+        final File indexFile = timeIndexFile(logFileDir, requiredStreamId);
+        final boolean exists = indexFile.exists();
+        wrappedBuffer = bufferFactory.map(indexFile, indexFileSize);
+        buffer = new UnsafeBuffer(wrappedBuffer);
+        recordCapacity = recordCapacity(buffer.capacity());
+        reader = new TimeIndexReader(buffer);
+
+        if (!exists)
+        {
+            indexHeaderEncoder
+                .wrap(buffer, 0)
+                .blockLength(timeIndexRecord.sbeBlockLength())
+                .templateId(timeIndexRecord.sbeTemplateId())
+                .schemaId(timeIndexRecord.sbeSchemaId())
+                .version(timeIndexRecord.sbeSchemaVersion());
+        }
+        else
+        {
+            // Reset the positions in order to avoid wraps at the start.
+            final long resetPosition = beginChange(buffer);
+            endChangeOrdered(buffer, resetPosition);
+
+            // So that buckets which were indexed before a restart aren't indexed again by the catchup.
+            reader.forEachRecord((timestamp, recordingId, position, aeronSessionId) ->
+            {
+                final long bucket = bucket(timestamp);
+                if (bucket > recordingIdToLastBucket.get(recordingId))
+                {
+                    recordingIdToLastBucket.put(recordingId, bucket);
+                }
+            });
+        }
+    }
+
+    public void onFragment(
+        final DirectBuffer srcBuffer,
+        final int srcOffset,
+        final int srcLength,
+        final Header header)
+    {
+        if (header.streamId() != requiredStreamId || (header.flags() & BEGIN_FRAG_FLAG) != BEGIN_FRAG_FLAG)
+        {
+            return;
+        }
+
+        frameHeaderDecoder.wrap(srcBuffer, srcOffset);
+        if (frameHeaderDecoder.templateId() != FixMessageEncoder.TEMPLATE_ID)
+        {
+            return;
+        }
+
+        messageFrame.wrap(
+            srcBuffer,
+            srcOffset + frameHeaderDecoder.encodedLength(),
+            frameHeaderDecoder.blockLength(),
+            frameHeaderDecoder.version());
+
+        final long timestamp = messageFrame.timestamp();
+        final long bucket = bucket(timestamp);
+        final int aeronSessionId = header.sessionId();
+        final long recordingId = recordingIdLookup.getRecordingId(aeronSessionId);
+        if (bucket > recordingIdToLastBucket.get(recordingId))
+        {
+            recordingIdToLastBucket.put(recordingId, bucket);
+
+            final long position = header.position() - BitUtil.align(header.frameLength(), FRAME_ALIGNMENT);
+            onRecord(timestamp, recordingId, position, aeronSessionId);
+        }
+    }
+
+    private void onRecord(final long timestamp, final long recordingId, final long position, final int aeronSessionId)
+    {
+        final long beginChangePosition = beginChange(buffer);
+        final long changePosition = beginChangePosition + RECORD_LENGTH;
+
+        beginChangeOrdered(buffer, changePosition);
+        UNSAFE.storeFence();
+
+        timeIndexRecord
+            .wrap(buffer, offset(beginChangePosition, recordCapacity))
+            .timestamp(timestamp)
+            .recordingId(recordingId)
+            .position(position)
+            .aeronSessionId(aeronSessionId);
+
+        endChangeOrdered(buffer, changePosition);
+    }
+
+    private long bucket(final long timestamp)
+    {
+        return Math.floorDiv(timestamp, bucketSize);
+    }
+
+    public void close()
+    {
+        IoUtil.unmap(wrappedBuffer);
+    }
+
+    /**
+     * Reports the position of the latest bucket of each recording, so a catchup replays at most one bucket that has
+     * already been indexed.
+     *
+     * @param consumer a callback that receives each session id and position
+     */
+    public void readLastPosition(final IndexedPositionConsumer consumer)
+    {
+        reader.readLastPositions(consumer);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.AtomicBuffer;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+import uk.co.real_logic.artio.storage.messages.TimeIndexRecordDecoder;
+
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static org.agrona.UnsafeAccess.UNSAFE;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
+
+/**
+ * Reads the time index written by {@link TimeIndex}. The engine may still be writing to the index, so each record
+ * that is read is validated against the change positions.
+ */
+class TimeIndexReader
+{
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final TimeIndexRecordDecoder indexRecord = new TimeIndexRecordDecoder();
+    private final AtomicBuffer buffer;
+
+    TimeIndexReader(final AtomicBuffer buffer)
+    {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Lookup the span of each recording that contains the messages within a window of time. Spans start at the
+     * latest bucket that began at or before the start of the window and stop at the first bucket that began at or
+     * after its end, so they can also hold messages either side of the window.
+     *
+     * Only the buckets that are still covered by the index are found. A window that starts before the earliest
+     * bucket of a recording begins at that bucket.
+     *
+     * @param fromTimestampInclusive the timestamp that the window starts at.
+     * @param toTimestampExclusive the timestamp that the window ends before.
+     * @param consumer receives the span of each recording that overlaps the window.
+     */
+    void lookupWindow(
+        final long fromTimestampInclusive, final long toTimestampExclusive, final RecordingSpanConsumer consumer)
+    {
+        if (fromTimestampInclusive >= toTimestampExclusive)
+        {
+            return;
+        }
+
+        final Long2ObjectHashMap<RecordingWindow> recordingIdToWindow = new Long2ObjectHashMap<>();
+        forEachRecord((timestamp, recordingId, position, aeronSessionId) ->
+            recordingIdToWindow
+                .computeIfAbsent(recordingId, RecordingWindow::new)
+                .onRecord(timestamp, position, aeronSessionId, fromTimestampInclusive, toTimestampExclusive));
+
+        recordingIdToWindow.values().forEach(window -> window.onSpan(consumer));
+    }
+
+    void readLastPositions(final IndexedPositionConsumer consumer)
+    {
+        final Long2ObjectHashMap<RecordingWindow> recordingIdToWindow = new Long2ObjectHashMap<>();
+        forEachRecord((timestamp, recordingId, position, aeronSessionId) ->
+            recordingIdToWindow
+                .computeIfAbsent(recordingId, RecordingWindow::new)
+                .onRecord(timestamp, position, aeronSessionId, Long.MIN_VALUE, Long.MAX_VALUE));
+
+        recordingIdToWindow.values().forEach(window ->
+            consumer.accept(window.aeronSessionId, window.recordingId, window.lastPosition));
+    }
+
+    void forEachRecord(final RecordHandler handler)
+    {
+        messageHeader.wrap(buffer, 0);
+        final int actingBlockLength = messageHeader.blockLength();
+        final int actingVersion = messageHeader.version();
+        final int capacity = recordCapacity(buffer.capacity());
+
+        final long endChangePosition = endChangeVolatile(buffer);
+        for (long changePosition = Math.max(0, endChangePosition - capacity);
+            changePosition < endChangePosition;
+            changePosition += RECORD_LENGTH)
+        {
+            indexRecord.wrap(buffer, offset(changePosition, capacity), actingBlockLength, actingVersion);
+            final long timestamp = indexRecord.timestamp();
+            final long recordingId = indexRecord.recordingId();
+            final long position = indexRecord.position();
+            final int aeronSessionId = indexRecord.aeronSessionId();
+
+            UNSAFE.loadFence(); // LoadLoad required so previous loads don't move past version check below.
+
+            // Skip the record if the engine has since started to overwrite it.
+            if (beginChangeVolatile(buffer) <= changePosition + capacity)
+            {
+                handler.onRecord(timestamp, recordingId, position, aeronSessionId);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface RecordHandler
+    {
+        void onRecord(long timestamp, long recordingId, long position, int aeronSessionId);
+    }
+
+    @FunctionalInterface
+    interface RecordingSpanConsumer
+    {
+        /**
+         * Receives the span of a recording.
+         *
+         * @param recordingId the id of the recording.
+         * @param startPosition the position to replay the recording from.
+         * @param stopPosition the position to replay the recording up to, or
+         *                     {@link io.aeron.archive.client.AeronArchive#NULL_POSITION} to replay to its end.
+         */
+        void onSpan(long recordingId, long startPosition, long stopPosition);
+    }
+
+    private static final class RecordingWindow
+    {
+        private final long recordingId;
+
+        private long firstPosition = Long.MAX_VALUE;
+        private long startPosition = NULL_POSITION;
+        private long stopPosition = NULL_POSITION;
+        private long lastPosition = NULL_POSITION;
+        private int aeronSessionId;
+
+        RecordingWindow(final long recordingId)
+        {
+            this.recordingId = recordingId;
+        }
+
+        void onRecord(
+            final long timestamp,
+            final long position,
+            final int aeronSessionId,
+            final long fromTimestampInclusive,
+            final long toTimestampExclusive)
+        {
+            firstPosition = Math.min(firstPosition, position);
+
+            if (timestamp <= fromTimestampInclusive)
+            {
+                startPosition = Math.max(startPosition, position);
+            }
+
+            if (timestamp >= toTimestampExclusive && (stopPosition == NULL_POSITION || position < stopPosition))
+            {
+                stopPosition = position;
+            }
+
+            if (position > lastPosition)
+            {
+                lastPosition = position;
+                this.aeronSessionId = aeronSessionId;
+            }
+        }
+
+        void onSpan(final RecordingSpanConsumer consumer)
+        {
+            final long startPosition = this.startPosition == NULL_POSITION ? firstPosition : this.startPosition;
+            if (stopPosition == NULL_POSITION || stopPosition > startPosition)
+            {
+                consumer.onSpan(recordingId, startPosition, stopPosition);
+            }
+        }
+    }
+}
@@ -109,6 +109,8 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     private final SessionIdStrategy sessionIdStrategy;
     private final Timer sessionTimer;
     private final Timer receiveTimer;
+    private final Timer inboundEndToEndTimer;
+    private final SessionTimers sessionTimers;
     private final SessionExistsHandler sessionExistsHandler;
     private final SentPositionHandler sentPositionHandler;
     private final boolean enginesAreClustered;
@@ -155,6 +157,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
         this.sessionTimer = timers.sessionTimer();
         this.receiveTimer = timers.receiveTimer();
+        this.inboundEndToEndTimer = timers.inboundEndToEndTimer();
 
         this.configuration = configuration;
         this.sessionIdStrategy = configuration.sessionIdStrategy();
@@ -162,6 +165,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         this.sentPositionHandler = configuration.sentPositionHandler();
         this.clock = clock;
         this.enginesAreClustered = configuration.libraryAeronChannels().size() > 1;
+        sessionTimers = new SessionTimers(clock.time());
     }
 
     boolean isConnected()
@@ -237,7 +241,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
     void disableSession(final InternalSession session)
     {
-        sessions = ArrayUtil.remove(sessions, session);
+        removeSession(session);
         session.disable();
     }
 
@@ -559,16 +563,19 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
     private int pollSessions(final long timeInMs)
     {
-        final InternalSession[] sessions = this.sessions;
-        int total = 0;
+        return sessionTimers.poll(timeInMs);
+    }
 
-        for (int i = 0, size = sessions.length; i < size; i++)
-        {
-            final InternalSession session = sessions[i];
-            total += session.poll(timeInMs);
-        }
+    private void addSession(final InternalSession session)
+    {
+        sessions = ArrayUtil.add(sessions, session);
+        sessionTimers.add(session);
+    }
 
-        return total;
+    private void removeSession(final InternalSession session)
+    {
+        sessions = ArrayUtil.remove(sessions, session);
+        sessionTimers.remove(session);
     }
 
     private int pollPendingInitiatorSessions(final long timeInMs)
@@ -584,7 +591,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
             {
                 this.pendingInitiatorSessions = pendingSessions = ArrayUtil.remove(pendingSessions, i);
                 size--;
-                sessions = ArrayUtil.add(sessions, session);
+                addSession(session);
             }
             else
             {
@@ -776,7 +783,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         }
         else
         {
-            sessions = ArrayUtil.add(sessions, session);
+            addSession(session);
         }
     }
 
@@ -790,6 +797,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         final int sequenceIndex,
         final int messageType,
         final long timestamp,
+        final long originTimestamp,
         final MessageStatus status,
         final int sequenceNumber,
         final long position)
@@ -810,6 +818,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                     sequenceIndex,
                     messageType,
                     timestamp,
+                    originTimestamp,
                     status,
                     position);
             }
@@ -840,7 +849,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                     session.close();
                     // session will be in either pendingInitiatorSessions or sessions
                     pendingInitiatorSessions = ArrayUtil.remove(pendingInitiatorSessions, session);
-                    sessions = ArrayUtil.remove(sessions, session);
+                    removeSession(session);
                 }
 
                 return action;
@@ -977,6 +986,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                         subscriber.onTimeout(libraryId);
                     }
                     session.close();
+                    sessionTimers.remove(session);
                     // TODO(Nick): Maybe we shouldn't be creating a lot of arrays and batch this up?
                     sessions = ArrayUtil.remove(sessions, i);
                     size--;
@@ -1054,7 +1064,8 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
             parser,
             session,
             receiveTimer,
-            sessionTimer);
+            sessionTimer,
+            inboundEndToEndTimer);
         subscriber.reply(reply);
         subscriber.handler(configuration.sessionAcquireHandler()
             .onSessionAcquired(session, SlowStatus.SLOW == slowStatus));
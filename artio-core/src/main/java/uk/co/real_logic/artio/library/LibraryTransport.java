@@ -56,6 +56,7 @@ class LibraryTransport
             aeronChannel,
             configuration.printAeronStreamIdentifiers(),
             fixCounters.failedOutboundPublications(),
+            fixCounters,
             configuration.outboundLibraryStream(),
             clock,
             configuration.outboundMaxClaimAttempts(),
@@ -71,7 +72,7 @@ class LibraryTransport
         StreamInformation.print(
             "library " + configuration.libraryId() + " inboundSubscription", inboundSubscription, configuration);
         outboundPublication = outboundLibraryStreams.gatewayPublication(
-            configuration.libraryIdleStrategy(), "outboundPublication");
+            configuration.libraryIdleStrategy(), "library " + configuration.libraryId() + " outboundPublication");
     }
 
     Subscription inboundSubscription()
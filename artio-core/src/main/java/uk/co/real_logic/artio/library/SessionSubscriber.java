@@ -24,6 +24,7 @@ import uk.co.real_logic.artio.timing.Timer;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.*;
 import static uk.co.real_logic.artio.messages.GatewayError.UNABLE_TO_LOGON;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.hasOriginTimestamp;
 
 class SessionSubscriber implements AutoCloseable
 {
@@ -31,6 +32,7 @@ class SessionSubscriber implements AutoCloseable
     private final InternalSession session;
     private final Timer receiveTimer;
     private final Timer sessionTimer;
+    private final Timer inboundEndToEndTimer;
 
     private SessionHandler handler;
     private InitiateSessionReply initiateSessionReply;
@@ -40,12 +42,14 @@ class SessionSubscriber implements AutoCloseable
         final SessionParser parser,
         final InternalSession session,
         final Timer receiveTimer,
-        final Timer sessionTimer)
+        final Timer sessionTimer,
+        final Timer inboundEndToEndTimer)
     {
         this.parser = parser;
         this.session = session;
         this.receiveTimer = receiveTimer;
         this.sessionTimer = sessionTimer;
+        this.inboundEndToEndTimer = inboundEndToEndTimer;
         this.session.logonListener(this::onSessionLogon);
     }
 
@@ -58,10 +62,15 @@ class SessionSubscriber implements AutoCloseable
         final int sequenceIndex,
         final int messageType,
         final long timestamp,
+        final long originTimestamp,
         final MessageStatus status,
         final long position)
     {
         final long now = receiveTimer.recordSince(timestamp);
+        if (hasOriginTimestamp(originTimestamp))
+        {
+            inboundEndToEndTimer.recordInterval(originTimestamp, now);
+        }
 
         try
         {
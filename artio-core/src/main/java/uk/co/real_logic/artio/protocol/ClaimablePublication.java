@@ -19,6 +19,7 @@ import io.aeron.ExclusivePublication;
 import io.aeron.logbuffer.BufferClaim;
 import org.agrona.concurrent.IdleStrategy;
 import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.PublicationStallCounters;
 import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
 
 import static io.aeron.Publication.CLOSED;
@@ -33,6 +34,7 @@ class ClaimablePublication implements AutoCloseable
 
     private final long maxClaimAttempts;
     private final AtomicCounter fails;
+    private final PublicationStallCounters stalls;
     protected final MessageHeaderEncoder header = new MessageHeaderEncoder();
     protected final BufferClaim bufferClaim = new BufferClaim();
     protected final ExclusivePublication dataPublication;
@@ -43,11 +45,13 @@ class ClaimablePublication implements AutoCloseable
         final int maxClaimAttempts,
         final IdleStrategy idleStrategy,
         final AtomicCounter fails,
+        final PublicationStallCounters stalls,
         final ExclusivePublication dataPublication)
     {
         this.maxClaimAttempts = maxClaimAttempts;
         this.idleStrategy = idleStrategy;
         this.fails = fails;
+        this.stalls = stalls;
         this.dataPublication = dataPublication;
     }
 
@@ -60,16 +64,27 @@ class ClaimablePublication implements AutoCloseable
     {
         long position;
         long i = 0;
+        long stallStartInNs = 0;
         do
         {
             position = dataPublication.tryClaim(framedLength, bufferClaim);
 
             if (position > 0L)
             {
+                if (i > 0)
+                {
+                    onStall(stallStartInNs);
+                }
+
                 return position;
             }
             else
             {
+                if (i == 0)
+                {
+                    stallStartInNs = System.nanoTime();
+                }
+
                 idleStrategy.idle();
             }
 
@@ -79,6 +94,7 @@ class ClaimablePublication implements AutoCloseable
         while (i <= maxClaimAttempts);
 
         idleStrategy.reset();
+        onStall(stallStartInNs);
 
         if (position == CLOSED || position == MAX_POSITION_EXCEEDED)
         {
@@ -90,6 +106,14 @@ class ClaimablePublication implements AutoCloseable
         }
     }
 
+    private void onStall(final long stallStartInNs)
+    {
+        if (stalls != null)
+        {
+            stalls.onStall(System.nanoTime() - stallStartInNs);
+        }
+    }
+
     public void close()
     {
         dataPublication.close();
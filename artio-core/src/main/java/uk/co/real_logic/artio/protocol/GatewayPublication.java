@@ -23,6 +23,7 @@ import org.agrona.concurrent.IdleStrategy;
 import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.Clock;
 import uk.co.real_logic.artio.DebugLogger;
+import uk.co.real_logic.artio.PublicationStallCounters;
 import uk.co.real_logic.artio.engine.SessionInfo;
 import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.messages.ControlNotificationEncoder.SessionsEncoder;
@@ -33,6 +34,7 @@ import static io.aeron.protocol.DataHeaderFlyweight.BEGIN_FLAG;
 import static io.aeron.protocol.DataHeaderFlyweight.END_FLAG;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static uk.co.real_logic.artio.CommonConfiguration.TIME_MESSAGES;
 import static uk.co.real_logic.artio.DebugLogger.logSbeMessage;
 import static uk.co.real_logic.artio.LogTag.*;
 import static uk.co.real_logic.artio.messages.ErrorDecoder.messageHeaderLength;
@@ -47,6 +49,15 @@ public class GatewayPublication extends ClaimablePublication
 
     private static final int FRAMED_MESSAGE_SIZE = MessageHeaderEncoder.ENCODED_LENGTH + FRAME_SIZE;
 
+    /** Passed as an origin timestamp when the message entered Artio at the point that it was saved. */
+    public static final long NO_ORIGIN_TIMESTAMP = FixMessageEncoder.originTimestampNullValue();
+
+    /** Passed as the MsgSeqNum of a message when its FIX header hasn't been parsed. */
+    public static final int NO_MSG_SEQ_NUM = FixMessageEncoder.msgSeqNumNullValue();
+
+    /** Passed as the SendingTime of a message when its FIX header hasn't been parsed. */
+    public static final long NO_SENDING_TIME = FixMessageEncoder.sendingTimeNullValue();
+
     private static final byte[] NO_BYTES = {};
 
     private static final int HEARTBEAT_LENGTH = HEADER_LENGTH + ApplicationHeartbeatEncoder.BLOCK_LENGTH;
@@ -112,7 +123,28 @@ public class GatewayPublication extends ClaimablePublication
         final Clock clock,
         final int maxClaimAttempts)
     {
-        super(maxClaimAttempts, idleStrategy, fails, dataPublication);
+        this(dataPublication, fails, null, idleStrategy, clock, maxClaimAttempts);
+    }
+
+    /**
+     * Create a publication that records how long its claims are stalled by back pressure.
+     *
+     * @param dataPublication the publication to write messages to.
+     * @param fails the counter of failed claims.
+     * @param stalls the counters of stalled claims, or null to not record stalls.
+     * @param idleStrategy the idle strategy used between claim attempts.
+     * @param clock the clock used to timestamp messages.
+     * @param maxClaimAttempts the number of attempts to make before a claim fails.
+     */
+    public GatewayPublication(
+        final ExclusivePublication dataPublication,
+        final AtomicCounter fails,
+        final PublicationStallCounters stalls,
+        final IdleStrategy idleStrategy,
+        final Clock clock,
+        final int maxClaimAttempts)
+    {
+        super(maxClaimAttempts, idleStrategy, fails, stalls, dataPublication);
         this.clock = clock;
         this.maxPayloadLength = dataPublication.maxPayloadLength();
         this.maxInitialBodyLength = maxPayloadLength - FRAMED_MESSAGE_SIZE;
@@ -129,6 +161,113 @@ public class GatewayPublication extends ClaimablePublication
         final long connectionId,
         final MessageStatus status,
         final int sequenceNumber)
+    {
+        return saveMessage(
+            srcBuffer,
+            srcOffset,
+            srcLength,
+            libraryId,
+            messageType,
+            sessionId,
+            sequenceIndex,
+            connectionId,
+            status,
+            sequenceNumber,
+            NO_ORIGIN_TIMESTAMP);
+    }
+
+    /**
+     * Get the time that a message enters Artio, to be passed as the originTimestamp of
+     * {@link #saveMessage(DirectBuffer, int, int, int, int, long, int, long, MessageStatus, int, long)}. The clock
+     * is only read when {@link uk.co.real_logic.artio.CommonConfiguration#TIME_MESSAGES} is enabled.
+     *
+     * @return the current time or {@link #NO_ORIGIN_TIMESTAMP} if messages aren't being timed.
+     */
+    public long originTimestamp()
+    {
+        return TIME_MESSAGES ? clock.time() : NO_ORIGIN_TIMESTAMP;
+    }
+
+    /**
+     * Check whether a decoded origin timestamp can be timed from. Frames written before the field was added to the
+     * schema decode it as {@link #NO_ORIGIN_TIMESTAMP} and replayed messages carry 0.
+     *
+     * @param originTimestamp the origin timestamp decoded from a FixMessage frame.
+     * @return true if the origin timestamp is a time.
+     */
+    public static boolean hasOriginTimestamp(final long originTimestamp)
+    {
+        return originTimestamp > 0;
+    }
+
+    public long saveMessage(
+        final DirectBuffer srcBuffer,
+        final int srcOffset,
+        final int srcLength,
+        final int libraryId,
+        final int messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber,
+        final long originTimestamp)
+    {
+        return saveMessage(
+            srcBuffer,
+            srcOffset,
+            srcLength,
+            libraryId,
+            messageType,
+            sessionId,
+            sequenceIndex,
+            connectionId,
+            status,
+            sequenceNumber,
+            originTimestamp,
+            NO_MSG_SEQ_NUM,
+            NO_SENDING_TIME,
+            false,
+            false);
+    }
+
+    /**
+     * Save a FIX message along with the fields of its FIX header that have already been parsed, so that subscribers
+     * such as the indexers can read them from the frame rather than decoding the header again.
+     *
+     * @param srcBuffer the buffer containing the FIX message.
+     * @param srcOffset the offset of the FIX message within the buffer.
+     * @param srcLength the length of the FIX message.
+     * @param libraryId the library id of the sender.
+     * @param messageType the int encoded message type.
+     * @param sessionId the session id of the sender.
+     * @param sequenceIndex the sequence index of the session.
+     * @param connectionId the connection id of the sender.
+     * @param status the status of the message.
+     * @param sequenceNumber the sequence number of the message.
+     * @param originTimestamp the time that the message entered Artio or {@link #NO_ORIGIN_TIMESTAMP}.
+     * @param msgSeqNum the MsgSeqNum of the FIX header or {@link #NO_MSG_SEQ_NUM}.
+     * @param sendingTime the SendingTime of the FIX header in epoch milliseconds or {@link #NO_SENDING_TIME}.
+     * @param possDup the PossDupFlag of the FIX header, only meaningful if the sending time has been parsed.
+     * @param possResend the PossResend of the FIX header, only meaningful if the sending time has been parsed.
+     * @return the position of the saved message or a negative value if it couldn't be saved.
+     */
+    public long saveMessage(
+        final DirectBuffer srcBuffer,
+        final int srcOffset,
+        final int srcLength,
+        final int libraryId,
+        final int messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber,
+        final long originTimestamp,
+        final int msgSeqNum,
+        final long sendingTime,
+        final boolean possDup,
+        final boolean possResend)
     {
         final BufferClaim bufferClaim = this.bufferClaim;
         final long timestamp = clock.time();
@@ -164,7 +303,16 @@ public class GatewayPublication extends ClaimablePublication
             .timestamp(timestamp)
             .status(status)
             .sequenceNumber(sequenceNumber)
-            .putBody(srcBuffer, srcFragmentOffset, srcFragmentLength);
+            .originTimestamp(originTimestamp == NO_ORIGIN_TIMESTAMP ? timestamp : originTimestamp)
+            .msgSeqNum(msgSeqNum)
+            .sendingTime(sendingTime);
+
+        fixMessage.headerFlags()
+            .clear()
+            .possDup(possDup)
+            .possResend(possResend);
+
+        fixMessage.putBody(srcBuffer, srcFragmentOffset, srcFragmentLength);
 
         if (!fragmented)
         {
@@ -201,6 +349,140 @@ public class GatewayPublication extends ClaimablePublication
         return position;
     }
 
+    /**
+     * Checks whether a FIX message of a given length fits into a single claim, and can thus be written using
+     * {@link #claimMessage(int, int, int, long, int, long, MessageStatus, int)}.
+     *
+     * @param messageLength the length of the FIX message.
+     * @return true if the message can be claimed, false if it needs to be fragmented.
+     */
+    public boolean canClaimMessage(final int messageLength)
+    {
+        return FRAMED_MESSAGE_SIZE + messageLength <= maxPayloadLength;
+    }
+
+    /**
+     * Claims space for a FIX message of a known length and writes its framing header. The FIX message itself
+     * should then be written directly into {@link #claimedBuffer()} at {@link #claimedMessageOffset()} and
+     * the claim completed using {@link #commitMessage()} or {@link #abortMessage()}. This avoids copying the
+     * message, as {@link #saveMessage(DirectBuffer, int, int, int, int, long, int, long, MessageStatus, int)}
+     * does.
+     *
+     * @param messageLength the exact length of the FIX message to be written.
+     * @param libraryId the library id of the sender.
+     * @param messageType the int encoded message type.
+     * @param sessionId the session id of the sender.
+     * @param sequenceIndex the sequence index of the session.
+     * @param connectionId the connection id of the sender.
+     * @param status the status of the message.
+     * @param sequenceNumber the sequence number of the message.
+     * @return the position of the claimed message or a negative value if the claim failed.
+     * @throws IllegalArgumentException if the message is too large to be claimed, see
+     * {@link #canClaimMessage(int)}.
+     */
+    public long claimMessage(
+        final int messageLength,
+        final int libraryId,
+        final int messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber)
+    {
+        if (!canClaimMessage(messageLength))
+        {
+            throw new IllegalArgumentException(String.format(
+                "Message of length %d is too large to claim, max payload length is %d",
+                messageLength,
+                maxPayloadLength));
+        }
+
+        final BufferClaim bufferClaim = this.bufferClaim;
+        final long timestamp = clock.time();
+
+        final long position = claim(FRAMED_MESSAGE_SIZE + messageLength);
+        if (position < 0)
+        {
+            return position;
+        }
+
+        int offset = bufferClaim.offset();
+        final MutableDirectBuffer destBuffer = bufferClaim.buffer();
+
+        header.wrap(destBuffer, offset)
+            .blockLength(fixMessage.sbeBlockLength())
+            .templateId(fixMessage.sbeTemplateId())
+            .schemaId(fixMessage.sbeSchemaId())
+            .version(fixMessage.sbeSchemaVersion());
+
+        offset += header.encodedLength();
+
+        fixMessage.wrap(destBuffer, offset)
+            .libraryId(libraryId)
+            .messageType(messageType)
+            .session(sessionId)
+            .sequenceIndex(sequenceIndex)
+            .connection(connectionId)
+            .timestamp(timestamp)
+            .status(status)
+            .sequenceNumber(sequenceNumber)
+            .originTimestamp(timestamp)
+            .msgSeqNum(NO_MSG_SEQ_NUM)
+            .sendingTime(NO_SENDING_TIME)
+            .headerFlags().clear();
+
+        putBodyLength(messageLength, offset, destBuffer);
+
+        return position;
+    }
+
+    /**
+     * Get the buffer that a message claimed by {@link #claimMessage(int, int, int, long, int, long, MessageStatus,
+     * int)} should be written into.
+     *
+     * @return the buffer that a message claimed should be written into.
+     */
+    public MutableDirectBuffer claimedBuffer()
+    {
+        return bufferClaim.buffer();
+    }
+
+    /**
+     * Get the offset within {@link #claimedBuffer()} that the claimed FIX message starts at.
+     *
+     * @return the offset within {@link #claimedBuffer()} that the claimed FIX message starts at.
+     */
+    public int claimedMessageOffset()
+    {
+        return bufferClaim.offset() + FRAMED_MESSAGE_SIZE;
+    }
+
+    /**
+     * Commit a message claimed by {@link #claimMessage(int, int, int, long, int, long, MessageStatus, int)}.
+     */
+    public void commitMessage()
+    {
+        final BufferClaim bufferClaim = this.bufferClaim;
+        DebugLogger.log(
+            FIX_MESSAGE_FLOW,
+            "Enqueued %s%n",
+            bufferClaim.buffer(),
+            claimedMessageOffset(),
+            bufferClaim.length() - FRAMED_MESSAGE_SIZE);
+
+        bufferClaim.commit();
+    }
+
+    /**
+     * Abort a message claimed by {@link #claimMessage(int, int, int, long, int, long, MessageStatus, int)}, the
+     * claimed space is turned into padding in the stream.
+     */
+    public void abortMessage()
+    {
+        bufferClaim.abort();
+    }
+
     private void putBodyLength(final int srcLength, final int offset, final MutableDirectBuffer destBuffer)
     {
         destBuffer.putShort(offset + FixMessageEncoder.BLOCK_LENGTH, (short)srcLength, LITTLE_ENDIAN);
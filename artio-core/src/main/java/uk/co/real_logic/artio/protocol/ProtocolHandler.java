@@ -32,6 +32,7 @@ public interface ProtocolHandler
         int sequenceIndex,
         int messageType,
         long timestamp,
+        long originTimestamp,
         MessageStatus status,
         int sequenceNumber,
         long position);
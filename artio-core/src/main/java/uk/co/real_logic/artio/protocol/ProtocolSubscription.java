@@ -125,6 +125,7 @@ public final class ProtocolSubscription implements ControlledFragmentHandler
             messageFrame.sequenceIndex(),
             messageFrame.messageType(),
             messageFrame.timestamp(),
+            messageFrame.originTimestamp(),
             messageFrame.status(),
             messageFrame.sequenceNumber(),
             position);
@@ -21,6 +21,7 @@ import io.aeron.Subscription;
 import org.agrona.concurrent.IdleStrategy;
 import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.Clock;
+import uk.co.real_logic.artio.FixCounters;
 import uk.co.real_logic.artio.StreamInformation;
 import uk.co.real_logic.artio.engine.RecordingCoordinator;
 
@@ -32,6 +33,7 @@ public final class Streams
     private final String aeronChannel;
     private final boolean printAeronStreamIdentifiers;
     private final AtomicCounter failedPublications;
+    private final FixCounters fixCounters;
     private final int maxClaimAttempts;
     private final RecordingCoordinator recordingCoordinator;
 
@@ -40,6 +42,7 @@ public final class Streams
         final String aeronChannel,
         final boolean printAeronStreamIdentifiers,
         final AtomicCounter failedPublications,
+        final FixCounters fixCounters,
         final int streamId,
         final Clock clock,
         final int maxClaimAttempts,
@@ -49,6 +52,7 @@ public final class Streams
         this.aeronChannel = aeronChannel;
         this.printAeronStreamIdentifiers = printAeronStreamIdentifiers;
         this.failedPublications = failedPublications;
+        this.fixCounters = fixCounters;
         this.streamId = streamId;
         this.clock = clock;
         this.maxClaimAttempts = maxClaimAttempts;
@@ -60,6 +64,7 @@ public final class Streams
         return new GatewayPublication(
             dataPublication(name),
             failedPublications,
+            fixCounters.publicationStalls(name),
             idleStrategy,
             clock,
             maxClaimAttempts
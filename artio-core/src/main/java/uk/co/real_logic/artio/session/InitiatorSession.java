@@ -99,4 +99,14 @@ public class InitiatorSession extends InternalSession
 
         return actions + super.poll(time);
     }
+
+    long nextTimeoutInMs()
+    {
+        if (state() == SessionState.CONNECTED && id() != UNKNOWN)
+        {
+            return 0;
+        }
+
+        return super.nextTimeoutInMs();
+    }
 }
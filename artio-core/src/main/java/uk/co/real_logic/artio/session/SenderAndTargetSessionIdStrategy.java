@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.session;
 
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.builder.SessionHeaderEncoder;
 import uk.co.real_logic.artio.decoder.HeaderDecoder;
 import uk.co.real_logic.artio.dictionary.generation.CodecUtil;
@@ -35,11 +36,13 @@ import static java.util.Objects.requireNonNull;
 class SenderAndTargetSessionIdStrategy implements SessionIdStrategy
 {
     private static final int BLOCK_AND_LENGTH_FIELDS_LENGTH = SenderAndTargetCompositeKeyEncoder.BLOCK_LENGTH + 4;
+    private static final int INITIAL_COMP_ID_BUFFER_SIZE = 64;
 
     private final SenderAndTargetCompositeKeyEncoder keyEncoder = new SenderAndTargetCompositeKeyEncoder();
     private final SenderAndTargetCompositeKeyDecoder keyDecoder = new SenderAndTargetCompositeKeyDecoder();
     private final int actingBlockLength = keyDecoder.sbeBlockLength();
     private final int actingVersion = keyDecoder.sbeSchemaVersion();
+    private final UnsafeBuffer compIdBuffer = new UnsafeBuffer(new byte[INITIAL_COMP_ID_BUFFER_SIZE]);
 
     SenderAndTargetSessionIdStrategy()
     {
@@ -54,6 +57,44 @@ class SenderAndTargetSessionIdStrategy implements SessionIdStrategy
             header.senderCompID(), header.senderCompIDLength());
     }
 
+    public int saveOnAcceptLogon(final HeaderDecoder header, final MutableDirectBuffer buffer, final int offset)
+    {
+        requireNonNull(header, "header");
+        requireNonNull(buffer, "buffer");
+
+        final int localCompIDLength = header.targetCompIDLength();
+        final int remoteCompIDLength = header.senderCompIDLength();
+
+        final int length = localCompIDLength + remoteCompIDLength + BLOCK_AND_LENGTH_FIELDS_LENGTH;
+        if (buffer.capacity() < offset + length)
+        {
+            return INSUFFICIENT_SPACE;
+        }
+
+        if (compIdBuffer.capacity() < localCompIDLength + remoteCompIDLength)
+        {
+            compIdBuffer.wrap(new byte[localCompIDLength + remoteCompIDLength]);
+        }
+
+        putChars(compIdBuffer, 0, header.targetCompID(), localCompIDLength);
+        putChars(compIdBuffer, localCompIDLength, header.senderCompID(), remoteCompIDLength);
+
+        keyEncoder.wrap(buffer, offset);
+        keyEncoder.putLocalCompId(compIdBuffer, 0, localCompIDLength);
+        keyEncoder.putRemoteCompId(compIdBuffer, localCompIDLength, remoteCompIDLength);
+
+        return length;
+    }
+
+    // NB: only valid for ASCII chars.
+    static void putChars(final UnsafeBuffer buffer, final int offset, final char[] value, final int length)
+    {
+        for (int i = 0; i < length; i++)
+        {
+            buffer.putByte(offset + i, (byte)value[i]);
+        }
+    }
+
     public CompositeKey onInitiateLogon(
         final String localCompId,
         final String localSubId,
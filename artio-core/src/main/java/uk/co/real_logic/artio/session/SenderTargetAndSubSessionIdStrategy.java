@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.session;
 
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.builder.SessionHeaderEncoder;
 import uk.co.real_logic.artio.decoder.HeaderDecoder;
 import uk.co.real_logic.artio.dictionary.generation.CodecUtil;
@@ -26,6 +27,7 @@ import uk.co.real_logic.artio.storage.messages.SenderTargetAndSubCompositeKeyEnc
 import java.util.Arrays;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
+import static uk.co.real_logic.artio.session.SenderAndTargetSessionIdStrategy.putChars;
 
 /**
  * A simple, and dumb session id Strategy based upon hashing SenderCompID and TargetCompID. Makes no assumptions
@@ -34,11 +36,13 @@ import static java.nio.charset.StandardCharsets.US_ASCII;
 class SenderTargetAndSubSessionIdStrategy implements SessionIdStrategy
 {
     private static final int BLOCK_AND_LENGTH_FIELDS_LENGTH = SenderTargetAndSubCompositeKeyEncoder.BLOCK_LENGTH + 6;
+    private static final int INITIAL_COMP_ID_BUFFER_SIZE = 64;
 
     private final SenderTargetAndSubCompositeKeyEncoder keyEncoder = new SenderTargetAndSubCompositeKeyEncoder();
     private final SenderTargetAndSubCompositeKeyDecoder keyDecoder = new SenderTargetAndSubCompositeKeyDecoder();
     private final int actingBlockLength = keyDecoder.sbeBlockLength();
     private final int actingVersion = keyDecoder.sbeSchemaVersion();
+    private final UnsafeBuffer compIdBuffer = new UnsafeBuffer(new byte[INITIAL_COMP_ID_BUFFER_SIZE]);
 
     SenderTargetAndSubSessionIdStrategy()
     {
@@ -52,6 +56,38 @@ class SenderTargetAndSubSessionIdStrategy implements SessionIdStrategy
             header.senderCompID(), header.senderCompIDLength());
     }
 
+    public int saveOnAcceptLogon(final HeaderDecoder header, final MutableDirectBuffer buffer, final int offset)
+    {
+        final int localCompIDLength = header.targetCompIDLength();
+        final int localSubIDLength = header.senderSubIDLength();
+        final int remoteCompIDLength = header.senderCompIDLength();
+        final int idsLength = localCompIDLength + localSubIDLength + remoteCompIDLength;
+
+        final int length = idsLength + BLOCK_AND_LENGTH_FIELDS_LENGTH;
+        if (buffer.capacity() < offset + length)
+        {
+            return INSUFFICIENT_SPACE;
+        }
+
+        if (compIdBuffer.capacity() < idsLength)
+        {
+            compIdBuffer.wrap(new byte[idsLength]);
+        }
+
+        final int localSubIDOffset = localCompIDLength;
+        final int remoteCompIDOffset = localSubIDOffset + localSubIDLength;
+        putChars(compIdBuffer, 0, header.targetCompID(), localCompIDLength);
+        putChars(compIdBuffer, localSubIDOffset, header.senderSubID(), localSubIDLength);
+        putChars(compIdBuffer, remoteCompIDOffset, header.senderCompID(), remoteCompIDLength);
+
+        keyEncoder.wrap(buffer, offset);
+        keyEncoder.putLocalCompId(compIdBuffer, 0, localCompIDLength);
+        keyEncoder.putLocalSubId(compIdBuffer, localSubIDOffset, localSubIDLength);
+        keyEncoder.putRemoteCompId(compIdBuffer, remoteCompIDOffset, remoteCompIDLength);
+
+        return length;
+    }
+
     public CompositeKey onInitiateLogon(
         final String localCompId,
         final String localSubId,
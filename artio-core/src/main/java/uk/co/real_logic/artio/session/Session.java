@@ -25,6 +25,7 @@ import uk.co.real_logic.artio.Constants;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.Pressure;
 import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.builder.MessageTemplate;
 import uk.co.real_logic.artio.builder.SessionHeaderEncoder;
 import uk.co.real_logic.artio.decoder.*;
 import uk.co.real_logic.artio.dictionary.generation.CodecUtil;
@@ -43,6 +44,7 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import static uk.co.real_logic.artio.Constants.NEW_SEQ_NO;
 import static uk.co.real_logic.artio.Constants.VERSION_CHARS;
 import static uk.co.real_logic.artio.LogTag.FIX_MESSAGE;
+import static uk.co.real_logic.artio.builder.MessageTemplate.NO_SLOT;
 import static uk.co.real_logic.artio.builder.Validation.CODEC_VALIDATION_DISABLED;
 import static uk.co.real_logic.artio.builder.Validation.CODEC_VALIDATION_ENABLED;
 import static uk.co.real_logic.artio.decoder.LogonDecoder.MESSAGE_TYPE_CHARS;
@@ -96,9 +98,13 @@ public class Session implements AutoCloseable
     static final short AWAITING_LOGOUT_VALUE = 7;
     static final short DISCONNECTING_VALUE = 8;
 
+    static final long NO_TIMEOUT = Long.MAX_VALUE;
+
     private static final long NO_OPERATION = MIN_VALUE;
     static final long LIBRARY_DISCONNECTED = NO_OPERATION + 1;
     private static final int INITIAL_SEQUENCE_NUMBER = 1;
+    // Wide enough for any positive int
+    private static final int TEMPLATE_MSG_SEQ_NUM_WIDTH = 10;
 
     /**
      * The proportion of the maximum heartbeat interval before you send your heartbeat
@@ -110,6 +116,7 @@ public class Session implements AutoCloseable
     private static final int NO_LOGOUT_REJECT_REASON = -1;
 
     private final UtcTimestampEncoder timestampEncoder = new UtcTimestampEncoder();
+    private final MutableAsciiBuffer claimBuffer = new MutableAsciiBuffer();
 
     protected final long connectionId;
     protected final SessionIdStrategy sessionIdStrategy;
@@ -164,6 +171,15 @@ public class Session implements AutoCloseable
 
     private int logoutRejectReason = NO_LOGOUT_REJECT_REASON;
 
+    private boolean claimed;
+    private int claimedSeqNum;
+    private long claimedPosition;
+
+    // Owned by the SessionTimers that the session has been added to, if any
+    private SessionTimers timers;
+    private long timerId = SessionTimers.NO_TIMER;
+    private long timerDeadlineInMs = NO_TIMEOUT;
+
     public Session(
         final int heartbeatIntervalInS,
         final long connectionId,
@@ -460,6 +476,7 @@ public class Session implements AutoCloseable
     {
         validateCanSendMessage();
 
+        final long originTimestamp = publication.originTimestamp();
         final int sentSeqNum = newSentSeqNum();
         final SessionHeaderEncoder header = encoder.header();
         header
@@ -480,7 +497,87 @@ public class Session implements AutoCloseable
         final int length = Encoder.length(result);
         final int offset = Encoder.offset(result);
 
-        return send(asciiBuffer, offset, length, sentSeqNum, encoder.messageType());
+        return send(asciiBuffer, offset, length, sentSeqNum, encoder.messageType(), originTimestamp);
+    }
+
+    /**
+     * Encode a template of a message to be sent on this session with {@link #send(MessageTemplate)}.
+     * <p>
+     * Slots are added to the template for the MsgSeqNum, SendingTime and, if enabled, LastMsgSeqNumProcessed
+     * fields unless the template already has them. MsgSeqNum slots default to the width of the largest sequence
+     * number, so are sent padded with leading zeros. If a counterparty doesn't accept that then add a narrower
+     * slot for MsgSeqNum to the template before calling this method.
+     *
+     * @param template the template to encode.
+     * @param encoder the encoder of the message, with the values of all its fields that don't change set.
+     * @throws IllegalArgumentException if the template can't be encoded, see {@link MessageTemplate#encode(Encoder)}.
+     */
+    public void encodeTemplate(final MessageTemplate template, final Encoder encoder)
+    {
+        final int sendingTimeLength = timestampEncoder.encode(time());
+        final SessionHeaderEncoder header = encoder.header();
+        header
+            .msgSeqNum(0)
+            .sendingTime(timestampEncoder.buffer(), sendingTimeLength);
+
+        if (template.slot(Constants.MSG_SEQ_NUM) == NO_SLOT)
+        {
+            template.addSlot(Constants.MSG_SEQ_NUM, TEMPLATE_MSG_SEQ_NUM_WIDTH);
+        }
+
+        if (template.slot(Constants.SENDING_TIME) == NO_SLOT)
+        {
+            template.addSlot(Constants.SENDING_TIME, UtcTimestampEncoder.LENGTH_WITH_MILLISECONDS);
+        }
+
+        if (enableLastMsgSeqNumProcessed)
+        {
+            header.lastMsgSeqNumProcessed(0);
+
+            if (template.slot(Constants.LAST_MSG_SEQ_NUM_PROCESSED) == NO_SLOT)
+            {
+                template.addSlot(Constants.LAST_MSG_SEQ_NUM_PROCESSED, TEMPLATE_MSG_SEQ_NUM_WIDTH);
+            }
+        }
+
+        if (!header.hasSenderCompID())
+        {
+            sessionIdStrategy.setupSession(sessionKey, header);
+        }
+
+        template.encode(encoder);
+    }
+
+    /**
+     * Send a message from a template on this session. The template must have been encoded by
+     * {@link #encodeTemplate(MessageTemplate, Encoder)} and any of its own slots written before sending. Only the
+     * MsgSeqNum, SendingTime and LastMsgSeqNumProcessed slots are written by this method.
+     *
+     * @param template the template of the message to be sent
+     * @return the position in the stream that corresponds to the end of this message or a negative
+     * number indicating an error status.
+     * @throws IllegalArgumentException if the sequence number no longer fits within its slot.
+     */
+    public long send(final MessageTemplate template)
+    {
+        validateCanSendMessage();
+
+        final long originTimestamp = publication.originTimestamp();
+        final int sentSeqNum = newSentSeqNum();
+        template.putInt(template.slot(Constants.MSG_SEQ_NUM), sentSeqNum);
+        template.putTimestamp(
+            template.slot(Constants.SENDING_TIME), timestampEncoder.buffer(), timestampEncoder.encode(time()));
+
+        if (enableLastMsgSeqNumProcessed)
+        {
+            template.putInt(template.slot(Constants.LAST_MSG_SEQ_NUM_PROCESSED), lastMsgSeqNumProcessed);
+        }
+
+        final long result = template.finish();
+        final int length = Encoder.length(result);
+        final int offset = Encoder.offset(result);
+
+        return send(template.buffer(), offset, length, sentSeqNum, template.messageType(), originTimestamp);
     }
 
     /**
@@ -499,8 +596,29 @@ public class Session implements AutoCloseable
     {
         validateCanSendMessage();
 
+        return send(messageBuffer, offset, length, seqNum, messageType, publication.originTimestamp());
+    }
+
+    private long send(
+        final DirectBuffer messageBuffer,
+        final int offset,
+        final int length,
+        final int seqNum,
+        final int messageType,
+        final long originTimestamp)
+    {
         final long position = publication.saveMessage(
-            messageBuffer, offset, length, libraryId, messageType, id(), sequenceIndex(), connectionId, OK, seqNum);
+            messageBuffer,
+            offset,
+            length,
+            libraryId,
+            messageType,
+            id(),
+            sequenceIndex(),
+            connectionId,
+            OK,
+            seqNum,
+            originTimestamp);
 
         if (position > 0)
         {
@@ -512,6 +630,96 @@ public class Session implements AutoCloseable
         return position;
     }
 
+    /**
+     * Claim space in the outbound stream for a FIX message of a known length, so that it can be written in place
+     * rather than being copied as it is by {@link #send(DirectBuffer, int, int, int, int)}.
+     * <p>
+     * If the claim succeeds then the complete message, including its header and checksum, should be written into
+     * {@link #claimedBuffer()} from index 0 up to messageLength. Then either {@link #commit()} or {@link #abort()}
+     * must be invoked before any other message is sent from this library.
+     *
+     * @param messageLength the exact length of the FIX message to be written.
+     * @param seqNum the sequence number of the message to be written.
+     * @param messageType the int encoded message type.
+     * @return the position in the stream that corresponds to the end of this message or a negative
+     * number indicating an error status.
+     * @throws IllegalArgumentException if the message is too large to be claimed as a single fragment, in that
+     *                                  case it can be sent using {@link #send(DirectBuffer, int, int, int, int)}.
+     * @throws IllegalStateException if a previous claim hasn't been committed or aborted.
+     */
+    public long tryClaim(final int messageLength, final int seqNum, final int messageType)
+    {
+        if (claimed)
+        {
+            throw new IllegalStateException("The previous claim must be committed or aborted before claiming again");
+        }
+
+        validateCanSendMessage();
+
+        final GatewayPublication publication = this.publication;
+        final long position = publication.claimMessage(
+            messageLength, libraryId, messageType, id(), sequenceIndex(), connectionId, OK, seqNum);
+
+        if (position > 0)
+        {
+            claimBuffer.wrap(publication.claimedBuffer(), publication.claimedMessageOffset(), messageLength);
+            claimedSeqNum = seqNum;
+            claimedPosition = position;
+            claimed = true;
+        }
+
+        return position;
+    }
+
+    /**
+     * Get the buffer to write a message claimed by {@link #tryClaim(int, int, int)} into. The message starts at
+     * index 0 within this buffer and the buffer's capacity is the claimed message length.
+     *
+     * @return the buffer to write a claimed message into.
+     */
+    public MutableAsciiBuffer claimedBuffer()
+    {
+        return claimBuffer;
+    }
+
+    /**
+     * Commit a message claimed by {@link #tryClaim(int, int, int)}, sending it.
+     *
+     * @throws IllegalStateException if there is no successful claim that hasn't already been committed or aborted.
+     */
+    public void commit()
+    {
+        checkClaimed("commit");
+        claimed = false;
+
+        DebugLogger.log(FIX_MESSAGE, "Sent %s %n", claimBuffer, 0, claimBuffer.capacity());
+
+        publication.commitMessage();
+        lastSentMsgSeqNum(claimedSeqNum, claimedPosition);
+    }
+
+    /**
+     * Abort a message claimed by {@link #tryClaim(int, int, int)}. The message isn't sent and the sequence
+     * number isn't consumed.
+     *
+     * @throws IllegalStateException if there is no successful claim that hasn't already been committed or aborted.
+     */
+    public void abort()
+    {
+        checkClaimed("abort");
+        claimed = false;
+
+        publication.abortMessage();
+    }
+
+    private void checkClaimed(final String operation)
+    {
+        if (!claimed)
+        {
+            throw new IllegalStateException("Unable to " + operation + " without a successful tryClaim()");
+        }
+    }
+
     /**
      * Check if the session is in a state where it can send a message.
      *
@@ -918,6 +1126,7 @@ public class Session implements AutoCloseable
     private void incNextReceivedInboundMessageTime(final long time)
     {
         this.nextRequiredInboundMessageTimeInMs = time + heartbeatIntervalInMs() + reasonableTransmissionTimeInMs;
+        onTimeoutChanged();
     }
 
     Action onLogon(
@@ -1370,6 +1579,7 @@ public class Session implements AutoCloseable
     private void incNextHeartbeatTime()
     {
         nextRequiredHeartbeatTimeInMs = time() + sendingHeartbeatIntervalInMs;
+        onTimeoutChanged();
     }
 
     private long sendLogout()
@@ -1396,17 +1606,20 @@ public class Session implements AutoCloseable
         incNextReceivedInboundMessageTime(time);
         sendingHeartbeatIntervalInMs = (long)(heartbeatIntervalInMs * HEARTBEAT_PAUSE_FACTOR);
         nextRequiredHeartbeatTimeInMs = time + sendingHeartbeatIntervalInMs;
+        onTimeoutChanged();
     }
 
     protected Session state(final SessionState state)
     {
         this.state = state;
+        onTimeoutChanged();
         return this;
     }
 
     public Session id(final long id)
     {
         this.id = id;
+        onTimeoutChanged();
         return this;
     }
 
@@ -1626,6 +1839,38 @@ public class Session implements AutoCloseable
         }
     }
 
+    /**
+     * Gets the earliest time at which {@link #poll(long)} could have something to do, before then polling the
+     * session is a no-op.
+     *
+     * @return the time in ms or {@link #NO_TIMEOUT} if polling the session has nothing to do until its state changes.
+     */
+    long nextTimeoutInMs()
+    {
+        final short state = state().value();
+
+        switch (state)
+        {
+            case DISCONNECTING_VALUE:
+            case LOGGING_OUT_VALUE:
+            case LOGGING_OUT_AND_DISCONNECTING_VALUE:
+                // Retried on every duty cycle until they succeed.
+                return 0;
+
+            default:
+            {
+                final boolean isActive = state == ACTIVE_VALUE;
+                long timeoutInMs = isActive ? nextRequiredHeartbeatTimeInMs : NO_TIMEOUT;
+                if (isActive || state == AWAITING_LOGOUT_VALUE || awaitingHeartbeat)
+                {
+                    timeoutInMs = Math.min(timeoutInMs, nextRequiredInboundMessageTimeInMs);
+                }
+
+                return timeoutInMs;
+            }
+        }
+    }
+
     void libraryConnected(final boolean libraryConnected)
     {
         proxy.libraryConnected(libraryConnected);
@@ -1738,6 +1983,42 @@ public class Session implements AutoCloseable
     void awaitingHeartbeat(final boolean awaitingHeartbeat)
     {
         this.awaitingHeartbeat = awaitingHeartbeat;
+        onTimeoutChanged();
+    }
+
+    void timers(final SessionTimers timers)
+    {
+        this.timers = timers;
+    }
+
+    SessionTimers timers()
+    {
+        return timers;
+    }
+
+    void timer(final long timerId, final long timerDeadlineInMs)
+    {
+        this.timerId = timerId;
+        this.timerDeadlineInMs = timerDeadlineInMs;
+    }
+
+    long timerId()
+    {
+        return timerId;
+    }
+
+    long timerDeadlineInMs()
+    {
+        return timerDeadlineInMs;
+    }
+
+    private void onTimeoutChanged()
+    {
+        final SessionTimers timers = this.timers;
+        if (timers != null)
+        {
+            timers.onTimeoutChanged(this);
+        }
     }
 
 }
@@ -39,6 +39,7 @@ import uk.co.real_logic.artio.decoder.HeaderDecoder;
 public interface SessionIdStrategy
 {
     int INSUFFICIENT_SPACE = -1;
+    int UNSUPPORTED = -2;
 
     static SessionIdStrategy senderAndTarget()
     {
@@ -58,6 +59,26 @@ public interface SessionIdStrategy
      */
     CompositeKey onAcceptLogon(HeaderDecoder header);
 
+    /**
+     * Saves the composite session key that {@link #onAcceptLogon(HeaderDecoder)} would create for a logon to a
+     * buffer, without creating the key. This lets the engine lookup sessions that it already knows about without
+     * allocating. The saved form must be identical to that of {@link #save(CompositeKey, MutableDirectBuffer, int)}.
+     *
+     * Implementing this is optional, the default implementation returns {@link SessionIdStrategy#UNSUPPORTED}.
+     * Callers that get {@link SessionIdStrategy#UNSUPPORTED} or {@link SessionIdStrategy#INSUFFICIENT_SPACE} back
+     * must fall back to creating the key with {@link #onAcceptLogon(HeaderDecoder)}, as the engine does.
+     *
+     * @param header the header of the logon message.
+     * @param buffer the buffer to save it to
+     * @param offset the offset within the buffer to start saving at
+     * @return the length used to save the key, {@link SessionIdStrategy#INSUFFICIENT_SPACE} or
+     * {@link SessionIdStrategy#UNSUPPORTED} otherwise
+     */
+    default int saveOnAcceptLogon(final HeaderDecoder header, final MutableDirectBuffer buffer, final int offset)
+    {
+        return UNSUPPORTED;
+    }
+
     /**
      * Creates the composite session key when you initiate a logon.
      *
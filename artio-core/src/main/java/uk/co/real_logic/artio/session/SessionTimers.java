@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import org.agrona.DeadlineTimerWheel;
+import org.agrona.collections.Long2ObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static uk.co.real_logic.artio.session.Session.NO_TIMEOUT;
+
+/**
+ * Polls sessions only once their next timeout has been reached, rather than polling every session on every duty
+ * cycle, so that the cost of the duty cycle doesn't grow with the number of idle sessions.
+ * <p>
+ * Each session has a timer scheduled at its {@link Session#nextTimeoutInMs()}. A session's timeouts usually move
+ * later as messages are sent and received, so its timer is only rescheduled when the timeout moves earlier and
+ * otherwise fires early and gets rescheduled after the session is polled.
+ */
+public class SessionTimers implements DeadlineTimerWheel.TimerHandler
+{
+    static final long NO_TIMER = -1;
+
+    // Marks sessions that have expired and are due to be polled, so don't need rescheduling.
+    private static final long EXPIRED = Long.MIN_VALUE;
+
+    private static final int TICK_RESOLUTION_IN_MS = 8;
+    private static final int TICKS_PER_WHEEL = 512;
+
+    private final Long2ObjectHashMap<Session> timerIdToSession = new Long2ObjectHashMap<>();
+    private final ArrayList<Session> expiredSessions = new ArrayList<>();
+    private final DeadlineTimerWheel timerWheel;
+
+    public SessionTimers(final long startTimeInMs)
+    {
+        timerWheel = new DeadlineTimerWheel(MILLISECONDS, startTimeInMs, TICK_RESOLUTION_IN_MS, TICKS_PER_WHEEL);
+    }
+
+    public void add(final Session session)
+    {
+        session.timers(this);
+        schedule(session, session.nextTimeoutInMs());
+    }
+
+    public void remove(final Session session)
+    {
+        if (session.timers() == this)
+        {
+            cancel(session);
+            session.timers(null);
+        }
+    }
+
+    /**
+     * Poll the sessions whose timeouts have been reached.
+     *
+     * @param timeInMs the current time.
+     * @return the number of actions performed by the sessions.
+     */
+    public int poll(final long timeInMs)
+    {
+        final DeadlineTimerWheel timerWheel = this.timerWheel;
+
+        // The wheel advances at most a tick per poll, so keep polling until it has caught up with the time.
+        long tickTimeInMs;
+        do
+        {
+            tickTimeInMs = timerWheel.currentTickTime();
+            timerWheel.poll(timeInMs, this, Integer.MAX_VALUE);
+        }
+        while (tickTimeInMs <= timeInMs);
+
+        final ArrayList<Session> expiredSessions = this.expiredSessions;
+        int total = 0;
+        for (int i = 0, size = expiredSessions.size(); i < size; i++)
+        {
+            final Session session = expiredSessions.get(i);
+            // Sessions can be removed by polling another session
+            if (session.timers() == this)
+            {
+                total += session.poll(timeInMs);
+                schedule(session, session.nextTimeoutInMs());
+            }
+        }
+        expiredSessions.clear();
+
+        return total;
+    }
+
+    public boolean onTimerExpiry(final TimeUnit timeUnit, final long now, final long timerId)
+    {
+        final Session session = timerIdToSession.remove(timerId);
+        session.timer(NO_TIMER, EXPIRED);
+        expiredSessions.add(session);
+
+        return true;
+    }
+
+    void onTimeoutChanged(final Session session)
+    {
+        final long timeoutInMs = session.nextTimeoutInMs();
+        if (timeoutInMs < session.timerDeadlineInMs())
+        {
+            schedule(session, timeoutInMs);
+        }
+    }
+
+    private void schedule(final Session session, final long timeoutInMs)
+    {
+        cancel(session);
+
+        if (timeoutInMs != NO_TIMEOUT)
+        {
+            final long timerId = timerWheel.scheduleTimer(timeoutInMs);
+            timerIdToSession.put(timerId, session);
+            session.timer(timerId, timeoutInMs);
+        }
+    }
+
+    private void cancel(final Session session)
+    {
+        final long timerId = session.timerId();
+        if (timerId != NO_TIMER)
+        {
+            timerWheel.cancelTimer(timerId);
+            timerIdToSession.remove(timerId);
+        }
+
+        session.timer(NO_TIMER, NO_TIMEOUT);
+    }
+}
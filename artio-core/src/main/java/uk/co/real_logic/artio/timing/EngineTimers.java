@@ -24,13 +24,19 @@ public class EngineTimers
 {
     private final Timer outboundTimer;
     private final Timer sendTimer;
+    private final Timer inboundTimer;
+    private final Timer sessionSendTimer;
+    private final Timer outboundEndToEndTimer;
     private final List<Timer> timers;
 
     public EngineTimers(final Clock clock)
     {
         outboundTimer = new Timer(clock, "Outbound", 1);
         sendTimer = new Timer(clock, "Send", 2);
-        timers = Arrays.asList(outboundTimer, sendTimer);
+        inboundTimer = new Timer(clock, "Inbound", 3);
+        sessionSendTimer = new Timer(clock, "Session Send", 4);
+        outboundEndToEndTimer = new Timer(clock, "Outbound End To End", 5);
+        timers = Arrays.asList(outboundTimer, sendTimer, inboundTimer, sessionSendTimer, outboundEndToEndTimer);
     }
 
     public Timer outboundTimer()
@@ -43,6 +49,37 @@ public class EngineTimers
         return sendTimer;
     }
 
+    /**
+     * Times from a message being read from a TCP connection to it being committed to the inbound publication.
+     *
+     * @return the inbound timer.
+     */
+    public Timer inboundTimer()
+    {
+        return inboundTimer;
+    }
+
+    /**
+     * Times from a message being passed to <code>Session.send()</code> to it being committed to the outbound
+     * publication, using the timestamps carried in the message's frame.
+     *
+     * @return the session send timer.
+     */
+    public Timer sessionSendTimer()
+    {
+        return sessionSendTimer;
+    }
+
+    /**
+     * Times from a message being passed to <code>Session.send()</code> to it being written to its TCP connection.
+     *
+     * @return the outbound end to end timer.
+     */
+    public Timer outboundEndToEndTimer()
+    {
+        return outboundEndToEndTimer;
+    }
+
     public List<Timer> all()
     {
         return timers;
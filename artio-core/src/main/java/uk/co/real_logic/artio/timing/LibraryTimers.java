@@ -24,13 +24,15 @@ public class LibraryTimers
 {
     private final Timer sessionTimer;
     private final Timer receiveTimer;
+    private final Timer inboundEndToEndTimer;
     private final List<Timer> timers;
 
     public LibraryTimers(final Clock clock)
     {
         sessionTimer = new Timer(clock, "Session", -1);
         receiveTimer = new Timer(clock, "Receive", -2);
-        timers = Arrays.asList(sessionTimer, receiveTimer);
+        inboundEndToEndTimer = new Timer(clock, "Inbound End To End", -3);
+        timers = Arrays.asList(sessionTimer, receiveTimer, inboundEndToEndTimer);
     }
 
     public Timer sessionTimer()
@@ -43,6 +45,17 @@ public class LibraryTimers
         return receiveTimer;
     }
 
+    /**
+     * Times from a message being read from its TCP connection by the engine to it being dispatched to its session
+     * in the library.
+     *
+     * @return the inbound end to end timer.
+     */
+    public Timer inboundEndToEndTimer()
+    {
+        return inboundEndToEndTimer;
+    }
+
     public List<Timer> all()
     {
         return timers;
@@ -54,6 +54,21 @@ public class Timer
         return 0;
     }
 
+    /**
+     * Record the time between two timestamps that have already been taken, for example when both ends of a stage
+     * have been carried within a message.
+     *
+     * @param startTimestamp the time at the start of the stage.
+     * @param endTimestamp the time at the end of the stage.
+     */
+    public void recordInterval(final long startTimestamp, final long endTimestamp)
+    {
+        if (TIME_MESSAGES)
+        {
+            recordValue(endTimestamp - startTimestamp);
+        }
+    }
+
     void recordValue(final long duration)
     {
         recorder.recordValue(duration);
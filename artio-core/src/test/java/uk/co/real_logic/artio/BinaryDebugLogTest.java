@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static uk.co.real_logic.artio.BinaryDebugLog.NO_VALUE;
+import static uk.co.real_logic.artio.LogTag.FIX_MESSAGE;
+import static uk.co.real_logic.artio.LogTag.FIX_MESSAGE_TCP;
+
+public class BinaryDebugLogTest
+{
+    private static final int RING_BUFFER_LENGTH = 64 * 1024;
+    private static final String MESSAGE = "8=FIX.4.4\0019=5\00135=0\00110=000\001";
+
+    private final File file = new File(IoUtil.tmpDirName(), "binary-debug-log-test");
+    private final List<String> records = new ArrayList<>();
+    private final BinaryDebugLog.RecordHandler handler =
+        (tag, timestampInMs, threadId, value, label, buffer, offset, length) ->
+        records.add(tag + "|" + value + "|" + label + "|" + buffer.getStringWithoutLengthAscii(offset, length));
+
+    private BinaryDebugLog log;
+
+    @Before
+    public void setUp()
+    {
+        IoUtil.deleteIfExists(file);
+        log = BinaryDebugLog.map(file, RING_BUFFER_LENGTH, EnumSet.of(FIX_MESSAGE_TCP));
+    }
+
+    @After
+    public void tearDown()
+    {
+        log.close();
+        IoUtil.deleteIfExists(file);
+    }
+
+    @Test
+    public void shouldRecordTagLabelValueAndData()
+    {
+        final UnsafeBuffer buffer = new UnsafeBuffer(MESSAGE.getBytes(US_ASCII));
+
+        log.log(FIX_MESSAGE_TCP, "Read     %s%n", NO_VALUE, buffer, 0, buffer.capacity());
+        log.log(FIX_MESSAGE, "(%d) Received %s %n", 3, buffer, 2, 7);
+
+        assertEquals(2, log.read(handler, 10));
+        assertEquals(FIX_MESSAGE_TCP + "|" + NO_VALUE + "|Read     %s%n|" + MESSAGE, records.get(0));
+        assertEquals(FIX_MESSAGE + "|3|(%d) Received %s %n|FIX.4.4", records.get(1));
+        assertEquals(0, log.read(handler, 10));
+    }
+
+    @Test
+    public void shouldRecordDataFromByteBuffer()
+    {
+        final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(128);
+        byteBuffer.put(MESSAGE.getBytes(US_ASCII));
+
+        log.log(FIX_MESSAGE_TCP, "Written  %s%n", NO_VALUE, byteBuffer, 0, MESSAGE.length());
+
+        assertEquals(1, log.read(handler, 10));
+        assertEquals(FIX_MESSAGE_TCP + "|" + NO_VALUE + "|Written  %s%n|" + MESSAGE, records.get(0));
+        assertEquals(MESSAGE.length(), byteBuffer.position());
+    }
+
+    @Test
+    public void shouldSwitchTagsAtRuntime()
+    {
+        assertTrue(log.isEnabled(FIX_MESSAGE_TCP));
+        assertFalse(log.isEnabled(FIX_MESSAGE));
+
+        log.enable(FIX_MESSAGE);
+        log.disable(FIX_MESSAGE_TCP);
+
+        assertTrue(log.isEnabled(FIX_MESSAGE));
+        assertFalse(log.isEnabled(FIX_MESSAGE_TCP));
+    }
+
+    @Test
+    public void shouldKeepSwitchedTagsWhenRemapped()
+    {
+        log.enable(FIX_MESSAGE);
+        log.close();
+
+        log = BinaryDebugLog.map(file, RING_BUFFER_LENGTH, EnumSet.noneOf(LogTag.class));
+
+        assertTrue(log.isEnabled(FIX_MESSAGE));
+        assertTrue(log.isEnabled(FIX_MESSAGE_TCP));
+    }
+
+    @Test
+    public void shouldCountDroppedRecordsWhenFull()
+    {
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[1024]);
+        final int recordsToFill = RING_BUFFER_LENGTH / buffer.capacity();
+
+        for (int i = 0; i < recordsToFill; i++)
+        {
+            log.log(FIX_MESSAGE_TCP, "Read     %s%n", NO_VALUE, buffer, 0, buffer.capacity());
+        }
+
+        assertTrue(log.droppedRecords() > 0);
+        assertEquals(recordsToFill - log.droppedRecords(), log.read(handler, recordsToFill));
+    }
+}
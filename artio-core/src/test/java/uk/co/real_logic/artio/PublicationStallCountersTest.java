@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+public class PublicationStallCountersTest
+{
+    private final AtomicCounter[] buckets = new AtomicCounter[PublicationStallCounters.bucketCount()];
+    private final AtomicCounter totalStallTimeInNs = mock(AtomicCounter.class);
+    private final PublicationStallCounters stallCounters;
+
+    public PublicationStallCountersTest()
+    {
+        for (int i = 0; i < buckets.length; i++)
+        {
+            buckets[i] = mock(AtomicCounter.class);
+        }
+        stallCounters = new PublicationStallCounters(buckets, totalStallTimeInNs);
+    }
+
+    @Test
+    public void shouldCountZeroLengthStallInFirstBucket()
+    {
+        assertStallCountedIn(0, 0);
+    }
+
+    @Test
+    public void shouldCountStallsOnUpperBoundInThatBucket()
+    {
+        assertStallCountedIn(1_000, 0);
+        assertStallCountedIn(10_000, 1);
+        assertStallCountedIn(100_000, 2);
+        assertStallCountedIn(1_000_000, 3);
+        assertStallCountedIn(10_000_000, 4);
+    }
+
+    @Test
+    public void shouldCountStallsJustOverUpperBoundInNextBucket()
+    {
+        assertStallCountedIn(1_001, 1);
+        assertStallCountedIn(10_001, 2);
+        assertStallCountedIn(100_001, 3);
+        assertStallCountedIn(1_000_001, 4);
+        assertStallCountedIn(10_000_001, 5);
+    }
+
+    @Test
+    public void shouldCountLongStallsInLastBucket()
+    {
+        assertStallCountedIn(60_000_000_000L, 5);
+    }
+
+    private void assertStallCountedIn(final long durationInNs, final int bucket)
+    {
+        stallCounters.onStall(durationInNs);
+
+        verify(totalStallTimeInNs).getAndAddOrdered(durationInNs);
+        verify(buckets[bucket]).incrementOrdered();
+        verifyNoMoreInteractions(totalStallTimeInNs);
+        verifyNoMoreInteractions((Object[])buckets);
+    }
+}
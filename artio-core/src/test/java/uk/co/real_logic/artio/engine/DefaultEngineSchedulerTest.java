@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.BusySpinIdleStrategy;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.co.real_logic.artio.Timing.assertEventuallyTrue;
+
+public class DefaultEngineSchedulerTest
+{
+    private final ThreadRecordingAgent framer = new ThreadRecordingAgent("framer");
+    private final ThreadRecordingAgent archivingAgent = new ThreadRecordingAgent("archiving");
+    private final ThreadRecordingAgent replayAgent = new ThreadRecordingAgent("replay");
+    private final EngineConfiguration configuration = mock(EngineConfiguration.class);
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+    private final RecordingCoordinator recordingCoordinator = mock(RecordingCoordinator.class);
+
+    @Before
+    public void setUp()
+    {
+        when(configuration.framerIdleStrategy()).thenReturn(new BusySpinIdleStrategy());
+        when(configuration.archiverIdleStrategy()).thenReturn(new BusySpinIdleStrategy());
+        when(configuration.replayerIdleStrategy()).thenReturn(new BusySpinIdleStrategy());
+        when(configuration.threadFactory()).thenReturn(Thread::new);
+    }
+
+    @Test
+    public void shouldRunReplayAgentOnItsOwnThread()
+    {
+        try (EngineScheduler scheduler = new DefaultEngineScheduler())
+        {
+            scheduler.launch(
+                configuration,
+                errorHandler,
+                framer,
+                archivingAgent,
+                replayAgent,
+                null,
+                null,
+                recordingCoordinator);
+
+            assertEventuallyTrue(
+                "Failed to invoke agents",
+                () -> framer.hasRun() && archivingAgent.hasRun() && replayAgent.hasRun());
+
+            assertNotSame(archivingAgent.thread(), replayAgent.thread());
+            assertNotSame(framer.thread(), replayAgent.thread());
+        }
+
+        assertTrue(replayAgent.isClosed());
+    }
+
+    @Test
+    public void shouldRunWithoutReplayAgent()
+    {
+        try (EngineScheduler scheduler = new DefaultEngineScheduler())
+        {
+            scheduler.launch(
+                configuration,
+                errorHandler,
+                framer,
+                archivingAgent,
+                null,
+                null,
+                recordingCoordinator);
+
+            assertEventuallyTrue(
+                "Failed to invoke agents",
+                () -> framer.hasRun() && archivingAgent.hasRun());
+        }
+
+        assertNull(replayAgent.thread());
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class DutyCycleTrackingAgentTest
+{
+    private static final long SLEEP_IN_MS = 1;
+
+    private final Agent delegate = mock(Agent.class);
+    private final AtomicCounter workingTimeInNs = mock(AtomicCounter.class);
+    private final AtomicCounter idleTimeInNs = mock(AtomicCounter.class);
+    private final DutyCycleTrackingAgent agent = new DutyCycleTrackingAgent(delegate, workingTimeInNs, idleTimeInNs);
+
+    @Test
+    public void shouldCountDutyCycleThatDidWorkAsWorking() throws Exception
+    {
+        delegateSleepsAndReturns(1);
+
+        agent.onStart();
+        assertEquals(1, agent.doWork());
+        assertEquals(1, agent.doWork());
+
+        // The time before the first duty cycle is idle, the first duty cycle itself did work.
+        verify(idleTimeInNs, times(1)).getAndAddOrdered(anyLong());
+        assertThat(lastTimeAddedTo(workingTimeInNs, 1), greaterThanOrEqualTo(MILLISECONDS.toNanos(SLEEP_IN_MS)));
+    }
+
+    @Test
+    public void shouldCountDutyCycleWithoutWorkAsIdle() throws Exception
+    {
+        delegateSleepsAndReturns(0);
+
+        agent.onStart();
+        assertEquals(0, agent.doWork());
+        assertEquals(0, agent.doWork());
+
+        verify(workingTimeInNs, never()).getAndAddOrdered(anyLong());
+        assertThat(lastTimeAddedTo(idleTimeInNs, 2), greaterThanOrEqualTo(MILLISECONDS.toNanos(SLEEP_IN_MS)));
+    }
+
+    @Test
+    public void shouldAttributeEachDutyCycleByWhetherItDidWork() throws Exception
+    {
+        when(delegate.doWork()).thenReturn(0, 2, 0);
+
+        agent.onStart();
+        agent.doWork();
+        agent.doWork();
+        agent.doWork();
+        agent.doWork();
+
+        // Time before the first cycle, then the first and third cycles, were idle. The second cycle did work.
+        verify(idleTimeInNs, times(3)).getAndAddOrdered(anyLong());
+        verify(workingTimeInNs, times(1)).getAndAddOrdered(anyLong());
+    }
+
+    @Test
+    public void shouldDelegateLifecycle()
+    {
+        when(delegate.roleName()).thenReturn("delegate");
+
+        agent.onStart();
+        agent.onClose();
+
+        verify(delegate).onStart();
+        verify(delegate).onClose();
+        assertEquals("delegate", agent.roleName());
+    }
+
+    private void delegateSleepsAndReturns(final int workCount) throws Exception
+    {
+        when(delegate.doWork()).then((inv) ->
+        {
+            Thread.sleep(SLEEP_IN_MS);
+            return workCount;
+        });
+    }
+
+    private long lastTimeAddedTo(final AtomicCounter counter, final int expectedAdds)
+    {
+        final ArgumentCaptor<Long> timeCaptor = ArgumentCaptor.forClass(Long.class);
+        verify(counter, times(expectedAdds)).getAndAddOrdered(timeCaptor.capture());
+        return timeCaptor.getValue();
+    }
+}
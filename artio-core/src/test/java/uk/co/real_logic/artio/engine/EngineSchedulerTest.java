@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import io.aeron.Aeron;
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.Agent;
+import org.junit.Test;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class EngineSchedulerTest
+{
+    private final ThreadRecordingAgent framer = new ThreadRecordingAgent("framer");
+    private final ThreadRecordingAgent indexingAgent = new ThreadRecordingAgent("indexing");
+    private final ThreadRecordingAgent replayAgent = new ThreadRecordingAgent("replay");
+    private final EngineConfiguration configuration = mock(EngineConfiguration.class);
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+    private final RecordingCoordinator recordingCoordinator = mock(RecordingCoordinator.class);
+    private final ArchivingAgentCapturingScheduler scheduler = new ArchivingAgentCapturingScheduler();
+
+    @Test
+    public void shouldRunReplayAgentWithinArchivingAgentByDefault() throws Exception
+    {
+        scheduler.launch(
+            configuration,
+            errorHandler,
+            framer,
+            indexingAgent,
+            replayAgent,
+            null,
+            null,
+            recordingCoordinator);
+
+        final Agent archivingAgent = scheduler.archivingAgent;
+        archivingAgent.doWork();
+
+        assertSame(Thread.currentThread(), indexingAgent.thread());
+        assertSame(Thread.currentThread(), replayAgent.thread());
+
+        archivingAgent.onClose();
+
+        assertTrue(indexingAgent.isClosed());
+        assertTrue(replayAgent.isClosed());
+    }
+
+    @Test
+    public void shouldPassIndexingAgentThroughWithoutReplayAgent()
+    {
+        scheduler.launch(
+            configuration,
+            errorHandler,
+            framer,
+            indexingAgent,
+            null,
+            null,
+            null,
+            recordingCoordinator);
+
+        assertSame(indexingAgent, scheduler.archivingAgent);
+    }
+
+    /**
+     * Only implements the original launch method, as schedulers written before the dedicated replay agent do.
+     */
+    static class ArchivingAgentCapturingScheduler implements EngineScheduler
+    {
+        private Agent archivingAgent;
+
+        public void launch(
+            final EngineConfiguration configuration,
+            final ErrorHandler errorHandler,
+            final Agent framer,
+            final Agent indexingAgent,
+            final Agent monitoringAgent,
+            final Agent conductorAgent,
+            final RecordingCoordinator recordingCoordinator)
+        {
+            this.archivingAgent = indexingAgent;
+        }
+
+        public void close()
+        {
+        }
+
+        public void configure(final Aeron.Context aeronContext)
+        {
+        }
+    }
+}
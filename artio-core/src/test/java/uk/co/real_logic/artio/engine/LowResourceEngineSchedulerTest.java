@@ -22,6 +22,8 @@ import org.junit.Test;
 
 import java.io.IOException;
 
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.Timing.assertEventuallyTrue;
 
@@ -49,6 +51,7 @@ public class LowResourceEngineSchedulerTest
                 mockErrorHandler,
                 framer,
                 archivingAgent,
+                null,
                 monitoringAgent,
                 conductorAgent,
                 recordingCoordinator);
@@ -59,4 +62,35 @@ public class LowResourceEngineSchedulerTest
             );
         }
     }
+
+    @Test
+    public void shouldRunReplayAgentAlongsideOtherAgents()
+    {
+        when(configuration.framerIdleStrategy()).thenReturn(new BusySpinIdleStrategy());
+        when(configuration.threadFactory()).thenReturn(Thread::new);
+
+        final ThreadRecordingAgent archivingAgent = new ThreadRecordingAgent("archiving");
+        final ThreadRecordingAgent replayAgent = new ThreadRecordingAgent("replay");
+
+        try (EngineScheduler scheduler = new LowResourceEngineScheduler())
+        {
+            scheduler.launch(
+                configuration,
+                mockErrorHandler,
+                framer,
+                archivingAgent,
+                replayAgent,
+                monitoringAgent,
+                conductorAgent,
+                recordingCoordinator);
+
+            assertEventuallyTrue(
+                "Failed to invoke replay agent",
+                () -> archivingAgent.hasRun() && replayAgent.hasRun());
+
+            assertSame(archivingAgent.thread(), replayAgent.thread());
+        }
+
+        assertTrue(replayAgent.isClosed());
+    }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import org.agrona.concurrent.Agent;
+
+/**
+ * Records the thread that it was last invoked on, so that tests can check how a scheduler allocates agents.
+ */
+class ThreadRecordingAgent implements Agent
+{
+    private final String roleName;
+
+    private volatile Thread thread;
+    private volatile boolean closed;
+
+    ThreadRecordingAgent(final String roleName)
+    {
+        this.roleName = roleName;
+    }
+
+    public int doWork()
+    {
+        thread = Thread.currentThread();
+        return 0;
+    }
+
+    public void onClose()
+    {
+        closed = true;
+    }
+
+    public String roleName()
+    {
+        return roleName;
+    }
+
+    boolean hasRun()
+    {
+        return thread != null;
+    }
+
+    Thread thread()
+    {
+        return thread;
+    }
+
+    boolean isClosed()
+    {
+        return closed;
+    }
+}
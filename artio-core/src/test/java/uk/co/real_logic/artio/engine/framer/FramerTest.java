@@ -23,6 +23,7 @@ import org.agrona.ErrorHandler;
 import org.agrona.LangUtil;
 import org.agrona.concurrent.AgentInvoker;
 import org.agrona.concurrent.QueuedPipe;
+import org.agrona.concurrent.status.AtomicCounter;
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
 import org.junit.After;
@@ -167,8 +168,15 @@ public class FramerTest
             mockClock,
             mock(Timer.class),
             mock(Timer.class),
+            mock(Timer.class),
             engineConfiguration,
             mockEndPointFactory,
+            new ReceiverEndPoints(
+                engineConfiguration.adaptiveReceiverPolling(),
+                engineConfiguration.receiverPollingWindowInMs(),
+                engineConfiguration.busyPollReadThreshold(),
+                mock(AtomicCounter.class),
+                mock(AtomicCounter.class)),
             outboundLibrarySubscription,
             outboundSlowSubscription,
             replayImage,
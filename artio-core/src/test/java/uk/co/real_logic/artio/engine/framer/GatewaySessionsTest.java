@@ -0,0 +1,206 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.EpochClock;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.FixCounters;
+import uk.co.real_logic.artio.engine.logger.SequenceNumberIndexReader;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.session.SessionCustomisationStrategy;
+import uk.co.real_logic.artio.session.SessionIdStrategy;
+import uk.co.real_logic.artio.validation.AuthenticationStrategy;
+import uk.co.real_logic.artio.validation.MessageValidationStrategy;
+import uk.co.real_logic.artio.validation.SessionPersistenceStrategy;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.co.real_logic.artio.messages.ConnectionType.ACCEPTOR;
+import static uk.co.real_logic.artio.messages.SessionState.ACTIVE;
+import static uk.co.real_logic.artio.session.Session.UNKNOWN;
+
+public class GatewaySessionsTest
+{
+    private static final long SESSION_ID = 1;
+    private static final long OTHER_SESSION_ID = 2;
+    private static final long CONNECTION_ID = 10;
+    private static final long OTHER_CONNECTION_ID = 11;
+    private static final long RECONNECTION_ID = 12;
+
+    private final FixCounters fixCounters = mock(FixCounters.class);
+
+    private GatewaySessions gatewaySessions;
+
+    @Before
+    public void setUp()
+    {
+        when(fixCounters.receivedMsgSeqNo(anyLong())).thenReturn(mock(AtomicCounter.class));
+        when(fixCounters.sentMsgSeqNo(anyLong())).thenReturn(mock(AtomicCounter.class));
+
+        gatewaySessions = new GatewaySessions(
+            mock(EpochClock.class),
+            mock(GatewayPublication.class),
+            mock(SessionIdStrategy.class),
+            mock(SessionCustomisationStrategy.class),
+            fixCounters,
+            mock(AuthenticationStrategy.class),
+            mock(MessageValidationStrategy.class),
+            1024,
+            0,
+            0,
+            false,
+            mock(ErrorHandler.class),
+            mock(SessionContexts.class),
+            mock(SessionPersistenceStrategy.class),
+            mock(SequenceNumberIndexReader.class),
+            mock(SequenceNumberIndexReader.class));
+    }
+
+    @Test
+    public void shouldLookupSessionsBySessionId()
+    {
+        final GatewaySession session = acquire(CONNECTION_ID, SESSION_ID);
+        final GatewaySession otherSession = acquire(OTHER_CONNECTION_ID, OTHER_SESSION_ID);
+
+        assertSame(session, gatewaySessions.sessionById(SESSION_ID));
+        assertSame(otherSession, gatewaySessions.sessionById(OTHER_SESSION_ID));
+        assertThat(gatewaySessions.sessions(), contains(session, otherSession));
+    }
+
+    @Test
+    public void shouldNotIndexSessionsBeforeLogon()
+    {
+        final GatewaySession session = acquire(CONNECTION_ID, UNKNOWN);
+
+        assertNull(gatewaySessions.sessionById(UNKNOWN));
+        assertThat(gatewaySessions.sessions(), contains(session));
+    }
+
+    @Test
+    public void shouldReleaseSessionByConnectionId()
+    {
+        final GatewaySession session = acquire(CONNECTION_ID, SESSION_ID);
+        final GatewaySession otherSession = acquire(OTHER_CONNECTION_ID, OTHER_SESSION_ID);
+
+        gatewaySessions.releaseByConnectionId(CONNECTION_ID);
+
+        assertNull(gatewaySessions.sessionById(SESSION_ID));
+        assertSame(otherSession, gatewaySessions.sessionById(OTHER_SESSION_ID));
+        assertThat(gatewaySessions.sessions(), contains(otherSession));
+
+        gatewaySessions.releaseByConnectionId(CONNECTION_ID);
+        assertThat(gatewaySessions.sessions(), contains(otherSession));
+        assertNull(gatewaySessions.releaseBySessionId(session.sessionId()));
+    }
+
+    @Test
+    public void shouldReleaseSessionBySessionId()
+    {
+        final GatewaySession session = acquire(CONNECTION_ID, SESSION_ID);
+        final GatewaySession otherSession = acquire(OTHER_CONNECTION_ID, OTHER_SESSION_ID);
+
+        assertSame(session, gatewaySessions.releaseBySessionId(SESSION_ID));
+
+        assertNull(gatewaySessions.sessionById(SESSION_ID));
+        assertNull(gatewaySessions.releaseBySessionId(SESSION_ID));
+        assertThat(gatewaySessions.sessions(), contains(otherSession));
+
+        // The connection id index entry has gone as well
+        gatewaySessions.releaseByConnectionId(CONNECTION_ID);
+        assertThat(gatewaySessions.sessions(), contains(otherSession));
+    }
+
+    @Test
+    public void shouldKeepSecondLogonIndexedWhenFirstConnectionReleased()
+    {
+        acquire(CONNECTION_ID, SESSION_ID);
+        final GatewaySession reconnectedSession = acquire(RECONNECTION_ID, SESSION_ID);
+
+        assertSame(reconnectedSession, gatewaySessions.sessionById(SESSION_ID));
+
+        gatewaySessions.releaseByConnectionId(CONNECTION_ID);
+
+        assertSame(reconnectedSession, gatewaySessions.sessionById(SESSION_ID));
+        assertThat(gatewaySessions.sessions(), contains(reconnectedSession));
+
+        gatewaySessions.releaseByConnectionId(RECONNECTION_ID);
+
+        assertNull(gatewaySessions.sessionById(SESSION_ID));
+        assertThat(gatewaySessions.sessions(), empty());
+    }
+
+    @Test
+    public void shouldRemoveSessionsFromAnyPositionInTheList()
+    {
+        final GatewaySession first = acquire(CONNECTION_ID, SESSION_ID);
+        final GatewaySession second = acquire(OTHER_CONNECTION_ID, OTHER_SESSION_ID);
+        final GatewaySession third = acquire(RECONNECTION_ID, 3);
+
+        gatewaySessions.releaseByConnectionId(CONNECTION_ID);
+        assertThat(gatewaySessions.sessions(), containsInAnyOrder(second, third));
+
+        // The session that has been moved in the list can still be removed
+        gatewaySessions.releaseByConnectionId(RECONNECTION_ID);
+        assertThat(gatewaySessions.sessions(), contains(second));
+
+        assertSame(second, gatewaySessions.releaseBySessionId(OTHER_SESSION_ID));
+        assertThat(gatewaySessions.sessions(), empty());
+        assertNull(gatewaySessions.sessionById(first.sessionId()));
+    }
+
+    private GatewaySession acquire(final long connectionId, final long sessionId)
+    {
+        final SessionContext context = mock(SessionContext.class);
+        when(context.sessionId()).thenReturn(sessionId);
+
+        final GatewaySession gatewaySession = new GatewaySession(
+            connectionId,
+            context,
+            "localhost",
+            ACCEPTOR,
+            null,
+            mock(ReceiverEndPoint.class),
+            mock(SenderEndPoint.class),
+            null,
+            false,
+            0,
+            false,
+            false);
+
+        gatewaySessions.acquire(
+            gatewaySession,
+            ACTIVE,
+            false,
+            10,
+            0,
+            0,
+            null,
+            null,
+            mock(BlockablePosition.class));
+
+        return gatewaySession;
+    }
+}
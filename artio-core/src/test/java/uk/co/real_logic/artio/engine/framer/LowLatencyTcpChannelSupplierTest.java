@@ -0,0 +1,155 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.engine.framer.LowLatencyTcpChannelSupplier.QuickAckTcpChannel;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketOption;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+public class LowLatencyTcpChannelSupplierTest
+{
+    private static final long QUICK_ACK_INTERVAL_IN_NS = 1_000;
+    private static final SocketOption<Boolean> QUICK_ACK_OPTION = new SocketOption<Boolean>()
+    {
+        public String name()
+        {
+            return "TCP_QUICKACK";
+        }
+
+        public Class<Boolean> type()
+        {
+            return Boolean.class;
+        }
+    };
+
+    private final SocketChannel socketChannel = mock(SocketChannel.class);
+    private final ByteBuffer buffer = ByteBuffer.allocate(64);
+
+    private long timeInNs = 0;
+    private LowLatencyTcpChannelSupplier supplier;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        when(socketChannel.getRemoteAddress()).thenReturn(new InetSocketAddress("localhost", 9999));
+        when(socketChannel.supportedOptions()).thenReturn(Collections.<SocketOption<?>>singleton(QUICK_ACK_OPTION));
+    }
+
+    @After
+    public void tearDown()
+    {
+        if (supplier != null)
+        {
+            supplier.close();
+        }
+    }
+
+    @Test
+    public void shouldEnableQuickAckOnNewChannels() throws IOException
+    {
+        final TcpChannel channel = newTcpChannel(QUICK_ACK_OPTION);
+
+        assertThat(channel, instanceOf(QuickAckTcpChannel.class));
+        verify(socketChannel).setOption(QUICK_ACK_OPTION, true);
+    }
+
+    @Test
+    public void shouldFallBackToPlainChannelWhenQuickAckOptionIsMissing() throws IOException
+    {
+        // Older JDKs don't have jdk.net.ExtendedSocketOptions.TCP_QUICKACK
+        final TcpChannel channel = newTcpChannel(null);
+
+        assertThat(channel, not(instanceOf(QuickAckTcpChannel.class)));
+        verify(socketChannel, never()).setOption(any(), anyBoolean());
+    }
+
+    @Test
+    public void shouldFallBackToPlainChannelWhenQuickAckIsNotSupportedBySocket() throws IOException
+    {
+        when(socketChannel.supportedOptions()).thenReturn(Collections.emptySet());
+
+        final TcpChannel channel = newTcpChannel(QUICK_ACK_OPTION);
+
+        assertThat(channel, not(instanceOf(QuickAckTcpChannel.class)));
+        verify(socketChannel, never()).setOption(any(), anyBoolean());
+    }
+
+    @Test
+    public void shouldNotReenableQuickAckWithinInterval() throws IOException
+    {
+        final TcpChannel channel = newTcpChannel(QUICK_ACK_OPTION);
+        when(socketChannel.read(buffer)).thenReturn(10);
+
+        channel.read(buffer);
+        timeInNs += QUICK_ACK_INTERVAL_IN_NS - 1;
+        channel.read(buffer);
+
+        verify(socketChannel, times(1)).setOption(QUICK_ACK_OPTION, true);
+    }
+
+    @Test
+    public void shouldReenableQuickAckOncePerInterval() throws IOException
+    {
+        final TcpChannel channel = newTcpChannel(QUICK_ACK_OPTION);
+        when(socketChannel.read(buffer)).thenReturn(10);
+
+        timeInNs += QUICK_ACK_INTERVAL_IN_NS;
+        channel.read(buffer);
+        channel.read(buffer);
+        verify(socketChannel, times(2)).setOption(QUICK_ACK_OPTION, true);
+
+        timeInNs += QUICK_ACK_INTERVAL_IN_NS;
+        channel.read(buffer);
+        verify(socketChannel, times(3)).setOption(QUICK_ACK_OPTION, true);
+    }
+
+    @Test
+    public void shouldNotReenableQuickAckWhenNoDataIsRead() throws IOException
+    {
+        final TcpChannel channel = newTcpChannel(QUICK_ACK_OPTION);
+        when(socketChannel.read(buffer)).thenReturn(0, -1);
+
+        timeInNs += QUICK_ACK_INTERVAL_IN_NS;
+        channel.read(buffer);
+        channel.read(buffer);
+
+        verify(socketChannel, times(1)).setOption(QUICK_ACK_OPTION, true);
+    }
+
+    private TcpChannel newTcpChannel(final SocketOption<Boolean> quickAckOption) throws IOException
+    {
+        supplier = new LowLatencyTcpChannelSupplier(
+            mock(EngineConfiguration.class), quickAckOption, QUICK_ACK_INTERVAL_IN_NS, () -> timeInNs);
+
+        return supplier.newTcpChannel(socketChannel);
+    }
+}
@@ -33,6 +33,7 @@ import uk.co.real_logic.artio.protocol.GatewayPublication;
 import uk.co.real_logic.artio.session.CompositeKey;
 import uk.co.real_logic.artio.session.InternalSession;
 import uk.co.real_logic.artio.session.SessionIdStrategy;
+import uk.co.real_logic.artio.timing.Timer;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -40,6 +41,7 @@ import java.nio.channels.ClosedChannelException;
 import java.util.function.ToIntFunction;
 
 import static io.aeron.Publication.BACK_PRESSURED;
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.mockito.Mockito.*;
@@ -47,6 +49,7 @@ import static uk.co.real_logic.artio.dictionary.ExampleDictionary.TAG_SPECIFIED_
 import static uk.co.real_logic.artio.messages.DisconnectReason.DUPLICATE_SESSION;
 import static uk.co.real_logic.artio.messages.DisconnectReason.REMOTE_DISCONNECT;
 import static uk.co.real_logic.artio.messages.MessageStatus.*;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_MSG_SEQ_NUM;
 import static uk.co.real_logic.artio.session.Session.UNKNOWN;
 import static uk.co.real_logic.artio.util.TestMessages.*;
 
@@ -59,6 +62,8 @@ public class ReceiverEndPointTest
     private static final long POSITION = 1024L;
     private static final int BUFFER_SIZE = 16 * 1024;
     private static final int SEQUENCE_INDEX = 0;
+    // 20090323-15:40:29
+    private static final long EG_MESSAGE_SENDING_TIME = 1237822829000L;
     private static final int LOGON_LEN = LOGON_MESSAGE.length;
 
     private final AcceptorLogonResult pendingAuth = createSuccessfulPendingAuth();
@@ -67,6 +72,7 @@ public class ReceiverEndPointTest
     private GatewayPublication publication = mock(GatewayPublication.class);
     private SessionContexts mockSessionContexts = mock(SessionContexts.class);
     private AtomicCounter messagesRead = mock(AtomicCounter.class);
+    private AtomicCounter backPressures = mock(AtomicCounter.class);
     private ErrorHandler errorHandler = mock(ErrorHandler.class);
     private Framer framer = mock(Framer.class);
     private GatewaySession gatewaySession = mock(GatewaySession.class);
@@ -135,8 +141,8 @@ public class ReceiverEndPointTest
         endPoint = new ReceiverEndPoint(
             mockChannel, BUFFER_SIZE, publication,
             CONNECTION_ID, sessionId, SEQUENCE_INDEX, mockSessionContexts,
-            messagesRead, framer, errorHandler, LIBRARY_ID,
-            mockGatewaySessions);
+            messagesRead, backPressures, framer, errorHandler, LIBRARY_ID,
+            mockGatewaySessions, mock(Timer.class));
         endPoint.gatewaySession(gatewaySession);
     }
 
@@ -185,6 +191,94 @@ public class ReceiverEndPointTest
         sessionReceivesOneMessage();
     }
 
+    @Test
+    public void shouldSaveParsedHeaderFieldsOfFramedMessage()
+    {
+        theEndpointReceivesACompleteMessage();
+
+        polls(2 * MSG_LEN);
+
+        verify(publication).saveMessage(
+            anyBuffer(), eq(0), eq(MSG_LEN), eq(LIBRARY_ID),
+            eq(MESSAGE_TYPE), eq(SESSION_ID), eq(SEQUENCE_INDEX), eq(CONNECTION_ID),
+            eq(OK), eq(0), anyLong(), eq(4), eq(EG_MESSAGE_SENDING_TIME), eq(false), eq(false));
+    }
+
+    @Test
+    public void shouldRejectMessageWithMsgSeqNumTooLargeForAnInt()
+    {
+        shouldRejectMessageWithMsgSeqNum("2147483648");
+    }
+
+    @Test
+    public void shouldRejectMessageWithTooManyMsgSeqNumDigits()
+    {
+        shouldRejectMessageWithMsgSeqNum("000000000004");
+    }
+
+    @Test
+    public void shouldParseLargestMsgSeqNum()
+    {
+        final byte[] message = fixMessage("35=D\00134=2147483647\00149=ABC_DEFG01\00156=CCG\00155=CVS\001");
+        theEndpointReceives(message, 0, message.length);
+
+        polls(message.length);
+
+        verify(publication).saveMessage(
+            anyBuffer(), eq(0), eq(message.length), eq(LIBRARY_ID),
+            eq(MESSAGE_TYPE), eq(SESSION_ID), eq(SEQUENCE_INDEX), eq(CONNECTION_ID),
+            eq(OK), eq(0), anyLong(), eq(Integer.MAX_VALUE), anyLong(), eq(false), eq(false));
+    }
+
+    @Test
+    public void shouldParseHeaderFieldsAfterDataFieldsContainingSeparators()
+    {
+        final byte[] message = fixMessage("35=D\00149=ABC_DEFG01\00190=5\00191=a\0013=b\001" +
+            "212=8\001213=<x>\001</x>\00134=4\00152=20090323-15:40:29\00156=CCG\00155=CVS\001");
+        theEndpointReceives(message, 0, message.length);
+
+        polls(message.length);
+
+        verify(publication).saveMessage(
+            anyBuffer(), eq(0), eq(message.length), eq(LIBRARY_ID),
+            eq(MESSAGE_TYPE), eq(SESSION_ID), eq(SEQUENCE_INDEX), eq(CONNECTION_ID),
+            eq(OK), eq(0), anyLong(), eq(4), eq(EG_MESSAGE_SENDING_TIME), eq(false), eq(false));
+    }
+
+    private void shouldRejectMessageWithMsgSeqNum(final String msgSeqNum)
+    {
+        final byte[] message = fixMessage(
+            "35=D\00134=" + msgSeqNum + "\00149=ABC_DEFG01\00156=CCG\00155=CVS\001");
+        theEndpointReceives(message, 0, message.length);
+
+        polls(message.length);
+
+        verify(publication).saveMessage(
+            anyBuffer(), eq(0), eq(message.length), eq(LIBRARY_ID),
+            eq(MESSAGE_TYPE), eq(SESSION_ID), eq(SEQUENCE_INDEX), eq(CONNECTION_ID),
+            eq(INVALID), eq(0), anyLong(), eq(NO_MSG_SEQ_NUM), anyLong(), eq(false), eq(false));
+        sessionReceivesNoMessages();
+    }
+
+    private static byte[] fixMessage(final String body)
+    {
+        final String header = "8=FIX.4.2\0019=" + body.length() + "\001";
+        final byte[] message = (header + body + "10=000\001").getBytes(US_ASCII);
+        final int checksumOffset = message.length - 4;
+
+        int checksum = 0;
+        for (int i = 0; i < checksumOffset - 3; i++)
+        {
+            checksum += message[i];
+        }
+        checksum &= 0xFF;
+
+        message[checksumOffset] = (byte)('0' + checksum / 100);
+        message[checksumOffset + 1] = (byte)('0' + (checksum / 10) % 10);
+        message[checksumOffset + 2] = (byte)('0' + checksum % 10);
+        return message;
+    }
+
     @Test
     public void shouldFrameValidFixMessageWhenBackpressured()
     {
@@ -328,6 +422,48 @@ public class ReceiverEndPointTest
         savesInvalidChecksumMessage(times(2));
     }
 
+    @Test
+    public void shouldCountBackPressuredMessages() throws IOException
+    {
+        firstSaveAttemptIsBackPressured();
+
+        theEndpointReceivesAMessageWithInvalidChecksum();
+
+        endPoint.poll();
+
+        endPoint.poll();
+
+        verify(backPressures, times(1)).incrementOrdered();
+    }
+
+    @Test
+    public void shouldCountRepeatedlyBackPressuredMessageOnce() throws IOException
+    {
+        when(publication
+            .saveMessage(
+                anyBuffer(), anyInt(), anyInt(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(), anyInt(),
+                anyLong(), anyInt(), anyLong(), anyBoolean(), anyBoolean()))
+            .thenReturn(BACK_PRESSURED, BACK_PRESSURED, BACK_PRESSURED, POSITION, BACK_PRESSURED, POSITION);
+
+        theEndpointReceivesACompleteMessage();
+        endPoint.poll();
+        pollWithNoData();
+        pollWithNoData();
+
+        savesFramedMessages(3, OK, MSG_LEN);
+        verify(backPressures, times(1)).incrementOrdered();
+
+        // Saved on this retry
+        pollWithNoData();
+        savesFramedMessages(4, OK, MSG_LEN);
+        verify(backPressures, times(1)).incrementOrdered();
+
+        // A later message is counted separately
+        theEndpointReceivesACompleteMessage();
+        endPoint.poll();
+        verify(backPressures, times(2)).incrementOrdered();
+    }
+
     @Test
     public void fieldOutOfOrderMessageRecordedOnce() throws IOException
     {
@@ -440,7 +576,8 @@ public class ReceiverEndPointTest
     {
         when(publication
             .saveMessage(
-                anyBuffer(), anyInt(), anyInt(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(), anyInt()))
+                anyBuffer(), anyInt(), anyInt(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(), anyInt(),
+                anyLong(), anyInt(), anyLong(), anyBoolean(), anyBoolean()))
             .thenReturn(BACK_PRESSURED, POSITION);
     }
 
@@ -470,7 +607,7 @@ public class ReceiverEndPointTest
         verify(publication, mode).saveMessage(
             anyBuffer(), eq(0), eq(length), eq(LIBRARY_ID),
             anyInt(), anyLong(), anyInt(), eq(CONNECTION_ID),
-            eq(status), eq(0));
+            eq(status), eq(0), anyLong());
     }
 
     private void verifyDisconnected()
@@ -512,7 +649,7 @@ public class ReceiverEndPointTest
         return verify(publication, times(numberOfMessages)).saveMessage(
             anyBuffer(), eq(0), eq(msgLen), eq(LIBRARY_ID),
             eq(messageType), eq(SESSION_ID), eq(SEQUENCE_INDEX), eq(CONNECTION_ID),
-            eq(status), eq(0));
+            eq(status), eq(0), anyLong(), anyInt(), anyLong(), anyBoolean(), anyBoolean());
     }
 
     private void savesTwoFramedMessages(final int firstMessageSaveAttempts)
@@ -528,7 +665,12 @@ public class ReceiverEndPointTest
             eq(SEQUENCE_INDEX),
             eq(CONNECTION_ID),
             eq(OK),
-            eq(0));
+            eq(0),
+            anyLong(),
+            anyInt(),
+            anyLong(),
+            anyBoolean(),
+            anyBoolean());
 
         inOrder.verify(publication, times(1)).saveMessage(
             anyBuffer(),
@@ -540,7 +682,12 @@ public class ReceiverEndPointTest
             eq(SEQUENCE_INDEX),
             eq(CONNECTION_ID),
             eq(OK),
-            eq(0));
+            eq(0),
+            anyLong(),
+            anyInt(),
+            anyLong(),
+            anyBoolean(),
+            anyBoolean());
 
         inOrder.verifyNoMoreInteractions();
     }
@@ -644,7 +791,8 @@ public class ReceiverEndPointTest
             anyInt(),
             eq(CONNECTION_ID),
             eq(INVALID_CHECKSUM),
-            eq(0));
+            eq(0),
+            anyLong());
     }
 
     private void sessionReceivesOneMessage()
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+import static java.nio.channels.SelectionKey.OP_READ;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.co.real_logic.artio.messages.DisconnectReason.REMOTE_DISCONNECT;
+
+public class ReceiverEndPointsTest
+{
+    private static final long POLLING_WINDOW_IN_MS = 10;
+    private static final int BUSY_POLL_READ_THRESHOLD = 3;
+
+    private final AtomicCounter busyPolledEndPointsCounter = mock(AtomicCounter.class);
+    private final AtomicCounter selectedEndPointsCounter = mock(AtomicCounter.class);
+    private final ReceiverEndPoints receiverEndPoints = new ReceiverEndPoints(
+        true, POLLING_WINDOW_IN_MS, BUSY_POLL_READ_THRESHOLD, busyPolledEndPointsCounter, selectedEndPointsCounter);
+
+    private FakeEndPoint busy;
+    private FakeEndPoint idle;
+    private long timeInMs = 0;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        busy = new FakeEndPoint(1);
+        idle = new FakeEndPoint(2);
+
+        receiverEndPoints.add(busy.endPoint);
+        receiverEndPoints.add(idle.endPoint);
+
+        // The first poll closes the initial, empty, window.
+        receiverEndPoints.pollEndPoints(timeInMs);
+        reset(busyPolledEndPointsCounter, selectedEndPointsCounter);
+    }
+
+    @After
+    public void tearDown() throws IOException
+    {
+        receiverEndPoints.close();
+        busy.close();
+        idle.close();
+    }
+
+    @Test
+    public void shouldOnlyPollSelectedEndPointsBeforeAnyAreBusy() throws IOException
+    {
+        busy.receives();
+        poll();
+
+        assertEquals(1, busy.polls);
+        assertEquals(0, idle.polls);
+        assertFalse(busy.busyPolled);
+        assertFalse(idle.busyPolled);
+    }
+
+    @Test
+    public void shouldBusyPollEndPointsThatReachTheReadThreshold() throws IOException
+    {
+        makeBusyEndPointBusy();
+
+        assertTrue(busy.busyPolled);
+        assertFalse(idle.busyPolled);
+        verify(busyPolledEndPointsCounter).setOrdered(1);
+        verify(selectedEndPointsCounter).setOrdered(1);
+
+        final int busyPolls = busy.polls;
+        for (int i = 0; i < 5; i++)
+        {
+            poll();
+        }
+
+        assertEquals("Busy end point should be polled on every duty cycle", busyPolls + 5, busy.polls);
+        assertEquals("Idle end point should only be polled when selected", 0, idle.polls);
+    }
+
+    @Test
+    public void shouldStopBusyPollingEndPointsThatGoIdle() throws IOException
+    {
+        makeBusyEndPointBusy();
+
+        nextWindow();
+
+        assertFalse(busy.busyPolled);
+        verify(busy.endPoint).busyPolled(false);
+
+        final int busyPolls = busy.polls;
+        for (int i = 0; i < 5; i++)
+        {
+            poll();
+        }
+
+        assertEquals("Idle end point should no longer be busy polled", busyPolls, busy.polls);
+    }
+
+    @Test
+    public void shouldKeepEveryEndPointReachableAfterRebalancing() throws IOException
+    {
+        makeBusyEndPointBusy();
+
+        idle.receives();
+        poll();
+        assertEquals(1, idle.polls);
+        assertEquals(1, idle.readsInWindow);
+
+        nextWindow();
+
+        // Demoted back to the selector and still receives data.
+        busy.receives();
+        final int busyPolls = busy.polls;
+        assertEquals(1, receiverEndPoints.pollEndPoints(timeInMs));
+        assertEquals(busyPolls + 1, busy.polls);
+
+        idle.receives();
+        assertEquals(1, receiverEndPoints.pollEndPoints(timeInMs));
+        assertEquals(2, idle.polls);
+    }
+
+    @Test
+    public void shouldNotPollRemovedBusyEndPoint() throws IOException
+    {
+        makeBusyEndPointBusy();
+
+        receiverEndPoints.removeConnection(busy.connectionId, REMOTE_DISCONNECT);
+        verify(busy.endPoint).close(REMOTE_DISCONNECT);
+
+        final int busyPolls = busy.polls;
+        busy.receives();
+        poll();
+        assertEquals(busyPolls, busy.polls);
+        verify(busyPolledEndPointsCounter).setOrdered(0);
+
+        idle.receives();
+        poll();
+        assertEquals(1, idle.polls);
+    }
+
+    private void makeBusyEndPointBusy() throws IOException
+    {
+        for (int i = 0; i < BUSY_POLL_READ_THRESHOLD; i++)
+        {
+            busy.receives();
+            poll();
+        }
+
+        nextWindow();
+    }
+
+    private void nextWindow()
+    {
+        timeInMs += POLLING_WINDOW_IN_MS;
+        receiverEndPoints.pollEndPoints(timeInMs);
+    }
+
+    private void poll()
+    {
+        receiverEndPoints.pollEndPoints(timeInMs);
+    }
+
+    private static final class FakeEndPoint
+    {
+        private final ByteBuffer buffer = ByteBuffer.allocate(64);
+        private final ReceiverEndPoint endPoint = mock(ReceiverEndPoint.class);
+        private final Pipe pipe = Pipe.open();
+        private final long connectionId;
+
+        private SelectionKey selectionKey;
+        private boolean busyPolled;
+        private int readsInWindow;
+        private int polls;
+
+        FakeEndPoint(final long connectionId) throws IOException
+        {
+            this.connectionId = connectionId;
+            pipe.source().configureBlocking(false);
+
+            when(endPoint.connectionId()).thenReturn(connectionId);
+            when(endPoint.poll()).then(inv -> poll());
+            when(endPoint.readsInWindow()).then(inv -> readsInWindow);
+            when(endPoint.isBusyPolled()).then(inv -> busyPolled);
+
+            doAnswer(inv ->
+            {
+                selectionKey = pipe.source().register(inv.getArgument(0), OP_READ, endPoint);
+                return null;
+            }).when(endPoint).register(any(Selector.class));
+
+            doAnswer(inv ->
+            {
+                busyPolled = inv.getArgument(0);
+                selectionKey.interestOps(busyPolled ? 0 : OP_READ);
+                return null;
+            }).when(endPoint).busyPolled(anyBoolean());
+
+            doAnswer(inv ->
+            {
+                selectionKey.cancel();
+                return null;
+            }).when(endPoint).close(any());
+
+            doAnswer(inv ->
+            {
+                readsInWindow++;
+                return null;
+            }).when(endPoint).onRead();
+
+            doAnswer(inv ->
+            {
+                readsInWindow = 0;
+                return null;
+            }).when(endPoint).resetReadsInWindow();
+        }
+
+        void receives() throws IOException
+        {
+            pipe.sink().write(ByteBuffer.wrap(new byte[]{ 1 }));
+        }
+
+        void close() throws IOException
+        {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+
+        private int poll() throws IOException
+        {
+            polls++;
+            buffer.clear();
+            return Math.max(0, pipe.source().read(buffer));
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.mockito.stubbing.Answer;
 import org.mockito.verification.VerificationMode;
 import uk.co.real_logic.artio.engine.SenderSequenceNumber;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+import uk.co.real_logic.artio.timing.Timer;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -32,12 +33,15 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS;
+import static uk.co.real_logic.artio.engine.framer.SenderEndPoint.NO_BATCHING;
 import static uk.co.real_logic.artio.engine.logger.ArchiveDescriptor.alignTerm;
 import static uk.co.real_logic.artio.messages.DisconnectReason.SLOW_CONSUMER;
 import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAME_SIZE;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_ORIGIN_TIMESTAMP;
 
 public class SenderEndPointTest
 {
@@ -51,6 +55,7 @@ public class SenderEndPointTest
     private static final int FRAGMENT_LENGTH = alignTerm(HEADER_LENGTH + FRAME_SIZE + BODY_LENGTH);
     private static final long BEGIN_POSITION = 8000;
     private static final int MAX_BYTES_IN_BUFFER = 3 * BODY_LENGTH;
+    private static final long ORIGIN_TIMESTAMP = 1234;
 
     private TcpChannel tcpChannel = mock(TcpChannel.class);
     private AtomicCounter bytesInBuffer = fakeCounter();
@@ -62,6 +67,8 @@ public class SenderEndPointTest
     private BlockablePosition libraryBlockablePosition = mock(BlockablePosition.class);
     private BlockablePosition replayBlockablePosition = mock(BlockablePosition.class);
     private SenderSequenceNumber senderSequenceNumber = mock(SenderSequenceNumber.class);
+    private AtomicLong batchLengthWritten = new AtomicLong();
+    private Timer outboundEndToEndTimer = mock(Timer.class);
 
     private SenderEndPoint endPoint = new SenderEndPoint(
         CONNECTION_ID,
@@ -76,7 +83,10 @@ public class SenderEndPointTest
         MAX_BYTES_IN_BUFFER,
         DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
         0,
-        senderSequenceNumber);
+        senderSequenceNumber,
+        NO_BATCHING,
+        0,
+        outboundEndToEndTimer);
 
     @Test
     public void shouldRetrySlowConsumerMessage()
@@ -416,6 +426,160 @@ public class SenderEndPointTest
         verifyNoMoreErrors();
     }
 
+    @Test
+    public void shouldWriteBatchedMessagesTogether() throws IOException
+    {
+        endPoint = newBatchingEndPoint(4);
+        batchWillWrite(2 * BODY_LENGTH);
+
+        onOutboundMessage(0, POSITION);
+        onOutboundMessage(0, POSITION + FRAGMENT_LENGTH);
+        verify(tcpChannel, never()).write(any(ByteBuffer.class));
+
+        assertEquals(2, endPoint.flushBatch(0));
+        assertBatchWritten(2 * BODY_LENGTH);
+        assertBytesInBuffer(0);
+        assertFalse(endPoint.isSlowConsumer());
+    }
+
+    @Test
+    public void shouldWriteBatchOnceItHasMaxMessages() throws IOException
+    {
+        endPoint = newBatchingEndPoint(2);
+        batchWillWrite(2 * BODY_LENGTH);
+
+        onOutboundMessage(0, POSITION);
+        onOutboundMessage(0, POSITION + FRAGMENT_LENGTH);
+
+        assertBatchWritten(2 * BODY_LENGTH);
+        assertEquals(0, endPoint.flushBatch(0));
+    }
+
+    @Test
+    public void shouldBecomeSlowConsumerUponPartiallyWrittenBatch() throws IOException
+    {
+        final int firstWrites = 41;
+        endPoint = newBatchingEndPoint(4);
+        batchWillWrite(BODY_LENGTH + firstWrites);
+
+        onOutboundMessage(0, POSITION - FRAGMENT_LENGTH);
+        onOutboundMessage(0, POSITION);
+        onOutboundMessage(0, POSITION + FRAGMENT_LENGTH);
+        endPoint.flushBatch(0);
+
+        assertBatchWritten(3 * BODY_LENGTH);
+        assertBytesInBuffer((BODY_LENGTH - firstWrites) + BODY_LENGTH);
+        verify(framer).slowStatus(LIBRARY_ID, CONNECTION_ID, true);
+
+        // Retry of the partially written message sends its remaining bytes
+        channelWillWrite(BODY_LENGTH - firstWrites);
+        onSlowOutboundMessage();
+        byteBufferWritten();
+        assertBytesInBuffer(BODY_LENGTH);
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldNotBatchMessagesOnceSlow() throws IOException
+    {
+        endPoint = newBatchingEndPoint(4);
+        batchWillWrite(0);
+
+        onOutboundMessage(0, POSITION);
+        endPoint.flushBatch(0);
+        assertBatchWritten(BODY_LENGTH);
+
+        onOutboundMessage(0, POSITION + FRAGMENT_LENGTH);
+
+        assertFalse(endPoint.hasBatchedMessages());
+        assertBytesInBuffer(2 * BODY_LENGTH);
+    }
+
+    @Test
+    public void shouldRecordEndToEndTimeOnceMessageWritten()
+    {
+        channelWillWrite(BODY_LENGTH);
+
+        onOutboundMessage(0, POSITION);
+
+        verify(outboundEndToEndTimer).recordSince(ORIGIN_TIMESTAMP);
+    }
+
+    @Test
+    public void shouldRecordEndToEndTimeOfBatchedMessagesOnceBatchWritten() throws IOException
+    {
+        endPoint = newBatchingEndPoint(4);
+        batchWillWrite(2 * BODY_LENGTH);
+
+        onOutboundMessage(0, POSITION);
+        onOutboundMessage(0, POSITION + FRAGMENT_LENGTH);
+        verify(outboundEndToEndTimer, never()).recordSince(anyLong());
+
+        endPoint.flushBatch(0);
+        verify(outboundEndToEndTimer, times(2)).recordSince(ORIGIN_TIMESTAMP);
+    }
+
+    @Test
+    public void shouldRecordEndToEndTimeOfPartiallyWrittenMessageOnceCompleted()
+    {
+        becomeSlowConsumer();
+        verify(outboundEndToEndTimer, never()).recordSince(anyLong());
+
+        channelWillWrite(BODY_LENGTH);
+        onSlowOutboundMessage();
+
+        verify(outboundEndToEndTimer).recordSince(ORIGIN_TIMESTAMP);
+    }
+
+    @Test
+    public void shouldNotRecordEndToEndTimeWithoutOriginTimestamp()
+    {
+        channelWillWrite(BODY_LENGTH);
+
+        endPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 0, NO_ORIGIN_TIMESTAMP, POSITION, 0);
+        endPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 0, 0, POSITION + FRAGMENT_LENGTH, 0);
+        onReplayMessage(0, POSITION);
+
+        verify(outboundEndToEndTimer, never()).recordSince(anyLong());
+    }
+
+    private SenderEndPoint newBatchingEndPoint(final int maxBatchMessages)
+    {
+        return new SenderEndPoint(
+            CONNECTION_ID,
+            LIBRARY_ID,
+            libraryBlockablePosition,
+            replayBlockablePosition,
+            tcpChannel,
+            bytesInBuffer,
+            invalidLibraryAttempts,
+            errorHandler,
+            framer,
+            MAX_BYTES_IN_BUFFER,
+            DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
+            0,
+            senderSequenceNumber,
+            8 * BODY_LENGTH,
+            maxBatchMessages,
+            outboundEndToEndTimer);
+    }
+
+    private void batchWillWrite(final int written) throws IOException
+    {
+        when(tcpChannel.write(any(ByteBuffer.class))).then(inv ->
+        {
+            batchLengthWritten.set(inv.<ByteBuffer>getArgument(0).remaining());
+            return written;
+        });
+    }
+
+    private void assertBatchWritten(final int batchLength) throws IOException
+    {
+        verify(tcpChannel).write(any(ByteBuffer.class));
+        assertEquals(batchLength, batchLengthWritten.get());
+        reset(tcpChannel);
+    }
+
     private void byteBufferNotWritten()
     {
         byteBufferWritten(never());
@@ -433,7 +597,7 @@ public class SenderEndPointTest
 
     private void onOutboundMessage(final long timeInMs, final long position)
     {
-        endPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 0, position, timeInMs);
+        endPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 0, ORIGIN_TIMESTAMP, position, timeInMs);
     }
 
     private void onReplayMessage(final long timeInMs, final long position)
@@ -488,6 +652,7 @@ public class SenderEndPointTest
             POSITION,
             BODY_LENGTH,
             LIBRARY_ID,
+            ORIGIN_TIMESTAMP,
             timeInMs);
         assertEquals(CONTINUE, action);
     }
@@ -244,6 +244,63 @@ public class SessionContextsTest
         assertEquals(3, cContext.sessionId());
     }
 
+    @Test
+    public void acceptsLogonOfKnownSessionUsingItsExistingKey()
+    {
+        final SessionContext aContext = sessionContexts.onLogon(aSession);
+        sessionContexts.onDisconnect(aContext.sessionId());
+
+        final SessionContext acceptedContext = sessionContexts.onAcceptLogon(acceptedLogonHeader(aSession));
+
+        assertValuesEqual(aContext, acceptedContext);
+        assertSame(aSession, acceptedContext.compositeKey());
+    }
+
+    @Test
+    public void acceptsLogonOfKnownSessionAfterRestart()
+    {
+        sessionContexts.onLogon(bSession);
+        final SessionContext aContext = sessionContexts.onLogon(aSession);
+
+        final SessionContexts sessionContextsAfterRestart = newSessionContexts(buffer);
+        final SessionContext acceptedContext = sessionContextsAfterRestart.onAcceptLogon(
+            acceptedLogonHeader(aSession));
+
+        assertValuesEqual(aContext, acceptedContext);
+        assertEquals(aSession, acceptedContext.compositeKey());
+    }
+
+    @Test
+    public void acceptsLogonOfNewSession()
+    {
+        final SessionContext aContext = sessionContexts.onLogon(aSession);
+
+        final SessionContext bContext = sessionContexts.onAcceptLogon(acceptedLogonHeader(bSession));
+
+        assertValidSessionId(bContext.sessionId());
+        assertNotEquals(aContext, bContext);
+        assertEquals(bSession, bContext.compositeKey());
+        assertValuesEqual(bContext, sessionContexts.newAcceptLogonContext(acceptedLogonHeader(bSession)));
+    }
+
+    @Test
+    public void findsDuplicateSessionsOnAcceptedLogon()
+    {
+        sessionContexts.onLogon(aSession);
+
+        assertEquals(DUPLICATE_SESSION, sessionContexts.onAcceptLogon(acceptedLogonHeader(aSession)));
+    }
+
+    private HeaderDecoder acceptedLogonHeader(final CompositeKey compositeKey)
+    {
+        // The sender of an accepted logon is the remote end of the session
+        final long result = logonWithSenderAndTarget(compositeKey.remoteCompId(), compositeKey.localCompId());
+
+        final LogonDecoder logonDecoder = new LogonDecoder();
+        logonDecoder.decode(asciiBuffer, Encoder.offset(result), Encoder.length(result));
+        return logonDecoder.header();
+    }
+
     private void verifyNoBackUp()
     {
         verify(mappedFile, never()).transferTo(any());
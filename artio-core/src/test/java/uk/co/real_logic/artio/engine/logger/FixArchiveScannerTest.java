@@ -0,0 +1,305 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
+import uk.co.real_logic.artio.storage.messages.TimeIndexRecordEncoder;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static uk.co.real_logic.artio.engine.logger.FixArchiveScanner.lookupRecordingRanges;
+import static uk.co.real_logic.artio.engine.logger.FixArchiveScanner.lookupTimeWindowSpans;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
+
+public class FixArchiveScannerTest
+{
+    private static final String LOG_FILE_DIR = IoUtil.tmpDirName() + "fix-archive-scanner-test";
+    private static final int INDEX_FILE_SIZE = 1024 + INITIAL_RECORD_OFFSET;
+    private static final int RECORDS_IN_INDEX = 1024 / RECORD_LENGTH;
+    private static final long FIX_SESSION_ID = 1;
+    private static final int STREAM_ID = 2;
+    private static final long RECORDING_ID = 3;
+    private static final long OTHER_RECORDING_ID = 4;
+    private static final int LENGTH = 100;
+    private static final long BUCKET_SIZE = 1_000;
+    private static final int AERON_SESSION_ID = 5;
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final ReplayIndexRecordEncoder recordEncoder = new ReplayIndexRecordEncoder();
+    private final TimeIndexRecordEncoder timeRecordEncoder = new TimeIndexRecordEncoder();
+    private final List<RecordingRange> ranges = new ArrayList<>();
+    private final TimeIndexReader.RecordingSpanConsumer spanConsumer =
+        mock(TimeIndexReader.RecordingSpanConsumer.class);
+
+    private MappedByteBuffer mappedBuffer;
+    private UnsafeBuffer buffer;
+    private long changePosition;
+    private MappedByteBuffer timeMappedBuffer;
+    private UnsafeBuffer timeBuffer;
+    private long timeChangePosition;
+
+    @Before
+    public void setUp()
+    {
+        IoUtil.delete(new File(LOG_FILE_DIR), true);
+
+        final File indexFile = replayIndexFile(LOG_FILE_DIR, FIX_SESSION_ID, STREAM_ID);
+        mappedBuffer = LoggerUtil.mapNewFile(indexFile, INDEX_FILE_SIZE);
+        buffer = new UnsafeBuffer(mappedBuffer);
+        headerEncoder
+            .wrap(buffer, 0)
+            .blockLength(recordEncoder.sbeBlockLength())
+            .templateId(recordEncoder.sbeTemplateId())
+            .schemaId(recordEncoder.sbeSchemaId())
+            .version(recordEncoder.sbeSchemaVersion());
+
+        final File timeIndexFile = timeIndexFile(LOG_FILE_DIR, STREAM_ID);
+        timeMappedBuffer = LoggerUtil.mapNewFile(timeIndexFile, INDEX_FILE_SIZE);
+        timeBuffer = new UnsafeBuffer(timeMappedBuffer);
+        headerEncoder
+            .wrap(timeBuffer, 0)
+            .blockLength(timeRecordEncoder.sbeBlockLength())
+            .templateId(timeRecordEncoder.sbeTemplateId())
+            .schemaId(timeRecordEncoder.sbeSchemaId())
+            .version(timeRecordEncoder.sbeSchemaVersion());
+    }
+
+    @After
+    public void tearDown()
+    {
+        IoUtil.unmap(mappedBuffer);
+        IoUtil.unmap(timeMappedBuffer);
+        IoUtil.delete(new File(LOG_FILE_DIR), true);
+    }
+
+    @Test
+    public void shouldFindNoRangesWithoutAnIndexFile()
+    {
+        lookupRecordingRanges(LOG_FILE_DIR, FIX_SESSION_ID + 1, STREAM_ID, ranges);
+
+        assertTrue(ranges.isEmpty());
+    }
+
+    @Test
+    public void shouldSpanGapsBetweenRecordsOfARecording()
+    {
+        indexed(RECORDING_ID, FRAME_ALIGNMENT);
+        indexed(RECORDING_ID, 10_000);
+
+        lookup();
+
+        assertEquals(1, ranges.size());
+        assertRange(ranges.get(0), RECORDING_ID, 0, 10_000 + LENGTH, 2);
+    }
+
+    @Test
+    public void shouldSeparateRangesOfDifferentRecordings()
+    {
+        indexed(RECORDING_ID, 1024);
+        indexed(OTHER_RECORDING_ID, 2048);
+        indexed(RECORDING_ID, 4096);
+        indexed(OTHER_RECORDING_ID, 8192);
+
+        lookup();
+
+        assertEquals(2, ranges.size());
+        assertRange(ranges.get(0), RECORDING_ID, 1024 - FRAME_ALIGNMENT, 4096 - 1024 + FRAME_ALIGNMENT + LENGTH, 2);
+        assertRange(
+            ranges.get(1), OTHER_RECORDING_ID, 2048 - FRAME_ALIGNMENT, 8192 - 2048 + FRAME_ALIGNMENT + LENGTH, 2);
+    }
+
+    @Test
+    public void shouldNotOverflowRangesLongerThanTwoGigabytes()
+    {
+        final long laterPosition = 3L * 1024 * 1024 * 1024;
+        indexed(RECORDING_ID, FRAME_ALIGNMENT);
+        indexed(RECORDING_ID, laterPosition);
+
+        lookup();
+
+        assertEquals(1, ranges.size());
+        assertRange(ranges.get(0), RECORDING_ID, 0, laterPosition + LENGTH, 2);
+    }
+
+    @Test
+    public void shouldOnlyFindRecordsRemainingAfterTheIndexWraps()
+    {
+        final int overwrittenRecords = 5;
+        for (int i = 0; i < RECORDS_IN_INDEX + overwrittenRecords; i++)
+        {
+            indexed(RECORDING_ID, (i + 1) * 1024L);
+        }
+
+        lookup();
+
+        // The records are read in ring order, so the newest records come first and the range is extended backwards.
+        final long firstPosition = (overwrittenRecords + 1) * 1024L - FRAME_ALIGNMENT;
+        final long lastPosition = (RECORDS_IN_INDEX + overwrittenRecords) * 1024L;
+        assertEquals(1, ranges.size());
+        assertRange(
+            ranges.get(0), RECORDING_ID, firstPosition, lastPosition + LENGTH - firstPosition, RECORDS_IN_INDEX);
+    }
+
+    @Test
+    public void shouldFindNoSpansWithoutATimeIndexFile()
+    {
+        bucketsIndexed(0, 3);
+
+        lookupTimeWindowSpans(LOG_FILE_DIR, STREAM_ID + 1, 0, Long.MAX_VALUE, spanConsumer);
+
+        verifyNoMoreInteractions(spanConsumer);
+    }
+
+    @Test
+    public void shouldStartWindowBeforeTheFirstBucketAtTheFirstBucket()
+    {
+        bucketsIndexed(5, 3);
+
+        lookupWindow(1_000, 6_500);
+
+        verify(spanConsumer).onSpan(RECORDING_ID, bucketPosition(5), bucketPosition(7));
+        verifyNoMoreInteractions(spanConsumer);
+    }
+
+    @Test
+    public void shouldFindNothingForAWindowEndingOnTheFirstBucket()
+    {
+        bucketsIndexed(5, 3);
+
+        lookupWindow(1_000, 5_000);
+
+        verifyNoMoreInteractions(spanConsumer);
+    }
+
+    @Test
+    public void shouldStopAWindowEndingOnABucketStartAtThatBucket()
+    {
+        bucketsIndexed(0, 4);
+
+        lookupWindow(1_000, 2_000);
+
+        verify(spanConsumer).onSpan(RECORDING_ID, bucketPosition(1), bucketPosition(2));
+        verifyNoMoreInteractions(spanConsumer);
+    }
+
+    @Test
+    public void shouldLookupAWindowAcrossTheWrapOfTheIndex()
+    {
+        final int overwrittenRecords = 5;
+        bucketsIndexed(0, RECORDS_IN_INDEX + overwrittenRecords);
+
+        // The bucket at RECORDS_IN_INDEX is the first to be written at the start of the index again.
+        final int firstBucket = RECORDS_IN_INDEX - 2;
+        final int lastBucket = RECORDS_IN_INDEX + 1;
+        lookupWindow(firstBucket * BUCKET_SIZE + 500, lastBucket * BUCKET_SIZE + 500);
+
+        verify(spanConsumer).onSpan(RECORDING_ID, bucketPosition(firstBucket), bucketPosition(lastBucket + 1));
+        verifyNoMoreInteractions(spanConsumer);
+    }
+
+    @Test
+    public void shouldStartAWindowBeforeTheWrapAtTheOldestRemainingBucket()
+    {
+        final int overwrittenRecords = 5;
+        bucketsIndexed(0, RECORDS_IN_INDEX + overwrittenRecords);
+
+        lookupWindow(0, Long.MAX_VALUE);
+
+        verify(spanConsumer).onSpan(RECORDING_ID, bucketPosition(overwrittenRecords), NULL_POSITION);
+        verifyNoMoreInteractions(spanConsumer);
+    }
+
+    private void lookupWindow(final long fromTimestampInclusive, final long toTimestampExclusive)
+    {
+        lookupTimeWindowSpans(LOG_FILE_DIR, STREAM_ID, fromTimestampInclusive, toTimestampExclusive, spanConsumer);
+    }
+
+    private void bucketsIndexed(final int firstBucket, final int count)
+    {
+        for (int bucket = firstBucket; bucket < firstBucket + count; bucket++)
+        {
+            final int offset = offset(timeChangePosition, recordCapacity(INDEX_FILE_SIZE));
+            timeChangePosition += RECORD_LENGTH;
+            beginChangeOrdered(timeBuffer, timeChangePosition);
+
+            timeRecordEncoder
+                .wrap(timeBuffer, offset)
+                .timestamp(bucket * BUCKET_SIZE)
+                .recordingId(RECORDING_ID)
+                .position(bucketPosition(bucket))
+                .aeronSessionId(AERON_SESSION_ID);
+
+            endChangeOrdered(timeBuffer, timeChangePosition);
+        }
+    }
+
+    private static long bucketPosition(final int bucket)
+    {
+        return (bucket + 1) * 1024L;
+    }
+
+    private void lookup()
+    {
+        lookupRecordingRanges(LOG_FILE_DIR, FIX_SESSION_ID, STREAM_ID, ranges);
+    }
+
+    private void indexed(final long recordingId, final long beginPosition)
+    {
+        final int offset = offset(changePosition, recordCapacity(INDEX_FILE_SIZE));
+        changePosition += RECORD_LENGTH;
+        beginChangeOrdered(buffer, changePosition);
+
+        recordEncoder
+            .wrap(buffer, offset)
+            .position(beginPosition)
+            .sequenceNumber(1)
+            .sequenceIndex(0)
+            .recordingId(recordingId)
+            .length(LENGTH);
+
+        endChangeOrdered(buffer, changePosition);
+    }
+
+    private void assertRange(
+        final RecordingRange range,
+        final long recordingId,
+        final long position,
+        final long length,
+        final int count)
+    {
+        assertEquals(range.toString(), recordingId, range.recordingId);
+        assertEquals(range.toString(), FIX_SESSION_ID, range.sessionId);
+        assertEquals(range.toString(), position, range.position);
+        assertEquals(range.toString(), length, range.length);
+        assertEquals(range.toString(), count, range.count);
+    }
+}
@@ -22,11 +22,14 @@ import org.junit.After;
 import org.junit.Test;
 import uk.co.real_logic.artio.FileSystemCorruptionException;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static uk.co.real_logic.artio.engine.SectorFramer.OUT_OF_SPACE;
 import static uk.co.real_logic.artio.engine.SectorFramer.SECTOR_SIZE;
 import static uk.co.real_logic.artio.engine.logger.ErrorHandlerVerifier.verify;
 import static uk.co.real_logic.artio.engine.logger.IndexedPositionReader.UNKNOWN_POSITION;
@@ -144,6 +147,52 @@ public class IndexedPositionTest
         verify(errorHandler, times(1), FileSystemCorruptionException.class);
     }
 
+    @Test
+    public void shouldOnlyUpdateChecksumsOfDirtySectors()
+    {
+        int position = 10;
+
+        indexed(position, SESSION_ID, RECORDING_ID);
+
+        writer.updateChecksums();
+
+        // Sector 1 is never written to by the writer, so its checksum shouldn't be updated to hide this corruption
+        final byte[] corruption = new byte[300];
+        Arrays.fill(corruption, (byte)1);
+        buffer.putBytes(SECTOR_SIZE + 5, corruption);
+
+        position += 10;
+        indexed(position, SESSION_ID, RECORDING_ID);
+
+        writer.updateChecksums();
+
+        newWriter();
+
+        verify(errorHandler, times(1), FileSystemCorruptionException.class);
+    }
+
+    @Test
+    public void shouldReportOutOfSpaceWhenFull()
+    {
+        final int position = 10;
+
+        int sessionId = SESSION_ID;
+        int offset;
+        do
+        {
+            offset = writer.indexedUpTo(sessionId, RECORDING_ID, position);
+            sessionId++;
+        }
+        while (offset != OUT_OF_SPACE && sessionId < buffer.capacity());
+
+        assertEquals(OUT_OF_SPACE, offset);
+        verify(errorHandler, times(1), IllegalStateException.class);
+
+        // The sessions that were recorded before the buffer filled up are still readable.
+        hasPosition(position, SESSION_ID);
+        hasPosition(UNKNOWN_POSITION, sessionId - 1);
+    }
+
     @Test
     public void shouldNotReportFileSystemCorruptionWithNoWrittenRecords()
     {
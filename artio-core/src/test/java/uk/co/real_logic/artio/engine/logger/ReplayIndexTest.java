@@ -15,6 +15,7 @@
  */
 package uk.co.real_logic.artio.engine.logger;
 
+import com.sun.management.ThreadMXBean;
 import io.aeron.Aeron;
 import io.aeron.CommonContext;
 import io.aeron.ExclusivePublication;
@@ -40,10 +41,13 @@ import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.nio.ByteBuffer;
 import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assume.assumeTrue;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.LogTag.REPLAY;
 import static uk.co.real_logic.artio.TestFixtures.cleanupMediaDriver;
@@ -56,6 +60,7 @@ import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
 public class ReplayIndexTest extends AbstractLogTest
 {
     private static final String CHANNEL = CommonContext.IPC_CHANNEL;
+    private static final int QUERY_ITERATIONS = 1_000;
 
     private ByteBuffer indexBuffer = ByteBuffer.allocate(DEFAULT_REPLAY_INDEX_FILE_SIZE);
     private ExistingBufferFactory existingBufferFactory = mock(ExistingBufferFactory.class);
@@ -125,7 +130,8 @@ public class ReplayIndexTest extends AbstractLogTest
             new NoOpIdleStrategy(),
             aeronArchive,
             errorHandler,
-            DEFAULT_ARCHIVE_REPLAY_STREAM);
+            DEFAULT_ARCHIVE_REPLAY_STREAM,
+            true);
 
         returnBuffer(indexBuffer, SESSION_ID);
         returnBuffer(ByteBuffer.allocate(16 * 1024), SESSION_ID_2);
@@ -290,6 +296,95 @@ public class ReplayIndexTest extends AbstractLogTest
         verifyMessagesRead(expectedMessages);
     }
 
+    @Test(timeout = 20_000L)
+    public void shouldFindStartOfQueryOverSequenceNumberGaps()
+    {
+        IntStream.rangeClosed(1, 3).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX));
+        IntStream.rangeClosed(10, 15).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX));
+
+        final int msgCount = query(12, SEQUENCE_INDEX, 14, SEQUENCE_INDEX);
+
+        assertEquals(3, msgCount);
+        verifyMessagesRead(3);
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldFindStartOfQueryInLaterSequenceIndex()
+    {
+        final int nextSequenceIndex = SEQUENCE_INDEX + 1;
+        IntStream.rangeClosed(1, 5).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX));
+        IntStream.rangeClosed(1, 5).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, nextSequenceIndex));
+
+        final int msgCount = query(2, nextSequenceIndex, 3, nextSequenceIndex);
+
+        assertEquals(2, msgCount);
+        verifyMessagesRead(2);
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldReuseReleasedReplayOperations()
+    {
+        IntStream.rangeClosed(1, 5).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX));
+
+        final ReplayOperation operation = queryOperation(2, 4);
+        assertEquals(3, replay(operation));
+        query.release(operation);
+
+        final ReplayOperation reusedOperation = queryOperation(4, 5);
+        assertSame(operation, reusedOperation);
+        assertEquals(2, replay(reusedOperation));
+        verifyMessagesRead(5);
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldNotAllocateWhenQueryingWithReleasedOperations()
+    {
+        final ThreadMXBean threadMXBean = (ThreadMXBean)ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        IntStream.rangeClosed(1, 5).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX));
+
+        // Populate the pool and the session's index mapping before measuring
+        queryAndRelease(QUERY_ITERATIONS);
+
+        final long threadId = Thread.currentThread().getId();
+        final long overheadStart = threadMXBean.getThreadAllocatedBytes(threadId);
+        final long measurementOverhead = threadMXBean.getThreadAllocatedBytes(threadId) - overheadStart;
+
+        final long start = threadMXBean.getThreadAllocatedBytes(threadId);
+        queryAndRelease(QUERY_ITERATIONS);
+        final long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - start - measurementOverhead;
+
+        assertEquals(0, allocatedBytes);
+    }
+
+    private void queryAndRelease(final int iterations)
+    {
+        for (int i = 0; i < iterations; i++)
+        {
+            query.release(queryOperation(2, 4));
+        }
+    }
+
+    private ReplayOperation queryOperation(final int beginSequenceNumber, final int endSequenceNumber)
+    {
+        return query.query(
+            mockHandler,
+            SESSION_ID,
+            beginSequenceNumber,
+            SEQUENCE_INDEX,
+            endSequenceNumber,
+            SEQUENCE_INDEX,
+            REPLAY);
+    }
+
     @Test(timeout = 20_000L)
     public void shouldUpdatePositionForIndexedRecord()
     {
@@ -433,6 +528,11 @@ public class ReplayIndexTest extends AbstractLogTest
             endSequenceIndex,
             REPLAY);
 
+        return replay(operation);
+    }
+
+    private int replay(final ReplayOperation operation)
+    {
         final IdleStrategy idleStrategy = CommonConfiguration.backoffIdleStrategy();
         while (!operation.attemptReplay())
         {
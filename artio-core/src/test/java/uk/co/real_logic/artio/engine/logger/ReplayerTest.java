@@ -102,7 +102,12 @@ public class ReplayerTest extends AbstractLogTest
 
         setReplayedMessages(1);
 
-        replayer = new Replayer(
+        replayer = newReplayer(null);
+    }
+
+    private Replayer newReplayer(final ResendCache resendCache)
+    {
+        return new Replayer(
             replayQuery,
             publication,
             claim,
@@ -114,7 +119,8 @@ public class ReplayerTest extends AbstractLogTest
             clock,
             EngineConfiguration.DEFAULT_GAPFILL_ON_REPLAY_MESSAGE_TYPES,
             replayHandler,
-            senderSequenceNumbers);
+            senderSequenceNumbers,
+            resendCache);
     }
 
     private void setReplayedMessages(final int replayedMessages)
@@ -167,6 +173,45 @@ public class ReplayerTest extends AbstractLogTest
         verifyReplayCompleteMessageSent();
     }
 
+    @Test
+    public void shouldReplayMessagesCoveredByResendCacheWithoutQueryingArchive()
+    {
+        final ResendCache resendCache = new ResendCache(64 * 1024);
+        replayer = newReplayer(resendCache);
+
+        bufferContainsExampleMessage(true);
+        final int srcLength = fragmentLength();
+        resendCache.onFragment(buffer, START, srcLength, fragmentHeader);
+        setupMessage(srcLength);
+
+        final long result = bufferHasResendRequest(END_SEQ_NO);
+        onRequestResendMessage(result);
+
+        replayer.doWork();
+
+        assertHasResentWithPossDupFlag(srcLength, times(1));
+        verifyNoMoreInteractions(replayQuery);
+
+        replayer.doWork();
+
+        verifyReplayCompleteMessageSent();
+    }
+
+    @Test
+    public void shouldQueryArchiveWhenResendRequestIsNotCoveredByResendCache()
+    {
+        final ResendCache resendCache = new ResendCache(64 * 1024);
+        replayer = newReplayer(resendCache);
+
+        bufferContainsExampleMessage(true, SESSION_ID, BEGIN_SEQ_NO + 1, SEQUENCE_INDEX);
+        resendCache.onFragment(buffer, START, fragmentLength(), fragmentHeader);
+
+        final long result = bufferHasResendRequest(END_SEQ_NO);
+        onRequestResendMessage(result);
+
+        verifyQueriedService(END_SEQ_NO);
+    }
+
     @Test
     public void shouldSupportConcurrentReplayRequests()
     {
@@ -195,6 +240,25 @@ public class ReplayerTest extends AbstractLogTest
         assertHasResentWithPossDupFlag(srcLength, times(2));
     }
 
+    @Test
+    public void shouldReuseReplayerSessionOnceReplayIsComplete()
+    {
+        setupCapturingClaim();
+        onReplay(END_SEQ_NO, inv -> true);
+
+        replayer.doWork();
+        replayer.doWork();
+
+        verifyReplayCompleteMessageSent();
+        verify(replayQuery).release(replayOperation);
+
+        onReplay(END_SEQ_NO, inv -> true);
+
+        final List<ControlledFragmentHandler> handlers = handler.getAllValues();
+        assertEquals(2, handlers.size());
+        assertSame(handlers.get(0), handlers.get(1));
+    }
+
     // TODO: queue replay requests by fix session
 
     @Test
@@ -788,7 +852,7 @@ public class ReplayerTest extends AbstractLogTest
         final int offset = Encoder.offset(result);
         final Action action = replayer.onMessage(
             buffer, offset, length,
-            LIBRARY_ID, connectionId, sessionId, SEQUENCE_INDEX, messageType, 0L, OK, 0, 0L);
+            LIBRARY_ID, connectionId, sessionId, SEQUENCE_INDEX, messageType, 0L, 0L, OK, 0, 0L);
         assertEquals(expectedAction, action);
     }
 
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.collections.IntArrayList;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static uk.co.real_logic.artio.engine.logger.ResendCache.NO_POSITION;
+import static uk.co.real_logic.artio.engine.logger.ResendCache.SessionCache.RECORD_HEADER_LENGTH;
+
+public class ResendCacheTest
+{
+    private static final int MESSAGE_LENGTH = 48;
+    private static final int RECORD_LENGTH = RECORD_HEADER_LENGTH + MESSAGE_LENGTH;
+    private static final int SEQUENCE_INDEX = 1;
+
+    private final UnsafeBuffer message = new UnsafeBuffer(new byte[MESSAGE_LENGTH]);
+    private final IntArrayList replayedSequenceNumbers = new IntArrayList();
+
+    private ResendCache.SessionCache sessionCache = new ResendCache.SessionCache(1024);
+
+    @Test
+    public void shouldReplayMessagesFromBeginSeqNo()
+    {
+        cacheMessages(1, 5, SEQUENCE_INDEX);
+
+        final long position = sessionCache.find(SEQUENCE_INDEX, 3);
+
+        assertReplays(position, Integer.MAX_VALUE, 3, 4, 5);
+    }
+
+    @Test
+    public void shouldOnlyReplayMessagesUpToEndSeqNo()
+    {
+        cacheMessages(1, 5, SEQUENCE_INDEX);
+
+        final long position = sessionCache.find(SEQUENCE_INDEX, 2);
+
+        assertReplays(position, 3, 2, 3);
+    }
+
+    @Test
+    public void shouldNotCoverRequestsForEvictedMessages()
+    {
+        sessionCache = new ResendCache.SessionCache(4 * RECORD_LENGTH);
+        cacheMessages(1, 6, SEQUENCE_INDEX);
+
+        assertEquals(NO_POSITION, sessionCache.find(SEQUENCE_INDEX, 2));
+        assertNotEquals(NO_POSITION, sessionCache.find(SEQUENCE_INDEX, 3));
+    }
+
+    @Test
+    public void shouldNotCoverRequestsForOtherSequenceIndices()
+    {
+        cacheMessages(1, 3, SEQUENCE_INDEX);
+
+        assertEquals(NO_POSITION, sessionCache.find(SEQUENCE_INDEX - 1, 1));
+        assertEquals(NO_POSITION, sessionCache.find(SEQUENCE_INDEX + 1, 1));
+    }
+
+    @Test
+    public void shouldOnlyReplayMessagesOfRequestedSequenceIndex()
+    {
+        cacheMessages(1, 3, SEQUENCE_INDEX);
+        cacheMessages(1, 2, SEQUENCE_INDEX + 1);
+
+        final long position = sessionCache.find(SEQUENCE_INDEX, 2);
+
+        assertReplays(position, Integer.MAX_VALUE, 2, 3);
+    }
+
+    @Test
+    public void shouldCoverRequestsForMessagesNotSentYet()
+    {
+        cacheMessages(1, 3, SEQUENCE_INDEX);
+
+        assertEquals(sessionCache.head(), sessionCache.find(SEQUENCE_INDEX, 4));
+    }
+
+    @Test
+    public void shouldReplayMessagesThatWrapAroundTheBuffer()
+    {
+        sessionCache = new ResendCache.SessionCache(4 * RECORD_LENGTH);
+        // A shorter first message means that a later one doesn't fit before the end of the buffer
+        message.putInt(0, 1);
+        sessionCache.onMessage(message, 0, MESSAGE_LENGTH / 3, 1, SEQUENCE_INDEX);
+        cacheMessages(2, 7, SEQUENCE_INDEX);
+
+        final long position = sessionCache.find(SEQUENCE_INDEX, 6);
+
+        assertReplays(position, Integer.MAX_VALUE, 6, 7);
+    }
+
+    @Test
+    public void shouldResumeReplayAfterAbort()
+    {
+        cacheMessages(1, 3, SEQUENCE_INDEX);
+        final long endPosition = sessionCache.head();
+
+        final long abortPosition = sessionCache.replay(
+            sessionCache.find(SEQUENCE_INDEX, 1), endPosition, SEQUENCE_INDEX, Integer.MAX_VALUE,
+            (buffer, offset, length, header) ->
+            {
+                final int sequenceNumber = buffer.getInt(offset);
+                if (sequenceNumber == 2)
+                {
+                    return ABORT;
+                }
+
+                replayedSequenceNumbers.addInt(sequenceNumber);
+                return CONTINUE;
+            });
+
+        assertEquals(RECORD_LENGTH, abortPosition);
+        assertReplays(abortPosition, Integer.MAX_VALUE, 1, 2, 3);
+    }
+
+    @Test
+    public void shouldNotResumeReplayFromEvictedPosition()
+    {
+        sessionCache = new ResendCache.SessionCache(4 * RECORD_LENGTH);
+        cacheMessages(1, 2, SEQUENCE_INDEX);
+        final long position = sessionCache.find(SEQUENCE_INDEX, 1);
+        final long endPosition = sessionCache.head();
+
+        cacheMessages(3, 5, SEQUENCE_INDEX);
+
+        assertEquals(
+            NO_POSITION, sessionCache.replay(position, endPosition, SEQUENCE_INDEX, Integer.MAX_VALUE, this::onReplay));
+    }
+
+    @Test
+    public void shouldForgetOlderMessagesWhenMessageIsTooLargeToCache()
+    {
+        cacheMessages(1, 2, SEQUENCE_INDEX);
+
+        final UnsafeBuffer largeMessage = new UnsafeBuffer(new byte[2048]);
+        sessionCache.onMessage(largeMessage, 0, largeMessage.capacity(), 3, SEQUENCE_INDEX);
+        cacheMessages(4, 4, SEQUENCE_INDEX);
+
+        assertEquals(NO_POSITION, sessionCache.find(SEQUENCE_INDEX, 3));
+        assertNotEquals(NO_POSITION, sessionCache.find(SEQUENCE_INDEX, 4));
+    }
+
+    private void assertReplays(final long position, final int endSeqNo, final int... expectedSequenceNumbers)
+    {
+        final long endPosition = sessionCache.head();
+        assertEquals(endPosition, sessionCache.replay(position, endPosition, SEQUENCE_INDEX, endSeqNo, this::onReplay));
+
+        final IntArrayList expected = new IntArrayList();
+        for (final int sequenceNumber : expectedSequenceNumbers)
+        {
+            expected.addInt(sequenceNumber);
+        }
+        assertEquals(expected, replayedSequenceNumbers);
+    }
+
+    private Action onReplay(
+        final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        assertEquals(MESSAGE_LENGTH, length);
+        replayedSequenceNumbers.addInt(buffer.getInt(offset));
+        return CONTINUE;
+    }
+
+    private void cacheMessages(final int fromSequenceNumber, final int toSequenceNumber, final int sequenceIndex)
+    {
+        for (int sequenceNumber = fromSequenceNumber; sequenceNumber <= toSequenceNumber; sequenceNumber++)
+        {
+            message.putInt(0, sequenceNumber);
+            sessionCache.onMessage(message, 0, MESSAGE_LENGTH, sequenceNumber, sequenceIndex);
+        }
+    }
+}
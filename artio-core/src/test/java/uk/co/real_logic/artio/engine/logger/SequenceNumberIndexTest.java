@@ -40,6 +40,7 @@ import static io.aeron.CommonContext.IPC_CHANNEL;
 import static org.agrona.IoUtil.deleteIfExists;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -66,6 +67,7 @@ public class SequenceNumberIndexTest extends AbstractLogTest
     private SequenceNumberIndexReader reader;
     private RecordingIdLookup recordingIdLookup = mock(RecordingIdLookup.class);
     private FakeEpochClock clock = new FakeEpochClock();
+    private boolean incrementalCheckpoints = false;
 
     private MediaDriver mediaDriver = launchJustMediaDriver();
     private Aeron aeron;
@@ -244,6 +246,138 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         verify(errorHandler, times(2), IllegalStateException.class);
     }
 
+    @Test
+    public void shouldCheckpointIncrementally()
+    {
+        switchToIncrementalCheckpoints();
+
+        indexFixMessage();
+        bufferContainsExampleMessage(true, SESSION_ID_2, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+        indexRecord();
+
+        writer.close();
+
+        final SequenceNumberIndexReader newReader = newInstanceAfterRestart();
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER, newReader);
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, SEQUENCE_NUMBER + 1, newReader);
+        assertEquals(alignedEndPosition(), newReader.indexedPosition(publication.sessionId()));
+    }
+
+    @Test
+    public void shouldOnlyWriteDirtySectorsWhenCheckpointingIncrementally()
+    {
+        switchToIncrementalCheckpoints();
+
+        indexFixMessage();
+        clock.advanceMilliSeconds(DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS + 1);
+        assertEquals(1, writer.doWork());
+
+        // Sector 1 isn't dirty after this, so shouldn't be written again and the corruption should remain
+        corruptIndexFile(SECTOR_SIZE, RECORD_SIZE);
+
+        bufferContainsExampleMessage(true, SESSION_ID, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+        indexRecord();
+
+        writer.close();
+
+        final SequenceNumberIndexReader newReader = newInstanceAfterRestart();
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER + 1, newReader);
+        verify(errorHandler, times(1), FileSystemCorruptionException.class);
+    }
+
+    /**
+     * Simulate scenario that you've crashed halfway through writing dirty sectors into the index file.
+     */
+    @Test
+    public void shouldRecoverTornIncrementalCheckpointFromJournal()
+    {
+        switchToIncrementalCheckpoints();
+
+        indexFixMessage();
+
+        assertTrue(writer.journalDirtySectors());
+        final byte[] committedJournal = readJournal();
+
+        writer.close();
+
+        // Restore the journal as it was before the in place writes completed and tear them.
+        writeJournal(committedJournal);
+        corruptIndexFile(SEQUENCE_NUMBER_OFFSET, SECTOR_SIZE / 2);
+
+        final SequenceNumberIndexReader newReader = newInstanceAfterRestart();
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER, newReader);
+    }
+
+    @Test
+    public void shouldNotReplayJournalOnceIncrementalCheckpointCompletes()
+    {
+        switchToIncrementalCheckpoints();
+
+        indexFixMessage();
+
+        writer.close();
+
+        // Without a committed journal the corruption can't be hidden by replaying stale sectors.
+        corruptIndexFile(SEQUENCE_NUMBER_OFFSET, SECTOR_SIZE / 2);
+
+        newInstanceAfterRestart();
+
+        verify(errorHandler, times(1), FileSystemCorruptionException.class);
+    }
+
+    @Test
+    public void shouldReplayLatestJournalCommit()
+    {
+        switchToIncrementalCheckpoints();
+
+        indexFixMessage();
+        assertTrue(writer.journalDirtySectors());
+
+        bufferContainsExampleMessage(true, SESSION_ID_2, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+        indexRecord();
+        assertTrue(writer.journalDirtySectors());
+        final byte[] committedJournal = readJournal();
+
+        writer.close();
+
+        writeJournal(committedJournal);
+
+        final SequenceNumberIndexReader newReader = newInstanceAfterRestart();
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER, newReader);
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, SEQUENCE_NUMBER + 1, newReader);
+    }
+
+    private byte[] readJournal()
+    {
+        try (MappedFile journalFile = mapJournal())
+        {
+            final byte[] journal = new byte[journalFile.buffer().capacity()];
+            journalFile.buffer().getBytes(0, journal);
+            return journal;
+        }
+    }
+
+    private void writeJournal(final byte[] journal)
+    {
+        try (MappedFile journalFile = mapJournal())
+        {
+            journalFile.buffer().putBytes(0, journal);
+        }
+    }
+
+    private MappedFile mapJournal()
+    {
+        final File journalPath = journalPath(INDEX_FILE_PATH);
+        return MappedFile.map(journalPath, (int)journalPath.length());
+    }
+
+    private void switchToIncrementalCheckpoints()
+    {
+        writer.close();
+        incrementalCheckpoints = true;
+        writer = newWriter(inMemoryBuffer);
+    }
+
     private void corruptIndexFile(final int from, final int length)
     {
         try (MappedFile mappedFile = newIndexFile())
@@ -323,7 +457,7 @@ public class SequenceNumberIndexTest extends AbstractLogTest
     {
         final MappedFile indexFile = newIndexFile();
         return new SequenceNumberIndexWriter(inMemoryBuffer, indexFile, errorHandler, STREAM_ID, recordingIdLookup,
-            DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS, clock);
+            DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS, clock, incrementalCheckpoints);
     }
 
     private MappedFile newIndexFile()
@@ -396,5 +530,6 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         deleteIfExists(new File(INDEX_FILE_PATH));
         deleteIfExists(writablePath(INDEX_FILE_PATH));
         deleteIfExists(passingPath(INDEX_FILE_PATH));
+        deleteIfExists(journalPath(INDEX_FILE_PATH));
     }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.INITIAL_RECORD_OFFSET;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.RECORD_LENGTH;
+
+public class TimeIndexTest extends AbstractLogTest
+{
+    private static final int INDEX_FILE_SIZE = INITIAL_RECORD_OFFSET + 64 * RECORD_LENGTH;
+    private static final long BUCKET_SIZE = 1_000;
+    private static final int AERON_SESSION_ID = 3;
+    private static final long RECORDING_ID = 5;
+    private static final int FRAME_LENGTH = 256;
+
+    private final ByteBuffer indexBuffer = ByteBuffer.allocate(INDEX_FILE_SIZE);
+    private final BufferFactory bufferFactory = mock(BufferFactory.class);
+    private final RecordingIdLookup recordingIdLookup = mock(RecordingIdLookup.class);
+    private final Header fragmentHeader = mock(Header.class);
+    private final IndexedPositionConsumer positionConsumer = mock(IndexedPositionConsumer.class);
+    private final TimeIndexReader.RecordingSpanConsumer spanConsumer =
+        mock(TimeIndexReader.RecordingSpanConsumer.class);
+
+    private File logFileDir;
+    private TimeIndex timeIndex;
+    private TimeIndexReader reader;
+    private long position;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        logFileDir = Files.createTempDirectory("time-index").toFile();
+
+        when(bufferFactory.map(any(), anyInt())).thenReturn(indexBuffer);
+        when(recordingIdLookup.getRecordingId(AERON_SESSION_ID)).thenReturn(RECORDING_ID);
+        when(fragmentHeader.streamId()).thenReturn(STREAM_ID);
+        when(fragmentHeader.sessionId()).thenReturn(AERON_SESSION_ID);
+        when(fragmentHeader.flags()).thenReturn((byte)DataHeaderFlyweight.BEGIN_AND_END_FLAGS);
+        when(fragmentHeader.frameLength()).thenReturn(FRAME_LENGTH);
+
+        newTimeIndex();
+        reader = new TimeIndexReader(new UnsafeBuffer(indexBuffer));
+    }
+
+    @After
+    public void tearDown()
+    {
+        timeIndex.close();
+        IoUtil.delete(logFileDir, true);
+    }
+
+    @Test
+    public void shouldOnlyIndexTheFirstMessageOfEachBucket()
+    {
+        indexMessagesAt(0, 10, 999, 1_000, 1_500, 3_200);
+
+        timeIndex.readLastPosition(positionConsumer);
+        verify(positionConsumer).accept(AERON_SESSION_ID, RECORDING_ID, positionOfMessage(5));
+
+        assertEquals(3, recordCount());
+    }
+
+    @Test
+    public void shouldLookupTheSpanOfAWindow()
+    {
+        indexMessagesAt(0, 500, 1_000, 1_500, 2_000, 2_500, 3_000, 3_500);
+
+        reader.lookupWindow(1_200, 2_600, spanConsumer);
+
+        verify(spanConsumer).onSpan(RECORDING_ID, positionOfMessage(2), positionOfMessage(6));
+        verifyNoMoreInteractions(spanConsumer);
+    }
+
+    @Test
+    public void shouldLookupAnOpenEndedSpanForAWindowAtTheEndOfTheRecording()
+    {
+        indexMessagesAt(0, 1_000, 2_000);
+
+        reader.lookupWindow(2_100, Long.MAX_VALUE, spanConsumer);
+
+        verify(spanConsumer).onSpan(RECORDING_ID, positionOfMessage(2), NULL_POSITION);
+    }
+
+    @Test
+    public void shouldLookupNothingForAWindowBeforeTheRecording()
+    {
+        indexMessagesAt(5_000, 6_000);
+
+        reader.lookupWindow(1_000, 2_000, spanConsumer);
+
+        verifyNoMoreInteractions(spanConsumer);
+    }
+
+    @Test
+    public void shouldNotIndexBucketsAgainAfterARestart() throws IOException
+    {
+        indexMessagesAt(0, 1_000);
+        timeIndex.close();
+
+        // The index file is mapped by the mocked buffer factory, so only needs to exist
+        assertTrue(ReplayIndexDescriptor.timeIndexFile(logFileDir.getPath(), STREAM_ID).createNewFile());
+        newTimeIndex();
+
+        // Catchup replays the latest bucket that was indexed
+        position = positionOfMessage(1);
+        indexMessagesAt(1_000, 2_000);
+
+        assertEquals(3, recordCount());
+    }
+
+    private int recordCount()
+    {
+        final int[] count = new int[1];
+        reader.forEachRecord((timestamp, recordingId, position, aeronSessionId) -> count[0]++);
+        return count[0];
+    }
+
+    private void newTimeIndex()
+    {
+        timeIndex = new TimeIndex(
+            logFileDir.getPath(), STREAM_ID, INDEX_FILE_SIZE, BUCKET_SIZE, bufferFactory, recordingIdLookup);
+    }
+
+    private void indexMessagesAt(final long... timestamps)
+    {
+        for (final long timestamp : timestamps)
+        {
+            bufferContainsExampleMessage(true);
+            messageFrame.timestamp(timestamp);
+
+            position += FRAME_LENGTH;
+            when(fragmentHeader.position()).thenReturn(position);
+            timeIndex.onFragment(buffer, START, fragmentLength(), fragmentHeader);
+        }
+    }
+
+    private long positionOfMessage(final int index)
+    {
+        return (long)index * FRAME_LENGTH;
+    }
+}
@@ -22,7 +22,9 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.verification.VerificationMode;
+import uk.co.real_logic.artio.Constants;
 import uk.co.real_logic.artio.builder.HeaderEncoder;
+import uk.co.real_logic.artio.builder.MessageTemplate;
 import uk.co.real_logic.artio.builder.TestRequestEncoder;
 import uk.co.real_logic.artio.decoder.SequenceResetDecoder;
 import uk.co.real_logic.artio.engine.framer.FakeEpochClock;
@@ -99,7 +101,8 @@ public abstract class AbstractSessionTest
             anyInt(),
             anyLong(),
             any(),
-            anyInt())).thenReturn(POSITION);
+            anyInt(),
+            anyLong())).thenReturn(POSITION);
 
         when(sessionProxy.sendResendRequest(anyInt(), anyInt(), anyInt(), eq(SEQUENCE_INDEX), anyInt()))
             .thenReturn(POSITION);
@@ -226,6 +229,161 @@ public abstract class AbstractSessionTest
         assertSequenceIndexIs(nextSequenceIndex);
     }
 
+    @Test
+    public void shouldUpdateSentSequenceNumberWhenClaimedMessageCommitted()
+    {
+        final int messageLength = 64;
+        final int seqNum = 5;
+        final MutableAsciiBuffer claimedBuffer = new MutableAsciiBuffer(new byte[1024]);
+        when(mockPublication.claimMessage(
+            eq(messageLength), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(), eq(seqNum)))
+            .thenReturn(POSITION);
+        when(mockPublication.claimedBuffer()).thenReturn(claimedBuffer);
+        when(mockPublication.claimedMessageOffset()).thenReturn(128);
+
+        givenActive();
+
+        assertEquals(POSITION, session().tryClaim(messageLength, seqNum, 'D'));
+        assertEquals(messageLength, session().claimedBuffer().capacity());
+
+        session().commit();
+
+        verify(mockPublication).commitMessage();
+        assertEquals(seqNum, session().lastSentMsgSeqNum());
+    }
+
+    @Test
+    public void shouldNotUpdateSentSequenceNumberWhenClaimedMessageAborted()
+    {
+        final int seqNum = 5;
+        when(mockPublication.claimMessage(
+            anyInt(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(), eq(seqNum)))
+            .thenReturn(POSITION);
+        when(mockPublication.claimedBuffer()).thenReturn(new MutableAsciiBuffer(new byte[1024]));
+
+        givenActive();
+        final int lastSentMsgSeqNum = session().lastSentMsgSeqNum();
+
+        session().tryClaim(64, seqNum, 'D');
+        session().abort();
+
+        verify(mockPublication).abortMessage();
+        assertEquals(lastSentMsgSeqNum, session().lastSentMsgSeqNum());
+    }
+
+    @Test
+    public void shouldNotCommitWithoutAClaim()
+    {
+        givenActive();
+
+        assertClaimStateRejected(() -> session().commit());
+
+        verify(mockPublication, never()).commitMessage();
+    }
+
+    @Test
+    public void shouldNotAbortWithoutAClaim()
+    {
+        givenActive();
+
+        assertClaimStateRejected(() -> session().abort());
+
+        verify(mockPublication, never()).abortMessage();
+    }
+
+    @Test
+    public void shouldNotCommitAFailedClaim()
+    {
+        givenClaimResult(BACK_PRESSURED);
+        givenActive();
+        final int lastSentMsgSeqNum = session().lastSentMsgSeqNum();
+
+        assertEquals(BACK_PRESSURED, session().tryClaim(64, 5, 'D'));
+        assertClaimStateRejected(() -> session().commit());
+
+        verify(mockPublication, never()).commitMessage();
+        assertEquals(lastSentMsgSeqNum, session().lastSentMsgSeqNum());
+    }
+
+    @Test
+    public void shouldNotCommitAClaimTwice()
+    {
+        givenClaimResult(POSITION);
+        givenActive();
+
+        session().tryClaim(64, 5, 'D');
+        session().commit();
+        assertClaimStateRejected(() -> session().commit());
+
+        verify(mockPublication, times(1)).commitMessage();
+    }
+
+    @Test
+    public void shouldNotAbortACommittedClaim()
+    {
+        givenClaimResult(POSITION);
+        givenActive();
+
+        session().tryClaim(64, 5, 'D');
+        session().commit();
+        assertClaimStateRejected(() -> session().abort());
+
+        verify(mockPublication, never()).abortMessage();
+    }
+
+    @Test
+    public void shouldNotCommitAnAbortedClaim()
+    {
+        givenClaimResult(POSITION);
+        givenActive();
+        final int lastSentMsgSeqNum = session().lastSentMsgSeqNum();
+
+        session().tryClaim(64, 5, 'D');
+        session().abort();
+        assertClaimStateRejected(() -> session().commit());
+
+        verify(mockPublication, never()).commitMessage();
+        assertEquals(lastSentMsgSeqNum, session().lastSentMsgSeqNum());
+    }
+
+    @Test
+    public void shouldNotClaimAgainWhilstAClaimIsOutstanding()
+    {
+        givenClaimResult(POSITION);
+        givenActive();
+
+        session().tryClaim(64, 5, 'D');
+        assertClaimStateRejected(() -> session().tryClaim(64, 6, 'D'));
+
+        verify(mockPublication, times(1)).claimMessage(
+            anyInt(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(), anyInt());
+
+        session().commit();
+        verify(mockPublication).commitMessage();
+        assertEquals(5, session().lastSentMsgSeqNum());
+    }
+
+    private void givenClaimResult(final long position)
+    {
+        when(mockPublication.claimMessage(
+            anyInt(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(), anyInt()))
+            .thenReturn(position);
+        when(mockPublication.claimedBuffer()).thenReturn(new MutableAsciiBuffer(new byte[1024]));
+    }
+
+    private void assertClaimStateRejected(final Runnable operation)
+    {
+        try
+        {
+            operation.run();
+            fail("Expected an IllegalStateException");
+        }
+        catch (final IllegalStateException ignore)
+        {
+            // Deliberately blank
+        }
+    }
+
     @Test
     public void shouldResetReceivingSequenceNumbers()
     {
@@ -886,6 +1044,44 @@ public abstract class AbstractSessionTest
         assertThat(secondMessage, containsString(":01\001"));
     }
 
+    @Test
+    public void shouldSendMessagesFromTemplate()
+    {
+        givenActive();
+
+        final MessageTemplate template = new MessageTemplate(1024);
+        final int testReqIdSlot = template.addSlot(Constants.TEST_REQ_ID, 4);
+        testRequest.reset();
+        testRequest.testReqID("AB");
+        session().encodeTemplate(template, testRequest);
+
+        final int firstSeqNum = session().lastSentMsgSeqNum() + 1;
+        final String firstMessage = sendTemplate(template, testReqIdSlot, "ABCD");
+        final String secondMessage = sendTemplate(template, testReqIdSlot, "EFGH");
+
+        assertThat(firstMessage, containsString(String.format("\00134=%010d\001", firstSeqNum)));
+        assertThat(firstMessage, containsString(":00.000\001"));
+        assertThat(firstMessage, containsString("\001112=ABCD\001"));
+        assertValidFraming(firstMessage);
+
+        assertThat(secondMessage, containsString(String.format("\00134=%010d\001", firstSeqNum + 1)));
+        assertThat(secondMessage, containsString("\001112=EFGH\001"));
+        assertValidFraming(secondMessage);
+        assertEquals(firstSeqNum + 1, session().lastSentMsgSeqNum());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotEncodeTemplateWithValueWiderThanItsSlot()
+    {
+        givenActive();
+
+        final MessageTemplate template = new MessageTemplate(1024);
+        template.addSlot(Constants.TEST_REQ_ID, 4);
+        testRequest.reset();
+        testRequest.testReqID("ABCDE");
+        session().encodeTemplate(template, testRequest);
+    }
+
     // See http://www.fixtradingcommunity.org/pg/discussions/topicpost/164720/fix-4x-sessionlevel-protocol-tests
     // 1d_InvalidLogonBadSendingTime.def
     @Test
@@ -973,6 +1169,29 @@ public abstract class AbstractSessionTest
         return getSentMessage();
     }
 
+    private String sendTemplate(final MessageTemplate template, final int testReqIdSlot, final String testReqId)
+    {
+        template.putAscii(testReqIdSlot, testReqId);
+        assertEquals(POSITION, session().send(template));
+        return getSentMessage();
+    }
+
+    private void assertValidFraming(final String message)
+    {
+        final int checksumStart = message.length() - "10=000\001".length();
+        int checksum = 0;
+        for (int i = 0; i < checksumStart; i++)
+        {
+            checksum += message.charAt(i);
+        }
+        assertEquals(String.format("10=%03d\001", checksum & 0xFF), message.substring(checksumStart));
+
+        final int bodyLengthStart = message.indexOf("\0019=") + "\0019=".length();
+        final int bodyStart = message.indexOf('\001', bodyLengthStart) + 1;
+        final int bodyLength = Integer.parseInt(message.substring(bodyLengthStart, bodyStart - 1));
+        assertEquals(checksumStart - bodyStart, bodyLength);
+    }
+
     private String getSentMessage()
     {
         final MutableAsciiBuffer buffer = (MutableAsciiBuffer)this.bufferCaptor.getValue();
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.engine.framer.FakeEpochClock;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static io.aeron.Publication.BACK_PRESSURED;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_SESSION_BUFFER_SIZE;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_REASONABLE_TRANSMISSION_TIME_IN_MS;
+import static uk.co.real_logic.artio.library.SessionConfiguration.DEFAULT_ENABLE_LAST_MSG_SEQ_NUM_PROCESSED;
+import static uk.co.real_logic.artio.messages.SessionState.ACTIVE;
+
+public class SessionTimersTest
+{
+    private static final int HEARTBEAT_INTERVAL_IN_S = 2;
+    private static final int SEQUENCE_INDEX = 0;
+    private static final long POSITION = 1024;
+
+    private final DirectSessionProxy sessionProxy = mock(DirectSessionProxy.class);
+    private final FakeEpochClock clock = new FakeEpochClock();
+
+    private SessionTimers sessionTimers;
+    private Session session;
+
+    @Before
+    public void setUp()
+    {
+        when(sessionProxy.sendHeartbeat(anyInt(), eq(SEQUENCE_INDEX), anyInt())).thenReturn(POSITION);
+
+        clock.advanceSeconds(1);
+        sessionTimers = new SessionTimers(clock.time());
+        session = new AcceptorSession(
+            HEARTBEAT_INTERVAL_IN_S,
+            1,
+            clock,
+            sessionProxy,
+            mock(GatewayPublication.class),
+            mock(SessionIdStrategy.class),
+            2000,
+            mock(AtomicCounter.class),
+            mock(AtomicCounter.class),
+            2,
+            1,
+            SEQUENCE_INDEX,
+            ACTIVE,
+            DEFAULT_REASONABLE_TRANSMISSION_TIME_IN_MS,
+            new MutableAsciiBuffer(new byte[DEFAULT_SESSION_BUFFER_SIZE]),
+            DEFAULT_ENABLE_LAST_MSG_SEQ_NUM_PROCESSED);
+
+        sessionTimers.add(session);
+    }
+
+    @Test
+    public void shouldNotPollSessionBeforeItsTimeout()
+    {
+        advanceAndPoll(HEARTBEAT_INTERVAL_IN_S * 1000 / 2);
+
+        verifyNoMoreInteractions(sessionProxy);
+    }
+
+    @Test
+    public void shouldPollSessionOnceItsTimeoutIsReached()
+    {
+        advanceAndPoll(HEARTBEAT_INTERVAL_IN_S * 1000);
+
+        verify(sessionProxy).sendHeartbeat(anyInt(), eq(SEQUENCE_INDEX), anyInt());
+    }
+
+    @Test
+    public void shouldRescheduleSessionAfterPollingIt()
+    {
+        advanceAndPoll(HEARTBEAT_INTERVAL_IN_S * 1000);
+        advanceAndPoll(1);
+
+        verify(sessionProxy, times(1)).sendHeartbeat(anyInt(), eq(SEQUENCE_INDEX), anyInt());
+
+        advanceAndPoll(HEARTBEAT_INTERVAL_IN_S * 1000);
+
+        verify(sessionProxy, times(2)).sendHeartbeat(anyInt(), eq(SEQUENCE_INDEX), anyInt());
+    }
+
+    @Test
+    public void shouldPollSessionOnNextDutyCycleWhenItsTimeoutMovesEarlier()
+    {
+        when(sessionProxy.sendLogout(anyInt(), eq(SEQUENCE_INDEX), anyInt())).thenReturn(BACK_PRESSURED, POSITION);
+
+        session.startLogout();
+        verify(sessionProxy, times(1)).sendLogout(anyInt(), eq(SEQUENCE_INDEX), anyInt());
+
+        advanceAndPoll(1);
+
+        verify(sessionProxy, times(2)).sendLogout(anyInt(), eq(SEQUENCE_INDEX), anyInt());
+    }
+
+    @Test
+    public void shouldNotPollRemovedSessions()
+    {
+        sessionTimers.remove(session);
+
+        advanceAndPoll(HEARTBEAT_INTERVAL_IN_S * 1000);
+
+        verifyNoMoreInteractions(sessionProxy);
+    }
+
+    private void advanceAndPoll(final long timeInMs)
+    {
+        clock.advanceMilliSeconds(timeInMs);
+        sessionTimers.poll(clock.time());
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.DirectBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+
+/**
+ * Compares the word at a time scanning and checksumming in {@link MutableAsciiBuffer} against the byte at a time
+ * loops that it replaced, over messages of the sizes seen on the inbound path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AsciiBufferScanBenchmark
+{
+    private static final byte START_OF_HEADER = 0x01;
+    private static final byte EQUALS = '=';
+    private static final int CHECKSUM_TRAILER_LENGTH = "10=000\001".length();
+
+    @Param({"LOGON", "NEW_ORDER_SINGLE", "EXECUTION_REPORT"})
+    public String message;
+
+    private MutableAsciiBuffer buffer;
+    private int length;
+
+    @Setup
+    public void setup()
+    {
+        final DirectBuffer data;
+        switch (message)
+        {
+            case "LOGON":
+                data = TestData.LOGON;
+                break;
+
+            case "NEW_ORDER_SINGLE":
+                data = TestData.NEW_ORDER_SINGLE;
+                break;
+
+            default:
+                data = TestData.EXECUTION_REPORT;
+        }
+
+        length = data.capacity();
+        buffer = new MutableAsciiBuffer(new byte[length]);
+        buffer.putBytes(0, data, 0, length);
+    }
+
+    @Benchmark
+    public int tokeniseWordAtATime()
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int end = length - 1;
+
+        int fields = 0;
+        int position = 0;
+        while (position < end)
+        {
+            final int equalsPosition = buffer.scan(position, end, EQUALS);
+            final int endOfField = buffer.scan(equalsPosition + 1, end, START_OF_HEADER);
+            position = endOfField + 1;
+            fields++;
+        }
+
+        return fields;
+    }
+
+    @Benchmark
+    public int tokeniseByteAtATime()
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int end = length - 1;
+
+        int fields = 0;
+        int position = 0;
+        while (position < end)
+        {
+            final int equalsPosition = byteScan(buffer, position, end, EQUALS);
+            final int endOfField = byteScan(buffer, equalsPosition + 1, end, START_OF_HEADER);
+            position = endOfField + 1;
+            fields++;
+        }
+
+        return fields;
+    }
+
+    @Benchmark
+    public int checksumWordAtATime()
+    {
+        return buffer.computeChecksum(0, length - CHECKSUM_TRAILER_LENGTH);
+    }
+
+    @Benchmark
+    public int checksumByteAtATime()
+    {
+        return byteChecksum(buffer, 0, length - CHECKSUM_TRAILER_LENGTH);
+    }
+
+    @Benchmark
+    public int scanWholeMessageWordAtATime()
+    {
+        // Worst case of a scan that doesn't find its terminator, eg: a partially received message
+        return buffer.scan(0, length - 1, (byte)0);
+    }
+
+    @Benchmark
+    public int scanWholeMessageByteAtATime()
+    {
+        return byteScan(buffer, 0, length - 1, (byte)0);
+    }
+
+    private static int byteScan(
+        final MutableAsciiBuffer buffer, final int startInclusive, final int endInclusive, final byte terminator)
+    {
+        int indexValue = UNKNOWN_INDEX;
+        for (int i = startInclusive; i <= endInclusive; i++)
+        {
+            final byte value = buffer.getByte(i);
+            if (value == terminator)
+            {
+                indexValue = i;
+                break;
+            }
+        }
+
+        return indexValue;
+    }
+
+    private static int byteChecksum(final MutableAsciiBuffer buffer, final int offset, final int end)
+    {
+        int total = 0;
+        for (int index = offset; index < end; index++)
+        {
+            total += (int)buffer.getByte(index);
+        }
+
+        return total % 256;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.co.real_logic.artio.fields.DecimalFloat;
+import uk.co.real_logic.artio.fields.UtcTimestampDecoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Parses and formats the timestamp and price fields that appear in most application messages, complements
+ * {@link TimestampEncoderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FieldCodecBenchmark
+{
+    private static final byte[] TIMESTAMP_MILLIS = "20090323-15:40:30.123".getBytes(US_ASCII);
+    private static final byte[] TIMESTAMP_NANOS = "20090323-15:40:30.123456789".getBytes(US_ASCII);
+
+    @Param({"32.25", "1234567.123456", "0.00000001"})
+    public String price;
+
+    private final DecimalFloat decimalFloat = new DecimalFloat();
+    private final MutableAsciiBuffer formatBuffer = new MutableAsciiBuffer(new byte[64]);
+
+    // Deliberately not static/final
+    private MutableAsciiBuffer timestampMillisBuffer = new MutableAsciiBuffer(TIMESTAMP_MILLIS);
+    private MutableAsciiBuffer timestampNanosBuffer = new MutableAsciiBuffer(TIMESTAMP_NANOS);
+    private MutableAsciiBuffer priceBuffer;
+    private DecimalFloat priceToFormat;
+
+    @Setup
+    public void setup()
+    {
+        priceBuffer = new MutableAsciiBuffer(price.getBytes(US_ASCII));
+        priceToFormat = priceBuffer.getFloat(new DecimalFloat(), 0, priceBuffer.capacity());
+    }
+
+    @Benchmark
+    public long decodeTimestampMillis()
+    {
+        return UtcTimestampDecoder.decode(timestampMillisBuffer, 0, timestampMillisBuffer.capacity());
+    }
+
+    @Benchmark
+    public long decodeTimestampNanos()
+    {
+        return UtcTimestampDecoder.decodeNanos(timestampNanosBuffer, 0, timestampNanosBuffer.capacity());
+    }
+
+    @Benchmark
+    public void parseDecimalFloat(final Blackhole bh)
+    {
+        bh.consume(priceBuffer.getFloat(decimalFloat, 0, priceBuffer.capacity()));
+        bh.consume(decimalFloat.value());
+        bh.consume(decimalFloat.scale());
+    }
+
+    @Benchmark
+    public int formatDecimalFloat()
+    {
+        return formatBuffer.putFloatAscii(0, priceToFormat);
+    }
+}
@@ -31,8 +31,11 @@ import java.util.concurrent.TimeUnit;
 @Fork(1)
 public class OtfParserBenchmark
 {
+    @Param({"NEW_ORDER_SINGLE", "EXECUTION_REPORT"})
+    public String message;
+
     // Deliberately not static/final
-    private UnsafeBuffer buffer = TestData.NEW_ORDER_SINGLE;
+    private UnsafeBuffer buffer;
 
     private OtfParser blackholeParser;
     private OtfParser noBlackholeParser;
@@ -41,25 +44,27 @@ public class OtfParserBenchmark
     @Setup
     public void setup(final Blackhole bh)
     {
+        buffer = "NEW_ORDER_SINGLE".equals(message) ? TestData.NEW_ORDER_SINGLE : TestData.EXECUTION_REPORT;
+
         blackholeParser = new OtfParser(new OtfBlackHoleAcceptor(bh), new IntDictionary());
         noBlackholeParser = new OtfParser(new OtfNoBlackHoleAcceptor(), new IntDictionary());
         inlinableParser = new OtfParser(new OtfInlineableAcceptor(), new IntDictionary());
     }
 
     @Benchmark
-    public void newOrderSingleBlackhole()
+    public void parseBlackhole()
     {
         blackholeParser.onMessage(buffer, 0, buffer.capacity());
     }
 
     @Benchmark
-    public void newOrderSingleNoBlackHole()
+    public void parseNoBlackHole()
     {
         noBlackholeParser.onMessage(buffer, 0, buffer.capacity());
     }
 
     @Benchmark
-    public void newOrderSingleInlinable()
+    public void parseInlinable()
     {
         inlinableParser.onMessage(buffer, 0, buffer.capacity());
     }
@@ -18,6 +18,7 @@ package uk.co.real_logic.artio;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 import uk.co.real_logic.artio.builder.LogonEncoder;
+import uk.co.real_logic.artio.builder.MessageTemplate;
 import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
@@ -34,6 +35,9 @@ public class StubEncoderBenchmark
     private UtcTimestampEncoder timestampEncoder = new UtcTimestampEncoder();
     private LogonEncoder logonEncoder = new LogonEncoder();
     private MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
+    private MessageTemplate logonTemplate = new MessageTemplate(8 * 1024);
+    private int msgSeqNumSlot;
+    private int sendingTimeSlot;
 
     // deliberately not static/final
     private int sequenceNumber = 10;
@@ -47,6 +51,18 @@ public class StubEncoderBenchmark
             .header()
             .senderCompID("ABC_DEFG01")
             .targetCompID("CCG");
+
+        msgSeqNumSlot = logonTemplate.addSlot(Constants.MSG_SEQ_NUM, 10);
+        sendingTimeSlot = logonTemplate.addSlot(Constants.SENDING_TIME, UtcTimestampEncoder.LENGTH_WITH_MILLISECONDS);
+        logonEncoder
+            .password(password)
+            .username(username)
+            .maxMessageSize(512)
+            .heartBtInt(10)
+            .header()
+            .msgSeqNum(sequenceNumber)
+            .sendingTime(timestampEncoder.buffer(), timestampEncoder.encode(System.currentTimeMillis()));
+        logonTemplate.encode(logonEncoder);
     }
 
     @Benchmark
@@ -66,4 +82,16 @@ public class StubEncoderBenchmark
         bh.consume(logonEncoder.encode(buffer, 0));
     }
 
+    @Benchmark
+    public void encodeLogonFromTemplate(final Blackhole bh)
+    {
+        final UtcTimestampEncoder timestampEncoder = this.timestampEncoder;
+        final MessageTemplate logonTemplate = this.logonTemplate;
+
+        logonTemplate.putInt(msgSeqNumSlot, sequenceNumber);
+        logonTemplate.putTimestamp(
+            sendingTimeSlot, timestampEncoder.buffer(), timestampEncoder.encode(System.currentTimeMillis()));
+
+        bh.consume(logonTemplate.finish());
+    }
 }
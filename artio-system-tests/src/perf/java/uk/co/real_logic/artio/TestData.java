@@ -31,4 +31,13 @@ public final class TestData
         ("8=FIX.4.4\0019=0103\00135=A\00149=ABC_DEFG01\00156=CCG\00134=10\001" +
         "52=20150514-15:57:31.336\00198=0\001108=10\001383=512\001553=username" +
         "\001554=password\00110=243\001").getBytes(StandardCharsets.US_ASCII));
+
+    public static final UnsafeBuffer EXECUTION_REPORT = new UnsafeBuffer(
+        ("8=FIX.4.4\0019=475\00135=8\00149=CCG\00156=ABC_DEFG01\00134=17\00152=20090323-15:40:30.123\001" +
+        "37=NF 0542/03232009\00111=NF 0542/03232009\00117=EXEC-20090323-0000017\001150=F\00139=2\0011=ACCOUNT-01\001" +
+        "55=CVS\00148=126650100\00122=1\001207=N\00154=1\00138=100\00140=2\00144=32.2500\00159=0\00132=100\001" +
+        "31=32.2500\001151=0\00114=100\0016=32.2500\00160=20090323-15:40:30.120\001453=3\001448=EXECBROKER\001" +
+        "447=D\001452=1\001448=CLEARINGFIRM\001447=D\001452=4\001448=TRADER-07\001447=D\001452=11\001382=2\001" +
+        "375=MMKR1\001437=40\001375=MMKR2\001437=60\00130=XNYS\00129=1\00175=20090323\001" +
+        "58=Filled in two executions on primary venue\00110=168\001").getBytes(StandardCharsets.US_ASCII));
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.co.real_logic.artio.builder.Validation;
+import uk.co.real_logic.artio.decoder.ExecutionReportDecoder;
+import uk.co.real_logic.artio.decoder.NewOrderSingleDecoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes and validates the same messages as {@link DecoderBenchmark}. The test messages contain fields outside of
+ * the session dictionary, so this also covers the cost of recording unknown fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ValidatingDecoderBenchmark
+{
+    private final NewOrderSingleDecoder newOrderSingle = new NewOrderSingleDecoder();
+    private final ExecutionReportDecoder executionReport = new ExecutionReportDecoder();
+
+    // Deliberately not static/final
+    private MutableAsciiBuffer newOrderSingleBuffer = new MutableAsciiBuffer(TestData.NEW_ORDER_SINGLE);
+    private MutableAsciiBuffer executionReportBuffer = new MutableAsciiBuffer(TestData.EXECUTION_REPORT);
+
+    @Setup
+    public void setup()
+    {
+        if (!Validation.CODEC_VALIDATION_ENABLED)
+        {
+            throw new IllegalStateException("Benchmark cannot run without validation enabled");
+        }
+    }
+
+    @Benchmark
+    public void decodeNewOrderSingle(final Blackhole bh)
+    {
+        final NewOrderSingleDecoder newOrderSingle = this.newOrderSingle;
+
+        newOrderSingle.reset();
+        bh.consume(newOrderSingle.decode(newOrderSingleBuffer, 0, newOrderSingleBuffer.capacity()));
+        bh.consume(newOrderSingle.validate());
+
+        bh.consume(newOrderSingle.header().msgSeqNum());
+        bh.consume(newOrderSingle.clOrdID());
+        bh.consume(newOrderSingle.side());
+        bh.consume(newOrderSingle.symbol());
+    }
+
+    @Benchmark
+    public void decodeExecutionReport(final Blackhole bh)
+    {
+        final ExecutionReportDecoder executionReport = this.executionReport;
+
+        executionReport.reset();
+        bh.consume(executionReport.decode(executionReportBuffer, 0, executionReportBuffer.capacity()));
+        bh.consume(executionReport.validate());
+
+        bh.consume(executionReport.header().msgSeqNum());
+        bh.consume(executionReport.orderID());
+        bh.consume(executionReport.execID());
+        bh.consume(executionReport.symbol());
+    }
+}
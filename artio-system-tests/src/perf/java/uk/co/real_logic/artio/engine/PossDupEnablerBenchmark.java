@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import io.aeron.logbuffer.BufferClaim;
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import org.agrona.concurrent.SystemEpochClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.LogTag;
+import uk.co.real_logic.artio.TestData;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.messages.MessageStatus;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+
+/**
+ * Rewrites archived messages for replay, as the Replayer does in response to a resend request. None of the test
+ * messages have a PossDupFlag, so the header is extended with both it and OrigSendingTime.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PossDupEnablerBenchmark
+{
+    private static final int MESSAGE_FRAME_LENGTH =
+        MessageHeaderEncoder.ENCODED_LENGTH + FixMessageEncoder.BLOCK_LENGTH + FixMessageDecoder.bodyHeaderLength();
+    private static final int MAX_PAYLOAD_LENGTH = 16 * 1024;
+
+    @Param({"LOGON", "NEW_ORDER_SINGLE", "EXECUTION_REPORT"})
+    public String message;
+
+    private final UnsafeBuffer srcBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(MAX_PAYLOAD_LENGTH));
+    private final UnsafeBuffer claimedBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(MAX_PAYLOAD_LENGTH));
+    private final BufferClaim bufferClaim = new BufferClaim();
+
+    private PossDupEnabler possDupEnabler;
+    private int srcLength;
+    private int messageLength;
+
+    @Setup
+    public void setup()
+    {
+        final UnsafeBuffer data;
+        switch (message)
+        {
+            case "LOGON":
+                data = TestData.LOGON;
+                break;
+
+            case "NEW_ORDER_SINGLE":
+                data = TestData.NEW_ORDER_SINGLE;
+                break;
+
+            default:
+                data = TestData.EXECUTION_REPORT;
+        }
+
+        messageLength = data.capacity();
+        new FixMessageEncoder()
+            .wrapAndApplyHeader(srcBuffer, 0, new MessageHeaderEncoder())
+            .libraryId(1)
+            .messageType(0)
+            .session(1)
+            .sequenceIndex(0)
+            .connection(1)
+            .timestamp(0)
+            .status(MessageStatus.OK)
+            .originTimestamp(0)
+            .putBody(data, 0, messageLength);
+        srcLength = MESSAGE_FRAME_LENGTH + messageLength;
+
+        possDupEnabler = new PossDupEnabler(
+            bufferClaim,
+            this::claim,
+            (buffer, offset) -> {},
+            (error) -> {},
+            Throwable::printStackTrace,
+            new SystemEpochClock(),
+            MAX_PAYLOAD_LENGTH,
+            LogTag.REPLAY);
+    }
+
+    @Benchmark
+    public Action enablePossDupFlag()
+    {
+        return possDupEnabler.enablePossDupFlag(
+            srcBuffer, MESSAGE_FRAME_LENGTH, messageLength, 0, srcLength);
+    }
+
+    private boolean claim(final int length)
+    {
+        // Stands in for a publication's tryClaim(), without the cost of a real log buffer.
+        bufferClaim.wrap(claimedBuffer, 0, HEADER_LENGTH + length);
+        return true;
+    }
+}
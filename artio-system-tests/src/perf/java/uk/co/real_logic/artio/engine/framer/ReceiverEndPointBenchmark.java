@@ -0,0 +1,236 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import io.aeron.Aeron;
+import io.aeron.ExclusivePublication;
+import io.aeron.Subscription;
+import io.aeron.driver.MediaDriver;
+import io.aeron.driver.ThreadingMode;
+import io.aeron.logbuffer.FragmentHandler;
+import org.agrona.CloseHelper;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.Clock;
+import uk.co.real_logic.artio.TestData;
+import uk.co.real_logic.artio.engine.ByteBufferUtil;
+import uk.co.real_logic.artio.engine.MappedFile;
+import uk.co.real_logic.artio.messages.ConnectionType;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.session.SessionIdStrategy;
+import uk.co.real_logic.artio.timing.Timer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static io.aeron.CommonContext.IPC_CHANNEL;
+import static org.agrona.concurrent.status.CountersReader.COUNTER_LENGTH;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_RECEIVER_BUFFER_SIZE;
+
+/**
+ * Frames messages out of the data read from a TCP connection and saves them to the inbound publication, as the
+ * Framer does when polling an authenticated connection. Reads are served from pre-filled buffers rather than a
+ * socket, so only the framing, validation and publication costs are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReceiverEndPointBenchmark
+{
+    private static final int STREAM_ID = 1;
+    private static final long CONNECTION_ID = 1;
+    private static final long SESSION_ID = 1;
+    private static final int LIBRARY_ID = 1;
+    private static final int TERM_BUFFER_LENGTH = 1024 * 1024;
+    private static final int FRAGMENT_LIMIT = 100;
+
+    @Param({"NEW_ORDER_SINGLE", "EXECUTION_REPORT"})
+    public String message;
+
+    @Param({"1", "10"})
+    public int messagesPerRead;
+
+    private final FragmentHandler drainHandler = (buffer, offset, length, header) -> {};
+
+    private File directory;
+    private ServerSocketChannel serverChannel;
+    private SocketChannel clientChannel;
+    private SocketChannel acceptedChannel;
+    private MediaDriver mediaDriver;
+    private Aeron aeron;
+    private Subscription subscription;
+    private MappedFile sessionIdFile;
+    private ReceiverEndPoint endPoint;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        directory = Files.createTempDirectory("receiver-end-point-benchmark").toFile();
+
+        mediaDriver = MediaDriver.launch(new MediaDriver.Context()
+            .aeronDirectoryName(new File(directory, "aeron").getAbsolutePath())
+            .threadingMode(ThreadingMode.SHARED)
+            .ipcTermBufferLength(TERM_BUFFER_LENGTH)
+            .dirDeleteOnStart(true));
+        aeron = Aeron.connect(new Aeron.Context().aeronDirectoryName(mediaDriver.aeronDirectoryName()));
+
+        final ExclusivePublication publication = aeron.addExclusivePublication(IPC_CHANNEL, STREAM_ID);
+        subscription = aeron.addSubscription(IPC_CHANNEL, STREAM_ID);
+        while (!publication.isConnected())
+        {
+            Thread.yield();
+        }
+
+        final Clock clock = Clock.systemNanoTime();
+        final GatewayPublication gatewayPublication = new GatewayPublication(
+            publication, newCounter(), new NoOpIdleStrategy(), clock, 1);
+
+        sessionIdFile = MappedFile.map(new File(directory, "session-ids"), 64 * 1024);
+        final SessionContexts sessionContexts = new SessionContexts(
+            sessionIdFile, SessionIdStrategy.senderAndTarget(), Throwable::printStackTrace);
+        final GatewaySessions gatewaySessions = new GatewaySessions(
+            null, gatewayPublication, null, null, null, null, null, 0, 0, 0, false,
+            Throwable::printStackTrace, sessionContexts, null, null, null);
+
+        endPoint = new ReceiverEndPoint(
+            new PreFilledTcpChannel(connectedChannel(), messages()),
+            DEFAULT_RECEIVER_BUFFER_SIZE,
+            gatewayPublication,
+            CONNECTION_ID,
+            SESSION_ID,
+            0,
+            sessionContexts,
+            newCounter(),
+            newCounter(),
+            null,
+            Throwable::printStackTrace,
+            LIBRARY_ID,
+            gatewaySessions,
+            new Timer(clock, "Inbound", 1));
+
+        // Without a session parser the gateway session doesn't process any of the received messages.
+        endPoint.gatewaySession(new GatewaySession(
+            CONNECTION_ID,
+            SessionContexts.UNKNOWN_SESSION,
+            "localhost",
+            ConnectionType.ACCEPTOR,
+            null,
+            endPoint,
+            null,
+            null,
+            false,
+            0,
+            false,
+            false));
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        CloseHelper.close(aeron);
+        CloseHelper.close(mediaDriver);
+        CloseHelper.close(acceptedChannel);
+        CloseHelper.close(clientChannel);
+        CloseHelper.close(serverChannel);
+        sessionIdFile.close();
+        IoUtil.delete(directory, true);
+    }
+
+    @Benchmark
+    public int poll()
+    {
+        final int work = endPoint.poll();
+        subscription.poll(drainHandler, FRAGMENT_LIMIT);
+        return work;
+    }
+
+    private UnsafeBuffer messages()
+    {
+        final UnsafeBuffer data;
+        switch (message)
+        {
+            case "NEW_ORDER_SINGLE":
+                data = TestData.NEW_ORDER_SINGLE;
+                break;
+
+            default:
+                data = TestData.EXECUTION_REPORT;
+        }
+
+        final int length = data.capacity();
+        final UnsafeBuffer messages = new UnsafeBuffer(new byte[length * messagesPerRead]);
+        for (int i = 0; i < messagesPerRead; i++)
+        {
+            messages.putBytes(i * length, data, 0, length);
+        }
+
+        return messages;
+    }
+
+    // The TcpChannel needs a connected socket for its remote address, even though it's never read from.
+    private SocketChannel connectedChannel() throws IOException
+    {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress("localhost", 0));
+        clientChannel = SocketChannel.open(serverChannel.getLocalAddress());
+        acceptedChannel = serverChannel.accept();
+
+        return acceptedChannel;
+    }
+
+    private static AtomicCounter newCounter()
+    {
+        return new AtomicCounter(new UnsafeBuffer(ByteBuffer.allocateDirect(COUNTER_LENGTH)), 0);
+    }
+
+    static final class PreFilledTcpChannel extends TcpChannel
+    {
+        private final UnsafeBuffer data;
+
+        PreFilledTcpChannel(final SocketChannel socketChannel, final UnsafeBuffer data) throws IOException
+        {
+            super(socketChannel);
+            this.data = data;
+        }
+
+        public int read(final ByteBuffer dst)
+        {
+            final int length = data.capacity();
+            if (dst.remaining() < length)
+            {
+                return 0;
+            }
+
+            final int position = dst.position();
+            data.getBytes(0, dst, position, length);
+            ByteBufferUtil.position(dst, position + length);
+
+            return length;
+        }
+    }
+}
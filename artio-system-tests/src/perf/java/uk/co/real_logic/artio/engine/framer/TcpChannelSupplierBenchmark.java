@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.CloseHelper;
+import org.agrona.LangUtil;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.TestData;
+import uk.co.real_logic.artio.engine.EngineConfiguration;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips a message between two connections over loopback that have been set up by either the
+ * {@link DefaultTcpChannelSupplier} or the {@link LowLatencyTcpChannelSupplier}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TcpChannelSupplierBenchmark
+{
+    private static final String HOST = "localhost";
+
+    @Param({"DEFAULT", "LOW_LATENCY"})
+    public String supplier;
+
+    private TcpChannelSupplier acceptingSupplier;
+    private TcpChannelSupplier initiatingSupplier;
+    private TcpChannel acceptedChannel;
+    private TcpChannel initiatedChannel;
+    private ByteBuffer sendBuffer;
+    private ByteBuffer receiveBuffer;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0))
+        {
+            port = socket.getLocalPort();
+        }
+
+        acceptingSupplier = newSupplier(new EngineConfiguration().bindTo(HOST, port));
+        initiatingSupplier = newSupplier(new EngineConfiguration());
+
+        initiatingSupplier.open(
+            new InetSocketAddress(HOST, port),
+            (channel, exception) ->
+            {
+                if (exception != null)
+                {
+                    LangUtil.rethrowUnchecked(exception);
+                }
+
+                initiatedChannel = channel;
+            });
+
+        while (acceptedChannel == null || initiatedChannel == null)
+        {
+            acceptingSupplier.pollSelector(0, (timeInMs, channel) -> acceptedChannel = channel);
+            initiatingSupplier.pollSelector(0, (timeInMs, channel) -> {});
+        }
+
+        final int length = TestData.NEW_ORDER_SINGLE.capacity();
+        sendBuffer = ByteBuffer.allocateDirect(length);
+        TestData.NEW_ORDER_SINGLE.getBytes(0, sendBuffer, length);
+        receiveBuffer = ByteBuffer.allocateDirect(length);
+    }
+
+    @Benchmark
+    public int roundTrip() throws IOException
+    {
+        send(initiatedChannel);
+        receive(acceptedChannel);
+        send(acceptedChannel);
+        return receive(initiatedChannel);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        CloseHelper.close(initiatedChannel);
+        CloseHelper.close(acceptedChannel);
+        CloseHelper.close(initiatingSupplier);
+        CloseHelper.close(acceptingSupplier);
+    }
+
+    private void send(final TcpChannel channel) throws IOException
+    {
+        final ByteBuffer sendBuffer = this.sendBuffer;
+        sendBuffer.clear();
+        while (sendBuffer.hasRemaining())
+        {
+            channel.write(sendBuffer);
+        }
+    }
+
+    private int receive(final TcpChannel channel) throws IOException
+    {
+        final ByteBuffer receiveBuffer = this.receiveBuffer;
+        receiveBuffer.clear();
+        while (receiveBuffer.hasRemaining())
+        {
+            channel.read(receiveBuffer);
+        }
+
+        return receiveBuffer.position();
+    }
+
+    private TcpChannelSupplier newSupplier(final EngineConfiguration configuration)
+    {
+        return "DEFAULT".equals(supplier) ?
+            new DefaultTcpChannelSupplier(configuration) : new LowLatencyTcpChannelSupplier(configuration);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.builder.HeartbeatEncoder;
+import uk.co.real_logic.artio.decoder.HeartbeatDecoder;
+import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.messages.MessageStatus;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.nio.ByteBuffer;
+
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static io.aeron.protocol.HeaderFlyweight.CURRENT_VERSION;
+import static io.aeron.protocol.HeaderFlyweight.HDR_TYPE_DATA;
+import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_OUTBOUND_LIBRARY_STREAM;
+
+/**
+ * Writes archived heartbeat messages from a single FIX session into an aeron data frame, as they would be seen by
+ * the indexers. Each message is placed in its own term so that successive messages have increasing positions.
+ */
+class ArchivedMessages
+{
+    static final int STREAM_ID = DEFAULT_OUTBOUND_LIBRARY_STREAM;
+    static final long FIX_SESSION_ID = 1;
+    static final int SEQUENCE_INDEX = 0;
+    static final long RECORDING_ID = 1;
+
+    private static final int AERON_SESSION_ID = 1;
+    private static final int INITIAL_TERM_ID = 0;
+    private static final int POSITION_BITS_TO_SHIFT = 16;
+    private static final int MESSAGE_FRAME_LENGTH =
+        MessageHeaderEncoder.ENCODED_LENGTH + FixMessageEncoder.BLOCK_LENGTH + FixMessageDecoder.bodyHeaderLength();
+    private static final int MAX_MESSAGE_LENGTH = 1024;
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(MAX_MESSAGE_LENGTH));
+    private final MutableAsciiBuffer asciiBuffer = new MutableAsciiBuffer(new byte[MAX_MESSAGE_LENGTH]);
+    private final DataHeaderFlyweight dataHeader = new DataHeaderFlyweight(buffer);
+    private final MessageHeaderEncoder messageHeader = new MessageHeaderEncoder();
+    private final FixMessageEncoder messageFrame = new FixMessageEncoder();
+    private final HeartbeatEncoder heartbeat = new HeartbeatEncoder();
+    private final Header header = new Header(INITIAL_TERM_ID, POSITION_BITS_TO_SHIFT);
+
+    // Starts after the first term, as the replay query treats a position of 0 as an empty record.
+    private int termId = INITIAL_TERM_ID + 1;
+
+    ArchivedMessages()
+    {
+        final UtcTimestampEncoder timestampEncoder = new UtcTimestampEncoder();
+        heartbeat
+            .header()
+            .senderCompID("sender")
+            .targetCompID("target")
+            .sendingTime(timestampEncoder.buffer(), timestampEncoder.encode(System.currentTimeMillis()));
+
+        header.buffer(buffer);
+        header.offset(0);
+    }
+
+    /**
+     * Write the next message into the frame buffer.
+     *
+     * @param sequenceNumber the sequence number of the message
+     * @return the length of the fragment after the aeron data header
+     */
+    int next(final int sequenceNumber)
+    {
+        heartbeat.header().msgSeqNum(sequenceNumber);
+        final long result = heartbeat.encode(asciiBuffer, 0);
+        final int length = Encoder.length(result);
+        final int offset = Encoder.offset(result);
+
+        messageFrame
+            .wrapAndApplyHeader(buffer, HEADER_LENGTH, messageHeader)
+            .libraryId(1)
+            .messageType(HeartbeatDecoder.MESSAGE_TYPE)
+            .session(FIX_SESSION_ID)
+            .sequenceIndex(SEQUENCE_INDEX)
+            .connection(1)
+            .timestamp(0)
+            .status(MessageStatus.OK)
+            .originTimestamp(0)
+            .putBody(asciiBuffer, offset, length);
+
+        final int fragmentLength = MESSAGE_FRAME_LENGTH + length;
+        dataHeader.frameLength(HEADER_LENGTH + fragmentLength);
+        dataHeader.version(CURRENT_VERSION);
+        dataHeader.flags(UNFRAGMENTED);
+        dataHeader.headerType(HDR_TYPE_DATA);
+        dataHeader.termOffset(0);
+        dataHeader.sessionId(AERON_SESSION_ID);
+        dataHeader.streamId(STREAM_ID);
+        dataHeader.termId(termId++);
+
+        return fragmentLength;
+    }
+
+    UnsafeBuffer buffer()
+    {
+        return buffer;
+    }
+
+    Header header()
+    {
+        return header;
+    }
+
+    static RecordingIdLookup recordingIdLookup()
+    {
+        return new RecordingIdLookup(null, null)
+        {
+            long getRecordingId(final int aeronSessionId)
+            {
+                return RECORDING_ID;
+            }
+        };
+    }
+}
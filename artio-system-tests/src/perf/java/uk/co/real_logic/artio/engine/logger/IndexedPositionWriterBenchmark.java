@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.engine.ChecksumFramer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.REPLAY_POSITION_BUFFER_SIZE;
+
+/**
+ * Compares updating the position of a stream and then the checksums of only the sectors that it dirtied against
+ * recalculating the checksum of every sector of the position buffer, as the replay index used to after every
+ * fragment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class IndexedPositionWriterBenchmark
+{
+    private static final int AERON_SESSION_ID = 1;
+    private static final long RECORDING_ID = 2;
+
+    private IndexedPositionWriter writer;
+    private ChecksumFramer wholeBufferChecksumFramer;
+    private long position;
+
+    @Setup
+    public void setup()
+    {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(REPLAY_POSITION_BUFFER_SIZE));
+        writer = new IndexedPositionWriter(buffer, Throwable::printStackTrace, 0, "IndexedPositionWriterBenchmark");
+        wholeBufferChecksumFramer = new ChecksumFramer(
+            buffer, buffer.capacity(), Throwable::printStackTrace, 0, "IndexedPositionWriterBenchmark");
+    }
+
+    @Benchmark
+    public void indexedUpToAndChecksumDirtySectors()
+    {
+        writer.indexedUpTo(AERON_SESSION_ID, RECORDING_ID, ++position);
+        writer.updateChecksums();
+    }
+
+    @Benchmark
+    public void indexedUpToAndChecksumAllSectors()
+    {
+        writer.indexedUpTo(AERON_SESSION_ID, RECORDING_ID, ++position);
+        wholeBufferChecksumFramer.updateChecksums();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.IoUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.*;
+import static uk.co.real_logic.artio.engine.logger.ArchivedMessages.STREAM_ID;
+import static uk.co.real_logic.artio.engine.logger.ArchivedMessages.recordingIdLookup;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.replayPositionBuffer;
+
+/**
+ * Indexes archived messages into memory mapped replay index files, as the archiving indexer does for every
+ * fragment that it reads. The indexer calls {@link ReplayIndex#doWork()} after each poll, so the benchmark does so
+ * once per batch of fragments, which is when position checksums are updated if they're batched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReplayIndexBenchmark
+{
+    private static final int FRAGMENTS_PER_POLL = 20;
+
+    private final ArchivedMessages messages = new ArchivedMessages();
+
+    @Param({"false", "true"})
+    public boolean batchPositionChecksums;
+
+    private File logFileDir;
+    private ReplayIndex replayIndex;
+    private int sequenceNumber;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        logFileDir = Files.createTempDirectory("replay-index-benchmark").toFile();
+        final String logFileDirName = logFileDir.getAbsolutePath();
+
+        replayIndex = new ReplayIndex(
+            logFileDirName,
+            STREAM_ID,
+            DEFAULT_REPLAY_INDEX_FILE_SIZE,
+            DEFAULT_LOGGER_CACHE_NUM_SETS,
+            DEFAULT_LOGGER_CACHE_SET_SIZE,
+            LoggerUtil::mapNewFile,
+            replayPositionBuffer(logFileDirName, STREAM_ID),
+            Throwable::printStackTrace,
+            recordingIdLookup(),
+            batchPositionChecksums);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        replayIndex.close();
+        IoUtil.delete(logFileDir, true);
+    }
+
+    @Benchmark
+    public void onFragment()
+    {
+        final ArchivedMessages messages = this.messages;
+        final int length = messages.next(++sequenceNumber);
+        replayIndex.onFragment(messages.buffer(), HEADER_LENGTH, length, messages.header());
+        if (sequenceNumber % FRAGMENTS_PER_POLL == 0)
+        {
+            replayIndex.doWork();
+        }
+    }
+}
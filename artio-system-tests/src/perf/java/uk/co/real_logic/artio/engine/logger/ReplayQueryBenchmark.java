@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015-2019 Real Logic Ltd, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.archive.Archive;
+import io.aeron.archive.ArchiveThreadingMode;
+import io.aeron.archive.ArchivingMediaDriver;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.driver.MediaDriver;
+import io.aeron.driver.ThreadingMode;
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import org.agrona.CloseHelper;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.LogTag;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.*;
+import static uk.co.real_logic.artio.engine.logger.ArchivedMessages.*;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.replayPositionBuffer;
+
+/**
+ * Looks up the recording ranges to replay for a resend request from a populated replay index. Only the index lookup
+ * is measured, the returned operation is never run so the archive isn't asked to replay anything. The archive is
+ * still needed as the query subscribes to its replay stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReplayQueryBenchmark
+{
+    private static final int INDEXED_MESSAGES = 10_000;
+
+    @Param({"1", "100"})
+    public int queriedMessages;
+
+    private final ControlledFragmentHandler handler = (buffer, offset, length, header) -> CONTINUE;
+
+    private File directory;
+    private ArchivingMediaDriver mediaDriver;
+    private AeronArchive aeronArchive;
+    private ReplayQuery replayQuery;
+    private int beginSequenceNumber;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        directory = Files.createTempDirectory("replay-query-benchmark").toFile();
+        final String logFileDir = new File(directory, "logs").getAbsolutePath();
+        final String aeronDirectoryName = new File(directory, "aeron").getAbsolutePath();
+
+        mediaDriver = ArchivingMediaDriver.launch(
+            new MediaDriver.Context()
+                .aeronDirectoryName(aeronDirectoryName)
+                .threadingMode(ThreadingMode.SHARED)
+                .dirDeleteOnStart(true),
+            new Archive.Context()
+                .aeronDirectoryName(aeronDirectoryName)
+                .archiveDir(new File(directory, "archive"))
+                .threadingMode(ArchiveThreadingMode.SHARED)
+                .deleteArchiveOnStart(true));
+        aeronArchive = AeronArchive.connect(new AeronArchive.Context().aeronDirectoryName(aeronDirectoryName));
+
+        populateIndex(logFileDir);
+
+        replayQuery = new ReplayQuery(
+            logFileDir,
+            DEFAULT_LOGGER_CACHE_NUM_SETS,
+            DEFAULT_LOGGER_CACHE_SET_SIZE,
+            LoggerUtil::mapExistingFile,
+            STREAM_ID,
+            new NoOpIdleStrategy(),
+            aeronArchive,
+            Throwable::printStackTrace,
+            DEFAULT_ARCHIVE_REPLAY_STREAM,
+            true);
+
+        // Resend requests are normally for the most recent messages.
+        beginSequenceNumber = INDEXED_MESSAGES - queriedMessages + 1;
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        CloseHelper.close(replayQuery);
+        CloseHelper.close(aeronArchive);
+        CloseHelper.close(mediaDriver);
+        IoUtil.delete(directory, true);
+    }
+
+    @Benchmark
+    public ReplayOperation query()
+    {
+        final ReplayOperation operation = replayQuery.query(
+            handler,
+            FIX_SESSION_ID,
+            beginSequenceNumber,
+            SEQUENCE_INDEX,
+            INDEXED_MESSAGES,
+            SEQUENCE_INDEX,
+            LogTag.REPLAY);
+        replayQuery.release(operation);
+
+        return operation;
+    }
+
+    private static void populateIndex(final String logFileDir)
+    {
+        final ArchivedMessages messages = new ArchivedMessages();
+        final ReplayIndex replayIndex = new ReplayIndex(
+            logFileDir,
+            STREAM_ID,
+            DEFAULT_REPLAY_INDEX_FILE_SIZE,
+            DEFAULT_LOGGER_CACHE_NUM_SETS,
+            DEFAULT_LOGGER_CACHE_SET_SIZE,
+            LoggerUtil::mapNewFile,
+            replayPositionBuffer(logFileDir, STREAM_ID),
+            Throwable::printStackTrace,
+            recordingIdLookup());
+
+        for (int sequenceNumber = 1; sequenceNumber <= INDEXED_MESSAGES; sequenceNumber++)
+        {
+            final int length = messages.next(sequenceNumber);
+            replayIndex.onFragment(messages.buffer(), HEADER_LENGTH, length, messages.header());
+        }
+
+        replayIndex.close();
+    }
+}
@@ -29,9 +29,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasItems;
 import static uk.co.real_logic.artio.TestFixtures.largeTestReqId;
 import static uk.co.real_logic.artio.TestFixtures.launchMediaDriver;
+import static uk.co.real_logic.artio.Timing.assertEventuallyTrue;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_ARCHIVE_SCANNER_STREAM;
 import static uk.co.real_logic.artio.system_tests.SystemTestUtil.*;
 
@@ -96,6 +98,54 @@ public class ArchiveScannerIntegrationTest extends AbstractGatewayToGatewaySyste
         assertArchiveContainsMessages("hi");
     }
 
+    @Test
+    public void canScanArchiveBySessionAcrossRecordings()
+    {
+        setupAndExchangeMessages();
+
+        final long sessionId = acceptingHandler.awaitSessionId(testSystem::poll);
+        final EngineConfiguration configuration = acceptingEngine.configuration();
+        final List<String> messages = new ArrayList<>();
+        final List<Long> timestamps = new ArrayList<>();
+        final FixMessageConsumer fixMessageConsumer =
+            (message, buffer, offset, length, header) ->
+            {
+                messages.add(message.body());
+                timestamps.add(message.timestamp());
+            };
+
+        final FixArchiveScanner.Context context = new FixArchiveScanner.Context()
+            .aeronDirectoryName(configuration.aeronContext().aeronDirectoryName())
+            .idleStrategy(CommonConfiguration.backoffIdleStrategy())
+            .logFileDir(configuration.logFileDir());
+
+        try (FixArchiveScanner scanner = new FixArchiveScanner(context))
+        {
+            // The inbound and outbound streams are separate recordings, so their ranges are merged by timestamp.
+            final int[] streamIds = {configuration.inboundLibraryStream(), configuration.outboundLibraryStream()};
+            assertEventuallyTrue("Session's messages weren't scanned: " + messages, () ->
+            {
+                messages.clear();
+                timestamps.clear();
+                scanner.scanSession(sessionId, streamIds, fixMessageConsumer, DEFAULT_ARCHIVE_SCANNER_STREAM);
+
+                return containsMessage(messages, "35=A\00149=initiator\00156=acceptor") &&
+                    containsMessage(messages, "35=A\00149=acceptor\00156=initiator") &&
+                    containsMessage(messages, "35=1\001");
+            });
+        }
+
+        for (int i = 1; i < timestamps.size(); i++)
+        {
+            assertThat(timestamps.toString(), timestamps.get(i), greaterThanOrEqualTo(timestamps.get(i - 1)));
+        }
+    }
+
+    private static boolean containsMessage(final List<String> messages, final String fragment)
+    {
+        return messages.stream().anyMatch((message) -> message.contains(fragment));
+    }
+
     private void setupAndExchangeMessages()
     {
         messagesCanBeExchanged();